@@ -94,7 +94,9 @@ public class Controleur implements EventHandler<ActionEvent> {
 
     /**
      * Crée un listener pour détecter le changement de scénario sélectionné.
-     * Applique le scénario sélectionné à tous les modules d'affichage.
+     * Applique le scénario sélectionné à tous les modules d'affichage, chacun ne
+     * recalculant qu'une fois ; les résultats déjà calculés viennent du
+     * {@link CacheResultats} partagé.
      *
      * @return ChangeListener à attacher au ToggleGroup des scénarios.
      */
@@ -103,14 +105,9 @@ public class Controleur implements EventHandler<ActionEvent> {
             if (newToggle != null) {
                 int selectedScenario = (int) newToggle.getUserData();
                 try {
-                    affichageTriTopologiqueInstance.setExtraction(extraction);
-                    affichageTriTopologiqueInstance.setScenarioIndex(selectedScenario);
-
-                    affichageHeuristiqueGloutonInstance.setExtraction(extraction);
-                    affichageHeuristiqueGloutonInstance.setScenarioIndex(selectedScenario);
-
-                    affichageKSolutionsInstance.setExtraction(extraction);
-                    affichageKSolutionsInstance.setScenarioIndex(selectedScenario);
+                    affichageTriTopologiqueInstance.setScenario(extraction, selectedScenario);
+                    affichageHeuristiqueGloutonInstance.setScenario(extraction, selectedScenario);
+                    affichageKSolutionsInstance.setScenario(extraction, selectedScenario);
 
                     scenarioPanel.setScenario(extraction, selectedScenario);
                 } catch (FileNotFoundException e) {
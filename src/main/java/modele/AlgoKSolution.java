@@ -2,6 +2,12 @@ package modele;
 
 import java.io.FileNotFoundException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Version optimisée de l'algorithme K meilleures solutions.
@@ -12,7 +18,19 @@ import java.util.*;
  * 3. Limite dynamique du nombre de solutions gardées
  * 4. Calcul incrémental des distances
  * 5. Heuristiques de tri des sommets
- * 6. Détection efficace des doublons basée sur le parcours final
+ * 6. Pas de doublon : un ordre de sommets correspond à un seul parcours de villes
+ * 7. Recherche parallèle optionnelle (fork-join) avec borne partagée entre threads
+ * 8. Budgets configurables ({@link OptionsResolution}) vérifiés tous les N calculs,
+ *    annulation coopérative et statut de fin dans {@link ResultatResolution}
+ * 9. Table de transposition sur les états (sommets placés, ville courante), partagée
+ *    par les threads : l'arbre passe d'une taille factorielle à une taille exponentielle
+ * 10. Pour les petits scénarios, calcul exact des K meilleures solutions par
+ *    étiquetage sur le graphe des états ({@link EtiquetageKSolutions})
+ * 11. Pour la meilleure solution seule, les villes qui ne vendent rien ou n'achètent
+ *    rien ne forment qu'un arrêt ({@link ReductionSommets}) : moins de sommets à placer
+ * 12. Amorce par le meilleur parcours de {@link HeuristiqueInsertion} et du glouton :
+ *    pour K = 1 elle borne la recherche dès le départ, et une recherche interrompue
+ *    rend au pire ce parcours
  */
 public class AlgoKSolution {
     private int kLimite;
@@ -20,24 +38,34 @@ public class AlgoKSolution {
     private final int numeroScenario;
     private final List<String[]> ventes;
     private final Set<String> villes;
-    private final PriorityQueue<ResultatSolution> topKSolutions;
-    private int meilleureDistanceActuelle = Integer.MAX_VALUE;
-
-    // Changement : utiliser le parcours final comme clé unique au lieu de l'ordre des sommets
-    private final Set<String> parcoursUniques = new HashSet<>();
-    private final Map<String, Integer> distancesParParcours = new HashMap<>();
-
-    private static final long LIMITE_TEMPS_MS = 10_000; // 10 secondes
-    private static final int LIMITE_CALCULS = 500_000; // Nombre max de branches explorées
-    private long debutExecution;
-    private int compteurCalculs;
-
-    // Cache des distances pour éviter les recalculs
-    private final Map<String, Integer> cacheDistances = new HashMap<>();
-
-    // Graphe des dépendances pour l'ordre topologique
-    private final Map<String, Set<String>> dependances = new HashMap<>();
-    private final Map<String, Integer> compteurPredecesseurs = new HashMap<>();
+    // Scénario déjà compilé fourni au constructeur, ou null pour le compiler depuis l'extraction
+    private final ScenarioCompile scenarioFourni;
+    private final List<ResultatSolution> topKSolutions = new ArrayList<>();
+
+    private OptionsResolution options = OptionsResolution.parDefaut();
+
+    // Profondeur jusqu'à laquelle la recherche parallèle découpe l'arbre en tâches
+    private static final int PROFONDEUR_PARALLELE = 2;
+    // Le temps, l'annulation et le compteur partagé ne sont consultés que tous les N calculs
+    private static final int INTERVALLE_VERIFICATION = 1024;
+    // Au-delà, l'étiquetage exact devient trop coûteux en mémoire : branch and bound seul
+    static final int SEUIL_SOMMETS_ETIQUETAGE = 20;
+    // Nombre de coûts mémorisés par la table de transposition
+    private static final int CAPACITE_TABLE_TRANSPOSITION = 1 << 18;
+
+    // État partagé d'une exécution : borne courante (K-ième meilleure distance) et calculs
+    private ScenarioCompile scenario;
+    // Réduction dont scenario est issu, ou null si la recherche porte sur le scénario d'origine
+    private ReductionSommets reduction;
+    private int[] ordreHeuristique;
+    private ResultatSolution amorce;
+    private AtomicInteger borne;
+    // États (sommets placés, ville courante) déjà atteints par un préfixe moins cher, ou null
+    private TableTransposition table;
+    private AtomicLong compteurCalculs;
+    private long echeanceNanos;
+    private volatile ResultatResolution.Statut arret;
+    private ResultatResolution dernierResultat;
 
     /**
      * Génère un résumé du meilleur scénario parmi les K meilleures solutions possibles
@@ -61,38 +89,142 @@ public class AlgoKSolution {
     }
 
     /**
-     * Génère les K meilleures solutions optimisées pour le scénario courant.
+     * Génère les K meilleures solutions optimisées pour le scénario courant,
+     * avec les options de l'instance (voir {@link #setOptions}).
      *
      * @param k Le nombre de solutions à générer.
      * @return Une liste triée des meilleures solutions par distance croissante.
      * @throws Exception Si une erreur se produit pendant le calcul.
      */
     public List<ResultatSolution> genererKSolutionsResume(int k) throws Exception {
-        this.kLimite = k;
-        this.debutExecution = System.currentTimeMillis();
-        this.compteurCalculs = 0;
-        afficherContraintes();
+        resoudre(options.avecK(k));
+        return new ArrayList<>(topKSolutions);
+    }
 
-        construireGrapheDependances();
-        List<String> sommets = new ArrayList<>();
-        for (String ville : villes) {
-            sommets.add(ville + "+");
-            sommets.add(ville + "-");
+    /**
+     * Recherche les K meilleures solutions dans les limites données par les options.
+     * Jusqu'à {@link #SEUIL_SOMMETS_ETIQUETAGE} sommets, elles sont calculées exactement
+     * par étiquetage ; sinon (ou si l'étiquetage dépasse sa mémoire), par branch and
+     * bound. Selon le parallélisme choisi, l'arbre de recherche est parcouru sur un
+     * seul thread ou découpé en tâches sur un pool fork-join. Pour K = 1, la recherche
+     * porte sur le scénario réduit par {@link ReductionSommets} (si les options le
+     * permettent), et ses ordres sont étendus aux sommets d'origine. Au-delà de
+     * {@link ScenarioCompile#MAX_SOMMETS_MASQUE} sommets (après réduction), la recherche
+     * exacte est impossible : le parcours de {@link HeuristiqueInsertion} est rendu
+     * avec le statut APPROCHE.
+     *
+     * La recherche s'arrête quand l'arbre est épuisé, quand le budget de temps ou
+     * de calculs est atteint, quand le jeton d'annulation est déclenché ou quand le
+     * thread appelant est interrompu. Dans tous les cas, les meilleures solutions
+     * trouvées jusque-là sont retournées avec le statut correspondant.
+     *
+     * @param options Les paramètres de la résolution (K, budgets, threads, annulation).
+     * @return Le résultat contenant le statut et les solutions triées par distance croissante.
+     * @throws Exception Si le scénario ne peut pas être compilé.
+     */
+    public ResultatResolution resoudre(OptionsResolution options) throws Exception {
+        long debut = System.currentTimeMillis();
+        this.kLimite = options.getK();
+        this.topKSolutions.clear();
+
+        if (kLimite <= 0) {
+            dernierResultat = new ResultatResolution(ResultatResolution.Statut.OPTIMAL, new ArrayList<>(), 0, 0);
+            return dernierResultat;
         }
 
-        // Tri heuristique
-        sommets.sort((a, b) -> {
-            int depA = dependances.getOrDefault(a, Collections.emptySet()).size();
-            int depB = dependances.getOrDefault(b, Collections.emptySet()).size();
-            return Integer.compare(depB, depA);
-        });
+        scenario = compiler();
+        // La réduction garde la meilleure solution, pas toujours les K meilleures
+        reduction = kLimite == 1 && options.utiliseReduction() ? ReductionSommets.reduire(scenario) : null;
+        if (reduction != null) {
+            scenario = reduction.getScenarioReduit();
+        }
+        if (!scenario.estMasquable()) {
+            return resoudreSansMasque(debut);
+        }
+        ordreHeuristique = construireOrdreHeuristique();
+        amorce = construireAmorce();
+        // Pour K > 1, la borne est la K-ième meilleure distance : l'amorce seule ne la fixe pas
+        borne = new AtomicInteger(kLimite == 1 ? amorce.resume.distanceTotale : Integer.MAX_VALUE);
+        compteurCalculs = new AtomicLong();
+        table = options.utiliseTableTransposition() ? new TableTransposition(kLimite,
+                CAPACITE_TABLE_TRANSPOSITION, options.getParallelisme() > 1) : null;
+        echeanceNanos = options.calculerEcheanceNanos();
+        arret = options.getJeton().estAnnule() ? ResultatResolution.Statut.ANNULE : null;
+
+        // Petits scénarios : étiquetage exact sur le graphe des états
+        if (arret == null && options.utiliseEtiquetage() && scenario.nbSommets() <= SEUIL_SOMMETS_ETIQUETAGE) {
+            EtiquetageKSolutions etiquetage = new EtiquetageKSolutions(scenario);
+            ResultatResolution exact = etiquetage.resoudre(options);
+            if (exact.statut != ResultatResolution.Statut.BUDGET_EPUISE) {
+                for (int i = 0; i < exact.solutions.size(); i++) {
+                    topKSolutions.add(new ResultatSolution(nommerSommets(etiquetage.getOrdres().get(i)),
+                            exact.solutions.get(i)));
+                }
+                dernierResultat = new ResultatResolution(exact.statut, exact.solutions, exact.nbCalculs,
+                        System.currentTimeMillis() - debut);
+                return dernierResultat;
+            }
+            // Budget épuisé : on se rabat sur le branch and bound, qui donne des solutions au fil de l'eau
+        }
 
-        genererSolutionsOptimisees(new ArrayList<>(), new HashSet<>(), sommets, 0);
+        // Si le jeton est déjà déclenché, aucune exploration n'est lancée
+        List<Exploration> explorations = new CopyOnWriteArrayList<>();
+        if (arret == null && options.getParallelisme() <= 1) {
+            Exploration exploration = new Exploration(options);
+            explorations.add(exploration);
+            exploration.explorer(0, 0L, 0, 0);
+            exploration.reporterCalculs();
+        } else if (arret == null) {
+            ThreadLocal<Exploration> explorationParThread = ThreadLocal.withInitial(() -> {
+                Exploration exploration = new Exploration(options);
+                explorations.add(exploration);
+                return exploration;
+            });
+            ForkJoinPool pool = new ForkJoinPool(options.getParallelisme());
+            try {
+                ForkJoinTask<Long> tache = pool.submit(new TacheExploration(explorationParThread, new int[0], 0L, 0, 0));
+                try {
+                    tache.get();
+                } catch (InterruptedException e) {
+                    // Les threads du pool ne voient pas l'interruption de l'appelant : on la relaie
+                    arreter(ResultatResolution.Statut.ANNULE);
+                    tache.join();
+                    Thread.currentThread().interrupt();
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
 
-        List<ResultatSolution> resultats = new ArrayList<>(topKSolutions);
-        resultats.sort(Comparator.comparingInt(s -> s.resume.distanceTotale));
+        fusionnerSolutions(explorations);
+        List<ResumeScenario> solutions = new ArrayList<>();
+        for (ResultatSolution solution : topKSolutions) {
+            solutions.add(solution.resume);
+        }
+        ResultatResolution.Statut statut = arret == null ? ResultatResolution.Statut.OPTIMAL : arret;
+        dernierResultat = new ResultatResolution(statut, solutions, compteurCalculs.get(),
+                System.currentTimeMillis() - debut);
+        return dernierResultat;
+    }
 
-        return resultats.subList(0, Math.min(k, resultats.size()));
+    /**
+     * Au-delà de {@link ScenarioCompile#MAX_SOMMETS_MASQUE} sommets, les ensembles de
+     * sommets placés ne tiennent plus dans un masque : la recherche exacte est
+     * impossible et le parcours construit par {@link HeuristiqueInsertion} est rendu
+     * comme solution approchée, seule même si K > 1.
+     */
+    private ResultatResolution resoudreSansMasque(long debut) {
+        if (reduction != null) {
+            // L'insertion suppose les deux sommets de chaque ville : elle part du scénario d'origine
+            scenario = reduction.getScenarioOrigine();
+            reduction = null;
+        }
+        int[] ordre = new HeuristiqueInsertion(scenario).construire();
+        ResumeScenario resume = scenario.versResume(ordre);
+        topKSolutions.add(new ResultatSolution(nommerSommets(ordre), resume));
+        dernierResultat = new ResultatResolution(ResultatResolution.Statut.APPROCHE, List.of(resume), 0,
+                System.currentTimeMillis() - debut);
+        return dernierResultat;
     }
 
     private static class ResultatSolution {
@@ -108,10 +240,9 @@ public class AlgoKSolution {
     public AlgoKSolution(Extraction extraction, int numeroScenario) throws FileNotFoundException {
         this.extraction = extraction;
         this.numeroScenario = numeroScenario;
+        this.scenarioFourni = null;
         this.ventes = extraction.getVentes(numeroScenario);
         this.villes = new HashSet<>();
-        this.topKSolutions = new PriorityQueue<>((a, b) ->
-                Integer.compare(b.resume.distanceTotale, a.resume.distanceTotale)); // Max heap
 
         for (String[] vente : ventes) {
             String villeVendeur = vente[0].replace("+", "");
@@ -122,237 +253,291 @@ public class AlgoKSolution {
     }
 
     /**
-     * Construit le graphe des dépendances pour optimiser l'ordre de génération
+     * Crée l'algorithme pour un scénario déjà compilé, par exemple depuis un {@link Solveur}.
+     *
+     * @param scenario Le scénario compilé à résoudre.
      */
-    private void construireGrapheDependances() {
-        // Initialiser les structures
-        for (String ville : villes) {
-            String plus = ville + "+";
-            String minus = ville + "-";
-            dependances.put(plus, new HashSet<>());
-            dependances.put(minus, new HashSet<>());
-            compteurPredecesseurs.put(plus, 0);
-            compteurPredecesseurs.put(minus, 0);
-        }
-
-        // Ajouter les dépendances basées sur les ventes
-        for (String[] vente : ventes) {
-            String vendeur = vente[0];
-            String acheteur = vente[1];
-
-            dependances.get(vendeur).add(acheteur);
-            compteurPredecesseurs.put(acheteur, compteurPredecesseurs.get(acheteur) + 1);
+    public AlgoKSolution(ScenarioCompile scenario) {
+        this.extraction = null;
+        this.numeroScenario = scenario.getNumeroScenario();
+        this.scenarioFourni = scenario;
+        this.ventes = new ArrayList<>();
+        this.villes = new HashSet<>();
+        for (int i = 0; i < scenario.nbVentes(); i++) {
+            String villeVendeur = scenario.nomVilleIndex(scenario.ventesVendeur[i]);
+            String villeAcheteur = scenario.nomVilleIndex(scenario.ventesAcheteur[i]);
+            ventes.add(new String[]{villeVendeur + "+", villeAcheteur + "-"});
+            villes.add(villeVendeur);
+            villes.add(villeAcheteur);
         }
     }
 
+    private ScenarioCompile compiler() throws Exception {
+        return scenarioFourni != null ? scenarioFourni : ScenarioCompile.compiler(extraction, numeroScenario);
+    }
+
     /**
-     * Génère récursivement les solutions valides en respectant l'ordre topologique
-     * et applique des optimisations comme branch and bound et tri heuristique.
+     * Définit le nombre de threads utilisés par la recherche.
+     * Avec 1 (valeur par défaut), la recherche reste séquentielle ; au-delà, les
+     * premiers niveaux de l'arbre sont répartis sur un pool fork-join.
      *
-     * @param ordreCourant L'ordre partiel actuel des sommets.
-     * @param utilises Les sommets déjà utilisés.
-     * @param sommetsRestants Tous les sommets disponibles pour l'exploration.
-     * @param distancePartielle Distance actuelle calculée jusqu'à ce point.
-     * @throws Exception Si une erreur se produit lors du calcul de distance.
+     * @param parallelisme Le nombre de threads, par exemple
+     *                     {@code Runtime.getRuntime().availableProcessors()}.
      */
-    private void genererSolutionsOptimisees(List<String> ordreCourant, Set<String> utilises,
-                                            List<String> sommetsRestants, int distancePartielle) throws Exception {
-        // Condition d'arrêt temps ou calculs
-        if (System.currentTimeMillis() - debutExecution > LIMITE_TEMPS_MS || compteurCalculs++ > LIMITE_CALCULS) {
-            return;
-        }
-
-        if (distancePartielle >= meilleureDistanceActuelle) {
-            return;
-        }
-
-        if (ordreCourant.size() == sommetsRestants.size()) {
-            if (estSolutionValide(ordreCourant)) {
-                List<String> parcours = convertirEnParcours(ordreCourant);
-
-                // Créer une clé basée sur le parcours final (sans Velizy de début et fin)
-                String cleParcours = creerCleParcours(parcours);
-
-                // Vérifier si ce parcours existe déjà
-                if (parcoursUniques.contains(cleParcours)) {
-                    return; // Doublon détecté, ignorer
-                }
-
-                int distanceTotale = calculerDistanceComplete(parcours);
-
-                // Vérifier aussi si une distance identique existe pour ce parcours
-                if (distancesParParcours.containsKey(cleParcours) &&
-                        distancesParParcours.get(cleParcours) <= distanceTotale) {
-                    return; // Une solution identique ou meilleure existe déjà
-                }
-
-                // Enregistrer ce parcours comme unique
-                parcoursUniques.add(cleParcours);
-                distancesParParcours.put(cleParcours, distanceTotale);
-
-                if (distanceTotale < meilleureDistanceActuelle) {
-                    meilleureDistanceActuelle = distanceTotale;
-                }
-
-                ResumeScenario resume = new ResumeScenario(numeroScenario, parcours, distanceTotale);
-                ResultatSolution solution = new ResultatSolution(ordreCourant, resume);
-
-                if (topKSolutions.size() < kLimite) {
-                    topKSolutions.offer(solution);
-                } else if (distanceTotale < topKSolutions.peek().resume.distanceTotale) {
-                    topKSolutions.poll();
-                    topKSolutions.offer(solution);
-                    meilleureDistanceActuelle = Math.min(meilleureDistanceActuelle,
-                            topKSolutions.peek().resume.distanceTotale);
-                }
-            }
-            return;
-        }
-
-        List<String> candidatsValides = new ArrayList<>();
-        for (String sommet : sommetsRestants) {
-            if (!utilises.contains(sommet) && peutPlacerSommetOptimise(sommet, utilises)) {
-                candidatsValides.add(sommet);
-            }
-        }
-
-        candidatsValides.sort((a, b) -> {
-            int contraintesA = compterContraintesImposees(a, utilises);
-            int contraintesB = compterContraintesImposees(b, utilises);
-            return Integer.compare(contraintesB, contraintesA);
-        });
-
-        for (String sommet : candidatsValides) {
-            ordreCourant.add(sommet);
-            utilises.add(sommet);
-
-            int nouvelleDistance = distancePartielle + calculerDistanceIncrementale(ordreCourant);
-
-            genererSolutionsOptimisees(ordreCourant, utilises, sommetsRestants, nouvelleDistance);
-
-            ordreCourant.remove(ordreCourant.size() - 1);
-            utilises.remove(sommet);
-        }
+    public void setParallelisme(int parallelisme) {
+        this.options = options.avecParallelisme(parallelisme);
     }
 
     /**
-     * Crée une clé unique basée sur le parcours effectif des villes (sans les Velizy de début/fin)
-     * Cette clé permet de détecter les vrais doublons de parcours
+     * Définit les options (budgets, threads, annulation) utilisées par
+     * {@link #genererKSolutionsResume} et les méthodes qui en dépendent.
+     * Le K des options est ignoré au profit du K passé à ces méthodes.
+     *
+     * @param options Les options de résolution.
      */
-    private String creerCleParcours(List<String> parcours) {
-        if (parcours.size() <= 2) {
-            return ""; // Parcours vide ou minimal
-        }
+    public void setOptions(OptionsResolution options) {
+        this.options = options;
+    }
 
-        // Extraire le parcours sans les Velizy de début et fin
-        List<String> parcoursEffectif = parcours.subList(1, parcours.size() - 1);
-        return String.join("->", parcoursEffectif);
+    /**
+     * @return Le résultat de la dernière recherche (statut, solutions, statistiques),
+     *         ou null si aucune recherche n'a encore été lancée.
+     */
+    public ResultatResolution getDernierResultat() {
+        return dernierResultat;
     }
 
     /**
-     * Version optimisée de la vérification de placement
+     * Trie les sommets par nombre de dépendances imposées, décroissant : on essaie
+     * d'abord les vendeurs qui débloquent le plus d'acheteurs.
      */
-    private boolean peutPlacerSommetOptimise(String sommet, Set<String> utilises) {
-        if (sommet.endsWith("-")) {
-            String villeAcheteur = sommet.replace("-", "");
-
-            for (String[] vente : ventes) {
-                String villeVendeur = vente[0].replace("+", "");
-                String villeAcheteurVente = vente[1].replace("-", "");
-
-                if (villeAcheteurVente.equals(villeAcheteur)) {
-                    String sommetVendeur = villeVendeur + "+";
-                    if (!utilises.contains(sommetVendeur)) {
-                        return false;
-                    }
-                }
+    private int[] construireOrdreHeuristique() {
+        int n = scenario.nbSommets();
+        int[] dependances = new int[n];
+        for (int s = 0; s < n; s++) {
+            for (int p : scenario.predecesseurs(s)) {
+                dependances[p]++;
             }
         }
-        return true;
+        return java.util.stream.IntStream.range(0, n).boxed()
+                .sorted((a, b) -> Integer.compare(dependances[b], dependances[a]))
+                .mapToInt(Integer::intValue)
+                .toArray();
     }
 
     /**
-     * Compte combien de contraintes ce sommet impose aux choix futurs
+     * Construit le plus court des parcours de l'insertion la moins chère et du glouton
+     * (aucun des deux ne domine l'autre). L'insertion suppose les deux sommets de chaque
+     * ville : elle part du scénario d'origine, et son ordre est ramené au scénario de
+     * la recherche.
      */
-    private int compterContraintesImposees(String sommet, Set<String> utilises) {
-        return dependances.getOrDefault(sommet, Collections.emptySet()).size();
+    private ResultatSolution construireAmorce() {
+        ScenarioCompile origine = reduction != null ? reduction.getScenarioOrigine() : scenario;
+        int[] insertion = new HeuristiqueInsertion(origine).construire();
+        if (reduction != null) {
+            insertion = reduction.reduireOrdre(insertion);
+        }
+        int[] glouton = new GloutonMultiDepart(scenario, 0, 1, 0).construire(new SplittableRandom(0));
+        int[] ordre = scenario.coutOrdre(glouton) < scenario.coutOrdre(insertion) ? glouton : insertion;
+        return new ResultatSolution(nommerSommets(ordre),
+                new ResumeScenario(numeroScenario, scenario.versParcours(ordre), scenario.coutOrdre(ordre)));
     }
 
     /**
-     * Calcule la distance incrémentale lors de l'ajout d'un sommet
+     * Tâche fork-join couvrant le sous-arbre d'un préfixe donné. Tant que le préfixe
+     * est plus court que {@link #PROFONDEUR_PARALLELE}, chaque candidat devient une
+     * sous-tâche ; ensuite le sous-arbre est exploré en profondeur par l'exploration
+     * du thread courant.
      */
-    private int calculerDistanceIncrementale(List<String> ordre) throws Exception {
-        if (ordre.size() < 2) return 0;
+    private final class TacheExploration extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final ThreadLocal<Exploration> explorationParThread;
+        private final int[] prefixe;
+        private final long places;
+        private final int villeCourante;
+        private final int distance;
+
+        TacheExploration(ThreadLocal<Exploration> explorationParThread, int[] prefixe,
+                         long places, int villeCourante, int distance) {
+            this.explorationParThread = explorationParThread;
+            this.prefixe = prefixe;
+            this.places = places;
+            this.villeCourante = villeCourante;
+            this.distance = distance;
+        }
 
-        String dernierSommet = ordre.get(ordre.size() - 1);
-        String avantDernierSommet = ordre.get(ordre.size() - 2);
+        @Override
+        protected Long compute() {
+            int profondeur = prefixe.length;
+            if (profondeur >= PROFONDEUR_PARALLELE || profondeur == scenario.nbSommets()) {
+                Exploration exploration = explorationParThread.get();
+                long avant = exploration.calculs;
+                System.arraycopy(prefixe, 0, exploration.ordre, 0, profondeur);
+                exploration.explorer(profondeur, places, villeCourante, distance);
+                exploration.reporterCalculs();
+                return exploration.calculs - avant;
+            }
 
-        String dernierVille = dernierSommet.replace("+", "").replace("-", "");
-        String avantDerniereVille = avantDernierSommet.replace("+", "").replace("-", "");
+            List<TacheExploration> sousTaches = new ArrayList<>();
+            for (int sommet : ordreHeuristique) {
+                if ((places & (1L << sommet)) == 0
+                        && (scenario.masquePredecesseurs[sommet] & ~places) == 0) {
+                    int[] suivant = Arrays.copyOf(prefixe, profondeur + 1);
+                    suivant[profondeur] = sommet;
+                    int ville = scenario.villeDuSommet[sommet];
+                    sousTaches.add(new TacheExploration(explorationParThread, suivant, places | (1L << sommet),
+                            ville, distance + scenario.distances[villeCourante][ville]));
+                }
+            }
 
-        if (dernierVille.equals(avantDerniereVille)) {
-            return 0; // Pas de déplacement
+            long calculs = 1;
+            for (TacheExploration tache : invokeAll(sousTaches)) {
+                calculs += tache.join();
+            }
+            return calculs;
         }
+    }
 
-        String cle = avantDerniereVille + "->" + dernierVille;
-        if (cacheDistances.containsKey(cle)) {
-            return cacheDistances.get(cle);
+    /**
+     * État propre à un thread de recherche : préfixe courant et tas des K meilleures
+     * solutions trouvées par ce thread. La borne, le compteur de calculs et la table
+     * de transposition sont partagés entre threads.
+     */
+    private final class Exploration {
+        final int[] ordre = new int[scenario.nbSommets()];
+        final PriorityQueue<ResultatSolution> meilleures = new PriorityQueue<>((a, b) ->
+                Integer.compare(b.resume.distanceTotale, a.resume.distanceTotale)); // Max heap
+        private final long limiteCalculs;
+        private final JetonAnnulation jeton;
+        long calculs;
+        private int calculsNonReportes;
+
+        Exploration(OptionsResolution options) {
+            this.limiteCalculs = options.getLimiteCalculs();
+            this.jeton = options.getJeton();
         }
 
-        int distance = extraction.distanceVilleToVille(avantDerniereVille, dernierVille);
-        cacheDistances.put(cle, distance);
-        return distance;
-    }
+        /**
+         * Génère récursivement les solutions valides en respectant l'ordre topologique
+         * et applique des optimisations comme branch and bound et tri heuristique.
+         *
+         * @param profondeur Nombre de sommets déjà placés dans {@code ordre}.
+         * @param places Masque des sommets déjà placés.
+         * @param villeCourante Ville du dernier sommet placé (0 pour Velizy).
+         * @param distance Distance parcourue depuis Velizy jusqu'à ce point.
+         */
+        void explorer(int profondeur, long places, int villeCourante, int distance) {
+            // Condition d'arrêt : budget épuisé ou annulation
+            if (!compterCalcul()) {
+                return;
+            }
 
-    private boolean estSolutionValide(List<String> ordre) {
-        for (String[] vente : ventes) {
-            String vendeur = vente[0];
-            String acheteur = vente[1];
+            if (distance >= borne.get()) {
+                return;
+            }
 
-            int indexVendeur = ordre.indexOf(vendeur);
-            int indexAcheteur = ordre.indexOf(acheteur);
+            int n = ordre.length;
+            if (profondeur == n) {
+                enregistrerSolution(distance + scenario.distances[villeCourante][0]);
+                return;
+            }
 
-            if (indexVendeur == -1 || indexAcheteur == -1 || indexVendeur >= indexAcheteur) {
-                return false;
+            if (table != null && profondeur > 0 && !table.enregistrer(places, villeCourante, distance)) {
+                return;
+            }
+
+            for (int sommet : ordreHeuristique) {
+                if ((places & (1L << sommet)) == 0
+                        && (scenario.masquePredecesseurs[sommet] & ~places) == 0) {
+                    ordre[profondeur] = sommet;
+                    int ville = scenario.villeDuSommet[sommet];
+                    explorer(profondeur + 1, places | (1L << sommet), ville,
+                            distance + scenario.distances[villeCourante][ville]);
+                }
             }
         }
-        return true;
-    }
 
-    private List<String> convertirEnParcours(List<String> ordre) {
-        List<String> parcours = new ArrayList<>();
-        parcours.add("Velizy");
+        /**
+         * Compte un calcul et, tous les {@link #INTERVALLE_VERIFICATION} calculs seulement,
+         * reporte le compteur local et vérifie le temps, le jeton et l'interruption.
+         *
+         * @return false si la recherche doit s'arrêter.
+         */
+        private boolean compterCalcul() {
+            calculs++;
+            if (++calculsNonReportes >= INTERVALLE_VERIFICATION) {
+                reporterCalculs();
+                if (jeton.estAnnule() || Thread.currentThread().isInterrupted()) {
+                    arreter(ResultatResolution.Statut.ANNULE);
+                } else if (System.nanoTime() - echeanceNanos > 0) {
+                    arreter(ResultatResolution.Statut.BUDGET_EPUISE);
+                }
+            }
+            return arret == null;
+        }
+
+        void reporterCalculs() {
+            if (compteurCalculs.addAndGet(calculsNonReportes) > limiteCalculs) {
+                arreter(ResultatResolution.Statut.BUDGET_EPUISE);
+            }
+            calculsNonReportes = 0;
+        }
 
-        String derniereVille = "Velizy";
-        for (String sommet : ordre) {
-            String ville = sommet.replace("+", "").replace("-", "");
-            if (!ville.equals(derniereVille)) {
-                parcours.add(ville);
-                derniereVille = ville;
+        private void enregistrerSolution(int distanceTotale) {
+            if (distanceTotale >= borne.get()) {
+                return;
+            }
+            // Chaque ordre de sommets donne un parcours différent (arc "a+" → "a-") : pas de doublon possible
+            meilleures.offer(new ResultatSolution(nommerSommets(ordre),
+                    new ResumeScenario(numeroScenario, scenario.versParcours(ordre), distanceTotale)));
+            if (meilleures.size() > kLimite) {
+                meilleures.poll();
+            }
+            // Les K solutions de ce thread bornent aussi la K-ième meilleure globale
+            if (meilleures.size() == kLimite) {
+                borne.accumulateAndGet(meilleures.peek().resume.distanceTotale, Math::min);
             }
         }
+    }
 
-        parcours.add("Velizy");
-        return parcours;
+    /**
+     * Mémorise la première raison d'arrêt rencontrée par l'un des threads.
+     */
+    private synchronized void arreter(ResultatResolution.Statut statut) {
+        if (arret == null) {
+            arret = statut;
+        }
     }
 
-    private int calculerDistanceComplete(List<String> parcours) throws Exception {
-        int distance = 0;
-        for (int i = 0; i < parcours.size() - 1; i++) {
-            String from = parcours.get(i);
-            String to = parcours.get(i + 1);
-            if (!from.equals(to)) {
-                String cle = from + "->" + to;
-                if (cacheDistances.containsKey(cle)) {
-                    distance += cacheDistances.get(cle);
-                } else {
-                    int dist = extraction.distanceVilleToVille(from, to);
-                    cacheDistances.put(cle, dist);
-                    distance += dist;
-                }
+    /**
+     * Fusionne les tas de chaque thread et l'amorce en une liste triée, limitée aux K
+     * meilleures solutions. Les sous-arbres des threads sont disjoints ; seule l'amorce,
+     * que la recherche peut retrouver quand K > 1, est un doublon possible.
+     */
+    private void fusionnerSolutions(List<Exploration> explorations) {
+        List<ResultatSolution> toutes = new ArrayList<>();
+        toutes.add(amorce);
+        for (Exploration exploration : explorations) {
+            toutes.addAll(exploration.meilleures);
+        }
+        toutes.sort(Comparator.<ResultatSolution>comparingInt(s -> s.resume.distanceTotale)
+                .thenComparing(s -> String.join("->", s.resume.ordreVisite)));
+        Set<List<String>> vus = new HashSet<>();
+        for (ResultatSolution solution : toutes) {
+            if (topKSolutions.size() < kLimite && vus.add(solution.ordreSommets)) {
+                topKSolutions.add(solution);
             }
         }
-        return distance;
+    }
+
+    private List<String> nommerSommets(int[] ordre) {
+        ScenarioCompile origine = reduction != null ? reduction.getScenarioOrigine() : scenario;
+        List<String> noms = new ArrayList<>();
+        for (int sommet : reduction != null ? reduction.etendre(ordre) : ordre) {
+            noms.add(origine.nomSommet(sommet));
+        }
+        return noms;
     }
 
     private void afficherContraintes() {
@@ -370,14 +555,41 @@ public class AlgoKSolution {
     }
 
     // Méthodes de compatibilité avec l'interface existante
+    /**
+     * Affiche les K meilleures solutions du scénario. Si le {@link Planificateur} prévoit
+     * que le calcul exact ne tient pas dans le délai des options, la méthode qu'il choisit
+     * (A*, portefeuille anytime ou heuristiques) donne les meilleures solutions possibles
+     * dans ce délai.
+     *
+     * @param k Le nombre de solutions à afficher.
+     * @throws Exception Si le scénario ne peut pas être compilé ou résolu.
+     */
     public void genererKSolutions(int k) throws Exception {
-        if (numeroScenario >=  2 ) {
-            System.out.println("Erreur : Scénario sélectionné trop complexe");
-            return;
+        afficherContraintes();
+        List<ResultatSolution> solutions;
+        ScenarioCompile compile = compiler();
+        Planificateur.Plan plan = k <= 0 ? null : new Planificateur().planifier(compile, options.avecK(k));
+        if (plan == null || plan.solveur == Solveurs.K_SOLUTIONS) {
+            solutions = genererKSolutionsResume(k);
+        } else {
+            System.out.println("Methode choisie : " + plan);
+            dernierResultat = plan.solveur.resoudre(compile, plan.options);
+            topKSolutions.clear();
+            for (ResumeScenario resume : dernierResultat.solutions) {
+                List<String> noms = new ArrayList<>();
+                for (int sommet : compile.versOrdre(resume.ordreVisite)) {
+                    noms.add(compile.nomSommet(sommet));
+                }
+                topKSolutions.add(new ResultatSolution(noms, resume));
+            }
+            solutions = new ArrayList<>(topKSolutions);
         }
-        List<ResultatSolution> solutions = genererKSolutionsResume(k);
 
         System.out.println("Nombre total de solutions uniques trouvees : " + solutions.size());
+        if (!dernierResultat.estOptimal()) {
+            System.out.println("Recherche incomplete (" + dernierResultat.statut
+                    + ") : meilleures solutions trouvees avant l'arret.");
+        }
         System.out.println();
 
         if (solutions.isEmpty()) {
@@ -439,6 +651,20 @@ public class AlgoKSolution {
         return resultats;
     }
 
+    /**
+     * Énumère les solutions du scénario par distance croissante, sans fixer K à
+     * l'avance : demander une solution de plus ne relance pas la recherche.
+     *
+     * Exemple, pour afficher 10 solutions de plus :
+     * {@code enumerateur.stream().limit(10).forEach(...)}
+     *
+     * @return Un itérateur paresseux sur les solutions.
+     * @throws Exception Si le scénario ne peut pas être compilé.
+     */
+    public EnumerateurSolutions enumererSolutions() throws Exception {
+        return new EnumerateurSolutions(compiler());
+    }
+
     public int getNombreSolutions() {
         return topKSolutions.size();
     }
@@ -0,0 +1,351 @@
+package modele;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Algorithme génétique sur l'ordre des sommets.
+ *
+ * La population est une matrice d'entiers (un individu par ligne) et ses distances
+ * un tableau parallèle : aucun objet n'est créé par individu. Elle est initialisée
+ * par le glouton aléatoire de {@link GloutonMultiDepart}, puis chaque génération :
+ * - garde telles quelles les {@code nbElites} meilleures solutions (élitisme) ;
+ * - produit les autres par croisement de deux parents choisis par tournoi ;
+ * - fait muter chaque enfant avec une probabilité donnée.
+ *
+ * Le croisement est un croisement d'ordre (OX) : un segment du premier parent est
+ * recopié à sa place, le reste est complété dans l'ordre du second. L'enfant peut
+ * alors placer un "-" avant un "+" dont il dépend ; il est réparé en reprenant ses
+ * sommets dans l'ordre et en retardant chaque sommet non placable jusqu'à ce que
+ * ses prédécesseurs soient placés.
+ *
+ * La mutation déplace une paire "v+" / "v-" : les deux sommets d'une ville sont
+ * retirés et réinsérés à des positions tirées au hasard parmi celles qui respectent
+ * les contraintes.
+ *
+ * Les enfants d'une génération sont construits et évalués en parallèle sur le
+ * nombre de threads des options. Le générateur de chaque enfant est tiré de la
+ * graine dans l'ordre des individus avant le lancement, ce qui rend le résultat
+ * identique quel que soit le parallélisme.
+ */
+public class AlgorithmeGenetique {
+    public static final int TAILLE_POPULATION_PAR_DEFAUT = 200;
+    public static final int NB_GENERATIONS_PAR_DEFAUT = 500;
+    public static final int NB_ELITES_PAR_DEFAUT = 4;
+    public static final double TAUX_MUTATION_PAR_DEFAUT = 0.3;
+    private static final int TAILLE_TOURNOI = 3;
+    // Degré de hasard des individus initiaux (voir GloutonMultiDepart)
+    private static final double ALPHA_INITIAL = 0.3;
+
+    private final ScenarioCompile scenario;
+    private final int n;
+    private final long graine;
+    private final int taillePopulation;
+    private final int nbGenerations;
+    private final int nbElites;
+    private final double tauxMutation;
+
+    private int[] meilleurOrdre;
+    private int nbGenerationsFaites;
+
+    public AlgorithmeGenetique(ScenarioCompile scenario, long graine) {
+        this(scenario, graine, TAILLE_POPULATION_PAR_DEFAUT, NB_GENERATIONS_PAR_DEFAUT,
+                NB_ELITES_PAR_DEFAUT, TAUX_MUTATION_PAR_DEFAUT);
+    }
+
+    /**
+     * @param scenario Le scénario compilé à résoudre.
+     * @param graine La graine dont est dérivé tout le hasard de la recherche.
+     * @param taillePopulation Le nombre d'individus par génération.
+     * @param nbGenerations Le nombre maximal de générations.
+     * @param nbElites Le nombre de meilleurs individus recopiés d'une génération à l'autre.
+     * @param tauxMutation La probabilité qu'un enfant subisse une mutation.
+     */
+    public AlgorithmeGenetique(ScenarioCompile scenario, long graine, int taillePopulation,
+                               int nbGenerations, int nbElites, double tauxMutation) {
+        if (taillePopulation < 2 || nbGenerations < 0 || nbElites < 0 || nbElites >= taillePopulation
+                || tauxMutation < 0 || tauxMutation > 1) {
+            throw new IllegalArgumentException("Paramètres invalides : population " + taillePopulation
+                    + ", " + nbGenerations + " générations, " + nbElites + " élites, mutation " + tauxMutation);
+        }
+        this.scenario = scenario;
+        this.n = scenario.nbSommets();
+        this.graine = graine;
+        this.taillePopulation = taillePopulation;
+        this.nbGenerations = nbGenerations;
+        this.nbElites = nbElites;
+        this.tauxMutation = tauxMutation;
+    }
+
+    /**
+     * Fait évoluer la population jusqu'au nombre de générations, au délai ou à la
+     * limite de calculs (nombre d'individus évalués) des options.
+     *
+     * @param options Les options de résolution (K, délai, limite de calculs, parallélisme, annulation).
+     * @return Le résultat APPROCHE (ANNULE si annulé) avec les K meilleurs individus distincts.
+     */
+    public ResultatResolution resoudre(OptionsResolution options) {
+        long debut = System.currentTimeMillis();
+        long echeance = options.calculerEcheanceNanos();
+        JetonAnnulation jeton = options.getJeton();
+        SplittableRandom aleatoire = new SplittableRandom(graine);
+
+        int[][] population = new int[taillePopulation][];
+        int[] couts = new int[taillePopulation];
+        int[][] suivante = new int[taillePopulation][];
+        int[] coutsSuivants = new int[taillePopulation];
+        SplittableRandom[] generateurs = new SplittableRandom[taillePopulation];
+
+        ForkJoinPool pool = options.getParallelisme() > 1 ? new ForkJoinPool(options.getParallelisme()) : null;
+        ResultatResolution.Statut statut = ResultatResolution.Statut.APPROCHE;
+        long evaluations = 0;
+        nbGenerationsFaites = 0;
+        try {
+            GloutonMultiDepart glouton = new GloutonMultiDepart(scenario, graine, 1, ALPHA_INITIAL);
+            diviser(aleatoire, generateurs);
+            executer(pool, i -> {
+                population[i] = glouton.construire(generateurs[i]);
+                couts[i] = scenario.coutOrdre(population[i]);
+            });
+            evaluations += taillePopulation;
+
+            int[][] pop = population;
+            int[] cts = couts;
+            int[][] suiv = suivante;
+            int[] ctsSuiv = coutsSuivants;
+            while (nbGenerationsFaites < nbGenerations) {
+                if (jeton.estAnnule() || Thread.currentThread().isInterrupted()) {
+                    statut = ResultatResolution.Statut.ANNULE;
+                    break;
+                }
+                if (System.nanoTime() - echeance > 0
+                        || evaluations + taillePopulation - nbElites > options.getLimiteCalculs()) {
+                    break;
+                }
+
+                Integer[] rangs = trierParCout(cts);
+                for (int e = 0; e < nbElites; e++) {
+                    suiv[e] = pop[rangs[e]];
+                    ctsSuiv[e] = cts[rangs[e]];
+                }
+                diviser(aleatoire, generateurs);
+                int[][] parents = pop;
+                int[] coutsParents = cts;
+                int[][] enfants = suiv;
+                int[] coutsEnfants = ctsSuiv;
+                executer(pool, i -> {
+                    if (i >= nbElites) {
+                        SplittableRandom hasard = generateurs[i];
+                        int[] pere = parents[tournoi(coutsParents, hasard)];
+                        int[] mere = parents[tournoi(coutsParents, hasard)];
+                        int[] enfant = croiser(pere, mere, hasard);
+                        if (hasard.nextDouble() < tauxMutation) {
+                            muter(enfant, hasard);
+                        }
+                        enfants[i] = enfant;
+                        coutsEnfants[i] = scenario.coutOrdre(enfant);
+                    }
+                });
+                evaluations += taillePopulation - nbElites;
+                nbGenerationsFaites++;
+
+                pop = enfants;
+                cts = coutsEnfants;
+                suiv = parents;
+                ctsSuiv = coutsParents;
+            }
+
+            // K meilleurs individus distincts de la dernière génération (l'élitisme y garde le meilleur)
+            Integer[] rangs = trierParCout(cts);
+            meilleurOrdre = pop[rangs[0]].clone();
+            List<ResumeScenario> solutions = new ArrayList<>();
+            Set<List<Integer>> vus = new HashSet<>();
+            for (int i : rangs) {
+                if (solutions.size() >= options.getK()) {
+                    break;
+                }
+                if (vus.add(Arrays.stream(pop[i]).boxed().toList())) {
+                    solutions.add(scenario.versResume(pop[i]));
+                }
+            }
+            return new ResultatResolution(statut, solutions, evaluations, System.currentTimeMillis() - debut);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /** @return l'ordre de sommets du meilleur individu de la dernière résolution. */
+    public int[] getOrdre() {
+        return meilleurOrdre;
+    }
+
+    /** @return le nombre de générations produites lors de la dernière résolution. */
+    public int getNbGenerations() {
+        return nbGenerationsFaites;
+    }
+
+    private static void diviser(SplittableRandom aleatoire, SplittableRandom[] generateurs) {
+        for (int i = 0; i < generateurs.length; i++) {
+            generateurs[i] = aleatoire.split();
+        }
+    }
+
+    private void executer(ForkJoinPool pool, IntConsumer tache) {
+        if (pool == null) {
+            IntStream.range(0, taillePopulation).forEach(tache);
+        } else {
+            pool.submit(() -> IntStream.range(0, taillePopulation).parallel().forEach(tache)).join();
+        }
+    }
+
+    private Integer[] trierParCout(int[] couts) {
+        Integer[] rangs = new Integer[taillePopulation];
+        for (int i = 0; i < taillePopulation; i++) {
+            rangs[i] = i;
+        }
+        Arrays.sort(rangs, Comparator.comparingInt(i -> couts[i]));
+        return rangs;
+    }
+
+    /** @return l'indice du meilleur de {@link #TAILLE_TOURNOI} individus tirés au hasard. */
+    private int tournoi(int[] couts, SplittableRandom hasard) {
+        int gagnant = hasard.nextInt(taillePopulation);
+        for (int t = 1; t < TAILLE_TOURNOI; t++) {
+            int candidat = hasard.nextInt(taillePopulation);
+            if (couts[candidat] < couts[gagnant]) {
+                gagnant = candidat;
+            }
+        }
+        return gagnant;
+    }
+
+    /**
+     * Croisement d'ordre : le segment [debut, fin] du père est gardé à sa place, les
+     * autres positions reçoivent les sommets restants dans l'ordre de la mère. Le
+     * résultat est ensuite réparé pour respecter les contraintes.
+     */
+    int[] croiser(int[] pere, int[] mere, SplittableRandom hasard) {
+        int debut = hasard.nextInt(n);
+        int fin = debut + hasard.nextInt(n - debut);
+        boolean[] dansSegment = new boolean[n];
+        for (int k = debut; k <= fin; k++) {
+            dansSegment[pere[k]] = true;
+        }
+        int[] enfant = new int[n];
+        int suivant = 0;
+        for (int k = 0; k < n; k++) {
+            if (k == debut) {
+                System.arraycopy(pere, debut, enfant, debut, fin - debut + 1);
+                k = fin;
+                continue;
+            }
+            while (dansSegment[mere[suivant]]) {
+                suivant++;
+            }
+            enfant[k] = mere[suivant++];
+        }
+        reparer(enfant);
+        return enfant;
+    }
+
+    /**
+     * Rend un ordre valide en gardant au mieux l'ordre donné : chaque sommet est
+     * placé dès que ses prédécesseurs le sont, sinon mis en attente, et les sommets
+     * en attente sont placés dans leur ordre d'arrivée dès qu'ils le deviennent.
+     */
+    void reparer(int[] ordre) {
+        int[] manquants = new int[n];
+        for (int s = 0; s < n; s++) {
+            manquants[s] = scenario.predecesseurs[s].length;
+        }
+        int[] attente = new int[n];
+        int nbAttente = 0;
+        int[] repare = new int[n];
+        int place = 0;
+        for (int k = 0; k < n; k++) {
+            int sommet = ordre[k];
+            if (manquants[sommet] > 0) {
+                attente[nbAttente++] = sommet;
+                continue;
+            }
+            repare[place++] = sommet;
+            for (int s : scenario.successeurs[sommet]) {
+                manquants[s]--;
+            }
+            // Placer les sommets en attente devenus placables, jusqu'à ce qu'il n'y en ait plus
+            boolean debloque = true;
+            while (debloque) {
+                debloque = false;
+                for (int a = 0; a < nbAttente; a++) {
+                    if (manquants[attente[a]] == 0) {
+                        int libere = attente[a];
+                        System.arraycopy(attente, a + 1, attente, a, nbAttente - a - 1);
+                        nbAttente--;
+                        repare[place++] = libere;
+                        for (int s : scenario.successeurs[libere]) {
+                            manquants[s]--;
+                        }
+                        debloque = true;
+                        break;
+                    }
+                }
+            }
+        }
+        System.arraycopy(repare, 0, ordre, 0, n);
+    }
+
+    /**
+     * Retire les sommets "v+" et "v-" d'une ville tirée au hasard et les réinsère :
+     * "v+" avant le premier de ses autres successeurs, puis "v-" après "v+" et après
+     * le dernier de ses autres prédécesseurs.
+     */
+    void muter(int[] ordre, SplittableRandom hasard) {
+        int plus = 2 * hasard.nextInt(n / 2);
+        int moins = plus + 1;
+
+        // Ordre privé de la paire
+        int[] reste = new int[n - 2];
+        int[] positions = new int[n];
+        int taille = 0;
+        for (int sommet : ordre) {
+            if (sommet != plus && sommet != moins) {
+                positions[sommet] = taille;
+                reste[taille++] = sommet;
+            }
+        }
+
+        int limitePlus = taille;
+        for (int s : scenario.successeurs[plus]) {
+            if (s != moins) {
+                limitePlus = Math.min(limitePlus, positions[s]);
+            }
+        }
+        int positionPlus = hasard.nextInt(limitePlus + 1);
+        int minimumMoins = positionPlus;
+        for (int p : scenario.predecesseurs[moins]) {
+            if (p != plus) {
+                minimumMoins = Math.max(minimumMoins, positions[p] + 1);
+            }
+        }
+        int positionMoins = minimumMoins + hasard.nextInt(taille - minimumMoins + 1);
+
+        // positionPlus et positionMoins sont des positions d'insertion dans le reste, "v+" en premier
+        int k = 0;
+        int r = 0;
+        for (int p = 0; p <= taille; p++) {
+            if (p == positionPlus) {
+                ordre[k++] = plus;
+            }
+            if (p == positionMoins) {
+                ordre[k++] = moins;
+            }
+            if (p < taille) {
+                ordre[k++] = reste[r++];
+            }
+        }
+    }
+}
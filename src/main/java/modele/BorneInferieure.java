@@ -0,0 +1,106 @@
+package modele;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Borne inférieure de la distance restant à parcourir depuis un état
+ * (sommets placés, ville courante), basée sur un arbre couvrant minimal.
+ *
+ * Soit R l'ensemble des villes ayant encore un sommet à placer. Le reste du
+ * parcours part de la ville courante, passe par toutes les villes de R et
+ * revient à Velizy : sans son premier trajet, c'est un chemin qui couvre
+ * R ∪ {Velizy}, donc au moins aussi long qu'un arbre couvrant minimal de cet
+ * ensemble. Le premier trajet coûte au moins la plus petite distance entre la
+ * ville courante et R (ou Velizy si R est vide). La borne ne surestime donc
+ * jamais le reste, même sans inégalité triangulaire.
+ *
+ * Le poids de l'arbre ne dépend que de R : il est mis en cache, et le cache
+ * peut être partagé entre threads.
+ */
+final class BorneInferieure {
+    private final ScenarioCompile scenario;
+    private final Map<Long, Integer> arbres = new ConcurrentHashMap<>();
+
+    BorneInferieure(ScenarioCompile scenario) {
+        scenario.verifierMasquable();
+        this.scenario = scenario;
+    }
+
+    /**
+     * @return le masque des villes (bit v pour la ville v) ayant encore un sommet à placer.
+     */
+    long villesRestantes(long masqueSommets) {
+        long restantes = 0L;
+        for (int v = 1; v < scenario.nbVilles(); v++) {
+            if (((~masqueSommets >>> ScenarioCompile.sommetPlus(v)) & 3L) != 0) {
+                restantes |= 1L << v;
+            }
+        }
+        return restantes;
+    }
+
+    /**
+     * @param masqueSommets Les sommets déjà placés.
+     * @param ville La ville courante.
+     * @return une distance inférieure ou égale à celle de toute fin de parcours possible.
+     */
+    int evaluer(long masqueSommets, int ville) {
+        long restantes = villesRestantes(masqueSommets);
+        int[][] d = scenario.distances;
+        if (restantes == 0) {
+            return d[ville][0];
+        }
+        int premierTrajet = Integer.MAX_VALUE;
+        for (long r = restantes; r != 0; r &= r - 1) {
+            premierTrajet = Math.min(premierTrajet, d[ville][Long.numberOfTrailingZeros(r)]);
+        }
+        return premierTrajet + arbreCouvrant(restantes);
+    }
+
+    /**
+     * @return le poids d'un arbre couvrant minimal des villes de {@code restantes} et de Velizy.
+     */
+    int arbreCouvrant(long restantes) {
+        Integer poids = arbres.get(restantes);
+        if (poids == null) {
+            poids = calculerArbre(restantes | 1L);
+            arbres.put(restantes, poids);
+        }
+        return poids;
+    }
+
+    // Algorithme de Prim en O(m²), m étant le nombre de villes de l'ensemble
+    private int calculerArbre(long ensemble) {
+        int[][] d = scenario.distances;
+        int m = Long.bitCount(ensemble);
+        int[] villes = new int[m];
+        int i = 0;
+        for (long r = ensemble; r != 0; r &= r - 1) {
+            villes[i++] = Long.numberOfTrailingZeros(r);
+        }
+
+        int[] distanceArbre = new int[m];
+        boolean[] dansArbre = new boolean[m];
+        Arrays.fill(distanceArbre, Integer.MAX_VALUE);
+        distanceArbre[0] = 0;
+        int poids = 0;
+        for (int etape = 0; etape < m; etape++) {
+            int meilleur = -1;
+            for (int j = 0; j < m; j++) {
+                if (!dansArbre[j] && (meilleur == -1 || distanceArbre[j] < distanceArbre[meilleur])) {
+                    meilleur = j;
+                }
+            }
+            dansArbre[meilleur] = true;
+            poids += distanceArbre[meilleur];
+            for (int j = 0; j < m; j++) {
+                if (!dansArbre[j]) {
+                    distanceArbre[j] = Math.min(distanceArbre[j], d[villes[meilleur]][villes[j]]);
+                }
+            }
+        }
+        return poids;
+    }
+}
@@ -0,0 +1,391 @@
+package modele;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Cache des résultats de résolution sur disque, conservé d'un lancement à l'autre.
+ *
+ * Le fichier est un journal en ajout seul : chaque résultat écrit est un
+ * enregistrement (longueur, contenu, CRC32) ajouté en fin de journal, le dernier
+ * enregistrement d'une clé remplaçant les précédents. Chaque ajout est suivi d'une
+ * longueur nulle qui marque la fin du journal ; le fichier peut être plus long, la
+ * suite n'est jamais lue. À l'ouverture, le fichier est parcouru une fois pour
+ * construire l'index (clé vers position), puis projeté en mémoire ; les lectures se
+ * font ensuite dans la projection, sans copie par le système. Un enregistrement
+ * tronqué ou abîmé (arrêt pendant une écriture) termine le parcours : la fin du
+ * fichier est coupée à cet endroit, avant toute projection.
+ *
+ * Quand le journal dépasse la taille maximale, il est compacté : les enregistrements
+ * remplacés disparaissent, puis les moins récemment utilisés sont évincés jusqu'à
+ * revenir sous la moitié de la taille maximale. Les enregistrements gardés sont
+ * réécrits en place, au début du fichier, dans l'ordre d'utilisation que la lecture
+ * suivante retrouve. Le fichier n'est ni renommé ni remplacé : certains systèmes
+ * (Windows) le refusent tant qu'il est projeté. Les ajouts suivants réutilisent la
+ * place libérée, si bien que le fichier ne grandit plus au-delà de la taille maximale
+ * (plus un enregistrement). Un arrêt pendant le compactage peut perdre des résultats
+ * ou en faire revenir d'évincés, mais le CRC empêche d'en lire un abîmé.
+ *
+ * Le fichier est verrouillé tant qu'il est ouvert, compactage compris : un second
+ * programme (l'interface et un lot lancés en même temps) reçoit une
+ * {@link IOException} à l'ouverture.
+ */
+public class CacheDisque implements Closeable {
+    public static final Path CHEMIN_PAR_DEFAUT = Paths.get("cache", "resultats.journal");
+    public static final long TAILLE_MAX_PAR_DEFAUT = 64L << 20; // 64 Mo
+
+    private static final int MAGIQUE = 0x53414552; // "SAER"
+    private static final int VERSION = 1;
+    private static final int TAILLE_ENTETE = 8;
+
+    // Position et taille (longueur, contenu et CRC compris) d'un enregistrement
+    private static final class Entree {
+        final long position;
+        final int taille;
+
+        Entree(long position, int taille) {
+            this.position = position;
+            this.taille = taille;
+        }
+    }
+
+    private final Path chemin;
+    private final long tailleMax;
+    private FileChannel canal;
+    private FileLock verrou;
+    // Ordre d'accès : la première clé est la moins récemment utilisée
+    private final LinkedHashMap<String, Entree> index = new LinkedHashMap<>(16, 0.75f, true);
+    private MappedByteBuffer projection;
+    private long fin;
+    private long nbCompactages;
+
+    private CacheDisque(Path chemin, long tailleMax) {
+        this.chemin = chemin;
+        this.tailleMax = tailleMax;
+    }
+
+    /**
+     * Ouvre le cache au chemin par défaut, avec la taille maximale par défaut.
+     *
+     * @throws IOException si le fichier ne peut être créé, lu ou verrouillé.
+     */
+    public static CacheDisque ouvrir() throws IOException {
+        return ouvrir(CHEMIN_PAR_DEFAUT, TAILLE_MAX_PAR_DEFAUT);
+    }
+
+    /**
+     * Ouvre (ou crée) un cache sur disque et lit son index.
+     *
+     * @param chemin Le fichier du journal ; ses dossiers sont créés au besoin.
+     * @param tailleMax La taille au-delà de laquelle le journal est compacté, en octets.
+     * @return Le cache ouvert.
+     * @throws IOException si le fichier ne peut être créé, lu ou verrouillé, ou s'il
+     *                     n'est pas un journal de résultats.
+     */
+    public static CacheDisque ouvrir(Path chemin, long tailleMax) throws IOException {
+        if (tailleMax <= TAILLE_ENTETE) {
+            throw new IllegalArgumentException("Taille maximale invalide : " + tailleMax);
+        }
+        if (chemin.getParent() != null) {
+            Files.createDirectories(chemin.getParent());
+        }
+        CacheDisque cache = new CacheDisque(chemin, tailleMax);
+        try {
+            cache.charger();
+        } catch (IOException | RuntimeException e) {
+            cache.close();
+            throw e;
+        }
+        return cache;
+    }
+
+    /**
+     * Lit le résultat rangé sous une clé.
+     *
+     * @param cle La clé, par exemple celle de {@link CacheResultats#cle}.
+     * @return Le résultat, ou null s'il n'est pas dans le cache.
+     * @throws IOException si l'enregistrement ne peut être lu.
+     */
+    public synchronized ResultatResolution lire(String cle) throws IOException {
+        verifierOuvert();
+        Entree entree = index.get(cle);
+        if (entree == null) {
+            return null;
+        }
+        if (entree.position + entree.taille > projection.capacity()) {
+            projeter();
+        }
+        byte[] contenu = new byte[entree.taille - 8];
+        projection.get((int) entree.position + 4, contenu);
+        return decoder(contenu).resultat;
+    }
+
+    /**
+     * Ajoute un résultat en fin de journal, puis compacte le journal s'il dépasse
+     * la taille maximale.
+     *
+     * @param cle La clé du résultat.
+     * @param resultat Le résultat à garder.
+     * @throws IOException si l'écriture échoue.
+     */
+    public synchronized void ecrire(String cle, ResultatResolution resultat) throws IOException {
+        verifierOuvert();
+        byte[] contenu = encoder(cle, resultat);
+        // L'enregistrement, puis la marque de fin du journal
+        ByteBuffer enregistrement = ByteBuffer.allocate(contenu.length + 12);
+        enregistrement.putInt(contenu.length).put(contenu).putInt(crc(contenu)).putInt(0).flip();
+        ecrireTout(enregistrement, fin);
+
+        index.put(cle, new Entree(fin, contenu.length + 8));
+        fin += contenu.length + 8;
+        if (fin > tailleMax) {
+            compacter(tailleMax / 2);
+        }
+    }
+
+    /**
+     * Réécrit le journal sans les enregistrements remplacés.
+     *
+     * @throws IOException si la réécriture échoue ; l'index est alors relu du fichier.
+     */
+    public synchronized void compacter() throws IOException {
+        compacter(Long.MAX_VALUE);
+    }
+
+    /** @return le nombre de résultats dans le cache. */
+    public synchronized int taille() {
+        return index.size();
+    }
+
+    /** @return la taille actuelle du journal, en octets. */
+    public synchronized long tailleFichier() {
+        return fin;
+    }
+
+    public synchronized long getNbCompactages() {
+        return nbCompactages;
+    }
+
+    public Path getChemin() {
+        return chemin;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        projection = null;
+        index.clear();
+        if (canal != null) {
+            try {
+                if (verrou != null && verrou.isValid()) {
+                    verrou.release();
+                }
+            } finally {
+                canal.close();
+                canal = null;
+            }
+        }
+    }
+
+    // Garde les enregistrements vivants les plus récemment utilisés, dans la limite de tailleCible octets
+    private void compacter(long tailleCible) throws IOException {
+        if (fin > projection.capacity()) {
+            projeter();
+        }
+        List<Map.Entry<String, Entree>> gardees = new ArrayList<>(index.entrySet());
+        long taille = TAILLE_ENTETE;
+        int premiere = gardees.size();
+        while (premiere > 0 && (taille + gardees.get(premiere - 1).getValue().taille <= tailleCible
+                || premiere == gardees.size())) {
+            taille += gardees.get(--premiere).getValue().taille;
+        }
+        gardees = gardees.subList(premiere, gardees.size());
+
+        // Les enregistrements gardés sont copiés avant d'écraser le début du fichier,
+        // du moins au plus récemment utilisé, suivis de la marque de fin
+        ByteBuffer compacte = ByteBuffer.allocate((int) (taille - TAILLE_ENTETE + 4));
+        Map<String, Entree> nouvelIndex = new LinkedHashMap<>();
+        for (Map.Entry<String, Entree> gardee : gardees) {
+            Entree entree = gardee.getValue();
+            nouvelIndex.put(gardee.getKey(), new Entree(TAILLE_ENTETE + compacte.position(), entree.taille));
+            compacte.put(projection.slice((int) entree.position, entree.taille));
+        }
+        compacte.putInt(0).flip();
+
+        try {
+            ecrireTout(compacte, TAILLE_ENTETE);
+            canal.force(false);
+        } catch (IOException e) {
+            // Début du fichier en partie réécrit : seul un nouveau parcours sait ce qu'il contient
+            parcourir();
+            throw e;
+        }
+        index.clear();
+        index.putAll(nouvelIndex);
+        fin = taille;
+        projeter();
+        nbCompactages++;
+    }
+
+    // Ouvre et verrouille le fichier, puis construit l'index en le parcourant
+    private void charger() throws IOException {
+        canal = FileChannel.open(chemin, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            verrou = canal.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Déjà ouvert par ce programme
+            verrou = null;
+        }
+        if (verrou == null) {
+            throw new IOException("Cache déjà ouvert par un autre programme : " + chemin);
+        }
+        ByteBuffer entete = ByteBuffer.allocate(TAILLE_ENTETE);
+        if (canal.size() < TAILLE_ENTETE) {
+            entete.putInt(MAGIQUE).putInt(VERSION).flip();
+            canal.truncate(0);
+            ecrireTout(entete, 0);
+        } else if (!lireTout(entete, 0) || entete.getInt(0) != MAGIQUE || entete.getInt(4) != VERSION) {
+            throw new IOException("Fichier de cache invalide : " + chemin);
+        }
+        parcourir();
+    }
+
+    // Construit l'index en lisant le fichier par le canal, coupe la fin abîmée puis projette le fichier
+    private void parcourir() throws IOException {
+        projection = null;
+        index.clear();
+        long position = TAILLE_ENTETE;
+        long taille = canal.size();
+        ByteBuffer longueurLue = ByteBuffer.allocate(4);
+        while (position + 8 <= taille) {
+            longueurLue.clear();
+            lireTout(longueurLue, position);
+            int longueur = longueurLue.getInt(0);
+            if (longueur <= 0 || position + 8 + longueur > taille) {
+                // Marque de fin, ou enregistrement tronqué
+                break;
+            }
+            ByteBuffer enregistrement = ByteBuffer.allocate(longueur + 4);
+            lireTout(enregistrement, position + 4);
+            byte[] contenu = new byte[longueur];
+            enregistrement.get(0, contenu);
+            if (enregistrement.getInt(longueur) != crc(contenu)) {
+                break;
+            }
+            index.put(decoder(contenu).cle, new Entree(position, longueur + 8));
+            position += longueur + 8;
+        }
+        fin = position;
+        if (fin < taille) {
+            // Fin abîmée ou place libérée par un compactage : on repart du dernier
+            // enregistrement complet. À l'ouverture, le fichier n'est pas encore projeté
+            // et peut être coupé sur tous les systèmes ; après un compactage échoué,
+            // certains le refusent, les ajouts suivants recouvrent alors la fin
+            try {
+                canal.truncate(fin);
+            } catch (IOException e) {
+                // La fin reste en place, le parcours ne l'atteint jamais
+            }
+        }
+        projeter();
+    }
+
+    // Projette le journal jusqu'à sa fin : un enregistrement ajouté ensuite, même dans la
+    // place libérée par un compactage, est lu dans une nouvelle projection
+    private void projeter() throws IOException {
+        if (fin > Integer.MAX_VALUE) {
+            throw new IOException("Fichier de cache trop grand : " + chemin);
+        }
+        projection = canal.map(FileChannel.MapMode.READ_ONLY, 0, fin);
+    }
+
+    private void ecrireTout(ByteBuffer octets, long position) throws IOException {
+        while (octets.hasRemaining()) {
+            position += canal.write(octets, position);
+        }
+    }
+
+    // @return false si la fin du fichier est atteinte avant d'avoir rempli le tampon
+    private boolean lireTout(ByteBuffer octets, long position) throws IOException {
+        while (octets.hasRemaining()) {
+            int lus = canal.read(octets, position);
+            if (lus < 0) {
+                return false;
+            }
+            position += lus;
+        }
+        return true;
+    }
+
+    private void verifierOuvert() throws IOException {
+        if (canal == null) {
+            throw new IOException("Cache fermé : " + chemin);
+        }
+    }
+
+    private static int crc(byte[] contenu) {
+        CRC32 crc = new CRC32();
+        crc.update(contenu);
+        return (int) crc.getValue();
+    }
+
+    // Un enregistrement décodé : sa clé et son résultat
+    private static final class Enregistrement {
+        final String cle;
+        final ResultatResolution resultat;
+
+        Enregistrement(String cle, ResultatResolution resultat) {
+            this.cle = cle;
+            this.resultat = resultat;
+        }
+    }
+
+    private static byte[] encoder(String cle, ResultatResolution resultat) throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        try (DataOutputStream sortie = new DataOutputStream(octets)) {
+            sortie.writeUTF(cle);
+            sortie.writeByte(resultat.statut.ordinal());
+            sortie.writeLong(resultat.nbCalculs);
+            sortie.writeLong(resultat.dureeMs);
+            sortie.writeInt(resultat.solutions.size());
+            for (ResumeScenario solution : resultat.solutions) {
+                sortie.writeInt(solution.numeroScenario);
+                sortie.writeInt(solution.distanceTotale);
+                sortie.writeInt(solution.ordreVisite.size());
+                for (String ville : solution.ordreVisite) {
+                    sortie.writeUTF(ville);
+                }
+            }
+        }
+        return octets.toByteArray();
+    }
+
+    private static Enregistrement decoder(byte[] contenu) throws IOException {
+        try (DataInputStream entree = new DataInputStream(new ByteArrayInputStream(contenu))) {
+            String cle = entree.readUTF();
+            ResultatResolution.Statut statut = ResultatResolution.Statut.values()[entree.readByte()];
+            long nbCalculs = entree.readLong();
+            long dureeMs = entree.readLong();
+            int nbSolutions = entree.readInt();
+            List<ResumeScenario> solutions = new ArrayList<>();
+            for (int s = 0; s < nbSolutions; s++) {
+                int numeroScenario = entree.readInt();
+                int distanceTotale = entree.readInt();
+                int nbVilles = entree.readInt();
+                List<String> ordreVisite = new ArrayList<>();
+                for (int v = 0; v < nbVilles; v++) {
+                    ordreVisite.add(entree.readUTF());
+                }
+                solutions.add(new ResumeScenario(numeroScenario, ordreVisite, distanceTotale));
+            }
+            return new Enregistrement(cle, new ResultatResolution(statut, solutions, nbCalculs, dureeMs));
+        }
+    }
+}
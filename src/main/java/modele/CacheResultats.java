@@ -0,0 +1,242 @@
+package modele;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Cache des résultats de résolution, en mémoire et, si on le veut, sur disque.
+ *
+ * Un résultat est rangé sous la clé (empreinte du scénario compilé, nom de
+ * l'algorithme, options) : l'empreinte ne dépend que du contenu du scénario
+ * ({@link ScenarioCompile#empreinte()}), si bien que revenir à un scénario déjà
+ * résolu, ou résoudre un scénario aux mêmes ventes qu'un autre, ne relance pas la
+ * recherche. Modifier une vente change l'empreinte : l'ancien résultat n'est plus
+ * jamais servi et finit évincé.
+ *
+ * Le cache garde au plus {@link #getCapacite()} résultats ; au-delà, le moins
+ * récemment utilisé est évincé. Seuls les résultats qui ne dépendent que de la clé
+ * sont gardés ({@link #estReproductible}) : un résultat prouvé optimal, ou calculé
+ * sans délai et mené à son terme. Un résultat annulé, coupé par le budget, ou
+ * approché dans un délai dépend de l'instant de l'arrêt et de la charge de la
+ * machine : le servir plus tard figerait une solution qu'un nouveau calcul pourrait
+ * améliorer.
+ *
+ * Avec un {@link CacheDisque} ({@link #setDisque}), les résultats sont aussi écrits
+ * sur disque, et un résultat absent de la mémoire y est cherché avant d'être
+ * calculé : il survit à l'arrêt du programme. Une erreur du disque n'empêche jamais
+ * la résolution, elle est seulement signalée.
+ *
+ * Les méthodes sont synchronisées ; la résolution elle-même se fait hors verrou,
+ * deux demandes simultanées de la même clé peuvent donc la calculer deux fois.
+ */
+public class CacheResultats {
+    public static final int CAPACITE_PAR_DEFAUT = 64;
+
+    private static final CacheResultats PARTAGE = new CacheResultats(CAPACITE_PAR_DEFAUT);
+
+    /** Les compteurs d'utilisation du cache. */
+    public static final class Statistiques {
+        /** Les demandes servies par la mémoire. */
+        public final long nbSucces;
+        /** Les demandes servies par le cache sur disque. */
+        public final long nbSuccesDisque;
+        /** Les demandes qui ont dû être résolues. */
+        public final long nbEchecs;
+        public final long nbEvictions;
+        public final int taille;
+
+        Statistiques(long nbSucces, long nbSuccesDisque, long nbEchecs, long nbEvictions, int taille) {
+            this.nbSucces = nbSucces;
+            this.nbSuccesDisque = nbSuccesDisque;
+            this.nbEchecs = nbEchecs;
+            this.nbEvictions = nbEvictions;
+            this.taille = taille;
+        }
+
+        /** @return la part des demandes servies par le cache, entre 0 et 1 (0 sans demande). */
+        public double tauxSucces() {
+            long total = nbSucces + nbSuccesDisque + nbEchecs;
+            return total == 0 ? 0 : (double) (nbSucces + nbSuccesDisque) / total;
+        }
+
+        @Override
+        public String toString() {
+            return nbSucces + " succès, " + nbSuccesDisque + " sur disque, " + nbEchecs + " échecs ("
+                    + Math.round(100 * tauxSucces()) + " %), " + nbEvictions + " évictions, " + taille + " résultats";
+        }
+    }
+
+    private final int capacite;
+    private final LinkedHashMap<String, ResultatResolution> resultats;
+    private CacheDisque disque;
+    private long nbSucces;
+    private long nbSuccesDisque;
+    private long nbEchecs;
+    private long nbEvictions;
+
+    /**
+     * @param capacite Le nombre maximal de résultats gardés.
+     */
+    public CacheResultats(int capacite) {
+        if (capacite < 1) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacite);
+        }
+        this.capacite = capacite;
+        // Ordre d'accès : le premier élément est le moins récemment utilisé
+        this.resultats = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ResultatResolution> plusAncien) {
+                if (size() > CacheResultats.this.capacite) {
+                    nbEvictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** @return le cache partagé par les vues de l'application. */
+    public static CacheResultats partage() {
+        return PARTAGE;
+    }
+
+    /**
+     * Calcule la clé d'un résultat.
+     *
+     * @param scenario Le scénario compilé.
+     * @param algorithme Le nom de l'algorithme.
+     * @param options Les options de la résolution.
+     * @return La clé (empreinte, algorithme, options).
+     */
+    public static String cle(ScenarioCompile scenario, String algorithme, OptionsResolution options) {
+        return scenario.empreinte() + "|" + algorithme + "|" + options.cle();
+    }
+
+    /**
+     * Rend le résultat gardé pour ce scénario, cet algorithme et ces options, ou le
+     * calcule avec le solveur et le garde.
+     *
+     * @param algorithme Le nom de l'algorithme, qui distingue les solveurs dans la clé.
+     * @param solveur Le solveur appelé en cas d'échec du cache.
+     * @param scenario Le scénario compilé.
+     * @param options Les options de la résolution.
+     * @return Le résultat, dont les solutions portent le numéro de {@code scenario}.
+     * @throws Exception Si le solveur échoue.
+     */
+    public ResultatResolution resoudre(String algorithme, Solveur solveur, ScenarioCompile scenario,
+                                       OptionsResolution options) throws Exception {
+        String cle = cle(scenario, algorithme, options);
+        ResultatResolution resultat = chercher(cle);
+        if (resultat != null) {
+            return renumeroter(resultat, scenario.getNumeroScenario());
+        }
+        resultat = solveur.resoudre(scenario, options);
+        if (estReproductible(resultat, options)) {
+            ranger(cle, resultat);
+            CacheDisque cacheDisque = getDisque();
+            if (cacheDisque != null) {
+                try {
+                    cacheDisque.ecrire(cle, resultat);
+                } catch (IOException e) {
+                    System.err.println("Cache sur disque : écriture impossible (" + e.getMessage() + ")");
+                }
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Dit si un résultat peut être gardé : un nouveau calcul avec les mêmes options
+     * le redonnerait.
+     *
+     * @param resultat Le résultat d'une résolution.
+     * @param options Les options de cette résolution.
+     * @return true si le résultat est OPTIMAL, ou APPROCHE sans délai ; false s'il a
+     *         été annulé, coupé par le budget, ou approché dans un délai.
+     */
+    public static boolean estReproductible(ResultatResolution resultat, OptionsResolution options) {
+        switch (resultat.statut) {
+            case OPTIMAL:
+                return true;
+            case APPROCHE:
+                return options.getDelaiMs() == OptionsResolution.ILLIMITE;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Enveloppe un solveur pour que ses résolutions passent par ce cache.
+     *
+     * @param algorithme Le nom de l'algorithme dans les clés.
+     * @param solveur Le solveur enveloppé.
+     * @return Un solveur qui consulte le cache avant de résoudre.
+     */
+    public Solveur envelopper(String algorithme, Solveur solveur) {
+        return (scenario, options) -> resoudre(algorithme, solveur, scenario, options);
+    }
+
+    /**
+     * @return le résultat gardé sous cette clé en mémoire, sinon sur disque (il est
+     *         alors remis en mémoire), ou null ; compte un succès ou un échec.
+     */
+    synchronized ResultatResolution chercher(String cle) {
+        ResultatResolution resultat = resultats.get(cle);
+        if (resultat != null) {
+            nbSucces++;
+            return resultat;
+        }
+        if (disque != null) {
+            try {
+                resultat = disque.lire(cle);
+            } catch (IOException e) {
+                System.err.println("Cache sur disque : lecture impossible (" + e.getMessage() + ")");
+            }
+        }
+        if (resultat != null) {
+            nbSuccesDisque++;
+            resultats.put(cle, resultat);
+        } else {
+            nbEchecs++;
+        }
+        return resultat;
+    }
+
+    synchronized void ranger(String cle, ResultatResolution resultat) {
+        resultats.put(cle, resultat);
+    }
+
+    /** Retire tous les résultats ; les statistiques sont gardées. */
+    public synchronized void vider() {
+        resultats.clear();
+    }
+
+    /**
+     * @param disque Le cache sur disque consulté après la mémoire, ou null pour s'en passer.
+     */
+    public synchronized void setDisque(CacheDisque disque) {
+        this.disque = disque;
+    }
+
+    public synchronized CacheDisque getDisque() {
+        return disque;
+    }
+
+    public int getCapacite() {
+        return capacite;
+    }
+
+    public synchronized Statistiques getStatistiques() {
+        return new Statistiques(nbSucces, nbSuccesDisque, nbEchecs, nbEvictions, resultats.size());
+    }
+
+    // Un scénario aux mêmes ventes qu'un autre reçoit ses solutions sous son propre numéro
+    private static ResultatResolution renumeroter(ResultatResolution resultat, int numeroScenario) {
+        List<ResumeScenario> solutions = new ArrayList<>();
+        for (ResumeScenario solution : resultat.solutions) {
+            solutions.add(solution.numeroScenario == numeroScenario ? solution
+                    : new ResumeScenario(numeroScenario, solution.ordreVisite, solution.distanceTotale));
+        }
+        return new ResultatResolution(resultat.statut, solutions, resultat.nbCalculs, resultat.dureeMs);
+    }
+}
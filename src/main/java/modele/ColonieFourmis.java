@@ -0,0 +1,318 @@
+package modele;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Optimisation par colonie de fourmis, variante MAX-MIN (MMAS).
+ *
+ * Chaque fourmi construit un ordre de sommets en partant de Velizy : à chaque pas,
+ * elle tire un sommet placable (tous ses prédécesseurs placés) avec une probabilité
+ * proportionnelle à τ^alpha × η^beta, où τ est la phéromone du trajet entre la ville
+ * courante et celle du sommet, et η = 1 / (1 + distance) son attrait. Phéromones
+ * et attraits sont des matrices {@code double[]} à plat sur les villes du scénario.
+ *
+ * Les fourmis d'une itération sont indépendantes et construisent leur parcours en
+ * parallèle, chacune avec un générateur tiré de la graine dans un ordre fixe : le
+ * résultat ne dépend pas du parallélisme. La meilleure fourmi de l'itération peut
+ * ensuite être améliorée par {@link RechercheLocale}.
+ *
+ * À la fin de l'itération, toutes les phéromones s'évaporent et seule la meilleure
+ * fourmi (de l'itération, ou de la recherche une itération sur {@link #PERIODE_MEILLEURE_GLOBALE})
+ * dépose 1 / distance sur ses trajets. Comme dans MMAS, les phéromones restent dans
+ * l'intervalle [τmin, τmax] recalculé à chaque record, ce qui évite que la colonie se
+ * fige sur un seul parcours.
+ */
+public class ColonieFourmis {
+    public static final int NB_FOURMIS_PAR_DEFAUT = 20;
+    public static final int NB_ITERATIONS_PAR_DEFAUT = 500;
+    public static final double ALPHA = 1;
+    public static final double BETA = 3;
+    public static final double EVAPORATION = 0.1;
+    // Probabilité qu'une fourmi refasse le meilleur parcours une fois la colonie convergée (calcul de τmin)
+    private static final double P_MEILLEUR = 0.05;
+    private static final int PERIODE_MEILLEURE_GLOBALE = 5;
+
+    private final ScenarioCompile scenario;
+    private final int n;
+    private final int nbVilles;
+    private final long graine;
+    private final int nbFourmis;
+    private final int nbIterations;
+    private boolean rechercheLocale = true;
+
+    private final double[] attraits;
+    private double[] pheromones;
+    private int[] meilleurOrdre;
+    private int nbIterationsFaites;
+
+    public ColonieFourmis(ScenarioCompile scenario, long graine) {
+        this(scenario, graine, NB_FOURMIS_PAR_DEFAUT, NB_ITERATIONS_PAR_DEFAUT);
+    }
+
+    /**
+     * @param scenario Le scénario compilé à résoudre.
+     * @param graine La graine dont est dérivé tout le hasard de la recherche.
+     * @param nbFourmis Le nombre de parcours construits par itération.
+     * @param nbIterations Le nombre maximal d'itérations.
+     */
+    public ColonieFourmis(ScenarioCompile scenario, long graine, int nbFourmis, int nbIterations) {
+        if (nbFourmis < 1 || nbIterations < 1) {
+            throw new IllegalArgumentException("Paramètres invalides : " + nbFourmis + " fourmis, "
+                    + nbIterations + " itérations");
+        }
+        this.scenario = scenario;
+        this.n = scenario.nbSommets();
+        this.nbVilles = scenario.nbVilles();
+        this.graine = graine;
+        this.nbFourmis = nbFourmis;
+        this.nbIterations = nbIterations;
+
+        this.attraits = new double[nbVilles * nbVilles];
+        for (int a = 0; a < nbVilles; a++) {
+            for (int b = 0; b < nbVilles; b++) {
+                attraits[a * nbVilles + b] = Math.pow(1.0 / (1 + scenario.distances[a][b]), BETA);
+            }
+        }
+    }
+
+    /**
+     * @param rechercheLocale true pour améliorer la meilleure fourmi de chaque itération
+     *                        par {@link RechercheLocale} avant le dépôt (activé par défaut).
+     */
+    public void setRechercheLocale(boolean rechercheLocale) {
+        this.rechercheLocale = rechercheLocale;
+    }
+
+    /**
+     * Fait travailler la colonie jusqu'au nombre d'itérations, au délai ou à la
+     * limite de calculs (nombre de fourmis lancées) des options.
+     *
+     * @param options Les options de résolution (K, délai, limite de calculs, parallélisme, annulation).
+     * @return Le résultat APPROCHE (ANNULE si annulé) avec les K meilleurs parcours distincts rencontrés.
+     */
+    public ResultatResolution resoudre(OptionsResolution options) {
+        long debut = System.currentTimeMillis();
+        long echeance = options.calculerEcheanceNanos();
+        JetonAnnulation jeton = options.getJeton();
+        SplittableRandom aleatoire = new SplittableRandom(graine);
+        RechercheLocale amelioration = new RechercheLocale(scenario);
+
+        // Les phéromones partent de τmax estimé sur un parcours glouton
+        int[] glouton = new GloutonMultiDepart(scenario, graine, 1, 0).construire(aleatoire);
+        meilleurOrdre = glouton;
+        int meilleurCout = scenario.coutOrdre(glouton);
+        double tauMax = tauMax(meilleurCout);
+        double tauMin = tauMin(tauMax);
+        pheromones = new double[nbVilles * nbVilles];
+        Arrays.fill(pheromones, tauMax);
+
+        Meilleurs meilleurs = new Meilleurs(options.getK());
+        meilleurs.proposer(glouton, meilleurCout);
+
+        int[][] fourmis = new int[nbFourmis][];
+        int[] couts = new int[nbFourmis];
+        SplittableRandom[] generateurs = new SplittableRandom[nbFourmis];
+        double[] choix = new double[nbVilles * nbVilles];
+
+        ForkJoinPool pool = options.getParallelisme() > 1 ? new ForkJoinPool(options.getParallelisme()) : null;
+        ResultatResolution.Statut statut = ResultatResolution.Statut.APPROCHE;
+        long lancees = 0;
+        nbIterationsFaites = 0;
+        try {
+            while (nbIterationsFaites < nbIterations) {
+                if (jeton.estAnnule() || Thread.currentThread().isInterrupted()) {
+                    statut = ResultatResolution.Statut.ANNULE;
+                    break;
+                }
+                if (System.nanoTime() - echeance > 0 || lancees + nbFourmis > options.getLimiteCalculs()) {
+                    break;
+                }
+
+                for (int i = 0; i < choix.length; i++) {
+                    choix[i] = Math.pow(pheromones[i], ALPHA) * attraits[i];
+                }
+                for (int f = 0; f < nbFourmis; f++) {
+                    generateurs[f] = aleatoire.split();
+                }
+                IntStream lot = IntStream.range(0, nbFourmis);
+                if (pool == null) {
+                    lot.forEach(f -> construireFourmi(f, fourmis, couts, generateurs, choix));
+                } else {
+                    pool.submit(() -> lot.parallel()
+                            .forEach(f -> construireFourmi(f, fourmis, couts, generateurs, choix))).join();
+                }
+                lancees += nbFourmis;
+                nbIterationsFaites++;
+
+                int meilleureFourmi = 0;
+                for (int f = 0; f < nbFourmis; f++) {
+                    meilleurs.proposer(fourmis[f], couts[f]);
+                    if (couts[f] < couts[meilleureFourmi]) {
+                        meilleureFourmi = f;
+                    }
+                }
+                int[] depot = fourmis[meilleureFourmi];
+                int coutDepot = couts[meilleureFourmi];
+                if (rechercheLocale) {
+                    depot = amelioration.ameliorer(depot);
+                    coutDepot = scenario.coutOrdre(depot);
+                    meilleurs.proposer(depot, coutDepot);
+                }
+                if (coutDepot < meilleurCout) {
+                    meilleurCout = coutDepot;
+                    meilleurOrdre = depot;
+                    tauMax = tauMax(meilleurCout);
+                    tauMin = tauMin(tauMax);
+                }
+                if (nbIterationsFaites % PERIODE_MEILLEURE_GLOBALE == 0) {
+                    depot = meilleurOrdre;
+                    coutDepot = meilleurCout;
+                }
+                mettreAJourPheromones(depot, coutDepot, tauMin, tauMax);
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        List<ResumeScenario> solutions = new ArrayList<>();
+        for (int[] ordre : meilleurs.ordres()) {
+            solutions.add(scenario.versResume(ordre));
+        }
+        return new ResultatResolution(statut, solutions, lancees, System.currentTimeMillis() - debut);
+    }
+
+    /** @return l'ordre de sommets du meilleur parcours de la dernière résolution. */
+    public int[] getOrdre() {
+        return meilleurOrdre;
+    }
+
+    /** @return le nombre d'itérations faites lors de la dernière résolution. */
+    public int getNbIterations() {
+        return nbIterationsFaites;
+    }
+
+    /** @return la phéromone du trajet entre deux villes à la fin de la dernière résolution. */
+    public double pheromone(int villeA, int villeB) {
+        return pheromones[villeA * nbVilles + villeB];
+    }
+
+    private void construireFourmi(int f, int[][] fourmis, int[] couts, SplittableRandom[] generateurs,
+                                  double[] choix) {
+        fourmis[f] = construire(generateurs[f], choix);
+        couts[f] = scenario.coutOrdre(fourmis[f]);
+    }
+
+    /** Construit le parcours d'une fourmi par tirages successifs proportionnels à {@code choix}. */
+    int[] construire(SplittableRandom hasard, double[] choix) {
+        int[] ordre = new int[n];
+        int[] manquants = new int[n];
+        for (int s = 0; s < n; s++) {
+            manquants[s] = scenario.predecesseurs[s].length;
+        }
+        // Sommets placables, dans un tableau compact mis à jour à chaque pas
+        int[] placables = new int[n];
+        int nbPlacables = 0;
+        for (int s = 0; s < n; s++) {
+            if (manquants[s] == 0) {
+                placables[nbPlacables++] = s;
+            }
+        }
+        double[] poids = new double[n];
+
+        int ville = 0;
+        for (int etape = 0; etape < n; etape++) {
+            double total = 0;
+            for (int k = 0; k < nbPlacables; k++) {
+                poids[k] = choix[ville * nbVilles + scenario.villeDuSommet[placables[k]]];
+                total += poids[k];
+            }
+            double tirage = hasard.nextDouble() * total;
+            int k = 0;
+            while (k < nbPlacables - 1 && tirage >= poids[k]) {
+                tirage -= poids[k];
+                k++;
+            }
+
+            int sommet = placables[k];
+            placables[k] = placables[--nbPlacables];
+            ordre[etape] = sommet;
+            for (int s : scenario.successeurs[sommet]) {
+                if (--manquants[s] == 0) {
+                    placables[nbPlacables++] = s;
+                }
+            }
+            ville = scenario.villeDuSommet[sommet];
+        }
+        return ordre;
+    }
+
+    private void mettreAJourPheromones(int[] ordre, int cout, double tauMin, double tauMax) {
+        for (int i = 0; i < pheromones.length; i++) {
+            pheromones[i] *= 1 - EVAPORATION;
+        }
+        double depot = 1.0 / Math.max(1, cout);
+        int ville = 0;
+        for (int sommet : ordre) {
+            int suivante = scenario.villeDuSommet[sommet];
+            pheromones[ville * nbVilles + suivante] += depot;
+            ville = suivante;
+        }
+        pheromones[ville * nbVilles] += depot;
+        for (int i = 0; i < pheromones.length; i++) {
+            pheromones[i] = Math.max(tauMin, Math.min(tauMax, pheromones[i]));
+        }
+    }
+
+    private static double tauMax(int meilleurCout) {
+        return 1.0 / (EVAPORATION * Math.max(1, meilleurCout));
+    }
+
+    private double tauMin(double tauMax) {
+        double racine = Math.pow(P_MEILLEUR, 1.0 / n);
+        double choixMoyens = Math.max(2, n / 2.0);
+        return tauMax * (1 - racine) / ((choixMoyens - 1) * racine);
+    }
+
+    /** Les K meilleurs ordres distincts proposés, triés par distance. */
+    private static final class Meilleurs {
+        private final int k;
+        private final TreeMap<Integer, List<int[]>> parCout = new TreeMap<>();
+        private final Set<List<Integer>> vus = new HashSet<>();
+        private int taille;
+
+        Meilleurs(int k) {
+            this.k = k;
+        }
+
+        void proposer(int[] ordre, int cout) {
+            if (taille >= k && cout >= parCout.lastKey()) {
+                return;
+            }
+            List<Integer> cle = Arrays.stream(ordre).boxed().toList();
+            if (!vus.add(cle)) {
+                return;
+            }
+            parCout.computeIfAbsent(cout, c -> new ArrayList<>()).add(ordre.clone());
+            taille++;
+            if (taille > k) {
+                Map.Entry<Integer, List<int[]>> pire = parCout.lastEntry();
+                int[] retire = pire.getValue().remove(pire.getValue().size() - 1);
+                vus.remove(Arrays.stream(retire).boxed().toList());
+                if (pire.getValue().isEmpty()) {
+                    parCout.remove(pire.getKey());
+                }
+                taille--;
+            }
+        }
+
+        List<int[]> ordres() {
+            List<int[]> ordres = new ArrayList<>();
+            parCout.values().forEach(ordres::addAll);
+            return ordres;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package modele;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Résolution par composantes indépendantes.
+ *
+ * Deux villes sont dans la même composante si une chaîne de ventes les relie ; les
+ * composantes sont trouvées par union-find sur les indices des villes. Aucune
+ * contrainte ne lie deux composantes : chacune est résolue à part, comme un scénario
+ * partant de Velizy et y revenant, par le sous-solveur (en parallèle selon les
+ * options). Un algorithme exponentiel ne paie donc que pour la plus grande composante.
+ *
+ * Les sous-parcours sont ensuite mis bout à bout : l'ordre des composantes qui
+ * minimise les trajets de raccordement (fin d'un sous-parcours vers le début du
+ * suivant) est calculé exactement par programmation dynamique jusqu'à
+ * {@link #MAX_COMPOSANTES_ORDRE_EXACT} composantes, par plus proche voisin au-delà.
+ * Le parcours obtenu est enfin amélioré par {@link RechercheLocale}, qui peut
+ * entrelacer les composantes.
+ *
+ * Les sous-parcours étant fermés sur Velizy, le résultat n'est pas garanti optimal :
+ * son statut est APPROCHE (ou celui d'un sous-solveur arrêté avant la fin). Seule la
+ * meilleure solution est construite : le K des options ne s'applique qu'aux sous-solveurs.
+ * Le raccordement coûte cher quand les composantes sont géographiquement mêlées : sur le
+ * scénario 3, le parcours raccordé (6304 km) est plus long que l'insertion la moins
+ * chère (6058 km) et que le glouton (5840 km). Le parcours rendu est donc le meilleur
+ * du parcours raccordé, de l'insertion et du glouton sur le scénario entier, tous
+ * améliorés par {@link RechercheLocale} : il n'est jamais moins bon que
+ * {@link HeuristiqueInsertion} ni que le glouton.
+ *
+ * Un scénario que le {@link Planificateur} résout exactement dans le délai n'est pas
+ * découpé : il est résolu en entier, et ses solutions sont prouvées optimales.
+ *
+ * Les composantes se partagent le délai des options, comme les groupes de
+ * {@link DecompositionGeographique} : m composantes ne prennent pas m fois le délai.
+ */
+public class DecompositionComposantes implements Solveur {
+    /** Nombre de composantes jusqu'auquel leur ordre de raccordement est optimal. */
+    public static final int MAX_COMPOSANTES_ORDRE_EXACT = 12;
+
+    private final Solveur sousSolveur;
+
+    /**
+     * @param sousSolveur Le solveur appliqué à chaque composante (par exemple un {@link Planificateur}).
+     */
+    public DecompositionComposantes(Solveur sousSolveur) {
+        this.sousSolveur = sousSolveur;
+    }
+
+    /**
+     * Regroupe les villes d'un scénario en composantes indépendantes.
+     *
+     * @param scenario Le scénario compilé.
+     * @return Les indices des villes (hors dépôt) de chaque composante, dans l'ordre
+     *         croissant, les composantes étant triées par leur plus petite ville.
+     */
+    public static int[][] composantes(ScenarioCompile scenario) {
+        int nbVilles = scenario.nbVilles();
+        int[] parent = new int[nbVilles];
+        int[] taille = new int[nbVilles];
+        for (int ville = 0; ville < nbVilles; ville++) {
+            parent[ville] = ville;
+            taille[ville] = 1;
+        }
+        for (int vente = 0; vente < scenario.nbVentes(); vente++) {
+            int a = racine(parent, scenario.ventesVendeur[vente]);
+            int b = racine(parent, scenario.ventesAcheteur[vente]);
+            if (a != b) {
+                if (taille[a] < taille[b]) {
+                    int echange = a;
+                    a = b;
+                    b = echange;
+                }
+                parent[b] = a;
+                taille[a] += taille[b];
+            }
+        }
+
+        Map<Integer, List<Integer>> groupes = new LinkedHashMap<>();
+        for (int ville = 1; ville < nbVilles; ville++) {
+            groupes.computeIfAbsent(racine(parent, ville), r -> new ArrayList<>()).add(ville);
+        }
+        int[][] composantes = new int[groupes.size()][];
+        int i = 0;
+        for (List<Integer> groupe : groupes.values()) {
+            composantes[i++] = groupe.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return composantes;
+    }
+
+    /**
+     * Résout chaque composante, raccorde les sous-parcours puis améliore le résultat.
+     *
+     * @param scenario Le scénario compilé à résoudre.
+     * @param options Les options de résolution ; chaque composante reçoit une part du délai.
+     * @return Les solutions exactes si le scénario entier tient dans le délai, sinon la
+     *         meilleure de la solution raccordée, de l'insertion et du glouton, améliorées.
+     * @throws Exception Si le sous-solveur échoue sur une composante.
+     */
+    @Override
+    public ResultatResolution resoudre(ScenarioCompile scenario, OptionsResolution options) throws Exception {
+        long debut = System.currentTimeMillis();
+        Planificateur.Plan plan = new Planificateur().planifier(scenario, options);
+        if (plan.mode == Planificateur.Mode.EXACT) {
+            // Découper ne ferait que perdre l'optimalité
+            return plan.solveur.resoudre(scenario, plan.options);
+        }
+        int[][] composantes = composantes(scenario);
+        if (composantes.length <= 1) {
+            return sousSolveur.resoudre(scenario, options);
+        }
+
+        SousSolutions sousSolutions = resoudreSousScenarios(sousSolveur, scenario, composantes, options);
+        if (sousSolutions.ordres == null) {
+            return new ResultatResolution(sousSolutions.statut, List.of(), sousSolutions.nbCalculs,
+                    System.currentTimeMillis() - debut);
+        }
+
+        // Les constructions sur le scénario entier, si le raccordement fait moins bien
+        RechercheLocale rechercheLocale = new RechercheLocale(scenario);
+        int[] ordre = rechercheLocale.ameliorer(raccorder(scenario, sousSolutions.ordres));
+        int[][] entiers = {
+                new HeuristiqueInsertion(scenario).construire(),
+                new GloutonMultiDepart(scenario, 0, 1, 0).construire(new SplittableRandom(0))
+        };
+        for (int[] entier : entiers) {
+            int[] ameliore = rechercheLocale.ameliorer(entier);
+            if (scenario.coutOrdre(ameliore) < scenario.coutOrdre(ordre)) {
+                ordre = ameliore;
+            }
+        }
+        return new ResultatResolution(sousSolutions.statut, List.of(scenario.versResume(ordre)),
+                sousSolutions.nbCalculs, System.currentTimeMillis() - debut);
+    }
+
+    /** Les meilleures solutions des sous-scénarios, en sommets du scénario complet. */
+    static final class SousSolutions {
+        /** L'ordre de chaque groupe de villes, ou null si un sous-solveur n'a rendu aucune solution. */
+        final int[][] ordres;
+        /** APPROCHE, ou le statut d'un sous-solveur arrêté avant la fin (ANNULE en priorité). */
+        final ResultatResolution.Statut statut;
+        final long nbCalculs;
+
+        SousSolutions(int[][] ordres, ResultatResolution.Statut statut, long nbCalculs) {
+            this.ordres = ordres;
+            this.statut = statut;
+            this.nbCalculs = nbCalculs;
+        }
+    }
+
+    /**
+     * Résout le sous-scénario de chaque groupe de villes, en parallèle selon les options.
+     * Les groupes se partagent le délai : chacun reçoit le délai divisé par le nombre
+     * de vagues de parallelisme groupes.
+     *
+     * @param sousSolveur Le solveur appliqué à chaque sous-scénario.
+     * @param scenario Le scénario complet.
+     * @param groupes Les indices des villes de chaque groupe, hors dépôt.
+     * @param options Les options de résolution, dont le délai est à partager.
+     * @return Les ordres de chaque groupe, en sommets du scénario complet.
+     * @throws Exception Si le sous-solveur échoue sur un groupe.
+     */
+    static SousSolutions resoudreSousScenarios(Solveur sousSolveur, ScenarioCompile scenario, int[][] groupes,
+                                               OptionsResolution options) throws Exception {
+        ScenarioCompile[] sousScenarios = new ScenarioCompile[groupes.length];
+        for (int g = 0; g < groupes.length; g++) {
+            sousScenarios[g] = scenario.restreindre(groupes[g]);
+        }
+        long vagues = (groupes.length + options.getParallelisme() - 1) / options.getParallelisme();
+        OptionsResolution optionsGroupe = options.getDelaiMs() == OptionsResolution.ILLIMITE
+                ? options
+                : options.avecDelaiMs(Math.max(1, options.getDelaiMs() / vagues));
+        ResultatResolution[] resultats = new ResultatResolution[groupes.length];
+        ForkJoinPool pool = new ForkJoinPool(options.getParallelisme());
+        try {
+            List<ForkJoinTask<?>> taches = new ArrayList<>();
+            for (int g = 0; g < groupes.length; g++) {
+                int groupe = g;
+                taches.add(pool.submit(() -> {
+                    resultats[groupe] = sousSolveur.resoudre(sousScenarios[groupe], optionsGroupe);
+                    return null;
+                }));
+            }
+            for (ForkJoinTask<?> tache : taches) {
+                tache.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        ResultatResolution.Statut statut = ResultatResolution.Statut.APPROCHE;
+        long nbCalculs = 0;
+        int[][] ordres = new int[groupes.length][];
+        for (int g = 0; g < groupes.length; g++) {
+            nbCalculs += resultats[g].nbCalculs;
+            if (resultats[g].statut == ResultatResolution.Statut.ANNULE) {
+                statut = ResultatResolution.Statut.ANNULE;
+            } else if (resultats[g].statut == ResultatResolution.Statut.BUDGET_EPUISE
+                    && statut != ResultatResolution.Statut.ANNULE) {
+                statut = ResultatResolution.Statut.BUDGET_EPUISE;
+            }
+            ResumeScenario meilleure = resultats[g].getMeilleure();
+            if (meilleure == null) {
+                // Un sous-solveur arrêté sans solution : pas de solution complète
+                return new SousSolutions(null, resultats[g].statut, nbCalculs);
+            }
+            ordres[g] = versSommetsOriginaux(sousScenarios[g].versOrdre(meilleure.ordreVisite), groupes[g]);
+        }
+        return new SousSolutions(ordres, statut, nbCalculs);
+    }
+
+    /**
+     * Met les sous-ordres bout à bout dans l'ordre qui minimise les trajets de raccordement.
+     *
+     * @param scenario Le scénario complet.
+     * @param sousOrdres Les ordres de sommets de chaque composante, en sommets du scénario complet.
+     * @return L'ordre complet.
+     */
+    static int[] raccorder(ScenarioCompile scenario, int[][] sousOrdres) {
+        int m = sousOrdres.length;
+        int[] debuts = new int[m];
+        int[] fins = new int[m];
+        for (int c = 0; c < m; c++) {
+            debuts[c] = scenario.villeDuSommet(sousOrdres[c][0]);
+            fins[c] = scenario.villeDuSommet(sousOrdres[c][sousOrdres[c].length - 1]);
+        }
+
+        int[] suite = m <= MAX_COMPOSANTES_ORDRE_EXACT
+                ? ordreOptimal(scenario, debuts, fins)
+                : ordrePlusProcheVoisin(scenario, debuts, fins);
+        int[] ordre = new int[scenario.nbSommets()];
+        int position = 0;
+        for (int c : suite) {
+            System.arraycopy(sousOrdres[c], 0, ordre, position, sousOrdres[c].length);
+            position += sousOrdres[c].length;
+        }
+        return ordre;
+    }
+
+    // Programmation dynamique sur les sous-ensembles de composantes déjà placées (Held-Karp)
+    private static int[] ordreOptimal(ScenarioCompile scenario, int[] debuts, int[] fins) {
+        int m = debuts.length;
+        int[][] cout = new int[1 << m][m];
+        int[][] precedent = new int[1 << m][m];
+        for (int[] ligne : cout) {
+            Arrays.fill(ligne, Integer.MAX_VALUE);
+        }
+        for (int c = 0; c < m; c++) {
+            cout[1 << c][c] = scenario.distance(0, debuts[c]);
+            precedent[1 << c][c] = -1;
+        }
+        for (int masque = 1; masque < 1 << m; masque++) {
+            for (int derniere = 0; derniere < m; derniere++) {
+                if (cout[masque][derniere] == Integer.MAX_VALUE) {
+                    continue;
+                }
+                for (int suivante = 0; suivante < m; suivante++) {
+                    if ((masque & 1 << suivante) != 0) {
+                        continue;
+                    }
+                    int total = cout[masque][derniere] + scenario.distance(fins[derniere], debuts[suivante]);
+                    if (total < cout[masque | 1 << suivante][suivante]) {
+                        cout[masque | 1 << suivante][suivante] = total;
+                        precedent[masque | 1 << suivante][suivante] = derniere;
+                    }
+                }
+            }
+        }
+
+        int complet = (1 << m) - 1;
+        int derniere = 0;
+        for (int c = 1; c < m; c++) {
+            if (cout[complet][c] + scenario.distance(fins[c], 0)
+                    < cout[complet][derniere] + scenario.distance(fins[derniere], 0)) {
+                derniere = c;
+            }
+        }
+        int[] suite = new int[m];
+        int masque = complet;
+        for (int i = m - 1; i >= 0; i--) {
+            suite[i] = derniere;
+            int avant = precedent[masque][derniere];
+            masque &= ~(1 << derniere);
+            derniere = avant;
+        }
+        return suite;
+    }
+
+    private static int[] ordrePlusProcheVoisin(ScenarioCompile scenario, int[] debuts, int[] fins) {
+        int m = debuts.length;
+        boolean[] placees = new boolean[m];
+        int[] suite = new int[m];
+        int ville = 0;
+        for (int i = 0; i < m; i++) {
+            int meilleure = -1;
+            for (int c = 0; c < m; c++) {
+                if (!placees[c] && (meilleure < 0
+                        || scenario.distance(ville, debuts[c]) < scenario.distance(ville, debuts[meilleure]))) {
+                    meilleure = c;
+                }
+            }
+            placees[meilleure] = true;
+            suite[i] = meilleure;
+            ville = fins[meilleure];
+        }
+        return suite;
+    }
+
+    // Le sommet s du sous-scénario est "+" ou "-" de la ville villes[s / 2]
+    private static int[] versSommetsOriginaux(int[] sousOrdre, int[] villes) {
+        int[] ordre = new int[sousOrdre.length];
+        for (int i = 0; i < sousOrdre.length; i++) {
+            ordre[i] = 2 * (villes[sousOrdre[i] / 2] - 1) + sousOrdre[i] % 2;
+        }
+        return ordre;
+    }
+
+    private static int racine(int[] parent, int ville) {
+        while (parent[ville] != ville) {
+            parent[ville] = parent[parent[ville]];
+            ville = parent[ville];
+        }
+        return ville;
+    }
+}
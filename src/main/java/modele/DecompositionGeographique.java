@@ -0,0 +1,383 @@
+package modele;
+
+import java.util.*;
+
+/**
+ * Résolution des très grands scénarios par regroupement géographique des villes.
+ *
+ * Les villes sont réparties en groupes d'environ {@code tailleGroupe} villes par
+ * k-médoïdes sur la matrice des distances (aller plus retour) : chaque ville va au
+ * médoïde le plus proche, puis chaque médoïde est remplacé par la ville de son groupe
+ * la plus proche des autres, jusqu'à stabilité. Chaque groupe est ensuite résolu en
+ * parallèle comme un scénario à part (ventes internes au groupe seulement), avec une
+ * part du délai des options.
+ *
+ * Les ventes entre groupes décident de l'ordre des groupes : un groupe passe de
+ * préférence après ceux dont il reçoit des ventes, et parmi les groupes possibles on
+ * va au médoïde le plus proche. Les sous-parcours sont mis bout à bout dans cet ordre,
+ * puis réparés : une livraison placée avant un de ses ramassages est réinsérée à la
+ * place la moins chère après eux, les autres sommets gardent leur ordre. Quand les
+ * ventes entre groupes sont trop nombreuses, ces détours coûtent plus qu'un parcours
+ * en deux passages (tous les ramassages à l'aller, toutes les livraisons au retour) :
+ * le moins cher des deux est gardé. Jusqu'à {@link #MAX_SOMMETS_RECHERCHE_LOCALE}
+ * sommets, le résultat est amélioré par {@link RechercheLocale}.
+ *
+ * Hors regroupement, le coût est proportionnel au nombre de groupes multiplié par
+ * le coût d'un groupe, qui ne dépend que de {@code tailleGroupe} : le temps croît
+ * presque linéairement avec la taille du scénario.
+ */
+public class DecompositionGeographique implements Solveur {
+    public static final int TAILLE_GROUPE_PAR_DEFAUT = 10;
+    /** Au-delà, la recherche locale (quadratique par passe) n'est pas appliquée au parcours raccordé. */
+    public static final int MAX_SOMMETS_RECHERCHE_LOCALE = 2_000;
+    /** Nombre de places examinées pour réinsérer un sommet lors de la réparation. */
+    public static final int FENETRE_INSERTION = 256;
+    private static final int ITERATIONS_MAX = 20;
+    private static final long GRAINE = 42;
+
+    private final Solveur sousSolveur;
+    private final int tailleGroupe;
+    private final long graine;
+
+    /**
+     * @param sousSolveur Le solveur appliqué à chaque groupe (par exemple un {@link Planificateur}).
+     */
+    public DecompositionGeographique(Solveur sousSolveur) {
+        this(sousSolveur, TAILLE_GROUPE_PAR_DEFAUT, GRAINE);
+    }
+
+    /**
+     * @param sousSolveur Le solveur appliqué à chaque groupe.
+     * @param tailleGroupe Le nombre moyen de villes par groupe.
+     * @param graine La graine du choix des premiers médoïdes.
+     */
+    public DecompositionGeographique(Solveur sousSolveur, int tailleGroupe, long graine) {
+        if (tailleGroupe < 1) {
+            throw new IllegalArgumentException("Taille de groupe invalide : " + tailleGroupe);
+        }
+        this.sousSolveur = sousSolveur;
+        this.tailleGroupe = tailleGroupe;
+        this.graine = graine;
+    }
+
+    /**
+     * Répartit les villes d'un scénario en groupes par k-médoïdes.
+     *
+     * @param scenario Le scénario compilé.
+     * @param nbGroupes Le nombre de médoïdes.
+     * @param aleatoire Le générateur du choix des premiers médoïdes.
+     * @return Les indices des villes (hors dépôt) de chaque groupe non vide ; le médoïde
+     *         est la première ville de chaque groupe.
+     */
+    public static int[][] regrouper(ScenarioCompile scenario, int nbGroupes, SplittableRandom aleatoire) {
+        int nbVilles = scenario.nbVilles() - 1;
+        int k = Math.max(1, Math.min(nbGroupes, nbVilles));
+        int[] medoides = premiersMedoides(scenario, k, aleatoire);
+        int[] groupeDeVille = new int[scenario.nbVilles()];
+
+        for (int iteration = 0; iteration < ITERATIONS_MAX; iteration++) {
+            // Affectation de chaque ville au médoïde le plus proche
+            for (int ville = 1; ville <= nbVilles; ville++) {
+                int meilleur = 0;
+                for (int g = 1; g < k; g++) {
+                    if (ecart(scenario, ville, medoides[g]) < ecart(scenario, ville, medoides[meilleur])) {
+                        meilleur = g;
+                    }
+                }
+                groupeDeVille[ville] = meilleur;
+            }
+
+            // Chaque médoïde devient la ville de son groupe la plus proche des autres
+            int[][] groupes = grouper(groupeDeVille, nbVilles, k);
+            boolean stable = true;
+            for (int g = 0; g < k; g++) {
+                int meilleur = medoides[g];
+                long meilleurTotal = Long.MAX_VALUE;
+                for (int candidat : groupes[g]) {
+                    long total = 0;
+                    for (int ville : groupes[g]) {
+                        total += ecart(scenario, candidat, ville);
+                    }
+                    if (total < meilleurTotal) {
+                        meilleurTotal = total;
+                        meilleur = candidat;
+                    }
+                }
+                stable &= meilleur == medoides[g];
+                medoides[g] = meilleur;
+            }
+            if (stable) {
+                break;
+            }
+        }
+
+        // Groupes non vides, médoïde en tête
+        int[][] groupes = grouper(groupeDeVille, nbVilles, k);
+        List<int[]> nonVides = new ArrayList<>();
+        for (int g = 0; g < k; g++) {
+            int[] groupe = groupes[g];
+            if (groupe.length == 0) {
+                continue;
+            }
+            int position = Arrays.binarySearch(groupe, medoides[g]);
+            if (position > 0) {
+                System.arraycopy(groupe, 0, groupe, 1, position);
+                groupe[0] = medoides[g];
+            }
+            nonVides.add(groupe);
+        }
+        return nonVides.toArray(new int[0][]);
+    }
+
+    /**
+     * Regroupe les villes, résout chaque groupe, les raccorde dans l'ordre imposé par
+     * les ventes entre groupes puis répare et améliore le parcours.
+     *
+     * @param scenario Le scénario compilé à résoudre.
+     * @param options Les options de résolution ; chaque groupe reçoit une part du délai.
+     * @return La solution raccordée.
+     * @throws Exception Si le sous-solveur échoue sur un groupe.
+     */
+    @Override
+    public ResultatResolution resoudre(ScenarioCompile scenario, OptionsResolution options) throws Exception {
+        long debut = System.currentTimeMillis();
+        int nbVilles = scenario.nbVilles() - 1;
+        int nbGroupes = (nbVilles + tailleGroupe - 1) / tailleGroupe;
+        if (nbGroupes <= 1) {
+            return sousSolveur.resoudre(scenario, options);
+        }
+        int[][] groupes = regrouper(scenario, nbGroupes, new SplittableRandom(graine));
+
+        DecompositionComposantes.SousSolutions sousSolutions =
+                DecompositionComposantes.resoudreSousScenarios(sousSolveur, scenario, groupes, options);
+        if (sousSolutions.ordres == null) {
+            return new ResultatResolution(sousSolutions.statut, List.of(), sousSolutions.nbCalculs,
+                    System.currentTimeMillis() - debut);
+        }
+
+        int[] ordre = new int[scenario.nbSommets()];
+        int position = 0;
+        for (int g : ordonnerGroupes(scenario, groupes)) {
+            System.arraycopy(sousSolutions.ordres[g], 0, ordre, position, sousSolutions.ordres[g].length);
+            position += sousSolutions.ordres[g].length;
+        }
+        int[] repare = reparer(scenario, ordre);
+        int[] deuxPassages = deuxPassages(scenario, ordre);
+        ordre = scenario.coutOrdre(repare) <= scenario.coutOrdre(deuxPassages) ? repare : deuxPassages;
+        if (scenario.nbSommets() <= MAX_SOMMETS_RECHERCHE_LOCALE) {
+            ordre = new RechercheLocale(scenario).ameliorer(ordre);
+        }
+        return new ResultatResolution(sousSolutions.statut, List.of(scenario.versResume(ordre)),
+                sousSolutions.nbCalculs, System.currentTimeMillis() - debut);
+    }
+
+    /**
+     * Ordonne les groupes : parmi ceux dont tous les groupes vendeurs sont déjà placés,
+     * le plus proche de la position courante ; s'il n'y en a aucun (ventes croisées),
+     * le plus proche de tous, la réparation se chargeant des ventes non respectées.
+     */
+    static int[] ordonnerGroupes(ScenarioCompile scenario, int[][] groupes) {
+        int m = groupes.length;
+        int[] groupeDeVille = new int[scenario.nbVilles()];
+        for (int g = 0; g < m; g++) {
+            for (int ville : groupes[g]) {
+                groupeDeVille[ville] = g;
+            }
+        }
+        Set<Long> arcs = new HashSet<>();
+        int[] entrants = new int[m];
+        List<List<Integer>> suivants = new ArrayList<>();
+        for (int g = 0; g < m; g++) {
+            suivants.add(new ArrayList<>());
+        }
+        for (int vente = 0; vente < scenario.nbVentes(); vente++) {
+            int de = groupeDeVille[scenario.ventesVendeur[vente]];
+            int vers = groupeDeVille[scenario.ventesAcheteur[vente]];
+            if (de != vers && arcs.add((long) de * m + vers)) {
+                entrants[vers]++;
+                suivants.get(de).add(vers);
+            }
+        }
+
+        boolean[] places = new boolean[m];
+        int[] suite = new int[m];
+        int ville = 0;
+        for (int i = 0; i < m; i++) {
+            int meilleur = -1;
+            boolean meilleurLibre = false;
+            for (int g = 0; g < m; g++) {
+                if (places[g]) {
+                    continue;
+                }
+                boolean libre = entrants[g] == 0;
+                if (meilleur < 0 || libre && !meilleurLibre || libre == meilleurLibre
+                        && scenario.distance(ville, groupes[g][0]) < scenario.distance(ville, groupes[meilleur][0])) {
+                    meilleur = g;
+                    meilleurLibre = libre;
+                }
+            }
+            places[meilleur] = true;
+            suite[i] = meilleur;
+            ville = groupes[meilleur][0];
+            for (int suivant : suivants.get(meilleur)) {
+                entrants[suivant]--;
+            }
+        }
+        return suite;
+    }
+
+    /**
+     * Rend un ordre valide. Seuls les sommets "-" ont des prédécesseurs, et ce sont
+     * des "+" : les "-" placés avant un de leurs prédécesseurs sont retirés, ce qui
+     * laisse un ordre valide, puis chacun est réinséré à la place la moins chère
+     * parmi les {@link #FENETRE_INSERTION} qui suivent son dernier prédécesseur.
+     *
+     * @param scenario Le scénario compilé.
+     * @param ordre Une permutation des sommets, pas forcément valide.
+     * @return Un ordre valide.
+     */
+    static int[] reparer(ScenarioCompile scenario, int[] ordre) {
+        int n = ordre.length;
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[ordre[i]] = i;
+        }
+        boolean[] retire = new boolean[n];
+        int nbRetires = 0;
+        for (int sommet : ordre) {
+            for (int predecesseur : scenario.predecesseurs(sommet)) {
+                if (position[predecesseur] > position[sommet]) {
+                    retire[sommet] = true;
+                    nbRetires++;
+                    break;
+                }
+            }
+        }
+        if (nbRetires == 0) {
+            return ordre.clone();
+        }
+
+        // Ordre de base sans les sommets retirés, et position de chaque sommet gardé dans cet ordre
+        int[] base = new int[n - nbRetires];
+        int taille = 0;
+        for (int sommet : ordre) {
+            if (!retire[sommet]) {
+                position[sommet] = taille;
+                base[taille++] = sommet;
+            }
+        }
+
+        // Pour chaque sommet retiré, l'intervalle (entre base[i - 1] et base[i]) où l'insérer
+        long[] insertions = new long[nbRetires];
+        int nbInsertions = 0;
+        for (int sommet : ordre) {
+            if (!retire[sommet]) {
+                continue;
+            }
+            int premier = 0;
+            for (int predecesseur : scenario.predecesseurs(sommet)) {
+                premier = Math.max(premier, position[predecesseur] + 1);
+            }
+            int ville = scenario.villeDuSommet(sommet);
+            int meilleur = premier;
+            long meilleurCout = Long.MAX_VALUE;
+            for (int i = premier; i <= Math.min(taille, premier + FENETRE_INSERTION); i++) {
+                int avant = i == 0 ? 0 : scenario.villeDuSommet(base[i - 1]);
+                int apres = i == taille ? 0 : scenario.villeDuSommet(base[i]);
+                long cout = (long) scenario.distance(avant, ville) + scenario.distance(ville, apres)
+                        - scenario.distance(avant, apres);
+                if (cout < meilleurCout) {
+                    meilleurCout = cout;
+                    meilleur = i;
+                }
+            }
+            insertions[nbInsertions++] = (long) meilleur * n + sommet;
+        }
+        Arrays.sort(insertions);
+
+        int[] repare = new int[n];
+        int place = 0;
+        int suivante = 0;
+        for (int i = 0; i <= taille; i++) {
+            while (suivante < nbInsertions && insertions[suivante] / n == i) {
+                repare[place++] = (int) (insertions[suivante++] % n);
+            }
+            if (i < taille) {
+                repare[place++] = base[i];
+            }
+        }
+        return repare;
+    }
+
+    /**
+     * Ordre toujours valide tiré d'une permutation : tous les sommets "+" dans leur
+     * ordre, puis tous les "-" dans l'ordre inverse, pour revenir vers le départ.
+     * Il coûte environ deux fois le parcours des groupes, quelles que soient les ventes.
+     */
+    static int[] deuxPassages(ScenarioCompile scenario, int[] ordre) {
+        int[] resultat = new int[ordre.length];
+        int debut = 0;
+        int fin = ordre.length;
+        for (int sommet : ordre) {
+            if (scenario.estSommetVendeur(sommet)) {
+                resultat[debut++] = sommet;
+            } else {
+                resultat[--fin] = sommet;
+            }
+        }
+        return resultat;
+    }
+
+    // Premiers médoïdes tirés au hasard, chacun avec une probabilité proportionnelle à son écart aux précédents
+    private static int[] premiersMedoides(ScenarioCompile scenario, int k, SplittableRandom aleatoire) {
+        int nbVilles = scenario.nbVilles() - 1;
+        int[] medoides = new int[k];
+        long[] ecartMin = new long[scenario.nbVilles()];
+        Arrays.fill(ecartMin, Long.MAX_VALUE);
+        medoides[0] = 1 + aleatoire.nextInt(nbVilles);
+        for (int g = 1; g < k; g++) {
+            long total = 0;
+            for (int ville = 1; ville <= nbVilles; ville++) {
+                ecartMin[ville] = Math.min(ecartMin[ville], ecart(scenario, ville, medoides[g - 1]));
+                total += ecartMin[ville];
+            }
+            int choisie = -1;
+            if (total > 0) {
+                long tirage = aleatoire.nextLong(total);
+                for (int ville = 1; ville <= nbVilles && choisie < 0; ville++) {
+                    tirage -= ecartMin[ville];
+                    if (tirage < 0) {
+                        choisie = ville;
+                    }
+                }
+            }
+            if (choisie < 0) {
+                // Toutes les villes restantes sont confondues avec un médoïde : on prend la suivante
+                choisie = 1 + (medoides[g - 1] % nbVilles);
+            }
+            medoides[g] = choisie;
+        }
+        return medoides;
+    }
+
+    private static int[][] grouper(int[] groupeDeVille, int nbVilles, int k) {
+        int[] tailles = new int[k];
+        for (int ville = 1; ville <= nbVilles; ville++) {
+            tailles[groupeDeVille[ville]]++;
+        }
+        int[][] groupes = new int[k][];
+        for (int g = 0; g < k; g++) {
+            groupes[g] = new int[tailles[g]];
+            tailles[g] = 0;
+        }
+        for (int ville = 1; ville <= nbVilles; ville++) {
+            int g = groupeDeVille[ville];
+            groupes[g][tailles[g]++] = ville;
+        }
+        return groupes;
+    }
+
+    private static long ecart(ScenarioCompile scenario, int a, int b) {
+        return (long) scenario.distance(a, b) + scenario.distance(b, a);
+    }
+}
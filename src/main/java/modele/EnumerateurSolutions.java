@@ -0,0 +1,279 @@
+package modele;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Énumération paresseuse des solutions d'un scénario par distance croissante.
+ *
+ * Contrairement à {@link AlgoKSolution#getKMeilleuresSolutions(int)}, il n'est pas
+ * nécessaire de connaître K à l'avance : chaque appel à {@link #next()} retourne la
+ * solution suivante, pour un coût proportionnel au nombre de sommets.
+ *
+ * Principe (partition de Lawler / Murty) : un sous-problème est l'ensemble des
+ * solutions qui commencent par un préfixe fixé et dont le sommet suivant n'est pas
+ * dans un ensemble interdit. Sa meilleure solution se lit sur le coût restant
+ * h(sommets placés, ville courante), mémorisé au fur et à mesure. Quand la
+ * meilleure solution T d'un sous-problème est retournée, le reste de ce
+ * sous-problème est découpé en sous-problèmes disjoints : pour chaque position i
+ * au-delà du préfixe, les solutions qui partagent T jusqu'à i exclu mais pas T[i].
+ * Une file de priorité sur le coût de leur meilleure solution donne l'ordre.
+ *
+ * Deux ordres de sommets différents donnant deux parcours différents (voir
+ * {@link ScenarioCompile}), chaque parcours n'est retourné qu'une fois.
+ *
+ * La mémoire des coûts restants est bornée par un nombre maximal d'états ; un
+ * scénario trop grand provoque une {@link IllegalStateException}.
+ */
+public class EnumerateurSolutions implements Iterator<ResumeScenario> {
+    public static final int CAPACITE_ETATS_PAR_DEFAUT = 1 << 22; // Environ 64 Mo
+    private static final int INCONNU = -1;
+    private static final int IMPOSSIBLE = Integer.MAX_VALUE;
+
+    private final ScenarioCompile scenario;
+    private final int n;
+    private final long masqueComplet;
+    private final int capaciteEtats;
+
+    // Coût restant h(masque, ville) : table de hachage à adressage ouvert
+    private long[] masques;
+    private int[] villes;
+    private int[] coutsRestants;
+    private int nbEtats;
+
+    private final PriorityQueue<SousProbleme> file = new PriorityQueue<>();
+    private long nbSousProblemes;
+
+    public EnumerateurSolutions(ScenarioCompile scenario) {
+        this(scenario, CAPACITE_ETATS_PAR_DEFAUT);
+    }
+
+    /**
+     * @param scenario Le scénario compilé à énumérer.
+     * @param capaciteEtats Le nombre maximal d'états mémorisés, qui borne la mémoire.
+     */
+    public EnumerateurSolutions(ScenarioCompile scenario, int capaciteEtats) {
+        scenario.verifierMasquable();
+        this.scenario = scenario;
+        this.n = scenario.nbSommets();
+        this.masqueComplet = n == 64 ? -1L : (1L << n) - 1;
+        this.capaciteEtats = capaciteEtats;
+        this.masques = new long[1024];
+        this.villes = new int[1024];
+        this.coutsRestants = new int[1024];
+        Arrays.fill(villes, INCONNU);
+
+        ajouter(new int[0], 0, 0L, 0, 0L);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !file.isEmpty();
+    }
+
+    /**
+     * @return La meilleure solution pas encore retournée.
+     * @throws NoSuchElementException si toutes les solutions ont été retournées.
+     */
+    @Override
+    public ResumeScenario next() {
+        return scenario.versResume(suivant());
+    }
+
+    /**
+     * @return L'ordre de sommets de la meilleure solution pas encore retournée.
+     * @throws NoSuchElementException si toutes les solutions ont été retournées.
+     */
+    public int[] suivant() {
+        SousProbleme sp = file.poll();
+        if (sp == null) {
+            throw new NoSuchElementException("Toutes les solutions ont été énumérées");
+        }
+
+        // Reconstruction de la meilleure solution du sous-problème
+        int[] ordre = Arrays.copyOf(sp.prefixe, n);
+        long masque = sp.masque;
+        int ville = sp.ville;
+        int[] coutsPrefixe = new int[n + 1];
+        coutsPrefixe[sp.prefixe.length] = sp.coutPrefixe;
+        for (int i = sp.prefixe.length; i < n; i++) {
+            int sommet = meilleurSuivant(masque, ville, i == sp.prefixe.length ? sp.interdits : 0L);
+            ordre[i] = sommet;
+            int villeSuivante = scenario.villeDuSommet[sommet];
+            coutsPrefixe[i + 1] = coutsPrefixe[i] + scenario.distances[ville][villeSuivante];
+            masque |= 1L << sommet;
+            ville = villeSuivante;
+        }
+
+        // Partition du reste : même début que la solution jusqu'à i exclu, mais pas ordre[i]
+        masque = sp.masque;
+        ville = sp.ville;
+        for (int i = sp.prefixe.length; i < n; i++) {
+            long interdits = (i == sp.prefixe.length ? sp.interdits : 0L) | 1L << ordre[i];
+            ajouter(Arrays.copyOf(ordre, i), coutsPrefixe[i], masque, ville, interdits);
+            masque |= 1L << ordre[i];
+            ville = scenario.villeDuSommet[ordre[i]];
+        }
+        return ordre;
+    }
+
+    /**
+     * @return Les solutions restantes sous forme de flux paresseux, par distance croissante.
+     */
+    public Stream<ResumeScenario> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    /** @return le nombre d'états dont le coût restant est mémorisé. */
+    public int getNbEtats() {
+        return nbEtats;
+    }
+
+    /** @return le nombre de sous-problèmes créés depuis le début. */
+    public long getNbSousProblemes() {
+        return nbSousProblemes;
+    }
+
+    private void ajouter(int[] prefixe, int coutPrefixe, long masque, int ville, long interdits) {
+        int sommet = meilleurSuivant(masque, ville, interdits);
+        if (sommet == -1 && masque != masqueComplet) {
+            return; // Sous-problème vide
+        }
+        int cout = coutPrefixe;
+        if (sommet == -1) {
+            cout += scenario.distances[ville][0];
+        } else {
+            int villeSuivante = scenario.villeDuSommet[sommet];
+            cout += scenario.distances[ville][villeSuivante] + coutRestant(masque | 1L << sommet, villeSuivante);
+        }
+        file.add(new SousProbleme(prefixe, coutPrefixe, masque, ville, interdits, cout, nbSousProblemes++));
+    }
+
+    /**
+     * @return Le sommet placable hors {@code interdits} qui minimise le coût restant,
+     *         ou -1 s'il n'y en a pas (masque complet ou sommets tous interdits).
+     */
+    private int meilleurSuivant(long masque, int ville, long interdits) {
+        int meilleur = -1;
+        long meilleurCout = Long.MAX_VALUE;
+        for (int sommet = 0; sommet < n; sommet++) {
+            long bit = 1L << sommet;
+            if (((masque | interdits) & bit) != 0 || (scenario.masquePredecesseurs[sommet] & ~masque) != 0) {
+                continue;
+            }
+            int villeSuivante = scenario.villeDuSommet[sommet];
+            int reste = coutRestant(masque | bit, villeSuivante);
+            if (reste == IMPOSSIBLE) {
+                continue;
+            }
+            long cout = (long) scenario.distances[ville][villeSuivante] + reste;
+            if (cout < meilleurCout) {
+                meilleurCout = cout;
+                meilleur = sommet;
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * @return La distance minimale pour placer les sommets restants puis revenir à Velizy.
+     */
+    private int coutRestant(long masque, int ville) {
+        if (masque == masqueComplet) {
+            return scenario.distances[ville][0];
+        }
+        int indice = chercher(masque, ville);
+        if (villes[indice] != INCONNU) {
+            return coutsRestants[indice];
+        }
+
+        int meilleur = IMPOSSIBLE;
+        for (int sommet = 0; sommet < n; sommet++) {
+            long bit = 1L << sommet;
+            if ((masque & bit) != 0 || (scenario.masquePredecesseurs[sommet] & ~masque) != 0) {
+                continue;
+            }
+            int villeSuivante = scenario.villeDuSommet[sommet];
+            int reste = coutRestant(masque | bit, villeSuivante);
+            if (reste != IMPOSSIBLE) {
+                meilleur = Math.min(meilleur, scenario.distances[ville][villeSuivante] + reste);
+            }
+        }
+
+        // La récursion a pu agrandir la table : l'emplacement est recherché à nouveau
+        if (nbEtats >= capaciteEtats) {
+            throw new IllegalStateException("Scénario " + scenario.getNumeroScenario()
+                    + " trop grand pour l'énumération : plus de " + capaciteEtats + " états");
+        }
+        if (2 * (nbEtats + 1) > villes.length) {
+            agrandir();
+        }
+        indice = chercher(masque, ville);
+        masques[indice] = masque;
+        villes[indice] = ville;
+        coutsRestants[indice] = meilleur;
+        nbEtats++;
+        return meilleur;
+    }
+
+    private int chercher(long masque, int ville) {
+        int masqueTable = villes.length - 1;
+        long h = (masque ^ (ville * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+        int indice = (int) (h ^ (h >>> 31)) & masqueTable;
+        while (villes[indice] != INCONNU && (villes[indice] != ville || masques[indice] != masque)) {
+            indice = (indice + 1) & masqueTable;
+        }
+        return indice;
+    }
+
+    private void agrandir() {
+        long[] anciensMasques = masques;
+        int[] anciennesVilles = villes;
+        int[] anciensCouts = coutsRestants;
+        masques = new long[anciennesVilles.length * 2];
+        villes = new int[anciennesVilles.length * 2];
+        coutsRestants = new int[anciennesVilles.length * 2];
+        Arrays.fill(villes, INCONNU);
+        for (int i = 0; i < anciennesVilles.length; i++) {
+            if (anciennesVilles[i] != INCONNU) {
+                int indice = chercher(anciensMasques[i], anciennesVilles[i]);
+                masques[indice] = anciensMasques[i];
+                villes[indice] = anciennesVilles[i];
+                coutsRestants[indice] = anciensCouts[i];
+            }
+        }
+    }
+
+    /**
+     * Solutions commençant par {@code prefixe} dont le sommet suivant n'est pas
+     * dans {@code interdits}, rangées par le coût de la meilleure d'entre elles.
+     */
+    private static final class SousProbleme implements Comparable<SousProbleme> {
+        final int[] prefixe;
+        final int coutPrefixe;
+        final long masque;
+        final int ville;
+        final long interdits;
+        final int coutMeilleure;
+        final long numero;
+
+        SousProbleme(int[] prefixe, int coutPrefixe, long masque, int ville, long interdits,
+                     int coutMeilleure, long numero) {
+            this.prefixe = prefixe;
+            this.coutPrefixe = coutPrefixe;
+            this.masque = masque;
+            this.ville = ville;
+            this.interdits = interdits;
+            this.coutMeilleure = coutMeilleure;
+            this.numero = numero;
+        }
+
+        @Override
+        public int compareTo(SousProbleme autre) {
+            int c = Integer.compare(coutMeilleure, autre.coutMeilleure);
+            return c != 0 ? c : Long.compare(numero, autre.numero);
+        }
+    }
+}
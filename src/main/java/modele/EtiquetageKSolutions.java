@@ -0,0 +1,271 @@
+package modele;
+
+import java.util.*;
+
+/**
+ * Recherche exacte des K meilleures solutions par étiquetage sur le graphe des
+ * états de la programmation dynamique.
+ *
+ * Un état est un couple (masque des sommets déjà placés, ville courante). On
+ * passe d'un état à un autre en plaçant un sommet dont tous les prédécesseurs
+ * sont placés : le graphe est sans circuit et découpé en niveaux (nombre de
+ * sommets placés), que l'on traite l'un après l'autre.
+ *
+ * Chaque état garde au plus K étiquettes (coût, étiquette précédente, sommet
+ * placé), triées par coût croissant. Les K meilleurs chemins vers un état sont
+ * forcément des prolongements des K meilleurs chemins vers ses prédécesseurs,
+ * donc les K meilleures solutions complètes se lisent exactement sur le dernier
+ * niveau en remontant les étiquettes.
+ *
+ * Grâce à l'arc "a+" → "a-" de {@link ScenarioCompile}, deux chemins différents
+ * donnent toujours deux parcours de villes différents : aucun dédoublonnage
+ * n'est nécessaire.
+ *
+ * La mémoire est bornée par un nombre maximal d'étiquettes ; au-delà, comme pour
+ * le délai ou la limite de calculs (ici le nombre d'états développés), la
+ * recherche s'arrête avec le statut {@link ResultatResolution.Statut#BUDGET_EPUISE}
+ * et sans solution : contrairement au branch and bound, aucune solution complète
+ * n'existe avant le dernier niveau.
+ */
+public class EtiquetageKSolutions {
+    public static final int CAPACITE_ETIQUETTES_PAR_DEFAUT = 1 << 23; // Environ 100 Mo
+    private static final int INTERVALLE_VERIFICATION = 4096;
+
+    private final ScenarioCompile scenario;
+    private final int capaciteEtiquettes;
+    private final List<int[]> ordres = new ArrayList<>();
+
+    // Toutes les étiquettes créées, tous niveaux confondus (nécessaires pour remonter les chemins)
+    private int[] coutEtiquette;
+    private int[] parentEtiquette;
+    private int[] sommetEtiquette;
+    private int nbEtiquettes;
+
+    public EtiquetageKSolutions(ScenarioCompile scenario) {
+        this(scenario, CAPACITE_ETIQUETTES_PAR_DEFAUT);
+    }
+
+    /**
+     * @param scenario Le scénario compilé à résoudre.
+     * @param capaciteEtiquettes Le nombre maximal d'étiquettes créées, qui borne la mémoire.
+     */
+    public EtiquetageKSolutions(ScenarioCompile scenario, int capaciteEtiquettes) {
+        scenario.verifierMasquable();
+        this.scenario = scenario;
+        this.capaciteEtiquettes = capaciteEtiquettes;
+    }
+
+    /**
+     * Calcule les K meilleures solutions du scénario.
+     *
+     * @param options Les options de résolution (K, délai, limite de calculs, annulation).
+     * @return Le résultat : OPTIMAL avec les K meilleures solutions, ou un statut
+     *         d'arrêt sans solution si un budget, la mémoire ou l'annulation l'a interrompu.
+     */
+    public ResultatResolution resoudre(OptionsResolution options) {
+        long debut = System.currentTimeMillis();
+        long echeance = options.calculerEcheanceNanos();
+        JetonAnnulation jeton = options.getJeton();
+        long limiteCalculs = options.getLimiteCalculs();
+        int k = options.getK();
+        ordres.clear();
+        if (k <= 0) {
+            return new ResultatResolution(ResultatResolution.Statut.OPTIMAL, new ArrayList<>(), 0, 0);
+        }
+
+        int n = scenario.nbSommets();
+        int[][] d = scenario.distances;
+        coutEtiquette = new int[1024];
+        parentEtiquette = new int[1024];
+        sommetEtiquette = new int[1024];
+        nbEtiquettes = 0;
+
+        Couche courante = new Couche(k, 16);
+        courante.inserer(courante.etat(0L, 0), creerEtiquette(0, -1, -1));
+
+        long calculs = 0;
+        ResultatResolution.Statut arret = null;
+        for (int niveau = 0; niveau < n && arret == null; niveau++) {
+            Couche suivante = new Couche(k, courante.nbEtats * 2);
+            for (int e = 0; e < courante.nbEtats && arret == null; e++) {
+                long masque = courante.masques[e];
+                int ville = courante.villes[e];
+                int base = e * k;
+                int nb = courante.nbEtiquettes[e];
+
+                for (int sommet = 0; sommet < n; sommet++) {
+                    long bit = 1L << sommet;
+                    if ((masque & bit) != 0 || (scenario.masquePredecesseurs[sommet] & ~masque) != 0) {
+                        continue;
+                    }
+                    int villeSuivante = scenario.villeDuSommet[sommet];
+                    int arc = d[ville][villeSuivante];
+                    int cible = suivante.etat(masque | bit, villeSuivante);
+
+                    // Étiquettes de l'état triées : dès qu'une ne passe plus, les suivantes non plus
+                    for (int j = 0; j < nb; j++) {
+                        int etiquette = courante.etiquettes[base + j];
+                        int cout = coutEtiquette[etiquette] + arc;
+                        if (!suivante.accepte(cible, cout)) {
+                            break;
+                        }
+                        suivante.inserer(cible, creerEtiquette(cout, etiquette, sommet));
+                    }
+                }
+
+                calculs++;
+                if (nbEtiquettes > capaciteEtiquettes || calculs >= limiteCalculs) {
+                    arret = ResultatResolution.Statut.BUDGET_EPUISE;
+                } else if (e % INTERVALLE_VERIFICATION == 0) {
+                    if (jeton.estAnnule() || Thread.currentThread().isInterrupted()) {
+                        arret = ResultatResolution.Statut.ANNULE;
+                    } else if (System.nanoTime() - echeance > 0) {
+                        arret = ResultatResolution.Statut.BUDGET_EPUISE;
+                    }
+                }
+            }
+            courante = suivante;
+        }
+
+        if (arret != null) {
+            return new ResultatResolution(arret, new ArrayList<>(), calculs, System.currentTimeMillis() - debut);
+        }
+
+        // Dernier niveau : on ajoute le retour à Velizy et on garde les K meilleures
+        List<int[]> finales = new ArrayList<>(); // {coût total, étiquette}
+        for (int e = 0; e < courante.nbEtats; e++) {
+            int retour = d[courante.villes[e]][0];
+            for (int j = 0; j < courante.nbEtiquettes[e]; j++) {
+                int etiquette = courante.etiquettes[e * k + j];
+                finales.add(new int[]{coutEtiquette[etiquette] + retour, etiquette});
+            }
+        }
+        finales.sort(Comparator.comparingInt(f -> f[0]));
+
+        List<ResumeScenario> solutions = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, finales.size()); i++) {
+            int[] ordre = remonter(finales.get(i)[1], n);
+            ordres.add(ordre);
+            solutions.add(scenario.versResume(ordre));
+        }
+        return new ResultatResolution(ResultatResolution.Statut.OPTIMAL, solutions, calculs,
+                System.currentTimeMillis() - debut);
+    }
+
+    /**
+     * @return Les ordres de sommets des solutions de la dernière résolution, dans le même ordre.
+     */
+    public List<int[]> getOrdres() {
+        return ordres;
+    }
+
+    private int creerEtiquette(int cout, int parent, int sommet) {
+        if (nbEtiquettes == coutEtiquette.length) {
+            int taille = nbEtiquettes * 2;
+            coutEtiquette = Arrays.copyOf(coutEtiquette, taille);
+            parentEtiquette = Arrays.copyOf(parentEtiquette, taille);
+            sommetEtiquette = Arrays.copyOf(sommetEtiquette, taille);
+        }
+        coutEtiquette[nbEtiquettes] = cout;
+        parentEtiquette[nbEtiquettes] = parent;
+        sommetEtiquette[nbEtiquettes] = sommet;
+        return nbEtiquettes++;
+    }
+
+    private int[] remonter(int etiquette, int n) {
+        int[] ordre = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            ordre[i] = sommetEtiquette[etiquette];
+            etiquette = parentEtiquette[etiquette];
+        }
+        return ordre;
+    }
+
+    /**
+     * Un niveau du graphe : les états atteints avec le même nombre de sommets placés,
+     * indexés par une table de hachage à adressage ouvert sur (masque, ville).
+     */
+    private final class Couche {
+        private final int k;
+        long[] masques;
+        int[] villes;
+        int[] nbEtiquettes;
+        int[] etiquettes;
+        int nbEtats;
+        // Case de hachage → numéro d'état + 1 (0 pour une case vide)
+        private int[] table;
+
+        Couche(int k, int capacite) {
+            this.k = k;
+            int taille = Integer.highestOneBit(Math.max(16, capacite)) * 2;
+            masques = new long[taille / 2];
+            villes = new int[taille / 2];
+            nbEtiquettes = new int[taille / 2];
+            etiquettes = new int[taille / 2 * k];
+            table = new int[taille];
+        }
+
+        /** @return le numéro de l'état (masque, ville), créé s'il n'existe pas. */
+        int etat(long masque, int ville) {
+            int indice = chercher(masque, ville);
+            if (table[indice] != 0) {
+                return table[indice] - 1;
+            }
+            if (nbEtats == masques.length) {
+                agrandir();
+                indice = chercher(masque, ville);
+            }
+            masques[nbEtats] = masque;
+            villes[nbEtats] = ville;
+            table[indice] = nbEtats + 1;
+            return nbEtats++;
+        }
+
+        private int chercher(long masque, int ville) {
+            int masqueTable = table.length - 1;
+            long h = (masque ^ (ville * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+            int indice = (int) (h ^ (h >>> 31)) & masqueTable;
+            while (table[indice] != 0) {
+                int e = table[indice] - 1;
+                if (masques[e] == masque && villes[e] == ville) {
+                    return indice;
+                }
+                indice = (indice + 1) & masqueTable;
+            }
+            return indice;
+        }
+
+        private void agrandir() {
+            int capacite = masques.length * 2;
+            masques = Arrays.copyOf(masques, capacite);
+            villes = Arrays.copyOf(villes, capacite);
+            nbEtiquettes = Arrays.copyOf(nbEtiquettes, capacite);
+            etiquettes = Arrays.copyOf(etiquettes, capacite * k);
+            table = new int[capacite * 2];
+            for (int e = 0; e < nbEtats; e++) {
+                table[chercher(masques[e], villes[e])] = e + 1;
+            }
+        }
+
+        /** @return true si une étiquette de ce coût entrerait dans les K de l'état. */
+        boolean accepte(int etat, int cout) {
+            return nbEtiquettes[etat] < k || cout < coutEtiquette[etiquettes[etat * k + k - 1]];
+        }
+
+        /** Insère une étiquette à sa place, en perdant la plus chère si l'état est plein. */
+        void inserer(int etat, int etiquette) {
+            int base = etat * k;
+            int nb = nbEtiquettes[etat];
+            int cout = coutEtiquette[etiquette];
+            int position = Math.min(nb, k - 1);
+            while (position > 0 && coutEtiquette[etiquettes[base + position - 1]] > cout) {
+                etiquettes[base + position] = etiquettes[base + position - 1];
+                position--;
+            }
+            etiquettes[base + position] = etiquette;
+            if (nb < k) {
+                nbEtiquettes[etat] = nb + 1;
+            }
+        }
+    }
+}
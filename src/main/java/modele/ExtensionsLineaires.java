@@ -0,0 +1,193 @@
+package modele;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.*;
+
+/**
+ * Compte les ordres de sommets respectant les précédences d'un scénario compilé
+ * (les extensions linéaires de l'ordre partiel), c'est-à-dire le nombre de feuilles
+ * de l'arbre de recherche exhaustif.
+ *
+ * Le compte exact se fait par programmation dynamique sur les idéaux (ensembles de
+ * sommets déjà placés, fermés par prédécesseurs), niveau par niveau : le nombre
+ * d'ordres menant à un idéal est la somme de ceux des idéaux qui le précèdent.
+ * Ce nombre d'idéaux est aussi le nombre d'états de la programmation dynamique des
+ * méthodes exactes, au facteur ville courante près.
+ *
+ * Quand les idéaux sont trop nombreux (ou les sommets trop nombreux pour un masque),
+ * le compte est estimé par la méthode de Knuth : on tire des ordres au hasard en
+ * choisissant à chaque étape un sommet placable uniformément, et le produit des
+ * nombres de choix rencontrés est un estimateur sans biais du nombre d'ordres.
+ */
+public class ExtensionsLineaires {
+    /** Nombre d'idéaux au-delà duquel le compte exact est abandonné. */
+    public static final int CAPACITE_IDEAUX_PAR_DEFAUT = 1 << 20;
+    public static final int NB_ECHANTILLONS_PAR_DEFAUT = 10_000;
+    private static final long GRAINE = 42;
+
+    /** Le résultat d'un comptage, exact ou estimé. */
+    public static final class Comptage {
+        /** Le nombre d'ordres, exact ou arrondi depuis l'estimation. */
+        public final BigInteger nbOrdres;
+        public final boolean exact;
+        /** Le nombre d'idéaux de l'ordre partiel, ou -1 s'il n'a pas été calculé. */
+        public final long nbIdeaux;
+        /** L'erreur type de l'estimation rapportée au nombre d'ordres, 0 si le compte est exact. */
+        public final double erreurRelative;
+
+        Comptage(BigInteger nbOrdres, boolean exact, long nbIdeaux, double erreurRelative) {
+            this.nbOrdres = nbOrdres;
+            this.exact = exact;
+            this.nbIdeaux = nbIdeaux;
+            this.erreurRelative = erreurRelative;
+        }
+
+        /** @return le logarithme décimal du nombre d'ordres (0 s'il n'y en a aucun). */
+        public double log10() {
+            if (nbOrdres.signum() <= 0) {
+                return 0;
+            }
+            int decalage = Math.max(0, nbOrdres.bitLength() - 62);
+            return Math.log10(nbOrdres.shiftRight(decalage).doubleValue()) + decalage * Math.log10(2);
+        }
+
+        /** @return le nombre d'ordres seul, précédé de « environ » et suivi de l'erreur s'il est estimé. */
+        public String valeur() {
+            if (exact) {
+                return nombre();
+            }
+            return "environ " + nombre() + " (± " + Math.round(100 * erreurRelative) + " %)";
+        }
+
+        @Override
+        public String toString() {
+            if (exact) {
+                return nombre() + " ordres possibles";
+            }
+            return "environ " + nombre() + " ordres possibles (± " + Math.round(100 * erreurRelative) + " %)";
+        }
+
+        private String nombre() {
+            if (exact) {
+                return String.format(Locale.FRANCE, "%,d", nbOrdres);
+            }
+            return new BigDecimal(nbOrdres).round(new MathContext(3)).toString().replace("E+", "e");
+        }
+    }
+
+    private final ScenarioCompile scenario;
+
+    public ExtensionsLineaires(ScenarioCompile scenario) {
+        this.scenario = scenario;
+    }
+
+    /**
+     * Compte exactement si le nombre d'idéaux ne dépasse pas
+     * {@link #CAPACITE_IDEAUX_PAR_DEFAUT}, estime sinon avec
+     * {@link #NB_ECHANTILLONS_PAR_DEFAUT} tirages. Le compte exact n'est pas tenté
+     * si l'estimation de {@link Planificateur#estimer} annonce déjà trop d'idéaux.
+     */
+    public Comptage compter() {
+        Comptage exact = null;
+        if (scenario.estMasquable()
+                && Planificateur.estimer(scenario).log10Ideaux <= Math.log10(CAPACITE_IDEAUX_PAR_DEFAUT)) {
+            exact = compterExactement(CAPACITE_IDEAUX_PAR_DEFAUT);
+        }
+        return exact != null ? exact : estimer(NB_ECHANTILLONS_PAR_DEFAUT, GRAINE);
+    }
+
+    /**
+     * Compte exactement les ordres par programmation dynamique sur les idéaux.
+     *
+     * @param capaciteIdeaux Le nombre maximal d'idéaux parcourus, qui borne la mémoire et le temps.
+     * @return Le comptage exact, ou null si la capacité est dépassée.
+     * @throws IllegalStateException si le scénario a trop de sommets pour un masque.
+     */
+    public Comptage compterExactement(int capaciteIdeaux) {
+        scenario.verifierMasquable();
+        int n = scenario.nbSommets();
+        Map<Long, BigInteger> niveau = new HashMap<>();
+        niveau.put(0L, BigInteger.ONE);
+        long nbIdeaux = 1;
+
+        for (int place = 0; place < n; place++) {
+            Map<Long, BigInteger> suivant = new HashMap<>();
+            for (Map.Entry<Long, BigInteger> ideal : niveau.entrySet()) {
+                long masque = ideal.getKey();
+                for (int sommet = 0; sommet < n; sommet++) {
+                    long bit = 1L << sommet;
+                    long predecesseurs = scenario.masquePredecesseurs(sommet);
+                    if ((masque & bit) == 0 && (masque & predecesseurs) == predecesseurs) {
+                        suivant.merge(masque | bit, ideal.getValue(), BigInteger::add);
+                    }
+                }
+                if (nbIdeaux + suivant.size() > capaciteIdeaux) {
+                    return null;
+                }
+            }
+            nbIdeaux += suivant.size();
+            niveau = suivant;
+        }
+
+        BigInteger total = niveau.values().stream().reduce(BigInteger.ZERO, BigInteger::add);
+        return new Comptage(total, true, nbIdeaux, 0);
+    }
+
+    /**
+     * Estime le nombre d'ordres par la méthode de Knuth.
+     *
+     * @param nbEchantillons Le nombre d'ordres tirés au hasard.
+     * @param graine La graine du générateur, pour un résultat reproductible.
+     * @return L'estimation (moyenne des produits) et son erreur type relative.
+     */
+    public Comptage estimer(int nbEchantillons, long graine) {
+        if (nbEchantillons < 1) {
+            throw new IllegalArgumentException("Nombre d'échantillons invalide : " + nbEchantillons);
+        }
+        int n = scenario.nbSommets();
+        SplittableRandom aleatoire = new SplittableRandom(graine);
+        int[] restants = new int[n];
+        int[] placables = new int[n];
+
+        // Les produits sont mis à l'échelle du premier tirage pour rester dans les doubles
+        double echelle = Double.NaN;
+        double somme = 0;
+        double sommeCarres = 0;
+        for (int e = 0; e < nbEchantillons; e++) {
+            int nbPlacables = 0;
+            for (int sommet = 0; sommet < n; sommet++) {
+                restants[sommet] = scenario.predecesseurs(sommet).length;
+                if (restants[sommet] == 0) {
+                    placables[nbPlacables++] = sommet;
+                }
+            }
+            double log10Produit = 0;
+            for (int place = 0; place < n; place++) {
+                log10Produit += Math.log10(nbPlacables);
+                int choix = aleatoire.nextInt(nbPlacables);
+                int sommet = placables[choix];
+                placables[choix] = placables[--nbPlacables];
+                for (int successeur : scenario.successeurs(sommet)) {
+                    if (--restants[successeur] == 0) {
+                        placables[nbPlacables++] = successeur;
+                    }
+                }
+            }
+            if (Double.isNaN(echelle)) {
+                echelle = log10Produit;
+            }
+            double produit = Math.pow(10, log10Produit - echelle);
+            somme += produit;
+            sommeCarres += produit * produit;
+        }
+
+        double moyenne = somme / nbEchantillons;
+        double variance = Math.max(0, sommeCarres / nbEchantillons - moyenne * moyenne);
+        double erreurRelative = Math.sqrt(variance / nbEchantillons) / moyenne;
+        BigDecimal estimation = new BigDecimal(moyenne).scaleByPowerOfTen((int) Math.floor(echelle))
+                .multiply(BigDecimal.valueOf(Math.pow(10, echelle - Math.floor(echelle))));
+        return new Comptage(estimation.toBigInteger(), false, -1, erreurRelative);
+    }
+}
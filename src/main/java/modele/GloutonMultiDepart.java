@@ -0,0 +1,187 @@
+package modele;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Glouton aléatoire à départs multiples (GRASP, sans phase d'amélioration).
+ *
+ * Comme {@link HeuristiqueGlouton}, chaque départ construit un parcours en allant
+ * toujours vers une ville proche, mais au lieu de prendre systématiquement le
+ * sommet placable le plus proche, il tire au hasard parmi les sommets dont la
+ * distance est à moins de alpha × (dmax - dmin) de la plus courte. Chaque départ
+ * tire son propre alpha entre 0 et {@code alphaMax} : certains restent proches du
+ * glouton, d'autres explorent davantage. Les départs sont indépendants : ils sont
+ * répartis sur le nombre de threads des options, et le générateur de chacun est
+ * dérivé de la graine avant le lancement, ce qui rend le résultat identique quel
+ * que soit le parallélisme.
+ *
+ * En plus des K meilleurs parcours distincts, la dispersion des distances obtenues
+ * (minimum, moyenne, maximum, écart-type) est disponible après la résolution.
+ */
+public class GloutonMultiDepart {
+    public static final int NB_DEPARTS_PAR_DEFAUT = 1000;
+    public static final double ALPHA_MAX_PAR_DEFAUT = 0.2;
+
+    private final ScenarioCompile scenario;
+    private final int nbDeparts;
+    private final double alphaMax;
+    private final long graine;
+    private IntSummaryStatistics statistiques = new IntSummaryStatistics();
+    private double ecartType;
+
+    public GloutonMultiDepart(ScenarioCompile scenario, long graine) {
+        this(scenario, graine, NB_DEPARTS_PAR_DEFAUT, ALPHA_MAX_PAR_DEFAUT);
+    }
+
+    /**
+     * @param scenario Le scénario compilé à résoudre.
+     * @param graine La graine dont sont dérivés les générateurs des départs.
+     * @param nbDeparts Le nombre de parcours construits.
+     * @param alphaMax Le degré de hasard maximal d'un départ, entre 0 (glouton pur) et 1 (tirage uniforme).
+     */
+    public GloutonMultiDepart(ScenarioCompile scenario, long graine, int nbDeparts, double alphaMax) {
+        if (nbDeparts < 1 || alphaMax < 0 || alphaMax > 1) {
+            throw new IllegalArgumentException("Paramètres invalides : " + nbDeparts + " départs, alpha " + alphaMax);
+        }
+        this.scenario = scenario;
+        this.graine = graine;
+        this.nbDeparts = nbDeparts;
+        this.alphaMax = alphaMax;
+    }
+
+    /**
+     * Construit tous les parcours et garde les K meilleurs.
+     *
+     * @param options Les options de résolution (K, délai, parallélisme, annulation).
+     * @return Le résultat APPROCHE (BUDGET_EPUISE ou ANNULE si tous les départs n'ont
+     *         pas pu être faits) avec les K meilleurs parcours distincts.
+     */
+    public ResultatResolution resoudre(OptionsResolution options) {
+        long debut = System.currentTimeMillis();
+        long echeance = options.calculerEcheanceNanos();
+        JetonAnnulation jeton = options.getJeton();
+
+        SplittableRandom racine = new SplittableRandom(graine);
+        SplittableRandom[] generateurs = new SplittableRandom[nbDeparts];
+        for (int i = 0; i < nbDeparts; i++) {
+            generateurs[i] = racine.split();
+        }
+
+        int[][] ordres = new int[nbDeparts][];
+        IntStream departs = IntStream.range(0, nbDeparts);
+        if (options.getParallelisme() <= 1) {
+            departs.forEach(i -> ordres[i] = construireSiPossible(generateurs[i], echeance, jeton));
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(options.getParallelisme());
+            try {
+                pool.submit(() -> departs.parallel()
+                        .forEach(i -> ordres[i] = construireSiPossible(generateurs[i], echeance, jeton))).join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        // Statistiques et K meilleurs parcours distincts, dans l'ordre des départs pour départager
+        statistiques = new IntSummaryStatistics();
+        int[] couts = new int[nbDeparts];
+        List<Integer> faits = new ArrayList<>();
+        for (int i = 0; i < nbDeparts; i++) {
+            if (ordres[i] != null) {
+                couts[i] = scenario.coutOrdre(ordres[i]);
+                statistiques.accept(couts[i]);
+                faits.add(i);
+            }
+        }
+        double sommeCarres = 0;
+        for (int i : faits) {
+            sommeCarres += Math.pow(couts[i] - statistiques.getAverage(), 2);
+        }
+        ecartType = faits.isEmpty() ? 0 : Math.sqrt(sommeCarres / faits.size());
+
+        faits.sort(Comparator.comparingInt(i -> couts[i]));
+        List<ResumeScenario> solutions = new ArrayList<>();
+        Set<List<Integer>> vus = new HashSet<>();
+        for (int i : faits) {
+            if (solutions.size() >= options.getK()) {
+                break;
+            }
+            if (vus.add(Arrays.stream(ordres[i]).boxed().toList())) {
+                solutions.add(scenario.versResume(ordres[i]));
+            }
+        }
+
+        ResultatResolution.Statut statut = ResultatResolution.Statut.APPROCHE;
+        if (faits.size() < nbDeparts) {
+            statut = jeton.estAnnule() ? ResultatResolution.Statut.ANNULE : ResultatResolution.Statut.BUDGET_EPUISE;
+        }
+        return new ResultatResolution(statut, solutions, faits.size(), System.currentTimeMillis() - debut);
+    }
+
+    /** @return minimum, moyenne, maximum et nombre des distances de la dernière résolution. */
+    public IntSummaryStatistics getStatistiques() {
+        return statistiques;
+    }
+
+    /** @return l'écart-type des distances de la dernière résolution. */
+    public double getEcartType() {
+        return ecartType;
+    }
+
+    private int[] construireSiPossible(SplittableRandom aleatoire, long echeance, JetonAnnulation jeton) {
+        if (jeton.estAnnule() || System.nanoTime() - echeance > 0) {
+            return null;
+        }
+        return construire(aleatoire);
+    }
+
+    /**
+     * Construit un parcours en tirant à chaque étape un sommet placable parmi les
+     * plus proches : ceux dont la distance ne dépasse pas dmin + alpha × (dmax - dmin).
+     */
+    int[] construire(SplittableRandom aleatoire) {
+        int n = scenario.nbSommets();
+        int[][] d = scenario.distances;
+        int[] ordre = new int[n];
+        boolean[] places = new boolean[n];
+        int[] manquants = new int[n];
+        for (int s = 0; s < n; s++) {
+            manquants[s] = scenario.predecesseurs[s].length;
+        }
+        int[][] successeurs = scenario.successeurs;
+        double alpha = aleatoire.nextDouble() * alphaMax;
+
+        int[] candidats = new int[n];
+        int ville = 0;
+        for (int etape = 0; etape < n; etape++) {
+            int nb = 0;
+            int min = Integer.MAX_VALUE;
+            int max = 0;
+            for (int s = 0; s < n; s++) {
+                if (!places[s] && manquants[s] == 0) {
+                    candidats[nb++] = s;
+                    int distance = d[ville][scenario.villeDuSommet[s]];
+                    min = Math.min(min, distance);
+                    max = Math.max(max, distance);
+                }
+            }
+            double seuil = min + alpha * (max - min);
+            int retenus = 0;
+            for (int k = 0; k < nb; k++) {
+                if (d[ville][scenario.villeDuSommet[candidats[k]]] <= seuil) {
+                    candidats[retenus++] = candidats[k];
+                }
+            }
+
+            int choisi = candidats[aleatoire.nextInt(retenus)];
+            ordre[etape] = choisi;
+            places[choisi] = true;
+            for (int s : successeurs[choisi]) {
+                manquants[s]--;
+            }
+            ville = scenario.villeDuSommet[choisi];
+        }
+        return ordre;
+    }
+}
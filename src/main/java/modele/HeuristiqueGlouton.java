@@ -12,19 +12,16 @@ import java.util.*;
  *
  * La classe utilise les données extraites via {@link Extraction} pour construire les sommets
  * (villes) et les commandes (livraisons) à réaliser.
+ *
+ * Une instance est propre à un scénario et ne change plus après sa construction :
+ * plusieurs scénarios peuvent être résolus en même temps, et une même instance
+ * peut être utilisée depuis plusieurs threads.
  */
 public class HeuristiqueGlouton {
+    private final Extraction extraction;
+    private final int numeroScenario;
     private final List<String> sommets;
-    private static List<Commande> commandes;
-    private static Extraction extraction;
-
-    static {
-        try {
-            extraction = new Extraction();
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-    }
+    private final List<Commande> commandes;
 
     /**
      * Initialise l'heuristique pour un scénario donné.
@@ -35,11 +32,12 @@ public class HeuristiqueGlouton {
      */
     public HeuristiqueGlouton(Extraction extraction, int scenarioChoisi) throws FileNotFoundException {
         this.extraction = extraction;
-        sommets = new ArrayList<>();
+        this.numeroScenario = scenarioChoisi;
+        List<String> sommets = new ArrayList<>();
         sommets.add("Velizy");
         sommets.addAll(extraction.getVilles(scenarioChoisi).keySet());
 
-        commandes = new ArrayList<>();
+        List<Commande> commandes = new ArrayList<>();
         for (Map.Entry<String, String> entry : extraction.getScenarios().get(scenarioChoisi).entrySet()) {
             String vendeur = extraction.getMembresVilles().get(entry.getKey());
             String acheteur = extraction.getMembresVilles().get(entry.getValue());
@@ -52,6 +50,8 @@ public class HeuristiqueGlouton {
                 commandes.add(new Commande(vendeur, acheteur, entry.getKey(), entry.getValue()));
             }
         }
+        this.sommets = Collections.unmodifiableList(sommets);
+        this.commandes = Collections.unmodifiableList(commandes);
     }
 
     /**
@@ -77,56 +77,30 @@ public class HeuristiqueGlouton {
      * @return La liste ordonnée des villes visitées dans le parcours.
      * @throws Exception En cas d'erreur lors du calcul des distances.
      */
-    public static List<String> parcoursGlouton() throws Exception {
-        Set<String> villesAVisiter = new HashSet<>();
-        Map<String, List<String>> livraisons = new HashMap<>();
-        for (Commande c : commandes) {
-            villesAVisiter.add(c.vendeur);
-            villesAVisiter.add(c.acheteur);
-            livraisons.computeIfAbsent(c.vendeur, k -> new ArrayList<>()).add(c.acheteur);
+    public List<String> parcoursGlouton() throws Exception {
+        // Identifiants entiers des villes (Velizy en 0) et matrice de leurs distances, pour le noyau
+        List<String> villes = new ArrayList<>();
+        Map<String, Integer> identifiants = new HashMap<>();
+        villes.add("Velizy");
+        identifiants.put("Velizy", 0);
+        int[] vendeurs = new int[commandes.size()];
+        int[] acheteurs = new int[commandes.size()];
+        for (int k = 0; k < commandes.size(); k++) {
+            Commande c = commandes.get(k);
+            vendeurs[k] = identifiants.computeIfAbsent(c.vendeur, v -> { villes.add(v); return villes.size() - 1; });
+            acheteurs[k] = identifiants.computeIfAbsent(c.acheteur, v -> { villes.add(v); return villes.size() - 1; });
         }
-
-        List<String> parcours = new ArrayList<>();
-        Set<String> cartesRamassees = new HashSet<>();
-        Set<Commande> commandesLivrees = new HashSet<>();
-
-        String villeActuelle = "Velizy";
-        parcours.add(villeActuelle);
-
-        while (commandesLivrees.size() < commandes.size()) {
-            String prochaineVille = null;
-            int minDistance = Integer.MAX_VALUE;
-
-            for (Commande c : commandes) {
-                if (!cartesRamassees.contains(c.vendeur)) {
-                    int d = extraction.distanceVilleToVille(villeActuelle, c.vendeur);
-                    if (d < minDistance) {
-                        minDistance = d;
-                        prochaineVille = c.vendeur;
-                    }
-                } else if (cartesRamassees.contains(c.vendeur) && !commandesLivrees.contains(c)) {
-                    int d = extraction.distanceVilleToVille(villeActuelle, c.acheteur);
-                    if (d < minDistance) {
-                        minDistance = d;
-                        prochaineVille = c.acheteur;
-                    }
-                }
-            }
-
-            if (prochaineVille == null) break;
-            villeActuelle = prochaineVille;
-            parcours.add(villeActuelle);
-
-            for (Commande c : commandes) {
-                if (villeActuelle.equals(c.vendeur)) {
-                    cartesRamassees.add(c.vendeur);
-                } else if (villeActuelle.equals(c.acheteur) && cartesRamassees.contains(c.vendeur)) {
-                    commandesLivrees.add(c);
-                }
+        int[][] distances = new int[villes.size()][villes.size()];
+        for (int a = 0; a < villes.size(); a++) {
+            for (int b = 0; b < villes.size(); b++) {
+                distances[a][b] = extraction.distanceVilleToVille(villes.get(a), villes.get(b));
             }
         }
 
-        if (!villeActuelle.equals("Velizy")) parcours.add("Velizy");
+        List<String> parcours = new ArrayList<>();
+        for (int ville : new NoyauGlouton(distances, vendeurs, acheteurs).parcours()) {
+            parcours.add(villes.get(ville));
+        }
         return parcours;
     }
     /**
@@ -136,7 +110,7 @@ public class HeuristiqueGlouton {
      * @return La distance totale en kilomètres.
      * @throws Exception En cas d'erreur lors de l'accès aux distances entre villes.
      */
-    public static int calculDistance(List<String> parcours) throws Exception {
+    public int calculDistance(List<String> parcours) throws Exception {
         int distance = 0;
         for (int i = 0; i < parcours.size() - 1; i++) {
             String from = parcours.get(i);
@@ -167,11 +141,10 @@ public class HeuristiqueGlouton {
     /**
      * Génère un résumé du scénario, comprenant le parcours calculé et la distance totale.
      *
-     * @param numeroScenario Numéro du scénario à résumer.
      * @return Un objet {@link ResumeScenario} contenant les résultats.
      * @throws Exception En cas d'erreur lors du calcul du parcours ou de la distance.
      */
-    public static ResumeScenario genererResumeScenario(int numeroScenario) throws Exception {
+    public ResumeScenario genererResumeScenario() throws Exception {
         List<String> parcours = parcoursGlouton();
         int distance = calculDistance(parcours);
         return new ResumeScenario(numeroScenario, parcours, distance);
@@ -0,0 +1,201 @@
+package modele;
+
+import java.util.*;
+
+/**
+ * Heuristique constructive par insertion la moins chère.
+ *
+ * Là où {@link HeuristiqueGlouton} avance toujours vers l'arrêt en attente le plus
+ * proche, quitte à faire de longs détours à la fin, cette heuristique fait grandir
+ * une tournée fermée partant de Velizy. Elle commence par la ville la plus éloignée
+ * (partir de la plus proche donne des tournées nettement plus longues), puis insère
+ * à chaque étape la ville dont les deux sommets "v+" (vendre) et "v-" (acheter)
+ * s'ajoutent au moindre coût, aux positions qui respectent les contraintes
+ * vendeur → acheteur avec les villes déjà insérées. Les villes pas encore insérées ne contraignent rien : leurs sommets
+ * trouveront toujours une place, "+" en tête et "-" en fin de tournée au pire.
+ *
+ * Le coût d'insertion d'un sommet de chaque ville dans chaque intervalle de la
+ * tournée est gardé en cache. Une insertion ne change que les deux intervalles où
+ * elle a lieu : seuls 3 ou 4 coûts sont recalculés par ville restante, les autres
+ * sont décalés. Le meilleur couple de positions d'une ville se trouve ensuite en un
+ * seul parcours des intervalles, en retenant le meilleur intervalle de "v+" vu
+ * jusque-là ({@link #meilleureInsertion}, partagé avec la réparation de
+ * {@link RechercheGrandVoisinage}).
+ *
+ * Le cache ne rend quadratique que le nombre d'évaluations de distances : le
+ * parcours des intervalles et le décalage des caches restent en O(n) par ville
+ * restante et par étape, et la construction en O(n³).
+ */
+public class HeuristiqueInsertion {
+    private final ScenarioCompile scenario;
+
+    public HeuristiqueInsertion(ScenarioCompile scenario) {
+        this.scenario = scenario;
+    }
+
+    /**
+     * Génère un résumé du scénario avec le parcours construit par insertion.
+     *
+     * @param extraction Les données de l'application.
+     * @param numeroScenario Numéro du scénario à résumer.
+     * @return Un objet {@link ResumeScenario} contenant le parcours et sa distance.
+     * @throws Exception Si le scénario n'existe pas ou si ses données sont incohérentes.
+     */
+    public static ResumeScenario genererResumeScenario(Extraction extraction, int numeroScenario) throws Exception {
+        return new HeuristiqueInsertion(ScenarioCompile.compiler(extraction, numeroScenario)).genererResumeScenario();
+    }
+
+    /** @return le résumé du parcours construit par insertion. */
+    public ResumeScenario genererResumeScenario() {
+        return scenario.versResume(construire());
+    }
+
+    /** @return l'ordre de sommets construit par insertion la moins chère. */
+    public int[] construire() {
+        int n = scenario.nbSommets();
+        int nbVilles = scenario.nbVilles();
+        int[][] d = scenario.distances;
+
+        // Tournée partielle et position de chaque sommet inséré (-1 sinon)
+        int[] tournee = new int[n];
+        int taille = 0;
+        int[] positions = new int[n];
+        Arrays.fill(positions, -1);
+
+        // couts[v][g] : coût d'insertion d'un sommet de la ville v dans l'intervalle g,
+        // entre tournee[g - 1] (ou Velizy) et tournee[g] (ou Velizy)
+        int[][] couts = new int[nbVilles][n + 1];
+        boolean[] inseree = new boolean[nbVilles];
+        for (int v = 1; v < nbVilles; v++) {
+            couts[v][0] = d[0][v] + d[v][0] - d[0][0];
+        }
+        int[] nouveaux = new int[n + 1];
+        int[] insertion = new int[3];
+
+        for (int etape = 1; etape < nbVilles; etape++) {
+            int meilleureVille = -1;
+            int meilleurCout = Integer.MAX_VALUE;
+            int meilleurPlus = 0;
+            int meilleurMoins = 0;
+            for (int v = 1; v < nbVilles; v++) {
+                if (taille == 0) {
+                    // Amorce : l'aller-retour le plus long, que les villes suivantes viendront jalonner
+                    if (meilleureVille == -1 || couts[v][0] > couts[meilleureVille][0]) {
+                        meilleureVille = v;
+                    }
+                    continue;
+                }
+                if (inseree[v]) {
+                    continue;
+                }
+                meilleureInsertion(scenario, v, couts[v], taille, positions, insertion);
+                if (insertion[0] < meilleurCout) {
+                    meilleurCout = insertion[0];
+                    meilleureVille = v;
+                    meilleurPlus = insertion[1];
+                    meilleurMoins = insertion[2];
+                }
+            }
+
+            // Insertion de "v-" puis de "v+" pour garder les indices valides
+            int plus = ScenarioCompile.sommetPlus(meilleureVille);
+            int moins = ScenarioCompile.sommetMoins(meilleureVille);
+            System.arraycopy(tournee, meilleurMoins, tournee, meilleurMoins + 1, taille - meilleurMoins);
+            tournee[meilleurMoins] = moins;
+            System.arraycopy(tournee, meilleurPlus, tournee, meilleurPlus + 1, taille + 1 - meilleurPlus);
+            tournee[meilleurPlus] = plus;
+            taille += 2;
+            for (int i = meilleurPlus; i < taille; i++) {
+                positions[tournee[i]] = i;
+            }
+            inseree[meilleureVille] = true;
+
+            // Mise à jour des caches : intervalles découpés recalculés, les autres décalés
+            int moinsInsere = meilleurMoins + 1;
+            for (int v = 1; v < nbVilles; v++) {
+                if (inseree[v]) {
+                    continue;
+                }
+                int[] anciens = couts[v];
+                for (int g = 0; g <= taille; g++) {
+                    if (g <= meilleurPlus) {
+                        nouveaux[g] = g == meilleurPlus ? coutIntervalle(tournee, taille, v, g) : anciens[g];
+                    } else if (g <= moinsInsere + 1) {
+                        boolean touche = g == meilleurPlus + 1 || g == moinsInsere || g == moinsInsere + 1;
+                        nouveaux[g] = touche ? coutIntervalle(tournee, taille, v, g) : anciens[g - 1];
+                    } else {
+                        nouveaux[g] = anciens[g - 2];
+                    }
+                }
+                couts[v] = nouveaux;
+                nouveaux = anciens;
+            }
+        }
+        return tournee;
+    }
+
+    /**
+     * Cherche les intervalles les moins coûteux pour insérer les deux sommets d'une
+     * ville dans une tournée partielle. L'intervalle g est l'écart juste avant le
+     * g-ième sommet de la tournée (g = taille : avant le retour à Velizy). "v+" doit
+     * précéder le premier "-" inséré qu'il débloque, "v-" suivre le dernier "+" inséré
+     * qu'il attend ; les sommets pas encore insérés ne contraignent rien.
+     *
+     * @param scenario Le scénario compilé.
+     * @param ville La ville à insérer, dont aucun sommet n'est dans la tournée.
+     * @param couts L'allongement du parcours en passant par la ville dans chaque intervalle 0..taille.
+     * @param taille Le nombre de sommets de la tournée partielle.
+     * @param positions La position de chaque sommet dans la tournée, -1 s'il n'y est pas.
+     * @param resultat Reçoit {coût, intervalle du "+", intervalle du "-"}, avec
+     *                 intervalle du "+" ≤ intervalle du "-" (même intervalle : "+" puis "-").
+     */
+    static void meilleureInsertion(ScenarioCompile scenario, int ville, int[] couts, int taille,
+                                   int[] positions, int[] resultat) {
+        int plus = ScenarioCompile.sommetPlus(ville);
+        int moins = ScenarioCompile.sommetMoins(ville);
+        int limitePlus = taille;
+        for (int s : scenario.successeurs[plus]) {
+            if (positions[s] >= 0) {
+                limitePlus = Math.min(limitePlus, positions[s]);
+            }
+        }
+        int minimumMoins = 0;
+        for (int p : scenario.predecesseurs[moins]) {
+            if (positions[p] >= 0) {
+                minimumMoins = Math.max(minimumMoins, positions[p] + 1);
+            }
+        }
+
+        int coutMemeIntervalle = scenario.distances[ville][ville];
+        resultat[0] = Integer.MAX_VALUE;
+        int meilleurPrefixe = Integer.MAX_VALUE;
+        int gPrefixe = -1;
+        for (int g = 0; g <= taille; g++) {
+            if (g >= minimumMoins) {
+                // "v+" et "v-" côte à côte dans l'intervalle g
+                if (g <= limitePlus && couts[g] + coutMemeIntervalle < resultat[0]) {
+                    resultat[0] = couts[g] + coutMemeIntervalle;
+                    resultat[1] = g;
+                    resultat[2] = g;
+                }
+                // "v+" dans un intervalle antérieur
+                if (gPrefixe >= 0 && meilleurPrefixe + couts[g] < resultat[0]) {
+                    resultat[0] = meilleurPrefixe + couts[g];
+                    resultat[1] = gPrefixe;
+                    resultat[2] = g;
+                }
+            }
+            if (g <= limitePlus && couts[g] < meilleurPrefixe) {
+                meilleurPrefixe = couts[g];
+                gPrefixe = g;
+            }
+        }
+    }
+
+    /** @return le coût d'insertion d'un sommet de la ville v dans l'intervalle g de la tournée. */
+    private int coutIntervalle(int[] tournee, int taille, int v, int g) {
+        int avant = g == 0 ? 0 : scenario.villeDuSommet[tournee[g - 1]];
+        int apres = g == taille ? 0 : scenario.villeDuSommet[tournee[g]];
+        return scenario.distances[avant][v] + scenario.distances[v][apres] - scenario.distances[avant][apres];
+    }
+}
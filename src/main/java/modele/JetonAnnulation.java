@@ -0,0 +1,26 @@
+package modele;
+
+/**
+ * Jeton d'annulation coopérative d'une résolution.
+ *
+ * Un thread (par exemple l'interface graphique) appelle {@link #annuler()} ;
+ * l'algorithme consulte {@link #estAnnule()} régulièrement et s'arrête en
+ * retournant les meilleures solutions déjà trouvées.
+ */
+public final class JetonAnnulation {
+    private volatile boolean annule;
+
+    /**
+     * Demande l'arrêt de la résolution. Sans effet si elle est déjà terminée.
+     */
+    public void annuler() {
+        annule = true;
+    }
+
+    /**
+     * @return true si l'annulation a été demandée.
+     */
+    public boolean estAnnule() {
+        return annule;
+    }
+}
@@ -1,6 +1,7 @@
 package modele;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.List;
 import java.util.Scanner;
 
@@ -14,27 +15,43 @@ import java.util.Scanner;
  * 
  *
  * Le programme demande à l'utilisateur de saisir un numéro de scénario existant,
- * puis affiche successivement les résultats des deux algorithmes :
+ * puis affiche le nombre d'ordres de visite respectant les précédences
+ * ({@link ExtensionsLineaires}) et les résultats des algorithmes :
  * 
  *   Le résultat textuel du tri topologique.
  *   Le résumé du parcours calculé par l'heuristique gloutonne, 
  *       sous la forme d'un objet {@link ResumeScenario} affichant l'ordre des visites et la distance totale.
  * 
  *
+ * Avec l'argument {@code --lots [premier dernier]}, le programme ne pose aucune question :
+ * il résout tous les scénarios (ou ceux de la plage donnée) avec tous les algorithmes de
+ * {@link ResolutionParLots#parDefaut}, en parallèle, et affiche un tableau récapitulatif.
+ * Les résultats optimaux sont gardés dans le cache sur disque ({@link CacheDisque}) :
+ * relancer le lot sur des scénarios inchangés les relit au lieu de les recalculer.
+ *
  * Le programme gère les erreurs liées à l'absence des fichiers de données ou autres exceptions
  * en affichant des messages adaptés.
  */
 public class Main {
+    // Délai accordé aux algorithmes itératifs pour chaque scénario en mode lots
+    private static final long DELAI_LOTS_MS = 2_000;
 
     /**
      * Point d'entrée principal de l'application.
      *
-     * @param args arguments de la ligne de commande (non utilisés)
+     * @param args arguments de la ligne de commande : vides, ou {@code --lots [premier dernier]}
      */
     public static void main(String[] args) {
         try {
             Extraction extraction = new Extraction();
 
+            if (args.length > 0 && args[0].equals("--lots")) {
+                int premier = args.length > 2 ? Integer.parseInt(args[1]) : Integer.MIN_VALUE;
+                int dernier = args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE;
+                resoudreParLots(extraction, premier, dernier);
+                return;
+            }
+
             // Demande à l'utilisateur quel scénario il veut tester
             Scanner scanner = new Scanner(System.in);
             System.out.print("Entrez le numéro du scénario à exécuter (0 à " + (extraction.getScenarios().size() - 1) + ") : ");
@@ -45,6 +62,11 @@ public class Main {
                 return;
             }
 
+            // Taille de l'espace de recherche
+            System.out.println("\n===== Nombre d'Ordres de Visite Respectant les Précédences =====");
+            ScenarioCompile scenario = ScenarioCompile.compiler(extraction, scenarioChoisi);
+            System.out.println(new ExtensionsLineaires(scenario).compter());
+
             // Tri topologique 
             System.out.println("\n===== Résultat du Tri Topologique =====");
             String triTopoResultat = TriTopologique.trierVilles(extraction, scenarioChoisi);
@@ -53,9 +75,13 @@ public class Main {
             // Heuristique gloutonne
             System.out.println("\n===== Résultat de l'Heuristique Gloutonne =====");
             HeuristiqueGlouton heuristique = new HeuristiqueGlouton(extraction, scenarioChoisi);
-            ResumeScenario resumeGlouton = heuristique.genererResumeScenario(scenarioChoisi);
+            ResumeScenario resumeGlouton = heuristique.genererResumeScenario();
             System.out.println(resumeGlouton);
 
+            // Insertion la moins chère
+            System.out.println("\n===== Résultat de l'Heuristique d'Insertion =====");
+            System.out.println(HeuristiqueInsertion.genererResumeScenario(extraction, scenarioChoisi));
+
             // K meilleurs solution
             System.out.println("\n===== Résultat des K Meilleures Solutions =====");
             System.out.print("Combien de solutions souhaitez-vous afficher ? (1 à 100) : ");
@@ -76,4 +102,25 @@ public class Main {
             e.printStackTrace();
         }
     }
+
+    // Résout la plage de scénarios en passant par le cache sur disque, s'il peut être ouvert
+    private static void resoudreParLots(Extraction extraction, int premier, int dernier) throws Exception {
+        CacheResultats cache = new CacheResultats(CacheResultats.CAPACITE_PAR_DEFAUT);
+        CacheDisque disque = null;
+        try {
+            disque = CacheDisque.ouvrir();
+        } catch (IOException e) {
+            System.out.println("Cache sur disque indisponible : " + e.getMessage());
+        }
+        try {
+            cache.setDisque(disque);
+            ResolutionParLots lot = ResolutionParLots.parDefaut(extraction, DELAI_LOTS_MS).avecCache(cache);
+            System.out.println(ResolutionParLots.tableau(lot.resoudre(premier, dernier)));
+            System.out.println("Cache des résultats : " + cache.getStatistiques());
+        } finally {
+            if (disque != null) {
+                disque.close();
+            }
+        }
+    }
 }
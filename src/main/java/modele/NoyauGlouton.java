@@ -0,0 +1,159 @@
+package modele;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Noyau entier de l'heuristique gloutonne : même parcours que
+ * {@link HeuristiqueGlouton#parcoursGlouton()}, sans chaînes ni collections.
+ *
+ * Les villes sont des entiers (0 pour Velizy) et les commandes deux tableaux
+ * vendeur / acheteur. Chaque ville tient ses compteurs : vente encore à ramasser,
+ * commandes ramassées et pas encore livrées, commandes pas encore livrées du tout.
+ * Visiter une ville met ces compteurs à jour en O(1) par commande débloquée, au
+ * lieu de reparcourir toutes les commandes.
+ *
+ * La prochaine ville est cherchée dans la liste des voisins de la ville courante,
+ * triée une fois pour toutes par distance croissante : on s'arrête dès qu'une ville
+ * plus lointaine que la première ville éligible est atteinte. Les villes n'ayant
+ * plus rien à faire sont sautées définitivement grâce à un indice de début par
+ * liste. À distance égale, la ville retenue est celle de la première commande
+ * éligible dans l'ordre des commandes, comme dans le parcours d'origine.
+ *
+ * Les tableaux de travail sont alloués une fois par parcours : aucune étape ne crée
+ * d'objet.
+ */
+public final class NoyauGlouton {
+    private static final int AUCUNE = Integer.MAX_VALUE;
+
+    private final int nbVilles;
+    private final int[][] distances;
+    private final int nbCommandes;
+    private final int[] acheteurs;
+    // Voisins de chaque ville (elle comprise) par distance croissante
+    private final int[][] voisins;
+    // Commandes vendues par chaque ville, et indice de la première d'entre elles (AUCUNE si aucune)
+    private final int[][] ventes;
+    private final int[] premiereVente;
+    private final int[] nbAchats;
+
+    /**
+     * @param distances La matrice des distances entre villes, Velizy en 0.
+     * @param vendeurs La ville vendeuse de chaque commande.
+     * @param acheteurs La ville acheteuse de chaque commande (différente de la vendeuse).
+     */
+    public NoyauGlouton(int[][] distances, int[] vendeurs, int[] acheteurs) {
+        if (vendeurs.length != acheteurs.length) {
+            throw new IllegalArgumentException("Autant de vendeurs que d'acheteurs attendus");
+        }
+        this.nbVilles = distances.length;
+        this.distances = distances;
+        this.nbCommandes = vendeurs.length;
+        this.acheteurs = acheteurs;
+
+        int[] nbVentes = new int[nbVilles];
+        nbAchats = new int[nbVilles];
+        for (int k = 0; k < nbCommandes; k++) {
+            nbVentes[vendeurs[k]]++;
+            nbAchats[acheteurs[k]]++;
+        }
+        ventes = new int[nbVilles][];
+        premiereVente = new int[nbVilles];
+        for (int v = 0; v < nbVilles; v++) {
+            ventes[v] = new int[nbVentes[v]];
+            premiereVente[v] = AUCUNE;
+        }
+        int[] remplies = new int[nbVilles];
+        for (int k = 0; k < nbCommandes; k++) {
+            int v = vendeurs[k];
+            ventes[v][remplies[v]++] = k;
+            premiereVente[v] = Math.min(premiereVente[v], k);
+        }
+
+        voisins = new int[nbVilles][];
+        for (int v = 0; v < nbVilles; v++) {
+            int[] distancesDepuis = distances[v];
+            voisins[v] = IntStream.range(0, nbVilles).boxed()
+                    .sorted(Comparator.comparingInt(w -> distancesDepuis[w]))
+                    .mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Construit le parcours glouton.
+     *
+     * @return Les villes visitées dans l'ordre, de Velizy à Velizy.
+     */
+    public int[] parcours() {
+        boolean[] ramassee = new boolean[nbVilles];
+        // Commandes ramassées et pas encore livrées, et plus petit indice parmi elles
+        int[] aLivrer = new int[nbVilles];
+        int[] premiereALivrer = new int[nbVilles];
+        Arrays.fill(premiereALivrer, AUCUNE);
+        int[] restantes = nbAchats.clone();
+        int[] debut = new int[nbVilles];
+        // Chaque étape ramasse une ville ou livre au moins une commande
+        int[] parcours = new int[2 * nbCommandes + 2];
+        int taille = 0;
+
+        int ville = 0;
+        parcours[taille++] = ville;
+        int livrees = 0;
+        while (livrees < nbCommandes) {
+            int[] liste = voisins[ville];
+            while (debut[ville] < nbVilles && estTerminee(liste[debut[ville]], ramassee, restantes)) {
+                debut[ville]++;
+            }
+
+            int prochaine = -1;
+            int distanceMin = 0;
+            int commandeMin = AUCUNE;
+            for (int i = debut[ville]; i < nbVilles; i++) {
+                int candidate = liste[i];
+                int distance = distances[ville][candidate];
+                if (prochaine != -1 && distance > distanceMin) {
+                    break;
+                }
+                int commande = premiereALivrer[candidate];
+                if (!ramassee[candidate]) {
+                    commande = Math.min(commande, premiereVente[candidate]);
+                }
+                if (commande != AUCUNE && (prochaine == -1 || commande < commandeMin)) {
+                    prochaine = candidate;
+                    distanceMin = distance;
+                    commandeMin = commande;
+                }
+            }
+
+            if (prochaine == -1) {
+                break;
+            }
+            ville = prochaine;
+            parcours[taille++] = ville;
+
+            // Livraisons des commandes déjà ramassées, puis ramassage des ventes de la ville
+            livrees += aLivrer[ville];
+            restantes[ville] -= aLivrer[ville];
+            aLivrer[ville] = 0;
+            premiereALivrer[ville] = AUCUNE;
+            if (!ramassee[ville] && premiereVente[ville] != AUCUNE) {
+                ramassee[ville] = true;
+                for (int k : ventes[ville]) {
+                    int acheteur = acheteurs[k];
+                    aLivrer[acheteur]++;
+                    premiereALivrer[acheteur] = Math.min(premiereALivrer[acheteur], k);
+                }
+            }
+        }
+
+        if (ville != 0) {
+            parcours[taille++] = 0;
+        }
+        return Arrays.copyOf(parcours, taille);
+    }
+
+    /** @return true si la ville n'a plus ni vente à ramasser ni commande à recevoir. */
+    private boolean estTerminee(int ville, boolean[] ramassee, int[] restantes) {
+        return (ramassee[ville] || premiereVente[ville] == AUCUNE) && restantes[ville] == 0;
+    }
+}
@@ -0,0 +1,179 @@
+package modele;
+
+/**
+ * Paramètres d'une résolution : nombre de solutions voulues, budget de temps,
+ * budget de calculs, parallélisme et jeton d'annulation.
+ *
+ * Les options sont immuables : chaque méthode {@code avec...} retourne une copie
+ * modifiée, ce qui permet de partager une même instance entre plusieurs threads.
+ *
+ * Pour choisir une limite de calculs, {@link ExtensionsLineaires} donne la taille
+ * d'un scénario : le nombre d'ordres respectant ses contraintes (les feuilles de
+ * l'arbre exhaustif) et le nombre d'ensembles de sommets placés (les états des
+ * méthodes exactes, au facteur ville courante près).
+ *
+ * Exemple :
+ * {@code OptionsResolution.parDefaut().avecK(5).avecDelaiMs(2_000)}
+ */
+public final class OptionsResolution {
+    public static final long DELAI_PAR_DEFAUT_MS = 10_000; // 10 secondes
+    public static final long LIMITE_CALCULS_PAR_DEFAUT = 500_000; // Nombre max de branches explorées
+    /** Valeur à utiliser pour un budget de temps ou de calculs illimité. */
+    public static final long ILLIMITE = Long.MAX_VALUE;
+
+    private final int k;
+    private final long delaiMs;
+    private final long limiteCalculs;
+    private final int parallelisme;
+    private final JetonAnnulation jeton;
+    private final boolean tableTransposition;
+    private final boolean etiquetage;
+    private final boolean reduction;
+
+    private OptionsResolution(int k, long delaiMs, long limiteCalculs, int parallelisme, JetonAnnulation jeton,
+                              boolean tableTransposition, boolean etiquetage, boolean reduction) {
+        this.k = k;
+        this.delaiMs = delaiMs;
+        this.limiteCalculs = limiteCalculs;
+        this.parallelisme = parallelisme;
+        this.jeton = jeton;
+        this.tableTransposition = tableTransposition;
+        this.etiquetage = etiquetage;
+        this.reduction = reduction;
+    }
+
+    /**
+     * @return les options par défaut : une solution, 10 secondes, 500 000 calculs,
+     *         un seul thread, table de transposition, étiquetage et réduction actifs et
+     *         un jeton d'annulation propre à ces options.
+     */
+    public static OptionsResolution parDefaut() {
+        return new OptionsResolution(1, DELAI_PAR_DEFAUT_MS, LIMITE_CALCULS_PAR_DEFAUT, 1, new JetonAnnulation(), true, true, true);
+    }
+
+    public OptionsResolution avecK(int k) {
+        return new OptionsResolution(k, delaiMs, limiteCalculs, parallelisme, jeton, tableTransposition, etiquetage, reduction);
+    }
+
+    /**
+     * @param delaiMs durée maximale de la résolution en millisecondes, ou {@link #ILLIMITE}.
+     */
+    public OptionsResolution avecDelaiMs(long delaiMs) {
+        if (delaiMs < 0) {
+            throw new IllegalArgumentException("Délai négatif : " + delaiMs);
+        }
+        return new OptionsResolution(k, delaiMs, limiteCalculs, parallelisme, jeton, tableTransposition, etiquetage, reduction);
+    }
+
+    /**
+     * @param limiteCalculs nombre maximal de nœuds explorés, ou {@link #ILLIMITE}.
+     */
+    public OptionsResolution avecLimiteCalculs(long limiteCalculs) {
+        if (limiteCalculs < 0) {
+            throw new IllegalArgumentException("Limite de calculs négative : " + limiteCalculs);
+        }
+        return new OptionsResolution(k, delaiMs, limiteCalculs, parallelisme, jeton, tableTransposition, etiquetage, reduction);
+    }
+
+    /**
+     * @param parallelisme nombre de threads de calcul (1 pour une résolution séquentielle).
+     */
+    public OptionsResolution avecParallelisme(int parallelisme) {
+        return new OptionsResolution(k, delaiMs, limiteCalculs, Math.max(1, parallelisme), jeton, tableTransposition, etiquetage, reduction);
+    }
+
+    /**
+     * @param jeton jeton permettant d'interrompre la résolution depuis un autre thread.
+     */
+    public OptionsResolution avecJeton(JetonAnnulation jeton) {
+        return new OptionsResolution(k, delaiMs, limiteCalculs, parallelisme, jeton, tableTransposition, etiquetage, reduction);
+    }
+
+    /**
+     * @param active true pour couper les préfixes dominés par un préfixe moins cher
+     *               atteignant le même état (sommets placés, ville courante).
+     */
+    public OptionsResolution avecTableTransposition(boolean active) {
+        return new OptionsResolution(k, delaiMs, limiteCalculs, parallelisme, jeton, active, etiquetage, reduction);
+    }
+
+    /**
+     * @param active true pour calculer exactement les petits scénarios par étiquetage
+     *               sur le graphe des états, false pour toujours utiliser le branch and bound.
+     */
+    public OptionsResolution avecEtiquetage(boolean active) {
+        return new OptionsResolution(k, delaiMs, limiteCalculs, parallelisme, jeton, tableTransposition, active, reduction);
+    }
+
+    /**
+     * @param active true pour fusionner, dans la recherche exacte de la meilleure solution,
+     *               les sommets des villes qui ne vendent rien ou n'achètent rien
+     *               (voir {@link ReductionSommets}).
+     */
+    public OptionsResolution avecReduction(boolean active) {
+        return new OptionsResolution(k, delaiMs, limiteCalculs, parallelisme, jeton, tableTransposition, etiquetage, active);
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public long getDelaiMs() {
+        return delaiMs;
+    }
+
+    public long getLimiteCalculs() {
+        return limiteCalculs;
+    }
+
+    public int getParallelisme() {
+        return parallelisme;
+    }
+
+    public JetonAnnulation getJeton() {
+        return jeton;
+    }
+
+    public boolean utiliseTableTransposition() {
+        return tableTransposition;
+    }
+
+    public boolean utiliseEtiquetage() {
+        return etiquetage;
+    }
+
+    public boolean utiliseReduction() {
+        return reduction;
+    }
+
+    /**
+     * Calcule l'échéance absolue (au sens de {@link System#nanoTime()}) d'une
+     * résolution démarrant maintenant.
+     *
+     * @return l'échéance en nanosecondes, ou {@link Long#MAX_VALUE} si le délai est illimité.
+     */
+    public long calculerEcheanceNanos() {
+        long maintenant = System.nanoTime();
+        if (delaiMs == ILLIMITE || delaiMs > (Long.MAX_VALUE - maintenant) / 1_000_000) {
+            return Long.MAX_VALUE;
+        }
+        return maintenant + delaiMs * 1_000_000;
+    }
+
+    /**
+     * @return les paramètres qui influent sur le résultat (tous sauf le jeton), sous
+     *         une forme stable servant de clé de cache (voir {@link CacheResultats}).
+     */
+    public String cle() {
+        return "k=" + k + ";delai=" + delaiMs + ";calculs=" + limiteCalculs + ";threads=" + parallelisme
+                + ";table=" + tableTransposition + ";etiquetage=" + etiquetage + ";reduction=" + reduction;
+    }
+
+    @Override
+    public String toString() {
+        return "k=" + k
+                + ", delai=" + (delaiMs == ILLIMITE ? "illimité" : delaiMs + " ms")
+                + ", calculs=" + (limiteCalculs == ILLIMITE ? "illimité" : limiteCalculs)
+                + ", threads=" + parallelisme;
+    }
+}
@@ -0,0 +1,274 @@
+package modele;
+
+import java.util.*;
+
+/**
+ * Choix automatique de l'algorithme selon la taille du scénario et le délai accordé.
+ *
+ * La taille de l'espace de recherche est estimée à partir du scénario compilé
+ * ({@link #estimer}) : c'est le nombre d'états (sommets placés, ville courante)
+ * de la programmation dynamique. Chaque ville hors dépôt est dans l'un de trois
+ * états (aucun sommet placé, "v+" seul, les deux), et chaque contrainte de vente
+ * entre deux villes interdit à peu près une combinaison sur neuf.
+ *
+ * Un modèle de coût linéaire en nombre d'états prédit la durée des méthodes exactes
+ * (étiquetage pour les K meilleures solutions, A* pour la meilleure). Le plan
+ * ({@link #planifier}) retient la méthode la plus sûre qui tient dans le délai :
+ * - EXACT : une méthode exacte dont la durée prédite tient dans le délai ;
+ * - ANYTIME : un {@link Portefeuille} de méthodes qui s'améliorent jusqu'au délai
+ *   (recherche à grand voisinage, colonie de fourmis, A* pour K = 1, et
+ *   {@link DecompositionGeographique} pour les très grands scénarios) ;
+ * - HEURISTIQUE : la meilleure des constructions rapides (glouton, insertion), quand
+ *   le délai est trop court pour le reste.
+ *
+ * Les coefficients par défaut ont été mesurés sur les scénarios des données, en
+ * gardant le plus grand coût par état observé ; {@link #calibrer} les remesure sur
+ * la machine courante.
+ */
+public class Planificateur implements Solveur {
+    /** Nanosecondes par état de l'étiquetage pour K = 1, mesurées sur les scénarios des données. */
+    public static final double NS_PAR_ETAT_ETIQUETAGE = 500;
+    /** Nanosecondes par état estimé de l'A*, qui n'en développe qu'une petite partie. */
+    public static final double NS_PAR_ETAT_A_ETOILE = 50;
+    /** En dessous de ce délai, seules les constructions rapides sont lancées. */
+    public static final long DELAI_MIN_ANYTIME_MS = 50;
+    /** Au-delà de ce nombre de sommets, le regroupement géographique rejoint les méthodes anytime. */
+    public static final int SEUIL_SOMMETS_REGROUPEMENT = 200;
+
+    // Surcoût de l'étiquetage par étiquette supplémentaire gardée dans chaque état
+    private static final double SURCOUT_PAR_ETIQUETTE = 0.4;
+    // Au-delà, l'A* dépasse sa capacité de nœuds et finit en faisceau, sans preuve
+    private static final double LOG_ETATS_MAX_A_ETOILE = 8.5;
+    // En dessous, la durée mesurée est surtout un coût fixe : la mesure est ignorée
+    private static final double ETATS_MIN_CALIBRATION = 10_000;
+
+    /** Famille de méthode retenue par le plan. */
+    public enum Mode {
+        /** Résolution exacte : les solutions sont prouvées optimales. */
+        EXACT,
+        /** Résolution améliorée jusqu'au délai : meilleures solutions trouvées dans le temps imparti. */
+        ANYTIME,
+        /** Construction rapide, sans garantie. */
+        HEURISTIQUE
+    }
+
+    /** La taille estimée d'un scénario. */
+    public static final class Estimation {
+        public final int nbSommets;
+        /** Le nombre de contraintes de précédence entre sommets de villes différentes. */
+        public final int nbContraintes;
+        /** La part des couples de villes liés par une contrainte, entre 0 et 1. */
+        public final double densite;
+        /** Le logarithme décimal du nombre estimé d'ensembles de sommets placés possibles. */
+        public final double log10Ideaux;
+        /** Le logarithme décimal du nombre estimé d'états de la programmation dynamique. */
+        public final double log10Etats;
+
+        Estimation(int nbSommets, int nbContraintes, double densite, double log10Ideaux, double log10Etats) {
+            this.nbSommets = nbSommets;
+            this.nbContraintes = nbContraintes;
+            this.densite = densite;
+            this.log10Ideaux = log10Ideaux;
+            this.log10Etats = log10Etats;
+        }
+
+        /** @return le nombre estimé d'états, plafonné à {@link Double#MAX_VALUE}. */
+        public double etats() {
+            return Math.min(Double.MAX_VALUE, Math.pow(10, log10Etats));
+        }
+
+        @Override
+        public String toString() {
+            return nbSommets + " sommets, " + nbContraintes + " contraintes (densité "
+                    + String.format(Locale.ROOT, "%.2f", densite) + "), environ 10^"
+                    + String.format(Locale.ROOT, "%.1f", log10Etats) + " états";
+        }
+    }
+
+    /** La méthode choisie pour un scénario, avec les options à lui passer. */
+    public static final class Plan {
+        public final Mode mode;
+        public final String methode;
+        public final Solveur solveur;
+        public final OptionsResolution options;
+        public final Estimation estimation;
+        /** La durée prédite par le modèle de coût, ou le délai pour une méthode anytime. */
+        public final long dureeEstimeeMs;
+
+        Plan(Mode mode, String methode, Solveur solveur, OptionsResolution options, Estimation estimation,
+             long dureeEstimeeMs) {
+            this.mode = mode;
+            this.methode = methode;
+            this.solveur = solveur;
+            this.options = options;
+            this.estimation = estimation;
+            this.dureeEstimeeMs = dureeEstimeeMs;
+        }
+
+        @Override
+        public String toString() {
+            return mode + " (" + methode + ", environ " + dureeEstimeeMs + " ms) : " + estimation;
+        }
+    }
+
+    private final double nsParEtatEtiquetage;
+    private final double nsParEtatAEtoile;
+
+    public Planificateur() {
+        this(NS_PAR_ETAT_ETIQUETAGE, NS_PAR_ETAT_A_ETOILE);
+    }
+
+    /**
+     * @param nsParEtatEtiquetage Le coût par état de l'étiquetage exact, pour K = 1.
+     * @param nsParEtatAEtoile Le coût par état estimé de l'A*.
+     */
+    public Planificateur(double nsParEtatEtiquetage, double nsParEtatAEtoile) {
+        if (!(nsParEtatEtiquetage > 0) || !(nsParEtatAEtoile > 0)) {
+            throw new IllegalArgumentException("Les coûts par état doivent être positifs");
+        }
+        this.nsParEtatEtiquetage = nsParEtatEtiquetage;
+        this.nsParEtatAEtoile = nsParEtatAEtoile;
+    }
+
+    /**
+     * Estime la taille de l'espace de recherche d'un scénario.
+     *
+     * @param scenario Le scénario compilé.
+     * @return Le nombre de sommets, de contraintes et le nombre estimé d'états.
+     */
+    public static Estimation estimer(ScenarioCompile scenario) {
+        int nbVilles = scenario.nbVilles() - 1; // le dépôt n'a pas de sommet
+        Set<Long> contraintes = new HashSet<>();
+        for (int sommet = 0; sommet < scenario.nbSommets(); sommet++) {
+            for (int predecesseur : scenario.predecesseurs(sommet)) {
+                int villeAvant = scenario.villeDuSommet(predecesseur);
+                int villeApres = scenario.villeDuSommet(sommet);
+                if (villeAvant != villeApres) {
+                    contraintes.add((long) villeAvant * scenario.nbVilles() + villeApres);
+                }
+            }
+        }
+        double couples = Math.max(1, (double) nbVilles * (nbVilles - 1));
+        double log10Ideaux = Math.max(0, nbVilles * Math.log10(3) + contraintes.size() * Math.log10(8.0 / 9));
+        return new Estimation(scenario.nbSommets(), contraintes.size(), Math.min(1, contraintes.size() / couples),
+                log10Ideaux, log10Ideaux + Math.log10(nbVilles + 1));
+    }
+
+    /**
+     * Choisit la méthode de résolution d'un scénario.
+     *
+     * @param scenario Le scénario compilé.
+     * @param options Les options de l'appelant : K, délai visé, parallélisme et annulation.
+     *                La limite de calculs est levée, seul le délai compte.
+     * @return Le plan : mode, solveur et options à lui passer.
+     */
+    public Plan planifier(ScenarioCompile scenario, OptionsResolution options) {
+        Estimation estimation = estimer(scenario);
+        OptionsResolution optionsPlan = options.avecLimiteCalculs(OptionsResolution.ILLIMITE);
+        long delaiMs = options.getDelaiMs();
+        int k = Math.max(1, options.getK());
+
+        if (scenario.estMasquable()) {
+            double etats = estimation.etats();
+            if (scenario.nbSommets() <= AlgoKSolution.SEUIL_SOMMETS_ETIQUETAGE
+                    && etats * k <= EtiquetageKSolutions.CAPACITE_ETIQUETTES_PAR_DEFAUT) {
+                long duree = millisecondes(nsParEtatEtiquetage * etats * (1 + SURCOUT_PAR_ETIQUETTE * (k - 1)));
+                if (duree <= delaiMs) {
+                    return new Plan(Mode.EXACT, "K solutions", Solveurs.K_SOLUTIONS, optionsPlan, estimation, duree);
+                }
+            }
+            // L'A* ne prouve que la meilleure solution
+            if (k == 1 && estimation.log10Etats <= LOG_ETATS_MAX_A_ETOILE) {
+                long duree = millisecondes(nsParEtatAEtoile * etats);
+                if (duree <= delaiMs) {
+                    return new Plan(Mode.EXACT, "A*", Solveurs.A_ETOILE, optionsPlan, estimation, duree);
+                }
+            }
+        }
+
+        Map<String, Solveur> solveurs = new LinkedHashMap<>();
+        if (delaiMs < DELAI_MIN_ANYTIME_MS) {
+            solveurs.put("Glouton", Solveurs.GLOUTON);
+            solveurs.put("Insertion", Solveurs.INSERTION);
+            // Constructions en temps borné : on attend leur résultat plutôt que de risquer de n'en avoir aucun
+            return new Plan(Mode.HEURISTIQUE, "Glouton, insertion", new Portefeuille(solveurs),
+                    optionsPlan.avecDelaiMs(OptionsResolution.ILLIMITE), estimation, 0);
+        }
+        if (k == 1 && scenario.estMasquable()) {
+            // Peut encore prouver l'optimalité, ce qui arrête la course ; pour K > 1, sa preuve ne suffit pas
+            solveurs.put("A*", Solveurs.A_ETOILE);
+        }
+        solveurs.put("Grand voisinage", Solveurs.GRAND_VOISINAGE);
+        solveurs.put("Colonie de fourmis", Solveurs.FOURMIS);
+        if (scenario.nbSommets() > SEUIL_SOMMETS_REGROUPEMENT) {
+            // Les groupes sont petits : le planificateur de chaque groupe ne redécoupe pas
+            solveurs.put("Regroupement géographique", Solveurs.GEOGRAPHIQUE);
+        }
+        return new Plan(Mode.ANYTIME, String.join(", ", solveurs.keySet()), new Portefeuille(solveurs), optionsPlan,
+                estimation, delaiMs);
+    }
+
+    /**
+     * Planifie puis résout le scénario ; le délai des options est la latence visée.
+     *
+     * @param scenario Le scénario compilé à résoudre.
+     * @param options Les options de résolution.
+     * @return Le résultat de la méthode retenue par {@link #planifier}.
+     */
+    @Override
+    public ResultatResolution resoudre(ScenarioCompile scenario, OptionsResolution options) throws Exception {
+        Plan plan = planifier(scenario, options);
+        return plan.solveur.resoudre(scenario, plan.options);
+    }
+
+    /**
+     * Mesure les coûts par état sur des scénarios : chacun est résolu par étiquetage
+     * (jusqu'à {@code AlgoKSolution.SEUIL_SOMMETS_ETIQUETAGE} sommets) et par A*, dans le
+     * délai donné. Seules les résolutions allées au bout sur assez d'états comptent ; pour chaque méthode,
+     * le plus grand coût par état observé est retenu, la valeur par défaut sinon.
+     *
+     * @param scenarios Les scénarios de référence.
+     * @param delaiMs Le délai accordé à chaque mesure.
+     * @return Un planificateur utilisant les coûts mesurés.
+     * @throws Exception Si une résolution échoue.
+     */
+    public static Planificateur calibrer(Collection<ScenarioCompile> scenarios, long delaiMs) throws Exception {
+        OptionsResolution options = OptionsResolution.parDefaut().avecK(1).avecDelaiMs(delaiMs)
+                .avecLimiteCalculs(OptionsResolution.ILLIMITE);
+        double etiquetage = 0;
+        double aEtoile = 0;
+        for (ScenarioCompile scenario : scenarios) {
+            double etats = estimer(scenario).etats();
+            if (!scenario.estMasquable() || etats < ETATS_MIN_CALIBRATION) {
+                continue;
+            }
+            if (scenario.nbSommets() <= AlgoKSolution.SEUIL_SOMMETS_ETIQUETAGE) {
+                etiquetage = Math.max(etiquetage, mesurer(Solveurs.K_SOLUTIONS, scenario, options, etats));
+            }
+            aEtoile = Math.max(aEtoile, mesurer(Solveurs.A_ETOILE, scenario, options, etats));
+        }
+        return new Planificateur(etiquetage > 0 ? etiquetage : NS_PAR_ETAT_ETIQUETAGE,
+                aEtoile > 0 ? aEtoile : NS_PAR_ETAT_A_ETOILE);
+    }
+
+    public double getNsParEtatEtiquetage() {
+        return nsParEtatEtiquetage;
+    }
+
+    public double getNsParEtatAEtoile() {
+        return nsParEtatAEtoile;
+    }
+
+    // Coût par état d'une résolution, ou 0 si elle n'est pas allée au bout
+    private static double mesurer(Solveur solveur, ScenarioCompile scenario, OptionsResolution options,
+                                  double etats) throws Exception {
+        long debut = System.nanoTime();
+        ResultatResolution resultat = solveur.resoudre(scenario, options);
+        long duree = System.nanoTime() - debut;
+        return resultat.estOptimal() ? duree / etats : 0;
+    }
+
+    private static long millisecondes(double nanosecondes) {
+        return (long) Math.ceil(Math.min(nanosecondes, Long.MAX_VALUE) / 1_000_000);
+    }
+}
@@ -0,0 +1,217 @@
+package modele;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Portefeuille de solveurs mis en concurrence sur un même scénario.
+ *
+ * Tous les solveurs démarrent en même temps, chacun sur son thread, avec le délai
+ * des options comme échéance commune. La course s'arrête dès que :
+ * - un solveur prouve l'optimalité de K solutions (statut OPTIMAL avec au moins K
+ *   solutions : A*, qui ignore K, ne prouve rien au-delà de la meilleure) ;
+ * - tous les solveurs ont terminé ;
+ * - l'échéance est atteinte ou l'appelant annule.
+ * Les solveurs encore en cours sont alors annulés par un jeton propre à la course,
+ * puis interrompus ; ceux qui rendent leur meilleure solution dans le délai de
+ * grâce {@link #GRACE_MS} sont pris en compte.
+ *
+ * Le résultat regroupe les K meilleurs parcours distincts de tous les solveurs ; il
+ * n'est OPTIMAL que si l'un d'eux a prouvé ses K solutions. Pour comparer les
+ * algorithmes, {@link #courir} rend aussi le résultat détaillé de chacun et le nom
+ * du gagnant.
+ *
+ * Comme tout {@link Solveur}, un portefeuille ne garde aucun état entre deux
+ * courses : l'état d'une course reste local à l'appel.
+ */
+public class Portefeuille implements Solveur {
+    /** Temps laissé aux solveurs annulés pour rendre leur meilleure solution. */
+    public static final long GRACE_MS = 200;
+
+    private final Map<String, Solveur> solveurs;
+
+    /** Le bilan d'une course : résultat fusionné, résultat de chaque solveur et gagnant. */
+    public static final class Course {
+        private final ResultatResolution resultat;
+        private final Map<String, ResultatResolution> resultats;
+        private final String gagnant;
+
+        Course(ResultatResolution resultat, Map<String, ResultatResolution> resultats, String gagnant) {
+            this.resultat = resultat;
+            this.resultats = Collections.unmodifiableMap(resultats);
+            this.gagnant = gagnant;
+        }
+
+        /** @return le résultat fusionné, celui que rend {@link Portefeuille#resoudre}. */
+        public ResultatResolution getResultat() {
+            return resultat;
+        }
+
+        /** @return le résultat de chaque solveur ayant rendu une solution, par nom. */
+        public Map<String, ResultatResolution> getResultats() {
+            return resultats;
+        }
+
+        /** @return le nom du solveur ayant trouvé la meilleure solution, ou null. */
+        public String getGagnant() {
+            return gagnant;
+        }
+    }
+
+    /**
+     * @param solveurs Les solveurs en concurrence, par nom (par exemple {@link Solveurs#tous()}).
+     */
+    public Portefeuille(Map<String, Solveur> solveurs) {
+        if (solveurs.isEmpty()) {
+            throw new IllegalArgumentException("Portefeuille vide");
+        }
+        this.solveurs = new LinkedHashMap<>(solveurs);
+    }
+
+    /**
+     * Lance la course et retourne les meilleures solutions obtenues.
+     *
+     * @param scenario Le scénario compilé à résoudre.
+     * @param options Les options transmises à chaque solveur ; leur délai est l'échéance de la course.
+     * @return OPTIMAL si un solveur a prouvé K solutions, ANNULE si l'appelant a annulé, BUDGET_EPUISE
+     *         si l'échéance a arrêté des solveurs, APPROCHE sinon ; avec les K meilleurs parcours distincts.
+     * @throws InterruptedException Si le thread appelant est interrompu pendant la course.
+     */
+    @Override
+    public ResultatResolution resoudre(ScenarioCompile scenario, OptionsResolution options) throws InterruptedException {
+        return courir(scenario, options).getResultat();
+    }
+
+    /**
+     * Lance la course, comme {@link #resoudre}, et en rend le bilan détaillé.
+     *
+     * @param scenario Le scénario compilé à résoudre.
+     * @param options Les options transmises à chaque solveur.
+     * @return Le bilan de la course.
+     * @throws InterruptedException Si le thread appelant est interrompu pendant la course.
+     */
+    public Course courir(ScenarioCompile scenario, OptionsResolution options) throws InterruptedException {
+        long debut = System.currentTimeMillis();
+        long echeance = options.calculerEcheanceNanos();
+        JetonAnnulation course = new JetonAnnulation();
+        OptionsResolution optionsCourse = options.avecJeton(course);
+        int k = options.getK();
+        Map<String, ResultatResolution> resultats = new HashMap<>();
+
+        ExecutorService executeur = Executors.newFixedThreadPool(solveurs.size());
+        CompletionService<Map.Entry<String, ResultatResolution>> termines = new ExecutorCompletionService<>(executeur);
+        List<Future<?>> futurs = new ArrayList<>();
+        for (Map.Entry<String, Solveur> solveur : solveurs.entrySet()) {
+            futurs.add(termines.submit(() -> Map.entry(solveur.getKey(),
+                    solveur.getValue().resoudre(scenario, optionsCourse))));
+        }
+
+        boolean optimal = false;
+        boolean coupe = false;
+        int enCours = solveurs.size();
+        try {
+            while (enCours > 0 && !optimal) {
+                if (options.getJeton().estAnnule() || System.nanoTime() - echeance > 0) {
+                    coupe = true;
+                    break;
+                }
+                Future<Map.Entry<String, ResultatResolution>> termine = termines.poll(10, TimeUnit.MILLISECONDS);
+                if (termine != null) {
+                    enCours--;
+                    optimal = enregistrer(termine, resultats, k);
+                }
+            }
+
+            // Annulation des perdants, qui rendent leur meilleure solution s'ils le peuvent
+            course.annuler();
+            long finGrace = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(GRACE_MS);
+            while (enCours > 0) {
+                Future<Map.Entry<String, ResultatResolution>> termine =
+                        termines.poll(Math.max(0, finGrace - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (termine == null) {
+                    break;
+                }
+                enCours--;
+                optimal |= enregistrer(termine, resultats, k);
+            }
+        } finally {
+            for (Future<?> futur : futurs) {
+                futur.cancel(true);
+            }
+            executeur.shutdownNow();
+        }
+
+        ResultatResolution.Statut statut;
+        if (optimal) {
+            statut = ResultatResolution.Statut.OPTIMAL;
+        } else if (options.getJeton().estAnnule()) {
+            statut = ResultatResolution.Statut.ANNULE;
+        } else if (coupe) {
+            statut = ResultatResolution.Statut.BUDGET_EPUISE;
+        } else {
+            statut = ResultatResolution.Statut.APPROCHE;
+        }
+        Map<ResumeScenario, String> auteurs = new IdentityHashMap<>();
+        List<ResumeScenario> meilleures = fusionner(resultats, k, auteurs);
+        ResultatResolution resultat = new ResultatResolution(statut, meilleures, nbCalculs(resultats),
+                System.currentTimeMillis() - debut);
+        return new Course(resultat, resultats, meilleures.isEmpty() ? null : auteurs.get(meilleures.get(0)));
+    }
+
+    /**
+     * Enregistre le résultat d'un solveur terminé ; un solveur en échec est ignoré.
+     *
+     * @return true si ce résultat prouve l'optimalité de K solutions. Un scénario qui
+     *         a moins de K parcours n'est donc jamais prouvé par le portefeuille.
+     */
+    private static boolean enregistrer(Future<Map.Entry<String, ResultatResolution>> termine,
+                                       Map<String, ResultatResolution> resultats, int k) throws InterruptedException {
+        try {
+            Map.Entry<String, ResultatResolution> resultat = termine.get();
+            resultats.put(resultat.getKey(), resultat.getValue());
+            return resultat.getValue().estOptimal() && resultat.getValue().solutions.size() >= k;
+        } catch (ExecutionException | CancellationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param auteurs Reçoit le nom du solveur de chaque solution gardée.
+     * @return les K meilleurs parcours distincts des résultats.
+     */
+    private List<ResumeScenario> fusionner(Map<String, ResultatResolution> resultats, int k,
+                                           Map<ResumeScenario, String> auteurs) {
+        List<ResumeScenario> toutes = new ArrayList<>();
+        // Parcours dans l'ordre des solveurs : à distance égale, le premier déclaré l'emporte
+        for (String nom : solveurs.keySet()) {
+            ResultatResolution resultat = resultats.get(nom);
+            if (resultat != null) {
+                for (ResumeScenario solution : resultat.solutions) {
+                    toutes.add(solution);
+                    auteurs.put(solution, nom);
+                }
+            }
+        }
+        toutes.sort(Comparator.comparingInt(solution -> solution.distanceTotale));
+
+        List<ResumeScenario> meilleures = new ArrayList<>();
+        Set<List<String>> vus = new HashSet<>();
+        for (ResumeScenario solution : toutes) {
+            if (meilleures.size() >= k) {
+                break;
+            }
+            if (vus.add(solution.ordreVisite)) {
+                meilleures.add(solution);
+            }
+        }
+        return meilleures;
+    }
+
+    private static long nbCalculs(Map<String, ResultatResolution> resultats) {
+        long total = 0;
+        for (ResultatResolution resultat : resultats.values()) {
+            total += resultat.nbCalculs;
+        }
+        return total;
+    }
+}
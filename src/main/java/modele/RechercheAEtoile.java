@@ -0,0 +1,408 @@
+package modele;
+
+import java.util.*;
+
+/**
+ * Recherche de la meilleure solution par A* sur les états (sommets placés, ville courante).
+ *
+ * Les nœuds sont développés par ordre croissant de f = g + h, où g est la
+ * distance déjà parcourue et h la borne inférieure de {@link BorneInferieure}
+ * (arbre couvrant minimal). Comme h ne surestime jamais, le premier nœud complet
+ * sorti du tas est optimal, sans parcourir les sous-arbres dominés qu'explore le
+ * branch and bound en profondeur.
+ *
+ * Chaque état garde la plus petite distance g avec laquelle il a été atteint : un
+ * nœud qui ne l'améliore pas est ignoré (ensemble fermé). La borne n'étant pas
+ * forcément cohérente, un état déjà développé est rouvert si on l'atteint plus court.
+ *
+ * Les nœuds sont stockés dans des tableaux primitifs et le tas binaire est lui
+ * aussi primitif. Quand le nombre de nœuds dépasse la capacité, ou quand le délai
+ * ou la limite de calculs est atteint, la recherche continue en faisceau : seuls les
+ * {@code largeurFaisceau} meilleurs nœuds ouverts sont gardés et prolongés niveau par
+ * niveau jusqu'à une solution complète, retournée avec le statut
+ * {@link ResultatResolution.Statut#BUDGET_EPUISE}. Comme la recherche principale, le
+ * faisceau vérifie l'annulation et le délai tous les N nœuds : une fois le délai
+ * passé, il finit avec une largeur de 1, comme {@link RechercheFaisceau}.
+ *
+ * Seule la meilleure solution est cherchée : le K des options est ignoré.
+ */
+public class RechercheAEtoile {
+    public static final int CAPACITE_NOEUDS_PAR_DEFAUT = 1 << 21; // Environ 80 Mo
+    public static final int LARGEUR_FAISCEAU_PAR_DEFAUT = 256;
+    private static final int INTERVALLE_VERIFICATION = 4096;
+    // Retour de la recherche en faisceau quand elle est annulée
+    private static final int INTERROMPU = -2;
+
+    private final ScenarioCompile scenario;
+    private final BorneInferieure borneInferieure;
+    private final int capaciteNoeuds;
+    private final int largeurFaisceau;
+    private final int n;
+    private final long masqueComplet;
+    private int[] ordre;
+
+    // Nœuds : état, distance parcourue et dernier sommet placé (pour remonter le chemin)
+    private long[] masques;
+    private int[] villes;
+    private int[] distances;
+    private int[] parents;
+    private int[] sommets;
+    private int nbNoeuds;
+
+    // État (masque, ville) → meilleur nœud connu, par adressage ouvert (0 = case vide)
+    private int[] table;
+    private int nbEtats;
+
+    public RechercheAEtoile(ScenarioCompile scenario) {
+        this(scenario, CAPACITE_NOEUDS_PAR_DEFAUT, LARGEUR_FAISCEAU_PAR_DEFAUT);
+    }
+
+    /**
+     * @param scenario Le scénario compilé à résoudre.
+     * @param capaciteNoeuds Le nombre de nœuds au-delà duquel on passe en recherche en faisceau.
+     * @param largeurFaisceau Le nombre de nœuds gardés à chaque niveau en recherche en faisceau.
+     */
+    public RechercheAEtoile(ScenarioCompile scenario, int capaciteNoeuds, int largeurFaisceau) {
+        if (capaciteNoeuds < 1 || largeurFaisceau < 1) {
+            throw new IllegalArgumentException("Capacité et largeur de faisceau doivent être positives");
+        }
+        this.scenario = scenario;
+        this.borneInferieure = new BorneInferieure(scenario);
+        this.capaciteNoeuds = capaciteNoeuds;
+        this.largeurFaisceau = largeurFaisceau;
+        this.n = scenario.nbSommets();
+        this.masqueComplet = n == 64 ? -1L : (1L << n) - 1;
+    }
+
+    /**
+     * Cherche la meilleure solution du scénario.
+     *
+     * @param options Les options de résolution (délai, limite de calculs, annulation).
+     * @return Le résultat : OPTIMAL avec la meilleure solution, BUDGET_EPUISE avec la
+     *         solution trouvée en faisceau, ou ANNULE sans solution.
+     */
+    public ResultatResolution resoudre(OptionsResolution options) {
+        long debut = System.currentTimeMillis();
+        long echeance = options.calculerEcheanceNanos();
+        JetonAnnulation jeton = options.getJeton();
+        ordre = null;
+        initialiser();
+
+        TasBinaire tas = new TasBinaire();
+        int racine = creerNoeud(0L, 0, 0, -1, -1);
+        enregistrerEtat(racine);
+        tas.ajouter(cle(racine), racine);
+
+        long calculs = 0;
+        ResultatResolution.Statut statut = null;
+        int but = -1;
+        while (!tas.estVide()) {
+            int noeud = tas.retirer();
+            if (estPerime(noeud)) {
+                continue;
+            }
+            if (masques[noeud] == masqueComplet) {
+                but = noeud;
+                statut = ResultatResolution.Statut.OPTIMAL;
+                break;
+            }
+
+            calculs++;
+            if (calculs % INTERVALLE_VERIFICATION == 0) {
+                if (jeton.estAnnule() || Thread.currentThread().isInterrupted()) {
+                    statut = ResultatResolution.Statut.ANNULE;
+                    break;
+                }
+                if (System.nanoTime() - echeance > 0) {
+                    statut = ResultatResolution.Statut.BUDGET_EPUISE;
+                }
+            }
+            if (nbNoeuds > capaciteNoeuds || calculs >= options.getLimiteCalculs()) {
+                statut = ResultatResolution.Statut.BUDGET_EPUISE;
+            }
+            if (statut != null) {
+                // Le nœud courant n'est pas encore développé : il reste candidat pour le faisceau
+                tas.ajouter(cle(noeud), noeud);
+                but = rechercherEnFaisceau(tas, echeance, jeton);
+                if (but == INTERROMPU) {
+                    statut = ResultatResolution.Statut.ANNULE;
+                }
+                break;
+            }
+
+            for (int sommet = 0; sommet < n; sommet++) {
+                int fils = developper(noeud, sommet);
+                if (fils != -1) {
+                    tas.ajouter(cle(fils), fils);
+                }
+            }
+        }
+
+        List<ResumeScenario> solutions = new ArrayList<>();
+        if (statut != ResultatResolution.Statut.ANNULE && but != -1) {
+            ordre = remonter(but);
+            solutions.add(scenario.versResume(ordre));
+        }
+        if (statut == null) {
+            statut = ResultatResolution.Statut.OPTIMAL; // Scénario sans aucun ordre possible
+        }
+        libererNoeuds();
+        return new ResultatResolution(statut, solutions, calculs, System.currentTimeMillis() - debut);
+    }
+
+    /**
+     * @return L'ordre de sommets de la solution de la dernière résolution, ou null si aucune.
+     */
+    public int[] getOrdre() {
+        return ordre;
+    }
+
+    /**
+     * Crée le fils obtenu en plaçant {@code sommet}, s'il est placable et améliore son état.
+     *
+     * @return le numéro du fils, ou -1.
+     */
+    private int developper(int noeud, int sommet) {
+        long masque = masques[noeud];
+        long bit = 1L << sommet;
+        if ((masque & bit) != 0 || (scenario.masquePredecesseurs[sommet] & ~masque) != 0) {
+            return -1;
+        }
+        int ville = scenario.villeDuSommet[sommet];
+        int distance = distances[noeud] + scenario.distances[villes[noeud]][ville];
+        int indice = chercher(masque | bit, ville);
+        if (table[indice] != 0 && distances[table[indice] - 1] <= distance) {
+            return -1;
+        }
+        int fils = creerNoeud(masque | bit, ville, distance, noeud, sommet);
+        if (table[indice] == 0) {
+            nbEtats++;
+        }
+        table[indice] = fils + 1;
+        if (2 * nbEtats > table.length) {
+            agrandirTable();
+        }
+        return fils;
+    }
+
+    /**
+     * Recherche en faisceau à partir des meilleurs nœuds ouverts du tas : à chaque
+     * étape, chaque nœud incomplet est remplacé par ses fils, et seuls les
+     * {@code largeurFaisceau} meilleurs candidats distincts (par f) sont gardés, un
+     * seul une fois le délai passé.
+     *
+     * @return le meilleur nœud complet trouvé, -1 s'il n'y en a aucun, ou
+     *         {@link #INTERROMPU} si la recherche a été annulée.
+     */
+    private int rechercherEnFaisceau(TasBinaire tas, long echeance, JetonAnnulation jeton) {
+        int largeur = System.nanoTime() - echeance > 0 ? 1 : largeurFaisceau;
+        List<Integer> faisceau = new ArrayList<>();
+        while (!tas.estVide() && faisceau.size() < largeur) {
+            int noeud = tas.retirer();
+            if (!estPerime(noeud)) {
+                faisceau.add(noeud);
+            }
+        }
+
+        long crees = 0;
+        boolean incomplet = true;
+        while (incomplet) {
+            incomplet = false;
+            Map<Long, Map<Integer, Integer>> meilleursParEtat = new HashMap<>();
+            for (int noeud : faisceau) {
+                if (masques[noeud] == masqueComplet) {
+                    garderMeilleur(meilleursParEtat, noeud);
+                    continue;
+                }
+                incomplet = true;
+                for (int sommet = 0; sommet < n; sommet++) {
+                    long bit = 1L << sommet;
+                    long masque = masques[noeud];
+                    if ((masque & bit) == 0 && (scenario.masquePredecesseurs[sommet] & ~masque) == 0) {
+                        if (++crees % INTERVALLE_VERIFICATION == 0) {
+                            if (jeton.estAnnule() || Thread.currentThread().isInterrupted()) {
+                                return INTERROMPU;
+                            }
+                            if (System.nanoTime() - echeance > 0) {
+                                largeur = 1;
+                            }
+                        }
+                        int ville = scenario.villeDuSommet[sommet];
+                        garderMeilleur(meilleursParEtat, creerNoeud(masque | bit, ville,
+                                distances[noeud] + scenario.distances[villes[noeud]][ville], noeud, sommet));
+                    }
+                }
+            }
+            List<Integer> candidats = new ArrayList<>();
+            for (Map<Integer, Integer> parVille : meilleursParEtat.values()) {
+                candidats.addAll(parVille.values());
+            }
+            candidats.sort(Comparator.comparingLong(this::cle));
+            faisceau = candidats.subList(0, Math.min(largeur, candidats.size()));
+        }
+
+        int meilleur = -1;
+        for (int noeud : faisceau) {
+            if (meilleur == -1 || distanceTotale(noeud) < distanceTotale(meilleur)) {
+                meilleur = noeud;
+            }
+        }
+        return meilleur;
+    }
+
+    private void garderMeilleur(Map<Long, Map<Integer, Integer>> meilleursParEtat, int noeud) {
+        meilleursParEtat.computeIfAbsent(masques[noeud], m -> new HashMap<>())
+                .merge(villes[noeud], noeud, (a, b) -> distances[a] <= distances[b] ? a : b);
+    }
+
+    private int distanceTotale(int noeud) {
+        return distances[noeud] + scenario.distances[villes[noeud]][0];
+    }
+
+    /** @return true si un meilleur chemin vers l'état du nœud a été trouvé depuis sa création. */
+    private boolean estPerime(int noeud) {
+        return table[chercher(masques[noeud], villes[noeud])] != noeud + 1;
+    }
+
+    /** Priorité dans le tas : f, puis le nœud le plus profond d'abord à f égal. */
+    private long cle(int noeud) {
+        int f = distances[noeud] + borneInferieure.evaluer(masques[noeud], villes[noeud]);
+        return ((long) f << 32) | (n - Long.bitCount(masques[noeud]));
+    }
+
+    private int[] remonter(int noeud) {
+        int[] resultat = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            resultat[i] = sommets[noeud];
+            noeud = parents[noeud];
+        }
+        return resultat;
+    }
+
+    private void initialiser() {
+        masques = new long[1024];
+        villes = new int[1024];
+        distances = new int[1024];
+        parents = new int[1024];
+        sommets = new int[1024];
+        nbNoeuds = 0;
+        table = new int[2048];
+        nbEtats = 0;
+    }
+
+    // Les tableaux de nœuds peuvent être gros : on ne les garde pas entre deux résolutions
+    private void libererNoeuds() {
+        masques = null;
+        villes = null;
+        distances = null;
+        parents = null;
+        sommets = null;
+        table = null;
+    }
+
+    private int creerNoeud(long masque, int ville, int distance, int parent, int sommet) {
+        if (nbNoeuds == masques.length) {
+            int taille = nbNoeuds * 2;
+            masques = Arrays.copyOf(masques, taille);
+            villes = Arrays.copyOf(villes, taille);
+            distances = Arrays.copyOf(distances, taille);
+            parents = Arrays.copyOf(parents, taille);
+            sommets = Arrays.copyOf(sommets, taille);
+        }
+        masques[nbNoeuds] = masque;
+        villes[nbNoeuds] = ville;
+        distances[nbNoeuds] = distance;
+        parents[nbNoeuds] = parent;
+        sommets[nbNoeuds] = sommet;
+        return nbNoeuds++;
+    }
+
+    private void enregistrerEtat(int noeud) {
+        table[chercher(masques[noeud], villes[noeud])] = noeud + 1;
+        nbEtats++;
+    }
+
+    private int chercher(long masque, int ville) {
+        int masqueTable = table.length - 1;
+        long h = (masque ^ (ville * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+        int indice = (int) (h ^ (h >>> 31)) & masqueTable;
+        while (table[indice] != 0) {
+            int noeud = table[indice] - 1;
+            if (masques[noeud] == masque && villes[noeud] == ville) {
+                return indice;
+            }
+            indice = (indice + 1) & masqueTable;
+        }
+        return indice;
+    }
+
+    private void agrandirTable() {
+        int[] ancienne = table;
+        table = new int[ancienne.length * 2];
+        for (int entree : ancienne) {
+            if (entree != 0) {
+                table[chercher(masques[entree - 1], villes[entree - 1])] = entree;
+            }
+        }
+    }
+
+    /**
+     * Tas binaire minimum sur des tableaux primitifs : clés {@code long}, valeurs
+     * {@code int} (numéros de nœuds).
+     */
+    private static final class TasBinaire {
+        private long[] cles = new long[1024];
+        private int[] valeurs = new int[1024];
+        private int taille;
+
+        boolean estVide() {
+            return taille == 0;
+        }
+
+        void ajouter(long cle, int valeur) {
+            if (taille == cles.length) {
+                cles = Arrays.copyOf(cles, taille * 2);
+                valeurs = Arrays.copyOf(valeurs, taille * 2);
+            }
+            int i = taille++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (cles[parent] <= cle) {
+                    break;
+                }
+                cles[i] = cles[parent];
+                valeurs[i] = valeurs[parent];
+                i = parent;
+            }
+            cles[i] = cle;
+            valeurs[i] = valeur;
+        }
+
+        /** @return la valeur de plus petite clé, retirée du tas. */
+        int retirer() {
+            int resultat = valeurs[0];
+            taille--;
+            long cle = cles[taille];
+            int valeur = valeurs[taille];
+            int i = 0;
+            while (true) {
+                int fils = 2 * i + 1;
+                if (fils >= taille) {
+                    break;
+                }
+                if (fils + 1 < taille && cles[fils + 1] < cles[fils]) {
+                    fils++;
+                }
+                if (cle <= cles[fils]) {
+                    break;
+                }
+                cles[i] = cles[fils];
+                valeurs[i] = valeurs[fils];
+                i = fils;
+            }
+            cles[i] = cle;
+            valeurs[i] = valeur;
+            return resultat;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package modele;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Recherche en faisceau sur les parcours partiels, pour les scénarios trop grands
+ * pour une recherche exacte.
+ *
+ * Les parcours sont construits sommet par sommet. À chaque niveau, tous les
+ * prolongements des parcours du faisceau sont notés par leur distance parcourue
+ * plus une borne inférieure du reste, et seuls les {@code largeur} meilleurs sont
+ * gardés. Deux prolongements qui atteignent le même état (sommets placés, ville
+ * courante) ont les mêmes fins possibles : seul le moins cher est gardé. Les états
+ * sont reconnus par une empreinte de hachage de 64 bits (hachage de Zobrist), ce
+ * qui ne limite pas le nombre de sommets.
+ *
+ * La borne est volontairement peu coûteuse, en O(1) par prolongement : chaque ville
+ * restante (autre que la ville courante) devra être atteinte au moins une fois,
+ * donc par un trajet au moins égal au plus court trajet qui y arrive ; de même pour
+ * le retour à Velizy. Elle reste valable sans inégalité triangulaire.
+ *
+ * La largeur règle le compromis : 1 donne un glouton guidé par la borne, une
+ * largeur infinie une recherche exhaustive. Le temps de calcul est prévisible, de
+ * l'ordre de largeur × sommets² par résolution. Les prolongements d'un niveau sont
+ * calculés en parallèle selon le parallélisme des options.
+ *
+ * Si le délai expire, les niveaux restants sont complétés avec une largeur de 1.
+ */
+public class RechercheFaisceau {
+    public static final int LARGEUR_PAR_DEFAUT = 1000;
+
+    private final ScenarioCompile scenario;
+    private final int largeur;
+    private final int n;
+    private final long[] zobristSommets;
+    private final long[] zobristVilles;
+    // Plus court trajet arrivant dans chaque ville, depuis une autre ville
+    private final int[] arriveeMin;
+    private final List<int[]> ordres = new ArrayList<>();
+
+    // Nœuds de tous les niveaux, pour remonter les parcours
+    private int[] parentNoeud;
+    private int[] sommetNoeud;
+    private int nbNoeuds;
+
+    public RechercheFaisceau(ScenarioCompile scenario) {
+        this(scenario, LARGEUR_PAR_DEFAUT);
+    }
+
+    /**
+     * @param scenario Le scénario compilé à résoudre.
+     * @param largeur Le nombre de parcours partiels gardés à chaque niveau.
+     */
+    public RechercheFaisceau(ScenarioCompile scenario, int largeur) {
+        if (largeur < 1) {
+            throw new IllegalArgumentException("Largeur de faisceau invalide : " + largeur);
+        }
+        this.scenario = scenario;
+        this.largeur = largeur;
+        this.n = scenario.nbSommets();
+
+        // Graine fixe : les résultats sont reproductibles
+        SplittableRandom aleatoire = new SplittableRandom(n);
+        this.zobristSommets = new long[n];
+        for (int s = 0; s < n; s++) {
+            zobristSommets[s] = aleatoire.nextLong();
+        }
+        this.zobristVilles = new long[scenario.nbVilles()];
+        this.arriveeMin = new int[scenario.nbVilles()];
+        for (int v = 0; v < scenario.nbVilles(); v++) {
+            zobristVilles[v] = aleatoire.nextLong();
+            arriveeMin[v] = Integer.MAX_VALUE;
+            for (int x = 0; x < scenario.nbVilles(); x++) {
+                if (x != v) {
+                    arriveeMin[v] = Math.min(arriveeMin[v], scenario.distances[x][v]);
+                }
+            }
+            if (arriveeMin[v] == Integer.MAX_VALUE) {
+                arriveeMin[v] = 0; // Velizy seul
+            }
+        }
+    }
+
+    /**
+     * Construit les K meilleurs parcours du dernier niveau du faisceau.
+     *
+     * @param options Les options de résolution (K, délai, parallélisme, annulation).
+     * @return Le résultat : APPROCHE, BUDGET_EPUISE si le délai a forcé une fin
+     *         gloutonne, ou ANNULE sans solution.
+     */
+    public ResultatResolution resoudre(OptionsResolution options) {
+        long debut = System.currentTimeMillis();
+        long echeance = options.calculerEcheanceNanos();
+        JetonAnnulation jeton = options.getJeton();
+        ordres.clear();
+        parentNoeud = new int[1024];
+        sommetNoeud = new int[1024];
+        nbNoeuds = 0;
+
+        int sommeArrivees = 0;
+        for (int v = 1; v < scenario.nbVilles(); v++) {
+            sommeArrivees += arriveeMin[v];
+        }
+        List<Etat> faisceau = new ArrayList<>();
+        faisceau.add(new Etat(creerNoeud(-1, -1), 0, 0, new long[(n + 63) / 64], 0L, sommeArrivees));
+
+        long calculs = 0;
+        ResultatResolution.Statut statut = ResultatResolution.Statut.APPROCHE;
+        ForkJoinPool pool = options.getParallelisme() > 1 ? new ForkJoinPool(options.getParallelisme()) : null;
+        try {
+            for (int niveau = 0; niveau < n; niveau++) {
+                if (jeton.estAnnule() || Thread.currentThread().isInterrupted()) {
+                    return new ResultatResolution(ResultatResolution.Statut.ANNULE, new ArrayList<>(), calculs,
+                            System.currentTimeMillis() - debut);
+                }
+                if (System.nanoTime() - echeance > 0) {
+                    statut = ResultatResolution.Statut.BUDGET_EPUISE;
+                }
+                int largeurNiveau = statut == ResultatResolution.Statut.BUDGET_EPUISE ? 1 : largeur;
+                boolean dernier = niveau == n - 1;
+
+                List<Etat> parents = faisceau;
+                IntStream indices = IntStream.range(0, parents.size());
+                List<Candidat> candidats;
+                if (pool == null) {
+                    candidats = prolonger(parents, indices, dernier);
+                } else {
+                    candidats = pool.submit(() -> prolonger(parents, indices.parallel(), dernier)).join();
+                }
+                calculs += candidats.size();
+
+                // Au dernier niveau, tous les états ont les mêmes sommets : on garde les K parcours distincts
+                if (!dernier) {
+                    candidats = dedoublonner(candidats);
+                }
+                candidats.sort(Candidat.PAR_SCORE);
+                int garde = dernier ? Math.min(options.getK(), candidats.size())
+                        : Math.min(largeurNiveau, candidats.size());
+
+                faisceau = new ArrayList<>(garde);
+                for (Candidat c : candidats.subList(0, garde)) {
+                    Etat parent = parents.get(c.parent);
+                    long[] places = parent.places.clone();
+                    places[c.sommet >>> 6] |= 1L << c.sommet;
+                    faisceau.add(new Etat(creerNoeud(parent.noeud, c.sommet), c.ville, c.distance, places,
+                            c.empreinte, c.sommeArrivees));
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        List<ResumeScenario> solutions = new ArrayList<>();
+        if (n > 0) {
+            for (Etat etat : faisceau) {
+                int[] ordre = remonter(etat.noeud);
+                ordres.add(ordre);
+                solutions.add(scenario.versResume(ordre));
+            }
+        } else if (options.getK() > 0) {
+            ordres.add(new int[0]);
+            solutions.add(scenario.versResume(new int[0]));
+        }
+        return new ResultatResolution(statut, solutions, calculs, System.currentTimeMillis() - debut);
+    }
+
+    /**
+     * @return Les ordres de sommets des solutions de la dernière résolution, dans le même ordre.
+     */
+    public List<int[]> getOrdres() {
+        return ordres;
+    }
+
+    private List<Candidat> prolonger(List<Etat> parents, IntStream indices, boolean dernier) {
+        return indices.mapToObj(i -> prolonger(parents.get(i), i, dernier))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return les prolongements d'un parcours partiel par chaque sommet placable,
+     *         notés par leur distance plus la borne du reste (retour compris au dernier niveau).
+     */
+    private List<Candidat> prolonger(Etat etat, int indice, boolean dernier) {
+        List<Candidat> candidats = new ArrayList<>();
+        int[][] d = scenario.distances;
+        for (int sommet = 0; sommet < n; sommet++) {
+            if (estPlace(etat.places, sommet) || !predecesseursPlaces(etat.places, sommet)) {
+                continue;
+            }
+            int ville = scenario.villeDuSommet[sommet];
+            int distance = etat.distance + d[etat.ville][ville];
+
+            // La ville reste à revisiter tant que son autre sommet n'est pas placé
+            boolean villeRestante = !estPlace(etat.places, sommet ^ 1);
+            int sommeArrivees = etat.sommeArrivees - (villeRestante ? 0 : arriveeMin[ville]);
+            int borne = dernier ? d[ville][0]
+                    : sommeArrivees - (villeRestante ? arriveeMin[ville] : 0) + arriveeMin[0];
+            candidats.add(new Candidat(indice, sommet, ville, distance, distance + borne,
+                    etat.empreinte ^ zobristSommets[sommet], sommeArrivees));
+        }
+        return candidats;
+    }
+
+    private List<Candidat> dedoublonner(List<Candidat> candidats) {
+        Map<Long, Candidat> meilleurs = new HashMap<>();
+        for (Candidat c : candidats) {
+            meilleurs.merge(c.empreinte ^ zobristVilles[c.ville], c,
+                    (a, b) -> Candidat.PAR_SCORE.compare(a, b) <= 0 ? a : b);
+        }
+        return new ArrayList<>(meilleurs.values());
+    }
+
+    private static boolean estPlace(long[] places, int sommet) {
+        return (places[sommet >>> 6] & (1L << sommet)) != 0;
+    }
+
+    private boolean predecesseursPlaces(long[] places, int sommet) {
+        for (int p : scenario.predecesseurs[sommet]) {
+            if (!estPlace(places, p)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int creerNoeud(int parent, int sommet) {
+        if (nbNoeuds == parentNoeud.length) {
+            parentNoeud = Arrays.copyOf(parentNoeud, nbNoeuds * 2);
+            sommetNoeud = Arrays.copyOf(sommetNoeud, nbNoeuds * 2);
+        }
+        parentNoeud[nbNoeuds] = parent;
+        sommetNoeud[nbNoeuds] = sommet;
+        return nbNoeuds++;
+    }
+
+    private int[] remonter(int noeud) {
+        int[] ordre = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            ordre[i] = sommetNoeud[noeud];
+            noeud = parentNoeud[noeud];
+        }
+        return ordre;
+    }
+
+    /** Un parcours partiel du faisceau. */
+    private static final class Etat {
+        final int noeud;
+        final int ville;
+        final int distance;
+        final long[] places;
+        final long empreinte;
+        // Somme des arrivées minimales des villes ayant encore un sommet à placer
+        final int sommeArrivees;
+
+        Etat(int noeud, int ville, int distance, long[] places, long empreinte, int sommeArrivees) {
+            this.noeud = noeud;
+            this.ville = ville;
+            this.distance = distance;
+            this.places = places;
+            this.empreinte = empreinte;
+            this.sommeArrivees = sommeArrivees;
+        }
+    }
+
+    /** Un prolongement d'un parcours du faisceau par un sommet, pas encore matérialisé. */
+    private static final class Candidat {
+        static final Comparator<Candidat> PAR_SCORE = Comparator.<Candidat>comparingInt(c -> c.score)
+                .thenComparingInt(c -> c.parent).thenComparingInt(c -> c.sommet);
+
+        final int parent;
+        final int sommet;
+        final int ville;
+        final int distance;
+        final int score;
+        final long empreinte;
+        final int sommeArrivees;
+
+        Candidat(int parent, int sommet, int ville, int distance, int score, long empreinte, int sommeArrivees) {
+            this.parent = parent;
+            this.sommet = sommet;
+            this.ville = ville;
+            this.distance = distance;
+            this.score = score;
+            this.empreinte = empreinte;
+            this.sommeArrivees = sommeArrivees;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package modele;
+
+import java.util.*;
+
+/**
+ * Recherche à grand voisinage (LNS) : destruction puis réparation d'une partie de
+ * la solution, répétées jusqu'à la fin du budget de temps ou d'itérations.
+ *
+ * L'unité retirée est une ville, c'est-à-dire ses deux sommets "v+" et "v-". Trois
+ * façons de choisir les villes retirées sont tirées au hasard à chaque itération :
+ * - au hasard ;
+ * - proches les unes des autres (à partir d'une ville tirée au hasard) ;
+ * - les plus coûteuses, c'est-à-dire celles dont le retrait raccourcit le plus le parcours.
+ *
+ * Sur un petit scénario, jusqu'à quatre villes sont retirées, et non 40 % : sinon
+ * la recherche reste bloquée près de la solution de départ.
+ *
+ * La réparation réinsère les villes une à une, en choisissant à chaque fois la
+ * ville et les positions de ses deux sommets qui allongent le moins le parcours,
+ * en respectant les contraintes vendeur → acheteur. Un sommet "+" n'ayant que des
+ * successeurs et un sommet "-" que des prédécesseurs, une insertion possible existe
+ * toujours. Les positions d'une ville sont choisies par la même routine que
+ * {@link HeuristiqueInsertion}. Une réparation sur deux ajoute un bruit aléatoire au
+ * coût de chaque ville, pour que les mêmes villes retirées puissent être réinsérées
+ * autrement.
+ *
+ * La nouvelle solution remplace la courante selon le critère d'acceptation choisi
+ * (recuit simulé ou record-to-record), et la meilleure solution rencontrée est
+ * polie par {@link RechercheLocale} à la fin. Le hasard est entièrement déterminé
+ * par la graine, et chaque amélioration de la meilleure solution est notée dans une
+ * trace de convergence. Aucun masque n'est utilisé : la taille du scénario n'est
+ * pas limitée.
+ */
+public class RechercheGrandVoisinage {
+
+    /** Critère d'acceptation d'une solution moins bonne que la courante. */
+    public enum Acceptation {
+        /** Acceptée avec une probabilité exp(-écart / T), T décroissant avec le budget consommé. */
+        RECUIT_SIMULE,
+        /** Acceptée si elle dépasse la meilleure de moins de {@link #ECART_RECORD}. */
+        RECORD_A_RECORD
+    }
+
+    /** Une amélioration de la meilleure solution au cours de la recherche. */
+    public static final class PointConvergence {
+        public final long iteration;
+        public final long dureeMs;
+        public final int distance;
+
+        PointConvergence(long iteration, long dureeMs, int distance) {
+            this.iteration = iteration;
+            this.dureeMs = dureeMs;
+            this.distance = distance;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + iteration + " (" + dureeMs + " ms) : " + distance + " km";
+        }
+    }
+
+    public static final double ECART_RECORD = 0.01;
+    private static final int TAILLE_DESTRUCTION_MAX = 50;
+    // Sur un petit scénario, 40 % des villes ne suffisent pas à sortir de l'insertion de départ
+    private static final int TAILLE_DESTRUCTION_MIN = 4;
+    // Bruit ajouté au coût d'insertion d'une ville, en part de la plus grande distance
+    private static final double BRUIT_REPARATION = 0.1;
+    // Écart relatif accepté avec une probabilité 1/2 au début du recuit, et facteur final de température
+    private static final double ECART_INITIAL_RECUIT = 0.05;
+    private static final double REFROIDISSEMENT_TOTAL = 1e-3;
+    // Plus il est grand, plus les destructions « pires » et « proches » se concentrent sur les premiers choix
+    private static final double DETERMINISME = 4;
+
+    private final ScenarioCompile scenario;
+    private final int n;
+    private final int nbVilles;
+    private final SplittableRandom aleatoire;
+    private final int distanceMax;
+    private Acceptation acceptation = Acceptation.RECUIT_SIMULE;
+    private int[] depart;
+
+    private final List<PointConvergence> trace = new ArrayList<>();
+    private int[] meilleurOrdre;
+
+    // Solution partielle en cours de réparation et position de ses sommets (-1 si retiré)
+    private int[] partiel;
+    private int taillePartiel;
+    private int[] positions;
+    // Allongement du parcours pour chaque écart de la solution partielle, pour la ville en cours d'examen
+    private int[] coutsEcarts;
+
+    /**
+     * @param scenario Le scénario compilé à résoudre.
+     * @param graine La graine du générateur aléatoire, pour des résultats reproductibles.
+     */
+    public RechercheGrandVoisinage(ScenarioCompile scenario, long graine) {
+        this.scenario = scenario;
+        this.n = scenario.nbSommets();
+        this.nbVilles = scenario.nbVilles();
+        this.aleatoire = new SplittableRandom(graine);
+        int max = 0;
+        for (int[] ligne : scenario.distances) {
+            for (int distance : ligne) {
+                max = Math.max(max, distance);
+            }
+        }
+        this.distanceMax = max;
+    }
+
+    public void setAcceptation(Acceptation acceptation) {
+        this.acceptation = acceptation;
+    }
+
+    /**
+     * @param depart Un ordre de sommets valide servant de solution initiale, ou null
+     *               pour partir d'une solution construite par insertion.
+     */
+    public void setDepart(int[] depart) {
+        if (depart != null && !scenario.estOrdreValide(depart)) {
+            throw new IllegalArgumentException("Ordre de départ invalide pour le scénario "
+                    + scenario.getNumeroScenario());
+        }
+        this.depart = depart;
+    }
+
+    /**
+     * Lance la recherche jusqu'au délai ou à la limite d'itérations des options.
+     * Avec un délai, la limite de calculs par défaut, pensée pour les branches de la
+     * recherche exacte, ne s'applique pas : elle couperait la recherche bien avant le
+     * délai. Seule une limite choisie par l'appelant arrête alors la recherche plus tôt.
+     *
+     * @param options Les options de résolution (délai, limite de calculs = itérations, annulation).
+     * @return Le résultat APPROCHE, ou ANNULE, avec la meilleure solution trouvée.
+     */
+    public ResultatResolution resoudre(OptionsResolution options) {
+        long debut = System.currentTimeMillis();
+        long debutNanos = System.nanoTime();
+        long echeance = options.calculerEcheanceNanos();
+        long limiteIterations = options.getDelaiMs() != OptionsResolution.ILLIMITE
+                && options.getLimiteCalculs() == OptionsResolution.LIMITE_CALCULS_PAR_DEFAUT
+                ? OptionsResolution.ILLIMITE : options.getLimiteCalculs();
+        JetonAnnulation jeton = options.getJeton();
+        trace.clear();
+
+        partiel = new int[n];
+        positions = new int[n];
+        coutsEcarts = new int[n + 1];
+        int[] courant;
+        if (depart != null) {
+            courant = depart.clone();
+        } else {
+            taillePartiel = 0;
+            Arrays.fill(positions, -1);
+            List<Integer> toutes = new ArrayList<>();
+            for (int v = 1; v < nbVilles; v++) {
+                toutes.add(v);
+            }
+            reparer(toutes, false);
+            courant = Arrays.copyOf(partiel, n);
+        }
+        int coutCourant = scenario.coutOrdre(courant);
+        meilleurOrdre = courant.clone();
+        int meilleurCout = coutCourant;
+        trace.add(new PointConvergence(0, 0, meilleurCout));
+
+        double temperatureInitiale = -ECART_INITIAL_RECUIT * coutCourant / Math.log(0.5);
+        ResultatResolution.Statut statut = ResultatResolution.Statut.APPROCHE;
+        long iteration = 0;
+        while (iteration < limiteIterations && nbVilles > 2) {
+            if (jeton.estAnnule() || Thread.currentThread().isInterrupted()) {
+                statut = ResultatResolution.Statut.ANNULE;
+                break;
+            }
+            long maintenant = System.nanoTime();
+            if (maintenant - echeance > 0) {
+                break;
+            }
+            iteration++;
+
+            int[] candidat = detruireEtReparer(courant);
+            int coutCandidat = scenario.coutOrdre(candidat);
+
+            boolean accepte;
+            if (acceptation == Acceptation.RECORD_A_RECORD) {
+                accepte = coutCandidat <= meilleurCout * (1 + ECART_RECORD);
+            } else {
+                double avancement = avancement(iteration, limiteIterations, debutNanos, maintenant, echeance);
+                double temperature = temperatureInitiale * Math.pow(REFROIDISSEMENT_TOTAL, avancement);
+                accepte = coutCandidat <= coutCourant
+                        || aleatoire.nextDouble() < Math.exp((coutCourant - coutCandidat) / temperature);
+            }
+            if (accepte) {
+                courant = candidat;
+                coutCourant = coutCandidat;
+            }
+            if (coutCandidat < meilleurCout) {
+                meilleurCout = coutCandidat;
+                meilleurOrdre = candidat.clone();
+                trace.add(new PointConvergence(iteration, System.currentTimeMillis() - debut, meilleurCout));
+            }
+        }
+
+        int[] poli = new RechercheLocale(scenario).ameliorer(meilleurOrdre);
+        if (scenario.coutOrdre(poli) < meilleurCout) {
+            meilleurOrdre = poli;
+            meilleurCout = scenario.coutOrdre(poli);
+            trace.add(new PointConvergence(iteration, System.currentTimeMillis() - debut, meilleurCout));
+        }
+
+        List<ResumeScenario> solutions = new ArrayList<>();
+        solutions.add(scenario.versResume(meilleurOrdre));
+        return new ResultatResolution(statut, solutions, iteration, System.currentTimeMillis() - debut);
+    }
+
+    /** @return les améliorations successives de la meilleure solution lors de la dernière résolution. */
+    public List<PointConvergence> getTrace() {
+        return Collections.unmodifiableList(trace);
+    }
+
+    /** @return l'ordre de sommets de la meilleure solution de la dernière résolution. */
+    public int[] getOrdre() {
+        return meilleurOrdre;
+    }
+
+    /** @return la part du budget consommée, entre 0 et 1, selon le plus contraignant des deux budgets. */
+    private static double avancement(long iteration, long limiteIterations, long debut, long maintenant, long echeance) {
+        double parIterations = limiteIterations == OptionsResolution.ILLIMITE ? 0 : (double) iteration / limiteIterations;
+        double parTemps = echeance == Long.MAX_VALUE ? 0 : (double) (maintenant - debut) / (echeance - debut);
+        return Math.min(1, Math.max(parIterations, parTemps));
+    }
+
+    private int[] detruireEtReparer(int[] courant) {
+        // Entre 1 ville et 40 % des villes (au moins TAILLE_DESTRUCTION_MIN), dans la limite de TAILLE_DESTRUCTION_MAX
+        int tailleMax = Math.min(nbVilles - 1,
+                Math.min(TAILLE_DESTRUCTION_MAX, Math.max(TAILLE_DESTRUCTION_MIN, (nbVilles - 1) * 2 / 5)));
+        int taille = 1 + aleatoire.nextInt(tailleMax);
+        List<Integer> retirees;
+        switch (aleatoire.nextInt(3)) {
+            case 0:
+                retirees = villesAuHasard(taille);
+                break;
+            case 1:
+                retirees = villesProches(taille);
+                break;
+            default:
+                retirees = villesCouteuses(courant, taille);
+                break;
+        }
+
+        boolean[] retiree = new boolean[nbVilles];
+        for (int v : retirees) {
+            retiree[v] = true;
+        }
+        taillePartiel = 0;
+        Arrays.fill(positions, -1);
+        for (int sommet : courant) {
+            if (!retiree[scenario.villeDuSommet[sommet]]) {
+                positions[sommet] = taillePartiel;
+                partiel[taillePartiel++] = sommet;
+            }
+        }
+        reparer(retirees, aleatoire.nextBoolean());
+        return Arrays.copyOf(partiel, n);
+    }
+
+    private List<Integer> villesAuHasard(int taille) {
+        List<Integer> villes = new ArrayList<>();
+        for (int v = 1; v < nbVilles; v++) {
+            villes.add(v);
+        }
+        // Mélange partiel de Fisher-Yates
+        for (int i = 0; i < taille; i++) {
+            Collections.swap(villes, i, i + aleatoire.nextInt(villes.size() - i));
+        }
+        return new ArrayList<>(villes.subList(0, taille));
+    }
+
+    /** Retrait « proche » : chaque nouvelle ville est proche d'une ville déjà retirée. */
+    private List<Integer> villesProches(int taille) {
+        List<Integer> retirees = new ArrayList<>();
+        List<Integer> restantes = new ArrayList<>();
+        for (int v = 1; v < nbVilles; v++) {
+            restantes.add(v);
+        }
+        retirees.add(restantes.remove(aleatoire.nextInt(restantes.size())));
+        while (retirees.size() < taille) {
+            int reference = retirees.get(aleatoire.nextInt(retirees.size()));
+            restantes.sort(Comparator.comparingInt(v -> scenario.distances[reference][v]));
+            retirees.add(restantes.remove(choisirRang(restantes.size())));
+        }
+        return retirees;
+    }
+
+    /** Retrait « pire » : les villes dont le retrait fait gagner le plus de distance. */
+    private List<Integer> villesCouteuses(int[] ordre, int taille) {
+        int[] gains = new int[nbVilles];
+        for (int i = 0; i < n; i++) {
+            int sommet = ordre[i];
+            if (!scenario.estSommetVendeur(sommet)) {
+                continue;
+            }
+            int ville = scenario.villeDuSommet[sommet];
+            int j = i + 1;
+            while (ordre[j] != (sommet ^ 1)) {
+                j++;
+            }
+            if (j == i + 1) {
+                gains[ville] = gainRetrait(ordre, i, j);
+            } else {
+                gains[ville] = gainRetrait(ordre, i, i) + gainRetrait(ordre, j, j);
+            }
+        }
+        List<Integer> villes = new ArrayList<>();
+        for (int v = 1; v < nbVilles; v++) {
+            villes.add(v);
+        }
+        villes.sort((a, b) -> Integer.compare(gains[b], gains[a]));
+        List<Integer> retirees = new ArrayList<>();
+        while (retirees.size() < taille) {
+            retirees.add(villes.remove(choisirRang(villes.size())));
+        }
+        return retirees;
+    }
+
+    /** @return la distance gagnée en retirant les sommets des positions debut à fin de l'ordre. */
+    private int gainRetrait(int[] ordre, int debut, int fin) {
+        int avant = debut == 0 ? 0 : scenario.villeDuSommet[ordre[debut - 1]];
+        int apres = fin == n - 1 ? 0 : scenario.villeDuSommet[ordre[fin + 1]];
+        int premier = scenario.villeDuSommet[ordre[debut]];
+        int dernier = scenario.villeDuSommet[ordre[fin]];
+        int[][] d = scenario.distances;
+        return d[avant][premier] + d[dernier][apres] - d[avant][apres];
+    }
+
+    /** Tire un rang dans une liste triée, en favorisant fortement les premiers. */
+    private int choisirRang(int taille) {
+        return (int) (Math.pow(aleatoire.nextDouble(), DETERMINISME) * taille);
+    }
+
+    /**
+     * Réinsère les villes retirées dans la solution partielle, la moins coûteuse d'abord.
+     *
+     * @param bruite true pour perturber le coût de chaque ville : sans bruit, les mêmes
+     *               villes retirées seraient toujours réinsérées de la même façon.
+     */
+    private void reparer(List<Integer> retirees, boolean bruite) {
+        List<Integer> aInserer = new ArrayList<>(retirees);
+        int[] insertion = new int[3];
+        int[] meilleure = new int[3];
+        double amplitude = bruite ? BRUIT_REPARATION * distanceMax : 0;
+        while (!aInserer.isEmpty()) {
+            int meilleurIndice = -1;
+            double meilleurCout = 0;
+            for (int k = 0; k < aInserer.size(); k++) {
+                int ville = aInserer.get(k);
+                for (int j = 0; j <= taillePartiel; j++) {
+                    coutsEcarts[j] = coutEcart(ville, j);
+                }
+                HeuristiqueInsertion.meilleureInsertion(scenario, ville, coutsEcarts, taillePartiel, positions,
+                        insertion);
+                double cout = insertion[0] + (bruite ? amplitude * (2 * aleatoire.nextDouble() - 1) : 0);
+                if (meilleurIndice == -1 || cout < meilleurCout) {
+                    System.arraycopy(insertion, 0, meilleure, 0, 3);
+                    meilleurIndice = k;
+                    meilleurCout = cout;
+                }
+            }
+            int ville = aInserer.remove(meilleurIndice);
+            inserer(ScenarioCompile.sommetPlus(ville), meilleure[1]);
+            inserer(ScenarioCompile.sommetMoins(ville), meilleure[2] + 1);
+        }
+    }
+
+    /** @return l'allongement du parcours en passant par {@code ville} dans l'écart j. */
+    private int coutEcart(int ville, int j) {
+        int avant = j == 0 ? 0 : scenario.villeDuSommet[partiel[j - 1]];
+        int apres = j == taillePartiel ? 0 : scenario.villeDuSommet[partiel[j]];
+        int[][] d = scenario.distances;
+        return d[avant][ville] + d[ville][apres] - d[avant][apres];
+    }
+
+    private void inserer(int sommet, int emplacement) {
+        System.arraycopy(partiel, emplacement, partiel, emplacement + 1, taillePartiel - emplacement);
+        partiel[emplacement] = sommet;
+        taillePartiel++;
+        for (int i = emplacement; i < taillePartiel; i++) {
+            positions[partiel[i]] = i;
+        }
+    }
+}
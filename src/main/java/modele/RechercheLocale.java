@@ -0,0 +1,233 @@
+package modele;
+
+/**
+ * Amélioration d'une solution par recherche locale, à placer derrière n'importe
+ * quel algorithme constructif (glouton, tri topologique, faisceau...).
+ *
+ * Trois voisinages sont explorés sur l'ordre des sommets, jusqu'à ce qu'aucun
+ * mouvement n'améliore la distance :
+ * - déplacement d'un sommet à une autre position (relocate) ;
+ * - déplacement d'un bloc de 2 ou 3 sommets consécutifs (Or-opt) ;
+ * - inversion d'un segment (2-opt), seulement si la matrice des distances est
+ *   symétrique : l'intérieur du segment garde alors la même longueur.
+ *
+ * Chaque mouvement est évalué en O(1) à partir des trajets qu'il coupe et crée.
+ * Sa faisabilité (chaque "+" avant les "-" qui en dépendent) est vérifiée avec un
+ * index des positions : pour un bloc donné, les positions d'insertion possibles
+ * forment un intervalle, borné par son prédécesseur le plus tardif et son
+ * successeur le plus précoce, qui est parcouru sans autre vérification.
+ */
+public class RechercheLocale {
+    private static final int TAILLE_BLOC_MAX = 3;
+
+    private final ScenarioCompile scenario;
+    private final int n;
+    private final int[][] successeurs;
+    private final boolean symetrique;
+
+    // Solution courante : ordre des sommets et position de chaque sommet
+    private int[] ordre;
+    private int[] positions;
+    private long nbMouvements;
+
+    public RechercheLocale(ScenarioCompile scenario) {
+        this.scenario = scenario;
+        this.n = scenario.nbSommets();
+
+        this.successeurs = scenario.successeurs;
+
+        boolean sym = true;
+        for (int a = 0; a < scenario.nbVilles(); a++) {
+            for (int b = 0; b < a; b++) {
+                sym &= scenario.distances[a][b] == scenario.distances[b][a];
+            }
+        }
+        this.symetrique = sym;
+    }
+
+    /**
+     * Améliore un parcours de villes, par exemple celui d'un autre algorithme.
+     *
+     * @param resume La solution à améliorer.
+     * @return Une solution au moins aussi courte.
+     * @throws IllegalArgumentException si le parcours n'est pas une solution du scénario.
+     */
+    public ResumeScenario ameliorer(ResumeScenario resume) {
+        return scenario.versResume(ameliorer(scenario.versOrdre(resume.ordreVisite)));
+    }
+
+    /**
+     * Applique les mouvements améliorants jusqu'à un optimum local.
+     *
+     * @param depart Un ordre de sommets valide (il n'est pas modifié).
+     * @return Un ordre valide de distance inférieure ou égale.
+     * @throws IllegalArgumentException si l'ordre de départ n'est pas valide.
+     */
+    public int[] ameliorer(int[] depart) {
+        if (!scenario.estOrdreValide(depart)) {
+            throw new IllegalArgumentException("Ordre de départ invalide pour le scénario "
+                    + scenario.getNumeroScenario());
+        }
+        ordre = depart.clone();
+        positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            positions[ordre[i]] = i;
+        }
+
+        boolean ameliore = true;
+        while (ameliore) {
+            ameliore = false;
+            for (int taille = 1; taille <= TAILLE_BLOC_MAX; taille++) {
+                ameliore |= deplacerBlocs(taille);
+            }
+            if (symetrique) {
+                ameliore |= inverserSegments();
+            }
+        }
+        return ordre;
+    }
+
+    /** @return le nombre de mouvements appliqués depuis la création. */
+    public long getNbMouvements() {
+        return nbMouvements;
+    }
+
+    /**
+     * Essaie de déplacer chaque bloc de {@code taille} sommets consécutifs.
+     *
+     * @return true si au moins un mouvement a été appliqué.
+     */
+    private boolean deplacerBlocs(int taille) {
+        boolean ameliore = false;
+        for (int i = 0; i + taille <= n; i++) {
+            int fin = i + taille - 1;
+            int premier = ville(i);
+            int dernier = ville(fin);
+            int avant = ville(i - 1);
+            int apres = ville(fin + 1);
+            int gainRetrait = d(avant, premier) + d(dernier, apres) - d(avant, apres);
+            if (gainRetrait <= 0) {
+                continue; // Retirer le bloc ne raccourcit rien : aucune insertion ne peut gagner
+            }
+
+            // Intervalle des insertions possibles, d'après les prédécesseurs et successeurs hors du bloc
+            int predecesseurMax = -1;
+            int successeurMin = n;
+            for (int k = i; k <= fin; k++) {
+                for (int p : scenario.predecesseurs[ordre[k]]) {
+                    if (positions[p] < i) {
+                        predecesseurMax = Math.max(predecesseurMax, positions[p]);
+                    }
+                }
+                for (int s : successeurs[ordre[k]]) {
+                    if (positions[s] > fin) {
+                        successeurMin = Math.min(successeurMin, positions[s]);
+                    }
+                }
+            }
+
+            // Insertion entre les positions j-1 et j de l'ordre actuel
+            int meilleur = -1;
+            int meilleurDelta = 0;
+            for (int j = predecesseurMax + 1; j < i; j++) {
+                int delta = d(ville(j - 1), premier) + d(dernier, ville(j)) - d(ville(j - 1), ville(j)) - gainRetrait;
+                if (delta < meilleurDelta) {
+                    meilleurDelta = delta;
+                    meilleur = j;
+                }
+            }
+            for (int j = fin + 2; j <= successeurMin; j++) {
+                int delta = d(ville(j - 1), premier) + d(dernier, ville(j)) - d(ville(j - 1), ville(j)) - gainRetrait;
+                if (delta < meilleurDelta) {
+                    meilleurDelta = delta;
+                    meilleur = j;
+                }
+            }
+
+            if (meilleur != -1) {
+                deplacer(i, taille, meilleur);
+                ameliore = true;
+            }
+        }
+        return ameliore;
+    }
+
+    /**
+     * Essaie d'inverser chaque segment ne contenant aucune contrainte interne.
+     *
+     * @return true si au moins un mouvement a été appliqué.
+     */
+    private boolean inverserSegments() {
+        boolean ameliore = false;
+        for (int i = 0; i < n - 1; i++) {
+            int avant = ville(i - 1);
+            for (int j = i + 1; j < n; j++) {
+                // Un prédécesseur de ordre[j] dans le segment : cette inversion et les suivantes sont interdites
+                if (aPredecesseurDepuis(ordre[j], i)) {
+                    break;
+                }
+                int apres = ville(j + 1);
+                int delta = d(avant, ville(j)) + d(ville(i), apres) - d(avant, ville(i)) - d(ville(j), apres);
+                if (delta < 0) {
+                    inverser(i, j);
+                    ameliore = true;
+                    avant = ville(i - 1);
+                }
+            }
+        }
+        return ameliore;
+    }
+
+    private boolean aPredecesseurDepuis(int sommet, int debut) {
+        for (int p : scenario.predecesseurs[sommet]) {
+            if (positions[p] >= debut) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Déplace le bloc [i, i + taille) pour qu'il commence juste avant l'élément actuellement en position j. */
+    private void deplacer(int i, int taille, int j) {
+        int[] bloc = new int[taille];
+        System.arraycopy(ordre, i, bloc, 0, taille);
+        int debut;
+        int finModifiee;
+        if (j < i) {
+            System.arraycopy(ordre, j, ordre, j + taille, i - j);
+            System.arraycopy(bloc, 0, ordre, j, taille);
+            debut = j;
+            finModifiee = i + taille;
+        } else {
+            System.arraycopy(ordre, i + taille, ordre, i, j - i - taille);
+            System.arraycopy(bloc, 0, ordre, j - taille, taille);
+            debut = i;
+            finModifiee = j;
+        }
+        for (int k = debut; k < finModifiee; k++) {
+            positions[ordre[k]] = k;
+        }
+        nbMouvements++;
+    }
+
+    private void inverser(int i, int j) {
+        for (int a = i, b = j; a < b; a++, b--) {
+            int temp = ordre[a];
+            ordre[a] = ordre[b];
+            ordre[b] = temp;
+        }
+        for (int k = i; k <= j; k++) {
+            positions[ordre[k]] = k;
+        }
+        nbMouvements++;
+    }
+
+    /** @return la ville du sommet en position i, Velizy avant le début et après la fin. */
+    private int ville(int i) {
+        return i < 0 || i >= n ? 0 : scenario.villeDuSommet[ordre[i]];
+    }
+
+    private int d(int villeA, int villeB) {
+        return scenario.distances[villeA][villeB];
+    }
+}
@@ -0,0 +1,265 @@
+package modele;
+
+import java.util.*;
+
+/**
+ * Recuit simulé sur l'ordre des sommets, à budget de temps ou de mouvements.
+ *
+ * Deux mouvements sont tirés au hasard : l'échange de deux sommets et le
+ * déplacement d'un sommet à une autre position. Un mouvement qui placerait un
+ * sommet "-" avant un "+" dont il dépend est rejeté d'emblée, grâce à l'index des
+ * positions. Le coût d'un mouvement se calcule en O(1) sur la matrice des
+ * distances : seuls les trajets autour des positions touchées changent.
+ *
+ * La boucle principale ne crée aucun objet : l'ordre, les positions et la meilleure
+ * solution sont des tableaux alloués une fois. La plupart des mouvements étant
+ * rejetés, on en évalue plusieurs millions par seconde.
+ *
+ * Le refroidissement est adaptatif : par époques de {@link #TAILLE_EPOQUE}
+ * mouvements, la température est ajustée pour que le taux d'acceptation suive une
+ * cible qui décroît de {@link #TAUX_INITIAL} à {@link #TAUX_FINAL} au fil du budget.
+ * Il s'adapte ainsi à l'échelle des distances du scénario sans réglage.
+ */
+public class RecuitSimule {
+    static final int TAILLE_EPOQUE = 10_000;
+    static final double TAUX_INITIAL = 0.5;
+    static final double TAUX_FINAL = 0.001;
+    private static final double AJUSTEMENT = 0.9;
+
+    private final ScenarioCompile scenario;
+    private final int n;
+    private final int[][] successeurs;
+    private final SplittableRandom aleatoire;
+    private int[] depart;
+
+    // Solution courante et meilleure solution, alloués une fois par résolution
+    private int[] ordre;
+    private int[] positions;
+    private int[] meilleurOrdre;
+
+    /**
+     * @param scenario Le scénario compilé à résoudre.
+     * @param graine La graine du générateur aléatoire, pour des résultats reproductibles.
+     */
+    public RecuitSimule(ScenarioCompile scenario, long graine) {
+        this.scenario = scenario;
+        this.n = scenario.nbSommets();
+        this.aleatoire = new SplittableRandom(graine);
+        this.successeurs = scenario.successeurs;
+    }
+
+    /**
+     * @param depart Un ordre de sommets valide servant de solution initiale, ou null
+     *               pour partir de tous les "+" suivis de tous les "-".
+     */
+    public void setDepart(int[] depart) {
+        if (depart != null && !scenario.estOrdreValide(depart)) {
+            throw new IllegalArgumentException("Ordre de départ invalide pour le scénario "
+                    + scenario.getNumeroScenario());
+        }
+        this.depart = depart;
+    }
+
+    /**
+     * Lance le recuit jusqu'au délai ou à la limite de mouvements des options.
+     *
+     * @param options Les options de résolution (délai, limite de calculs = mouvements, annulation).
+     * @return Le résultat APPROCHE, ou ANNULE, avec la meilleure solution trouvée.
+     */
+    public ResultatResolution resoudre(OptionsResolution options) {
+        long debut = System.currentTimeMillis();
+        long debutNanos = System.nanoTime();
+        long echeance = options.calculerEcheanceNanos();
+        long limiteMouvements = options.getLimiteCalculs();
+        JetonAnnulation jeton = options.getJeton();
+
+        initialiser();
+        int cout = scenario.coutOrdre(ordre);
+        int meilleurCout = cout;
+        double temperature = estimerTemperatureInitiale(cout);
+
+        ResultatResolution.Statut statut = ResultatResolution.Statut.APPROCHE;
+        long mouvements = 0;
+        int acceptesEpoque = 0;
+        while (mouvements < limiteMouvements && n > 1) {
+            mouvements++;
+            int i = aleatoire.nextInt(n);
+            int j = aleatoire.nextInt(n - 1);
+            if (j >= i) {
+                j++;
+            }
+            boolean echange = aleatoire.nextBoolean();
+            int delta = echange ? deltaEchange(Math.min(i, j), Math.max(i, j)) : deltaDeplacement(i, j);
+
+            if (delta != Integer.MAX_VALUE
+                    && (delta <= 0 || aleatoire.nextDouble() < Math.exp(-delta / temperature))) {
+                if (echange) {
+                    echanger(Math.min(i, j), Math.max(i, j));
+                } else {
+                    deplacer(i, j);
+                }
+                cout += delta;
+                acceptesEpoque++;
+                if (cout < meilleurCout) {
+                    meilleurCout = cout;
+                    System.arraycopy(ordre, 0, meilleurOrdre, 0, n);
+                }
+            }
+
+            if (mouvements % TAILLE_EPOQUE == 0) {
+                if (jeton.estAnnule() || Thread.currentThread().isInterrupted()) {
+                    statut = ResultatResolution.Statut.ANNULE;
+                    break;
+                }
+                long maintenant = System.nanoTime();
+                if (maintenant - echeance > 0) {
+                    break;
+                }
+                double avancement = avancement(mouvements, limiteMouvements, debutNanos, maintenant, echeance);
+                double cible = TAUX_INITIAL * Math.pow(TAUX_FINAL / TAUX_INITIAL, avancement);
+                double taux = (double) acceptesEpoque / TAILLE_EPOQUE;
+                temperature = taux > cible ? temperature * AJUSTEMENT : temperature / AJUSTEMENT;
+                acceptesEpoque = 0;
+            }
+        }
+
+        List<ResumeScenario> solutions = new ArrayList<>();
+        solutions.add(scenario.versResume(meilleurOrdre));
+        return new ResultatResolution(statut, solutions, mouvements, System.currentTimeMillis() - debut);
+    }
+
+    /** @return l'ordre de sommets de la meilleure solution de la dernière résolution. */
+    public int[] getOrdre() {
+        return meilleurOrdre;
+    }
+
+    private void initialiser() {
+        ordre = new int[n];
+        if (depart != null) {
+            System.arraycopy(depart, 0, ordre, 0, n);
+        } else {
+            for (int v = 0; v < n / 2; v++) {
+                ordre[v] = 2 * v;
+                ordre[n / 2 + v] = 2 * v + 1;
+            }
+        }
+        positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            positions[ordre[i]] = i;
+        }
+        meilleurOrdre = ordre.clone();
+    }
+
+    /**
+     * Température pour laquelle un mouvement dégradant moyen est accepté avec
+     * le taux initial, estimée sur un échantillon de mouvements possibles.
+     */
+    private double estimerTemperatureInitiale(int cout) {
+        long somme = 0;
+        int nb = 0;
+        for (int essai = 0; essai < 1000 && n > 1; essai++) {
+            int i = aleatoire.nextInt(n);
+            int j = aleatoire.nextInt(n);
+            int delta = i == j ? Integer.MAX_VALUE : deltaDeplacement(i, j);
+            if (delta != Integer.MAX_VALUE && delta > 0) {
+                somme += delta;
+                nb++;
+            }
+        }
+        double moyenne = nb == 0 ? Math.max(1, cout / Math.max(1, n)) : (double) somme / nb;
+        return -moyenne / Math.log(TAUX_INITIAL);
+    }
+
+    private static double avancement(long mouvements, long limite, long debut, long maintenant, long echeance) {
+        double parMouvements = limite == OptionsResolution.ILLIMITE ? 0 : (double) mouvements / limite;
+        double parTemps = echeance == Long.MAX_VALUE ? 0 : (double) (maintenant - debut) / (echeance - debut);
+        return Math.min(1, Math.max(parMouvements, parTemps));
+    }
+
+    /**
+     * @return la variation de distance si le sommet en position i est déplacé en
+     *         position j, ou Integer.MAX_VALUE si le mouvement viole une contrainte.
+     */
+    private int deltaDeplacement(int i, int j) {
+        int sommet = ordre[i];
+        if (j < i) {
+            for (int p : scenario.predecesseurs[sommet]) {
+                if (positions[p] >= j) {
+                    return Integer.MAX_VALUE;
+                }
+            }
+        } else {
+            for (int s : successeurs[sommet]) {
+                if (positions[s] <= j) {
+                    return Integer.MAX_VALUE;
+                }
+            }
+        }
+        int v = ville(i);
+        int retrait = d(ville(i - 1), v) + d(v, ville(i + 1)) - d(ville(i - 1), ville(i + 1));
+        // Une fois le sommet retiré, il s'insère entre les éléments j-1 et j (avant) ou j et j+1 (après)
+        int avant = j < i ? ville(j - 1) : ville(j);
+        int apres = j < i ? ville(j) : ville(j + 1);
+        return d(avant, v) + d(v, apres) - d(avant, apres) - retrait;
+    }
+
+    /**
+     * @return la variation de distance si les sommets en positions i < j sont
+     *         échangés, ou Integer.MAX_VALUE si le mouvement viole une contrainte.
+     */
+    private int deltaEchange(int i, int j) {
+        int a = ordre[i];
+        int b = ordre[j];
+        for (int s : successeurs[a]) {
+            if (positions[s] <= j) {
+                return Integer.MAX_VALUE;
+            }
+        }
+        for (int p : scenario.predecesseurs[b]) {
+            if (positions[p] >= i) {
+                return Integer.MAX_VALUE;
+            }
+        }
+        int va = ville(i);
+        int vb = ville(j);
+        int avant = ville(i - 1);
+        int apres = ville(j + 1);
+        if (j == i + 1) {
+            return d(avant, vb) + d(vb, va) + d(va, apres) - d(avant, va) - d(va, vb) - d(vb, apres);
+        }
+        int apresA = ville(i + 1);
+        int avantB = ville(j - 1);
+        return d(avant, vb) + d(vb, apresA) + d(avantB, va) + d(va, apres)
+                - d(avant, va) - d(va, apresA) - d(avantB, vb) - d(vb, apres);
+    }
+
+    private void deplacer(int i, int j) {
+        int sommet = ordre[i];
+        if (j < i) {
+            System.arraycopy(ordre, j, ordre, j + 1, i - j);
+        } else {
+            System.arraycopy(ordre, i + 1, ordre, i, j - i);
+        }
+        ordre[j] = sommet;
+        for (int k = Math.min(i, j); k <= Math.max(i, j); k++) {
+            positions[ordre[k]] = k;
+        }
+    }
+
+    private void echanger(int i, int j) {
+        int a = ordre[i];
+        ordre[i] = ordre[j];
+        ordre[j] = a;
+        positions[ordre[i]] = i;
+        positions[a] = j;
+    }
+
+    /** @return la ville du sommet en position i, Velizy avant le début et après la fin. */
+    private int ville(int i) {
+        return i < 0 || i >= n ? 0 : scenario.villeDuSommet[ordre[i]];
+    }
+
+    private int d(int villeA, int villeB) {
+        return scenario.distances[villeA][villeB];
+    }
+}
@@ -0,0 +1,184 @@
+package modele;
+
+import java.util.*;
+
+/**
+ * Réduction d'un scénario compilé avant une recherche exacte : les deux sommets d'une
+ * ville sont fusionnés en un seul arrêt quand on peut prouver qu'une solution optimale
+ * les visite l'un juste après l'autre.
+ *
+ * C'est le cas d'une ville v qui n'achète rien (seul "v+" précède "v-", qui ne précède
+ * rien) ou qui ne vend rien ("v+" ne précède que "v-", lui-même sans autre contrainte) :
+ * dans toute solution, on peut déplacer le sommet libre à côté de l'autre sans rompre
+ * de contrainte. Ce déplacement ne coûte rien (les sommets d'une même ville sont à
+ * distance nulle) et n'allonge pas le parcours si l'inégalité triangulaire est
+ * respectée autour de v, ce qui est vérifié sur la matrice des distances. Le sommet
+ * que n'utilise aucune vente disparaît ainsi de la recherche.
+ *
+ * La réduction transitive des précédences n'a rien à retirer : chaque contrainte va
+ * d'un "+" sans prédécesseur à un "-" sans successeur (hors fusion), il n'existe donc
+ * aucun chemin de longueur deux, et les prédécesseurs sont déjà sans doublon.
+ *
+ * Une ville fusionnée n'est jamais visitée deux fois : la réduction garde la meilleure
+ * solution, mais pas forcément les K meilleures, dont certaines repassent par une ville
+ * sans y rien faire. Elle ne s'applique donc qu'à la recherche de la meilleure solution.
+ */
+public final class ReductionSommets {
+    private final ScenarioCompile origine;
+    private final ScenarioCompile reduit;
+    // Sommets d'origine de chaque sommet réduit, dans leur ordre de visite
+    private final int[][] sommetsOrigine;
+    private final int nbVillesFusionnees;
+
+    private ReductionSommets(ScenarioCompile origine, ScenarioCompile reduit, int[][] sommetsOrigine,
+                             int nbVillesFusionnees) {
+        this.origine = origine;
+        this.reduit = reduit;
+        this.sommetsOrigine = sommetsOrigine;
+        this.nbVillesFusionnees = nbVillesFusionnees;
+    }
+
+    /**
+     * Réduit un scénario : chaque ville fusionnable devient un seul sommet, les autres
+     * gardent leurs sommets "+" puis "-".
+     *
+     * @param scenario Le scénario compilé.
+     * @return La réduction, dont le scénario réduit est celui d'origine si aucune ville n'est fusionnée.
+     */
+    public static ReductionSommets reduire(ScenarioCompile scenario) {
+        int nbVilles = scenario.nbVilles();
+        boolean[] fusionnee = new boolean[nbVilles];
+        int nbFusionnees = 0;
+        for (int ville = 1; ville < nbVilles; ville++) {
+            fusionnee[ville] = estFusionnable(scenario, ville);
+            if (fusionnee[ville]) {
+                nbFusionnees++;
+            }
+        }
+
+        int n = scenario.nbSommets();
+        int[][] sommetsOrigine = new int[n - nbFusionnees][];
+        int[] sommetReduit = new int[n];
+        int[] villeDuSommet = new int[n - nbFusionnees];
+        int taille = 0;
+        for (int ville = 1; ville < nbVilles; ville++) {
+            int plus = ScenarioCompile.sommetPlus(ville);
+            int moins = ScenarioCompile.sommetMoins(ville);
+            if (fusionnee[ville]) {
+                sommetsOrigine[taille] = new int[]{plus, moins};
+                sommetReduit[plus] = taille;
+                sommetReduit[moins] = taille;
+                villeDuSommet[taille++] = ville;
+            } else {
+                for (int sommet : new int[]{plus, moins}) {
+                    sommetsOrigine[taille] = new int[]{sommet};
+                    sommetReduit[sommet] = taille;
+                    villeDuSommet[taille++] = ville;
+                }
+            }
+        }
+        if (nbFusionnees == 0) {
+            return new ReductionSommets(scenario, scenario, sommetsOrigine, 0);
+        }
+
+        int[][] predecesseurs = new int[taille][];
+        for (int s = 0; s < taille; s++) {
+            Set<Integer> preds = new TreeSet<>();
+            for (int sommet : sommetsOrigine[s]) {
+                for (int p : scenario.predecesseurs(sommet)) {
+                    if (sommetReduit[p] != s) {
+                        preds.add(sommetReduit[p]);
+                    }
+                }
+            }
+            predecesseurs[s] = preds.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new ReductionSommets(scenario, new ScenarioCompile(scenario, villeDuSommet, predecesseurs),
+                sommetsOrigine, nbFusionnees);
+    }
+
+    /**
+     * Indique si les deux sommets d'une ville peuvent être fusionnés sans perdre
+     * la meilleure solution.
+     *
+     * @param scenario Le scénario compilé.
+     * @param ville L'indice de la ville (hors dépôt).
+     * @return true si la ville n'achète rien ou ne vend rien et que l'inégalité
+     *         triangulaire est respectée par les détours passant par elle.
+     */
+    public static boolean estFusionnable(ScenarioCompile scenario, int ville) {
+        int plus = ScenarioCompile.sommetPlus(ville);
+        int moins = ScenarioCompile.sommetMoins(ville);
+        boolean sansAchat = scenario.predecesseurs(moins).length == 1;
+        boolean sansVente = scenario.successeurs(plus).length == 1;
+        if (!sansAchat && !sansVente || scenario.distance(ville, ville) != 0) {
+            return false;
+        }
+        for (int a = 0; a < scenario.nbVilles(); a++) {
+            for (int b = 0; b < scenario.nbVilles(); b++) {
+                if (scenario.distance(a, b) > scenario.distance(a, ville) + scenario.distance(ville, b)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** @return le scénario réduit, sur lequel lancer la recherche. */
+    public ScenarioCompile getScenarioReduit() {
+        return reduit;
+    }
+
+    public ScenarioCompile getScenarioOrigine() {
+        return origine;
+    }
+
+    /** @return le nombre de villes dont les deux sommets ne forment plus qu'un arrêt. */
+    public int getNbVillesFusionnees() {
+        return nbVillesFusionnees;
+    }
+
+    /**
+     * Traduit un ordre du scénario d'origine en ordre du scénario réduit, sans l'allonger :
+     * une ville fusionnée prend la place de son sommet contraint ("v-" si elle achète,
+     * "v+" sinon), et sauter l'autre ne coûte rien grâce à l'inégalité triangulaire.
+     *
+     * @param ordre Un ordre valide des sommets d'origine.
+     * @return Les sommets réduits dans l'ordre de visite.
+     */
+    public int[] reduireOrdre(int[] ordre) {
+        // Pour chaque sommet d'origine, le sommet réduit qu'il représente, ou -1
+        int[] represente = new int[origine.nbSommets()];
+        Arrays.fill(represente, -1);
+        for (int s = 0; s < sommetsOrigine.length; s++) {
+            int[] sommets = sommetsOrigine[s];
+            boolean achete = sommets.length == 2 && origine.predecesseurs(sommets[1]).length > 1;
+            represente[sommets.length == 2 && !achete ? sommets[0] : sommets[sommets.length - 1]] = s;
+        }
+        int[] ordreReduit = new int[sommetsOrigine.length];
+        int position = 0;
+        for (int sommet : ordre) {
+            if (represente[sommet] >= 0) {
+                ordreReduit[position++] = represente[sommet];
+            }
+        }
+        return ordreReduit;
+    }
+
+    /**
+     * Traduit un ordre du scénario réduit en ordre du scénario d'origine, de même distance.
+     *
+     * @param ordreReduit Les sommets réduits dans l'ordre de visite.
+     * @return Les sommets d'origine dans l'ordre de visite.
+     */
+    public int[] etendre(int[] ordreReduit) {
+        int[] ordre = new int[origine.nbSommets()];
+        int position = 0;
+        for (int sommet : ordreReduit) {
+            for (int sommetOrigine : sommetsOrigine[sommet]) {
+                ordre[position++] = sommetOrigine;
+            }
+        }
+        return ordre;
+    }
+}
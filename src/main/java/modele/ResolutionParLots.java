@@ -0,0 +1,232 @@
+package modele;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Résolution par lots : tous les scénarios d'une plage, avec tous les algorithmes
+ * configurés, en même temps.
+ *
+ * Chaque couple (scénario, algorithme) est une tâche indépendante, soumise à un
+ * pool de threads de taille fixe (par défaut le nombre de processeurs) : les calculs
+ * se répartissent sur les cœurs sans jamais en demander plus. Une tâche qui échoue
+ * n'arrête pas le lot, son erreur est notée dans sa ligne du résultat.
+ *
+ * Avec un cache ({@link #avecCache}), les {@link Solveur} du lot y cherchent leur
+ * résultat avant de résoudre : relancer un lot sur des scénarios inchangés ne coûte
+ * alors que des lectures pour les résultats que le cache garde (optimaux, ou calculés
+ * sans délai), surtout si le cache a un {@link CacheDisque}.
+ *
+ * Le résultat est une liste de lignes (scénario, algorithme, distance, durée),
+ * triée par scénario puis dans l'ordre des algorithmes, que {@link #tableau(List)}
+ * met en forme pour la console.
+ */
+public class ResolutionParLots {
+
+    /** Un algorithme du lot, appliqué à un scénario des données. */
+    @FunctionalInterface
+    public interface Algorithme {
+        ResumeScenario resoudre(Extraction extraction, int numeroScenario) throws Exception;
+    }
+
+    /** Le résultat d'un algorithme sur un scénario. */
+    public static final class Ligne {
+        public final int numeroScenario;
+        public final String algorithme;
+        /** La distance de la solution trouvée, ou -1 en cas d'erreur. */
+        public final int distance;
+        public final long dureeMs;
+        /** Le message de l'erreur, ou null si la résolution a réussi. */
+        public final String erreur;
+
+        Ligne(int numeroScenario, String algorithme, int distance, long dureeMs, String erreur) {
+            this.numeroScenario = numeroScenario;
+            this.algorithme = algorithme;
+            this.distance = distance;
+            this.dureeMs = dureeMs;
+            this.erreur = erreur;
+        }
+
+        public boolean estReussie() {
+            return erreur == null;
+        }
+
+        @Override
+        public String toString() {
+            return "Scénario " + numeroScenario + " / " + algorithme + " : "
+                    + (estReussie() ? distance + " km" : "erreur (" + erreur + ")") + " en " + dureeMs + " ms";
+        }
+    }
+
+    private final Extraction extraction;
+    private final int parallelisme;
+    private final Map<String, Algorithme> algorithmes = new LinkedHashMap<>();
+    private CacheResultats cache;
+
+    /**
+     * @param extraction Les données contenant les scénarios.
+     * @param parallelisme Le nombre de tâches exécutées en même temps.
+     */
+    public ResolutionParLots(Extraction extraction, int parallelisme) {
+        this.extraction = extraction;
+        this.parallelisme = Math.max(1, parallelisme);
+    }
+
+    /**
+     * Crée un lot avec les algorithmes usuels : tri topologique, glouton, insertion
+     * la moins chère, colonie de fourmis et K meilleures solutions, ces deux derniers
+     * limités au délai donné.
+     *
+     * @param extraction Les données contenant les scénarios.
+     * @param delaiMs Le délai accordé aux algorithmes itératifs, par scénario.
+     * @return Le lot, à un thread par processeur.
+     */
+    public static ResolutionParLots parDefaut(Extraction extraction, long delaiMs) {
+        OptionsResolution options = OptionsResolution.parDefaut().avecDelaiMs(delaiMs)
+                .avecLimiteCalculs(OptionsResolution.ILLIMITE);
+        return new ResolutionParLots(extraction, Runtime.getRuntime().availableProcessors())
+                .ajouter("Tri topologique", TriTopologique::getResumeScenario)
+                .ajouter("Glouton", (e, numero) -> new HeuristiqueGlouton(e, numero).genererResumeScenario())
+                .ajouter("Insertion", HeuristiqueInsertion::genererResumeScenario)
+                .ajouter("Colonie de fourmis", Solveurs.FOURMIS, options)
+                .ajouter("K solutions", Solveurs.K_SOLUTIONS, options);
+    }
+
+    /**
+     * Ajoute un algorithme au lot ; un algorithme de même nom est remplacé.
+     *
+     * @return Ce lot, pour enchaîner les ajouts.
+     */
+    public ResolutionParLots ajouter(String nom, Algorithme algorithme) {
+        algorithmes.put(nom, algorithme);
+        return this;
+    }
+
+    /**
+     * Ajoute un {@link Solveur} au lot, appliqué au scénario compilé avec les options
+     * données ; son nom sert de clé dans le cache du lot.
+     *
+     * @return Ce lot, pour enchaîner les ajouts.
+     */
+    public ResolutionParLots ajouter(String nom, Solveur solveur, OptionsResolution options) {
+        return ajouter(nom, (e, numero) -> {
+            ScenarioCompile scenario = ScenarioCompile.compiler(e, numero);
+            return (cache != null ? cache.resoudre(nom, solveur, scenario, options)
+                    : solveur.resoudre(scenario, options)).getMeilleure();
+        });
+    }
+
+    /**
+     * @param cache Le cache consulté par les solveurs du lot, ou null pour toujours résoudre.
+     * @return Ce lot.
+     */
+    public ResolutionParLots avecCache(CacheResultats cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /** @return les numéros des scénarios des données, triés. */
+    public List<Integer> scenarios() {
+        return new ArrayList<>(new TreeSet<>(extraction.getScenarios().keySet()));
+    }
+
+    /**
+     * Résout tous les scénarios des données.
+     *
+     * @return Une ligne par couple (scénario, algorithme).
+     * @throws InterruptedException Si le thread appelant est interrompu pendant l'attente.
+     */
+    public List<Ligne> resoudre() throws InterruptedException {
+        return resoudre(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Résout les scénarios dont le numéro est entre {@code premier} et {@code dernier} inclus.
+     *
+     * @return Une ligne par couple (scénario, algorithme), par scénario puis dans l'ordre des algorithmes.
+     * @throws InterruptedException Si le thread appelant est interrompu pendant l'attente ;
+     *                              les tâches en cours sont alors interrompues.
+     */
+    public List<Ligne> resoudre(int premier, int dernier) throws InterruptedException {
+        List<Callable<Ligne>> taches = new ArrayList<>();
+        for (int numero : scenarios()) {
+            if (numero < premier || numero > dernier) {
+                continue;
+            }
+            for (Map.Entry<String, Algorithme> algorithme : algorithmes.entrySet()) {
+                taches.add(() -> executer(numero, algorithme.getKey(), algorithme.getValue()));
+            }
+        }
+
+        ExecutorService executeur = Executors.newFixedThreadPool(parallelisme);
+        try {
+            List<Ligne> lignes = new ArrayList<>();
+            for (Future<Ligne> futur : executeur.invokeAll(taches)) {
+                lignes.add(futur.get());
+            }
+            return lignes;
+        } catch (ExecutionException e) {
+            // executer() capture toutes les erreurs des algorithmes
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    private Ligne executer(int numero, String nom, Algorithme algorithme) {
+        long debut = System.nanoTime();
+        try {
+            ResumeScenario resume = algorithme.resoudre(extraction, numero);
+            long duree = (System.nanoTime() - debut) / 1_000_000;
+            if (resume == null) {
+                return new Ligne(numero, nom, -1, duree, "aucune solution");
+            }
+            return new Ligne(numero, nom, resume.distanceTotale, duree, null);
+        } catch (Exception e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new Ligne(numero, nom, -1, (System.nanoTime() - debut) / 1_000_000, message);
+        }
+    }
+
+    /**
+     * Met les lignes en forme : une ligne par scénario, et pour chaque algorithme
+     * une colonne "distance (durée)".
+     *
+     * @param lignes Les lignes d'une résolution par lots.
+     * @return Le tableau récapitulatif, prêt à afficher.
+     */
+    public static String tableau(List<Ligne> lignes) {
+        List<String> noms = new ArrayList<>();
+        Map<Integer, Map<String, String>> cellules = new TreeMap<>();
+        for (Ligne ligne : lignes) {
+            if (!noms.contains(ligne.algorithme)) {
+                noms.add(ligne.algorithme);
+            }
+            String cellule = (ligne.estReussie() ? ligne.distance + " km" : "erreur") + " (" + ligne.dureeMs + " ms)";
+            cellules.computeIfAbsent(ligne.numeroScenario, n -> new HashMap<>()).put(ligne.algorithme, cellule);
+        }
+
+        int[] largeurs = new int[noms.size()];
+        for (int a = 0; a < noms.size(); a++) {
+            largeurs[a] = noms.get(a).length();
+            for (Map<String, String> ligne : cellules.values()) {
+                largeurs[a] = Math.max(largeurs[a], ligne.getOrDefault(noms.get(a), "").length());
+            }
+        }
+
+        StringBuilder tableau = new StringBuilder(String.format("%-9s", "Scénario"));
+        for (int a = 0; a < noms.size(); a++) {
+            tableau.append(" | ").append(String.format("%-" + largeurs[a] + "s", noms.get(a)));
+        }
+        tableau.append('\n').append("-".repeat(tableau.length())).append('\n');
+        for (Map.Entry<Integer, Map<String, String>> ligne : cellules.entrySet()) {
+            tableau.append(String.format("%-9d", ligne.getKey()));
+            for (int a = 0; a < noms.size(); a++) {
+                tableau.append(" | ").append(String.format("%-" + largeurs[a] + "s",
+                        ligne.getValue().getOrDefault(noms.get(a), "")));
+            }
+            tableau.append('\n');
+        }
+        return tableau.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package modele;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Résultat d'une résolution : les meilleures solutions trouvées, triées par
+ * distance croissante, accompagnées du statut de fin de recherche et de
+ * quelques statistiques.
+ */
+public class ResultatResolution {
+
+    /**
+     * Raison de la fin de la recherche.
+     */
+    public enum Statut {
+        /** La recherche est allée au bout : les solutions sont les meilleures possibles. */
+        OPTIMAL,
+        /** Le budget de temps ou de calculs est épuisé : meilleures solutions trouvées jusque-là. */
+        BUDGET_EPUISE,
+        /** La recherche a été annulée (jeton ou interruption du thread). */
+        ANNULE,
+        /** La méthode est heuristique : bonnes solutions, sans garantie d'optimalité. */
+        APPROCHE
+    }
+
+    public final Statut statut;
+    public final List<ResumeScenario> solutions;
+    public final long nbCalculs;
+    public final long dureeMs;
+
+    /**
+     * @param statut raison de la fin de la recherche.
+     * @param solutions solutions triées par distance croissante.
+     * @param nbCalculs nombre de nœuds explorés.
+     * @param dureeMs durée de la résolution en millisecondes.
+     */
+    public ResultatResolution(Statut statut, List<ResumeScenario> solutions, long nbCalculs, long dureeMs) {
+        this.statut = statut;
+        this.solutions = Collections.unmodifiableList(solutions);
+        this.nbCalculs = nbCalculs;
+        this.dureeMs = dureeMs;
+    }
+
+    /**
+     * @return la meilleure solution trouvée, ou null si aucune.
+     */
+    public ResumeScenario getMeilleure() {
+        return solutions.isEmpty() ? null : solutions.get(0);
+    }
+
+    /**
+     * @return true si les solutions sont garanties optimales.
+     */
+    public boolean estOptimal() {
+        return statut == Statut.OPTIMAL;
+    }
+
+    @Override
+    public String toString() {
+        return "Statut : " + statut + " | " + solutions.size() + " solution(s) | "
+                + nbCalculs + " calculs | " + dureeMs + " ms";
+    }
+}
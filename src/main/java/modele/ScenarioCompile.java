@@ -0,0 +1,483 @@
+package modele;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Représentation compacte d'un scénario, indexée par entiers, utilisée par les
+ * algorithmes de recherche à la place des chaînes "Ville+" / "Ville-".
+ *
+ * Les villes sont numérotées à partir de 0, l'indice 0 étant toujours le dépôt
+ * (Velizy). Les distances sont recopiées une fois pour toutes dans une matrice
+ * {@code int[][]}.
+ *
+ * Chaque ville v du scénario (v >= 1) donne deux sommets :
+ * - le sommet 2(v-1) pour "v+" (ramassage chez les vendeurs de v),
+ * - le sommet 2(v-1)+1 pour "v-" (livraison aux acheteurs de v).
+ * Un sommet "a-" a pour prédécesseurs tous les sommets "v+" tels qu'une vente
+ * v → a existe dans le scénario, ainsi que "a+" (comme dans le tri topologique).
+ *
+ * Ce dernier arc ne retire aucun parcours : si "a-" peut être visité avant "a+",
+ * l'inverse est aussi possible pour le même parcours de villes. Il garantit en
+ * revanche qu'un parcours de villes correspond à un seul ordre de sommets, ce qui
+ * évite de générer deux fois la même solution.
+ */
+public final class ScenarioCompile {
+    public static final String DEPOT = "Velizy";
+
+    /** Nombre maximal de sommets représentables dans un masque {@code long}. */
+    public static final int MAX_SOMMETS_MASQUE = 64;
+
+    final int numeroScenario;
+    final String[] villes;
+    final int[][] distances;
+    final int[] ventesVendeur;
+    final int[] ventesAcheteur;
+    final int[] villeDuSommet;
+    final int[][] predecesseurs;
+    final int[][] successeurs;
+    final long[] masquePredecesseurs;
+
+    /**
+     * Construit un scénario compilé à partir de données déjà indexées.
+     *
+     * @param numeroScenario numéro du scénario d'origine.
+     * @param villes noms des villes, l'indice 0 devant être le dépôt.
+     * @param distances matrice des distances entre ces villes.
+     * @param ventesVendeur indice de la ville du vendeur, pour chaque vente.
+     * @param ventesAcheteur indice de la ville de l'acheteur, pour chaque vente.
+     */
+    public ScenarioCompile(int numeroScenario, String[] villes, int[][] distances,
+                           int[] ventesVendeur, int[] ventesAcheteur) {
+        if (ventesVendeur.length != ventesAcheteur.length) {
+            throw new IllegalArgumentException("Ventes incohérentes : " + ventesVendeur.length
+                    + " vendeurs pour " + ventesAcheteur.length + " acheteurs");
+        }
+        this.numeroScenario = numeroScenario;
+        this.villes = villes;
+        this.distances = distances;
+        this.ventesVendeur = ventesVendeur;
+        this.ventesAcheteur = ventesAcheteur;
+
+        int nbSommets = 2 * (villes.length - 1);
+        this.villeDuSommet = new int[nbSommets];
+        for (int s = 0; s < nbSommets; s++) {
+            villeDuSommet[s] = s / 2 + 1;
+        }
+
+        // Prédécesseurs de chaque sommet "a-" : "a+" et les "v+" des ventes v → a, sans doublon
+        List<Set<Integer>> preds = new ArrayList<>();
+        for (int s = 0; s < nbSommets; s++) {
+            preds.add(new TreeSet<>());
+        }
+        for (int v = 1; v < villes.length; v++) {
+            preds.get(sommetMoins(v)).add(sommetPlus(v));
+        }
+        for (int i = 0; i < ventesVendeur.length; i++) {
+            preds.get(sommetMoins(ventesAcheteur[i])).add(sommetPlus(ventesVendeur[i]));
+        }
+        this.predecesseurs = new int[nbSommets][];
+        for (int s = 0; s < nbSommets; s++) {
+            predecesseurs[s] = preds.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.masquePredecesseurs = masquesDe(predecesseurs);
+        this.successeurs = successeursDe(predecesseurs);
+    }
+
+    /**
+     * Construit un scénario réduit par {@link ReductionSommets} : mêmes villes, distances
+     * et ventes, mais des sommets quelconques. Seuls les champs lus par les recherches
+     * exactes (villes des sommets, précédences, distances) sont valables : les méthodes
+     * qui supposent deux sommets par ville ({@link #nomSommet}, {@link #versOrdre},
+     * {@link #restreindre}) ne s'appliquent qu'au scénario d'origine.
+     *
+     * @param origine le scénario d'origine.
+     * @param villeDuSommet la ville de chaque sommet réduit.
+     * @param predecesseurs les prédécesseurs de chaque sommet réduit, sans doublon.
+     */
+    ScenarioCompile(ScenarioCompile origine, int[] villeDuSommet, int[][] predecesseurs) {
+        this.numeroScenario = origine.numeroScenario;
+        this.villes = origine.villes;
+        this.distances = origine.distances;
+        this.ventesVendeur = origine.ventesVendeur;
+        this.ventesAcheteur = origine.ventesAcheteur;
+        this.villeDuSommet = villeDuSommet;
+        this.predecesseurs = predecesseurs;
+        this.masquePredecesseurs = masquesDe(predecesseurs);
+        this.successeurs = successeursDe(predecesseurs);
+    }
+
+    private static long[] masquesDe(int[][] predecesseurs) {
+        long[] masques = new long[predecesseurs.length];
+        if (predecesseurs.length <= MAX_SOMMETS_MASQUE) {
+            for (int s = 0; s < predecesseurs.length; s++) {
+                for (int p : predecesseurs[s]) {
+                    masques[s] |= 1L << p;
+                }
+            }
+        }
+        return masques;
+    }
+
+    private static int[][] successeursDe(int[][] predecesseurs) {
+        int[] nbSuccesseurs = new int[predecesseurs.length];
+        for (int[] preds : predecesseurs) {
+            for (int p : preds) {
+                nbSuccesseurs[p]++;
+            }
+        }
+        int[][] successeurs = new int[predecesseurs.length][];
+        for (int s = 0; s < predecesseurs.length; s++) {
+            successeurs[s] = new int[nbSuccesseurs[s]];
+            nbSuccesseurs[s] = 0;
+        }
+        for (int s = 0; s < predecesseurs.length; s++) {
+            for (int p : predecesseurs[s]) {
+                successeurs[p][nbSuccesseurs[p]++] = s;
+            }
+        }
+        return successeurs;
+    }
+
+    /**
+     * Compile un scénario de l'extraction : récupère ses ventes, numérote les villes
+     * concernées et précalcule la matrice des distances.
+     *
+     * @param extraction l'extraction contenant les données.
+     * @param numeroScenario le numéro du scénario à compiler.
+     * @return le scénario compilé.
+     * @throws Exception si le scénario n'existe pas ou si une ville est inconnue.
+     */
+    public static ScenarioCompile compiler(Extraction extraction, int numeroScenario) throws Exception {
+        if (!extraction.getScenarios().containsKey(numeroScenario)) {
+            throw new Exception("Scénario inconnu : " + numeroScenario);
+        }
+        List<String[]> ventes = extraction.getVentes(numeroScenario);
+
+        // Ordre alphabétique pour que la numérotation ne dépende pas des HashMap
+        TreeSet<String> nomsVilles = new TreeSet<>();
+        for (String[] vente : ventes) {
+            nomsVilles.add(nomVille(vente[0]));
+            nomsVilles.add(nomVille(vente[1]));
+        }
+
+        String[] villes = new String[nomsVilles.size() + 1];
+        Map<String, Integer> index = new HashMap<>();
+        villes[0] = DEPOT;
+        int i = 1;
+        for (String ville : nomsVilles) {
+            villes[i] = ville;
+            index.put(ville, i);
+            i++;
+        }
+
+        int[][] distances = new int[villes.length][villes.length];
+        for (int a = 0; a < villes.length; a++) {
+            for (int b = 0; b < villes.length; b++) {
+                if (a != b) {
+                    distances[a][b] = extraction.distanceVilleToVille(villes[a], villes[b]);
+                }
+            }
+        }
+
+        int[] ventesVendeur = new int[ventes.size()];
+        int[] ventesAcheteur = new int[ventes.size()];
+        for (int v = 0; v < ventes.size(); v++) {
+            ventesVendeur[v] = index.get(nomVille(ventes.get(v)[0]));
+            ventesAcheteur[v] = index.get(nomVille(ventes.get(v)[1]));
+        }
+
+        return new ScenarioCompile(numeroScenario, villes, distances, ventesVendeur, ventesAcheteur);
+    }
+
+    /**
+     * Restreint le scénario à une partie de ses villes : le dépôt reste l'indice 0,
+     * la ville {@code villes[i]} devient l'indice i + 1, et seules les ventes entre
+     * deux villes gardées sont conservées.
+     *
+     * Le sommet s du sous-scénario correspond au sommet
+     * {@code 2 * (villes[s / 2] - 1) + s % 2} de ce scénario.
+     *
+     * @param villesGardees les indices des villes gardées (hors dépôt), sans doublon.
+     * @return le sous-scénario, avec le même numéro.
+     */
+    public ScenarioCompile restreindre(int[] villesGardees) {
+        int[] nouvelIndex = new int[villes.length];
+        String[] noms = new String[villesGardees.length + 1];
+        noms[0] = villes[0];
+        for (int i = 0; i < villesGardees.length; i++) {
+            nouvelIndex[villesGardees[i]] = i + 1;
+            noms[i + 1] = villes[villesGardees[i]];
+        }
+
+        int[] origine = new int[noms.length];
+        for (int i = 0; i < villesGardees.length; i++) {
+            origine[i + 1] = villesGardees[i];
+        }
+        int[][] sousDistances = new int[noms.length][noms.length];
+        for (int a = 0; a < noms.length; a++) {
+            for (int b = 0; b < noms.length; b++) {
+                sousDistances[a][b] = distances[origine[a]][origine[b]];
+            }
+        }
+
+        int nbVentes = 0;
+        int[] vendeurs = new int[ventesVendeur.length];
+        int[] acheteurs = new int[ventesVendeur.length];
+        for (int v = 0; v < ventesVendeur.length; v++) {
+            if (nouvelIndex[ventesVendeur[v]] > 0 && nouvelIndex[ventesAcheteur[v]] > 0) {
+                vendeurs[nbVentes] = nouvelIndex[ventesVendeur[v]];
+                acheteurs[nbVentes++] = nouvelIndex[ventesAcheteur[v]];
+            }
+        }
+        return new ScenarioCompile(numeroScenario, noms, sousDistances,
+                Arrays.copyOf(vendeurs, nbVentes), Arrays.copyOf(acheteurs, nbVentes));
+    }
+
+    /**
+     * Retire le suffixe "+" ou "-" d'un sommet et normalise les variantes de
+     * SaintEtienne pour correspondre au fichier des distances.
+     */
+    static String nomVille(String sommet) {
+        String ville = sommet.replace("+", "").replace("-", "");
+        if (ville.replaceAll("[\\séÉèÈêÊ]", "").equalsIgnoreCase("saintetienne")) {
+            return "SaintEtienne";
+        }
+        return ville;
+    }
+
+    static int sommetPlus(int ville) {
+        return 2 * (ville - 1);
+    }
+
+    static int sommetMoins(int ville) {
+        return 2 * (ville - 1) + 1;
+    }
+
+    public int getNumeroScenario() {
+        return numeroScenario;
+    }
+
+    /** @return le nombre de villes, dépôt compris. */
+    public int nbVilles() {
+        return villes.length;
+    }
+
+    public String nomVilleIndex(int ville) {
+        return villes[ville];
+    }
+
+    public int distance(int villeDepart, int villeArrivee) {
+        return distances[villeDepart][villeArrivee];
+    }
+
+    public int nbVentes() {
+        return ventesVendeur.length;
+    }
+
+    public int nbSommets() {
+        return villeDuSommet.length;
+    }
+
+    public int villeDuSommet(int sommet) {
+        return villeDuSommet[sommet];
+    }
+
+    public boolean estSommetVendeur(int sommet) {
+        return sommet % 2 == 0;
+    }
+
+    /** @return le nom du sommet sous la forme "Ville+" ou "Ville-". */
+    public String nomSommet(int sommet) {
+        return villes[villeDuSommet[sommet]] + (estSommetVendeur(sommet) ? "+" : "-");
+    }
+
+    /** @return les sommets devant être placés avant {@code sommet}. */
+    public int[] predecesseurs(int sommet) {
+        return predecesseurs[sommet];
+    }
+
+    /** @return les sommets devant être placés après {@code sommet}. */
+    public int[] successeurs(int sommet) {
+        return successeurs[sommet];
+    }
+
+    /**
+     * @return les prédécesseurs de {@code sommet} sous forme de masque de bits.
+     * @throws IllegalStateException si le scénario a trop de sommets pour un masque.
+     */
+    public long masquePredecesseurs(int sommet) {
+        verifierMasquable();
+        return masquePredecesseurs[sommet];
+    }
+
+    public boolean estMasquable() {
+        return nbSommets() <= MAX_SOMMETS_MASQUE;
+    }
+
+    void verifierMasquable() {
+        if (!estMasquable()) {
+            throw new IllegalStateException("Scénario " + numeroScenario + " trop grand pour une recherche exacte : "
+                    + nbSommets() + " sommets (maximum " + MAX_SOMMETS_MASQUE + ")");
+        }
+    }
+
+    /**
+     * Calcule la distance d'un ordre de sommets, départ et retour à Velizy compris.
+     * Deux sommets consécutifs de la même ville ne coûtent rien.
+     *
+     * @param ordre les sommets dans l'ordre de visite.
+     * @return la distance totale en kilomètres.
+     */
+    public int coutOrdre(int[] ordre) {
+        int cout = 0;
+        int villeCourante = 0;
+        for (int sommet : ordre) {
+            int ville = villeDuSommet[sommet];
+            cout += distances[villeCourante][ville];
+            villeCourante = ville;
+        }
+        return cout + distances[villeCourante][0];
+    }
+
+    /**
+     * Vérifie qu'un ordre contient chaque sommet une fois et respecte vendeur → acheteur.
+     *
+     * @param ordre les sommets dans l'ordre de visite.
+     * @return true si l'ordre est une solution valide.
+     */
+    public boolean estOrdreValide(int[] ordre) {
+        if (ordre.length != nbSommets()) {
+            return false;
+        }
+        boolean[] places = new boolean[nbSommets()];
+        for (int sommet : ordre) {
+            if (sommet < 0 || sommet >= nbSommets() || places[sommet]) {
+                return false;
+            }
+            for (int p : predecesseurs[sommet]) {
+                if (!places[p]) {
+                    return false;
+                }
+            }
+            places[sommet] = true;
+        }
+        return true;
+    }
+
+    /**
+     * Convertit un ordre de sommets en liste de villes, en partant et revenant
+     * à Velizy et sans répéter deux fois de suite la même ville.
+     *
+     * @param ordre les sommets dans l'ordre de visite.
+     * @return le parcours des villes.
+     */
+    public List<String> versParcours(int[] ordre) {
+        List<String> parcours = new ArrayList<>();
+        parcours.add(DEPOT);
+        String derniereVille = DEPOT;
+        for (int sommet : ordre) {
+            String ville = villes[villeDuSommet[sommet]];
+            if (!ville.equals(derniereVille)) {
+                parcours.add(ville);
+                derniereVille = ville;
+            }
+        }
+        parcours.add(DEPOT);
+        return parcours;
+    }
+
+    /**
+     * Retrouve un ordre de sommets à partir d'un parcours de villes, par exemple celui
+     * d'un {@link ResumeScenario} produit par un autre algorithme. À chaque passage
+     * dans une ville, on y place son sommet "+" puis son sommet "-" s'il est placable.
+     * Les villes hors du scénario (dont Velizy) sont ignorées.
+     *
+     * @param parcours les villes dans l'ordre de visite.
+     * @return un ordre de sommets de même distance que le parcours.
+     * @throws IllegalArgumentException si le parcours ne permet pas de placer tous les sommets.
+     */
+    public int[] versOrdre(List<String> parcours) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int v = 1; v < villes.length; v++) {
+            index.put(villes[v], v);
+        }
+
+        int[] ordre = new int[nbSommets()];
+        boolean[] places = new boolean[nbSommets()];
+        int nbPlaces = 0;
+        for (String nom : parcours) {
+            Integer ville = index.get(nomVille(nom));
+            if (ville == null) {
+                continue;
+            }
+            for (int sommet : new int[]{sommetPlus(ville), sommetMoins(ville)}) {
+                boolean placable = !places[sommet];
+                for (int p : predecesseurs[sommet]) {
+                    placable &= places[p];
+                }
+                if (placable) {
+                    places[sommet] = true;
+                    ordre[nbPlaces++] = sommet;
+                }
+            }
+        }
+        if (nbPlaces != nbSommets()) {
+            throw new IllegalArgumentException("Parcours incomplet pour le scénario " + numeroScenario + " : "
+                    + nbPlaces + " sommets placés sur " + nbSommets());
+        }
+        return ordre;
+    }
+
+    /**
+     * Calcule l'empreinte du contenu du scénario : noms des villes, distances entre
+     * elles et ventes, triées. Le numéro du scénario et l'ordre des ventes n'en font
+     * pas partie : deux scénarios aux mêmes ventes ont la même empreinte, et tout
+     * changement de vente ou de distance la modifie.
+     *
+     * @return l'empreinte SHA-256 en hexadécimal.
+     */
+    public String empreinte() {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+        ByteBuffer donnees = ByteBuffer.allocate(4 * (1 + villes.length * villes.length + 1 + 2 * nbVentes()));
+        donnees.putInt(villes.length);
+        for (int[] ligne : distances) {
+            for (int distance : ligne) {
+                donnees.putInt(distance);
+            }
+        }
+        long[] ventes = new long[nbVentes()];
+        for (int i = 0; i < ventes.length; i++) {
+            ventes[i] = (long) ventesVendeur[i] << 32 | ventesAcheteur[i];
+        }
+        Arrays.sort(ventes);
+        donnees.putInt(ventes.length);
+        for (long vente : ventes) {
+            donnees.putLong(vente);
+        }
+        sha.update(donnees.array());
+        for (String ville : villes) {
+            sha.update(ville.getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(sha.digest());
+    }
+
+    /**
+     * Construit le résumé d'un ordre de sommets.
+     *
+     * @param ordre les sommets dans l'ordre de visite.
+     * @return le résumé contenant le parcours et sa distance.
+     */
+    public ResumeScenario versResume(int[] ordre) {
+        return new ResumeScenario(numeroScenario, versParcours(ordre), coutOrdre(ordre));
+    }
+}
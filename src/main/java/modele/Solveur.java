@@ -0,0 +1,26 @@
+package modele;
+
+/**
+ * Interface commune des algorithmes de résolution.
+ *
+ * Un solveur reçoit un scénario compilé et des options (K, délai, limite de calculs,
+ * parallélisme, annulation) et retourne un {@link ResultatResolution} : statut,
+ * solutions triées par distance et statistiques. Les algorithmes du modèle sont
+ * disponibles sous cette forme dans {@link Solveurs}, ce qui permet de les traiter
+ * de la même façon, par exemple pour les mettre en concurrence dans un
+ * {@link Portefeuille}.
+ *
+ * Un solveur ne garde aucun état entre deux appels : il peut être appelé depuis
+ * plusieurs threads à la fois.
+ */
+@FunctionalInterface
+public interface Solveur {
+
+    /**
+     * @param scenario Le scénario compilé à résoudre.
+     * @param options Les options de résolution.
+     * @return Le statut, les solutions trouvées et les statistiques de la résolution.
+     * @throws Exception Si le scénario ne convient pas à l'algorithme (trop grand par exemple).
+     */
+    ResultatResolution resoudre(ScenarioCompile scenario, OptionsResolution options) throws Exception;
+}
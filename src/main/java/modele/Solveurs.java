@@ -0,0 +1,91 @@
+package modele;
+
+import java.util.*;
+
+/**
+ * Catalogue des algorithmes du modèle sous la forme de {@link Solveur}.
+ *
+ * Les algorithmes à graine utilisent une graine fixe, pour des résultats
+ * reproductibles. Les recherches locales (grand voisinage, recuit simulé) partent
+ * de la solution de l'insertion la moins chère.
+ */
+public final class Solveurs {
+    private static final long GRAINE = 42;
+
+    /** Glouton sur les sommets : toujours la ville placable la plus proche. */
+    public static final Solveur GLOUTON = (scenario, options) ->
+            new GloutonMultiDepart(scenario, GRAINE, 1, 0).resoudre(options);
+
+    /** Insertion la moins chère des paires "v+" / "v-". */
+    public static final Solveur INSERTION = (scenario, options) -> {
+        long debut = System.currentTimeMillis();
+        ResumeScenario resume = new HeuristiqueInsertion(scenario).genererResumeScenario();
+        return new ResultatResolution(ResultatResolution.Statut.APPROCHE, List.of(resume), 1,
+                System.currentTimeMillis() - debut);
+    };
+
+    /** Glouton aléatoire à départs multiples. */
+    public static final Solveur MULTI_DEPART = (scenario, options) ->
+            new GloutonMultiDepart(scenario, GRAINE).resoudre(options);
+
+    /** K meilleures solutions exactes (étiquetage ou branch and bound). */
+    public static final Solveur K_SOLUTIONS = (scenario, options) ->
+            new AlgoKSolution(scenario).resoudre(options);
+
+    /** A* avec borne de l'arbre couvrant minimal. */
+    public static final Solveur A_ETOILE = (scenario, options) ->
+            new RechercheAEtoile(scenario).resoudre(options);
+
+    /** Recherche en faisceau. */
+    public static final Solveur FAISCEAU = (scenario, options) ->
+            new RechercheFaisceau(scenario).resoudre(options);
+
+    /** Recherche à grand voisinage, depuis l'insertion la moins chère. */
+    public static final Solveur GRAND_VOISINAGE = (scenario, options) -> {
+        RechercheGrandVoisinage recherche = new RechercheGrandVoisinage(scenario, GRAINE);
+        recherche.setDepart(new HeuristiqueInsertion(scenario).construire());
+        return recherche.resoudre(options);
+    };
+
+    /** Recuit simulé, depuis l'insertion la moins chère. */
+    public static final Solveur RECUIT = (scenario, options) -> {
+        RecuitSimule recuit = new RecuitSimule(scenario, GRAINE);
+        recuit.setDepart(new HeuristiqueInsertion(scenario).construire());
+        return recuit.resoudre(options);
+    };
+
+    /** Algorithme génétique. */
+    public static final Solveur GENETIQUE = (scenario, options) ->
+            new AlgorithmeGenetique(scenario, GRAINE).resoudre(options);
+
+    /** Colonie de fourmis MAX-MIN avec recherche locale. */
+    public static final Solveur FOURMIS = (scenario, options) ->
+            new ColonieFourmis(scenario, GRAINE).resoudre(options);
+
+    /** Résolution de chaque composante indépendante par le {@link Planificateur}, puis raccordement. */
+    public static final Solveur COMPOSANTES = new DecompositionComposantes(new Planificateur());
+
+    /** Regroupement géographique des villes, résolution de chaque groupe par le {@link Planificateur}, puis réparation. */
+    public static final Solveur GEOGRAPHIQUE = new DecompositionGeographique(new Planificateur());
+
+    private Solveurs() {
+    }
+
+    /** @return tous les solveurs du catalogue, par nom, des plus simples aux plus coûteux. */
+    public static Map<String, Solveur> tous() {
+        Map<String, Solveur> solveurs = new LinkedHashMap<>();
+        solveurs.put("Glouton", GLOUTON);
+        solveurs.put("Insertion", INSERTION);
+        solveurs.put("Multi-départ", MULTI_DEPART);
+        solveurs.put("K solutions", K_SOLUTIONS);
+        solveurs.put("A*", A_ETOILE);
+        solveurs.put("Faisceau", FAISCEAU);
+        solveurs.put("Grand voisinage", GRAND_VOISINAGE);
+        solveurs.put("Recuit simulé", RECUIT);
+        solveurs.put("Génétique", GENETIQUE);
+        solveurs.put("Colonie de fourmis", FOURMIS);
+        solveurs.put("Composantes", COMPOSANTES);
+        solveurs.put("Regroupement géographique", GEOGRAPHIQUE);
+        return solveurs;
+    }
+}
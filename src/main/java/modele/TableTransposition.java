@@ -0,0 +1,155 @@
+package modele;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Table de transposition bornée pour la recherche des K meilleures solutions.
+ *
+ * Deux préfixes qui ont placé le même ensemble de sommets et qui terminent dans
+ * la même ville ont exactement les mêmes complétions possibles. Pour chaque état
+ * (masque des sommets placés, ville courante), la table garde les K plus petits
+ * coûts de préfixe rencontrés. Un nouveau préfixe est inutile si K préfixes
+ * coûtent déjà moins ou autant : chacune de ses complétions est battue par K
+ * solutions distinctes (deux ordres de sommets différents donnent toujours deux
+ * parcours différents, voir {@link ScenarioCompile}).
+ *
+ * La table est une table de hachage à adressage ouvert sur des tableaux
+ * primitifs, organisée en paquets de {@link #TAILLE_PAQUET} états. Quand un
+ * paquet est plein, l'état le plus profond (le plus de sommets placés) est
+ * remplacé : les états peu profonds coupent de plus gros sous-arbres.
+ *
+ * Une même table est partagée par tous les threads d'une recherche parallèle : un
+ * état atteint par un thread coupe les préfixes plus chers des autres. Chaque paquet
+ * est protégé par l'un des {@link #NB_VERROUS} verrous, choisi par son numéro ; deux
+ * threads ne s'attendent que s'ils touchent des paquets du même verrou. Une
+ * recherche séquentielle crée sa table sans verrous.
+ */
+final class TableTransposition {
+    static final int TAILLE_PAQUET = 4;
+    static final int NB_VERROUS = 256;
+
+    private final int k;
+    private final int masquePaquets;
+    private final long[] masques;
+    private final int[] villes;
+    private final int[] profondeurs;
+    private final int[] nbCouts;
+    // Pour l'état e : couts[e*k .. e*k+nbCouts[e]-1], triés par coût croissant
+    private final int[] couts;
+    // Null si la table n'est utilisée que par un thread
+    private final Object[] verrous;
+
+    private final LongAdder coupures = new LongAdder();
+    private final LongAdder remplacements = new LongAdder();
+
+    /**
+     * @param k Le nombre de coûts gardés par état (le K de la recherche).
+     * @param capaciteCouts Le nombre total de coûts mémorisables, qui borne la mémoire utilisée.
+     * @param partagee true si plusieurs threads utilisent la table.
+     */
+    TableTransposition(int k, int capaciteCouts, boolean partagee) {
+        this.k = k;
+        int nbEtats = Integer.highestOneBit(Math.max(TAILLE_PAQUET, capaciteCouts / k));
+        this.masquePaquets = nbEtats / TAILLE_PAQUET - 1;
+        this.masques = new long[nbEtats];
+        this.villes = new int[nbEtats];
+        this.profondeurs = new int[nbEtats];
+        this.nbCouts = new int[nbEtats];
+        this.couts = new int[nbEtats * k];
+        Arrays.fill(villes, -1);
+        this.verrous = partagee ? new Object[NB_VERROUS] : null;
+        for (int i = 0; partagee && i < NB_VERROUS; i++) {
+            verrous[i] = new Object();
+        }
+    }
+
+    /**
+     * Consulte la table pour un préfixe et l'y enregistre s'il reste utile.
+     *
+     * @param masque Le masque des sommets placés.
+     * @param ville La ville courante.
+     * @param cout Le coût du préfixe.
+     * @return false si le préfixe est dominé et que sa branche peut être coupée.
+     */
+    boolean enregistrer(long masque, int ville, int cout) {
+        int paquet = hacher(masque, ville) & masquePaquets;
+        if (verrous == null) {
+            return enregistrer(paquet * TAILLE_PAQUET, masque, ville, cout);
+        }
+        synchronized (verrous[paquet & (NB_VERROUS - 1)]) {
+            return enregistrer(paquet * TAILLE_PAQUET, masque, ville, cout);
+        }
+    }
+
+    private boolean enregistrer(int debut, long masque, int ville, int cout) {
+        int etat = -1;
+        for (int i = debut; i < debut + TAILLE_PAQUET; i++) {
+            if (villes[i] == ville && masques[i] == masque) {
+                etat = i;
+                break;
+            }
+        }
+
+        if (etat == -1) {
+            etat = choisirVictime(debut);
+            if (villes[etat] != -1) {
+                remplacements.increment();
+            }
+            masques[etat] = masque;
+            villes[etat] = ville;
+            profondeurs[etat] = Long.bitCount(masque);
+            nbCouts[etat] = 0;
+        }
+
+        int base = etat * k;
+        int nb = nbCouts[etat];
+        if (nb == k && couts[base + k - 1] <= cout) {
+            coupures.increment();
+            return false;
+        }
+
+        // Insertion triée, en perdant le plus cher si l'état est plein
+        int position = Math.min(nb, k - 1);
+        while (position > 0 && couts[base + position - 1] > cout) {
+            couts[base + position] = couts[base + position - 1];
+            position--;
+        }
+        couts[base + position] = cout;
+        if (nb < k) {
+            nbCouts[etat] = nb + 1;
+        }
+        return true;
+    }
+
+    /**
+     * @return un emplacement libre du paquet, sinon l'état le plus profond.
+     */
+    private int choisirVictime(int debut) {
+        int victime = debut;
+        for (int i = debut; i < debut + TAILLE_PAQUET; i++) {
+            if (villes[i] == -1) {
+                return i;
+            }
+            if (profondeurs[i] > profondeurs[victime]) {
+                victime = i;
+            }
+        }
+        return victime;
+    }
+
+    private static int hacher(long masque, int ville) {
+        long h = (masque ^ (ville * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 31));
+    }
+
+    /** @return le nombre de branches coupées grâce à la table. */
+    long getCoupures() {
+        return coupures.sum();
+    }
+
+    /** @return le nombre d'états écrasés faute de place. */
+    long getRemplacements() {
+        return remplacements.sum();
+    }
+}
@@ -2,9 +2,15 @@ package vue;
 
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
+import modele.CacheResultats;
 import modele.Extraction;
+import modele.OptionsResolution;
+import modele.ResultatResolution;
 import modele.ResumeScenario;
 import modele.HeuristiqueGlouton;
+import modele.ScenarioCompile;
+
+import java.util.List;
 
 /**
  * Cette classe représente un composant graphique JavaFX qui affiche
@@ -38,6 +44,8 @@ public class AffichageHeuristiqueGlouton extends VBox {
 
     /**
      * Met à jour l'affichage graphique à partir des données du scénario courant.
+     * Le résultat est pris dans le {@link CacheResultats} partagé s'il a déjà été
+     * calculé pour un scénario de même contenu.
      * Si une erreur survient lors du calcul de l'heuristique ou si le résumé est nul,
      * un message d'erreur est affiché.
      */
@@ -46,9 +54,14 @@ public class AffichageHeuristiqueGlouton extends VBox {
         this.setStyle("-fx-padding: 10; -fx-background-color: #f0f0f0; -fx-border-color: #cccccc;");
 
         try {
-            HeuristiqueGlouton hg = new HeuristiqueGlouton(extraction, scenarioIndex);
-
-            resume = hg.genererResumeScenario(scenarioIndex);
+            ScenarioCompile scenario = ScenarioCompile.compiler(extraction, scenarioIndex);
+            // Sans délai : l'heuristique est déterministe, le cache garde son résultat
+            resume = CacheResultats.partage().resoudre("Heuristique glouton", (s, options) -> {
+                HeuristiqueGlouton hg = new HeuristiqueGlouton(extraction, scenarioIndex);
+                ResumeScenario glouton = hg.genererResumeScenario();
+                return new ResultatResolution(ResultatResolution.Statut.APPROCHE,
+                        glouton == null ? List.of() : List.of(glouton), 1, 0);
+            }, scenario, OptionsResolution.parDefaut().avecDelaiMs(OptionsResolution.ILLIMITE)).getMeilleure();
         } catch (Exception e) {
             Label erreur = new Label("Erreur lors du chargement du scénario : " + e.getMessage());
             System.out.println(e);
@@ -111,6 +124,18 @@ public class AffichageHeuristiqueGlouton extends VBox {
         updateView();
     }
 
+    /**
+     * Change d'extraction et de scénario en une seule mise à jour de l'affichage.
+     *
+     * @param extraction    L'extraction contenant les scénarios.
+     * @param scenarioIndex L'indice du scénario à afficher.
+     */
+    public void setScenario(Extraction extraction, int scenarioIndex) {
+        this.extraction = extraction;
+        this.scenarioIndex = scenarioIndex;
+        updateView();
+    }
+
     /**
      * Retourne l'indice du scénario actuellement affiché.
      *
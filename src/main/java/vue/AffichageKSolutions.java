@@ -1,10 +1,16 @@
 package vue;
 
+import javafx.concurrent.Task;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
+import modele.CacheResultats;
 import modele.Extraction;
+import modele.JetonAnnulation;
 import modele.ResumeScenario;
-import modele.AlgoKSolution;
+import modele.OptionsResolution;
+import modele.Planificateur;
+import modele.ResultatResolution;
+import modele.ScenarioCompile;
 
 /**
  * La classe {@code AffichageKSolutions} est un composant graphique JavaFX
@@ -22,6 +28,12 @@ public class AffichageKSolutions extends VBox {
     private Extraction extraction;
     private int scenarioIndex;
     private ResumeScenario resume;
+    private ResultatResolution resultat;
+    private Planificateur.Plan plan;
+
+    // Calcul en cours, annulé si l'utilisateur change de scénario avant la fin
+    private Task<ResultatResolution> calcul;
+    private JetonAnnulation jeton;
 
     /**
      * Construit un objet {@code AffichageKSolutions} configuré pour afficher
@@ -41,30 +53,96 @@ public class AffichageKSolutions extends VBox {
 
     /**
      * Met à jour l’affichage graphique avec les résultats de l'algorithme k-solution
-     * pour le scénario actuellement sélectionné.
+     * pour le scénario actuellement sélectionné. La méthode est choisie par le
+     * {@link Planificateur} selon la taille du scénario : exacte si elle tient dans
+     * le délai, sinon la meilleure solution trouvée dans ce délai. Le résultat est pris
+     * dans le {@link CacheResultats} partagé s'il a déjà été calculé pour un scénario de
+     * même contenu.
+     * La résolution peut durer jusqu'au délai par défaut : elle tourne sur un thread
+     * de fond pour ne pas figer l'interface, qui affiche un message d'attente jusqu'au
+     * résultat. Un calcul encore en cours pour le scénario précédent est annulé.
      * Si le résumé ne peut être généré (par exemple en cas d'erreur ou si le scénario
      * est introuvable), un message d'erreur est affiché à l'utilisateur.
      */
     private void updateView() {
+        annulerCalcul();
         this.getChildren().clear();
-        if (scenarioIndex >= 2 ) {
-            Label erreur = new Label("Erreur : Scénario sélectionné trop complexe \nScénario : " + scenarioIndex);
-            erreur.setId("erreurLabel");
-            this.getChildren().add(erreur);
-            return;
-        }
 
+        ScenarioCompile scenario;
+        Planificateur.Plan planCalcul;
         try {
-            AlgoKSolution algo = new AlgoKSolution(extraction, scenarioIndex);
-            resume = algo.genererResumeScenario(scenarioIndex, 1, extraction);
+            scenario = ScenarioCompile.compiler(extraction, scenarioIndex);
+            jeton = new JetonAnnulation();
+            plan = new Planificateur().planifier(scenario, OptionsResolution.parDefaut().avecJeton(jeton));
+            planCalcul = plan;
         } catch (Exception e) {
-            Label erreur = new Label("Erreur lors du chargement du scénario : " + e.getMessage());
-            erreur.setId("erreurLabel");
-            this.getChildren().add(erreur);
-            e.printStackTrace();
+            afficherErreur(e);
             return;
         }
 
+        Label attente = new Label("Calcul en cours (" + plan.methode + ")…");
+        attente.setId("calculLabel");
+        this.getChildren().add(attente);
+
+        Task<ResultatResolution> tache = new Task<>() {
+            @Override
+            protected ResultatResolution call() throws Exception {
+                return CacheResultats.partage().resoudre(planCalcul.methode, planCalcul.solveur, scenario,
+                        planCalcul.options);
+            }
+        };
+        // Les gestionnaires s'exécutent sur le thread JavaFX ; un calcul remplacé entre-temps est ignoré
+        tache.setOnSucceeded(e -> {
+            if (tache == calcul) {
+                resultat = tache.getValue();
+                resume = resultat.getMeilleure();
+                afficherResultat();
+            }
+        });
+        tache.setOnFailed(e -> {
+            if (tache == calcul) {
+                afficherErreur(tache.getException());
+            }
+        });
+        calcul = tache;
+
+        Thread thread = new Thread(tache, "Calcul k-solution");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Arrête le calcul en cours, s'il y en a un : le jeton arrête le solveur au
+     * plus tôt, sans attendre son délai.
+     */
+    private void annulerCalcul() {
+        if (calcul != null) {
+            jeton.annuler();
+            calcul.cancel();
+            calcul = null;
+        }
+    }
+
+    /**
+     * Remplace l'affichage par un message d'erreur.
+     *
+     * @param e L'erreur survenue lors du chargement ou du calcul.
+     */
+    private void afficherErreur(Throwable e) {
+        this.getChildren().clear();
+        Label erreur = new Label("Erreur lors du chargement du scénario : " + e.getMessage());
+        erreur.setId("erreurLabel");
+        this.getChildren().add(erreur);
+        e.printStackTrace();
+    }
+
+    /**
+     * Affiche le résultat du calcul terminé : ordre de visite, distance, méthode et,
+     * si la solution n'est pas prouvée optimale, son statut.
+     */
+    private void afficherResultat() {
+        this.getChildren().clear();
+
         Label titre = new Label("Algorithme K-Solution");
         titre.setId("titreAffichage");
 
@@ -98,7 +176,18 @@ public class AffichageKSolutions extends VBox {
         Label distanceLabel = new Label("Distance totale : " + resume.distanceTotale + " km");
         distanceLabel.setId("distanceLabel");
 
-        this.getChildren().addAll(titre, ordreLabel, cheminLabel, distanceLabel);
+        Label methodeLabel = new Label("Méthode : " + plan.methode + " (" + plan.mode + ")");
+        methodeLabel.setId("methodeLabel");
+
+        this.getChildren().addAll(titre, ordreLabel, cheminLabel, distanceLabel, methodeLabel);
+
+        if (!resultat.estOptimal()) {
+            Label statutLabel = new Label("Résultat partiel (" + resultat.statut + ") : meilleure solution trouvée en "
+                    + resultat.dureeMs + " ms");
+            statutLabel.setWrapText(true);
+            statutLabel.setId("statutLabel");
+            this.getChildren().add(statutLabel);
+        }
     }
 
     /**
@@ -123,6 +212,18 @@ public class AffichageKSolutions extends VBox {
         updateView();
     }
 
+    /**
+     * Change d'extraction et de scénario en une seule mise à jour de l'affichage.
+     *
+     * @param extraction    L'extraction contenant les scénarios.
+     * @param scenarioIndex L'indice du scénario à afficher.
+     */
+    public void setScenario(Extraction extraction, int scenarioIndex) {
+        this.extraction = extraction;
+        this.scenarioIndex = scenarioIndex;
+        updateView();
+    }
+
     /**
      * Retourne l’indice du scénario actuellement affiché dans la vue.
      *
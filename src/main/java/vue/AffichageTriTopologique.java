@@ -2,11 +2,16 @@ package vue;
 
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
+import modele.CacheResultats;
 import modele.Extraction;
+import modele.OptionsResolution;
+import modele.ResultatResolution;
+import modele.ScenarioCompile;
 import modele.TriTopologique;
 import modele.ResumeScenario;
 
 import java.io.FileNotFoundException;
+import java.util.List;
 
 /**
  * Composant graphique JavaFX pour afficher le résultat d’un tri topologique
@@ -37,7 +42,9 @@ public class AffichageTriTopologique extends VBox {
     }
 
     /**
-     * Met à jour l'affichage selon les données du scénario courant.
+     * Met à jour l'affichage selon les données du scénario courant. Le résultat est
+     * pris dans le {@link CacheResultats} partagé s'il a déjà été calculé pour un
+     * scénario de même contenu.
      * Affiche un message d'erreur si le résumé est introuvable.
      */
     private void updateView() throws FileNotFoundException {
@@ -46,7 +53,22 @@ public class AffichageTriTopologique extends VBox {
         this.setStyle("-fx-padding: 10; -fx-background-color: #f0f0f0; -fx-border-color: #cccccc;");
         Label titre = new Label("Tri Topologique");
         titre.setId("titreAffichage");
-        resume = TriTopologique.getResumeScenario(extraction, scenarioIndex);
+        try {
+            ScenarioCompile scenario = ScenarioCompile.compiler(extraction, scenarioIndex);
+            // Sans délai : le tri est déterministe, le cache garde son résultat
+            resume = CacheResultats.partage().resoudre("Tri topologique", (s, options) -> {
+                ResumeScenario tri = TriTopologique.getResumeScenario(extraction, scenarioIndex);
+                return new ResultatResolution(ResultatResolution.Statut.APPROCHE,
+                        tri == null ? List.of() : List.of(tri), 1, 0);
+            }, scenario, OptionsResolution.parDefaut().avecDelaiMs(OptionsResolution.ILLIMITE)).getMeilleure();
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (Exception e) {
+            Label erreur = new Label("Erreur lors du chargement du scénario : " + e.getMessage());
+            erreur.setId("erreurLabel");
+            this.getChildren().add(erreur);
+            return;
+        }
 
         if (resume == null) {
             Label erreur = new Label("Erreur : aucun scénario trouvé pour l'index " + scenarioIndex);
@@ -101,6 +123,18 @@ public class AffichageTriTopologique extends VBox {
         updateView();
     }
 
+    /**
+     * Change d'extraction et de scénario en une seule mise à jour de l'affichage.
+     *
+     * @param extraction    L'extraction contenant les scénarios.
+     * @param scenarioIndex L'indice du scénario à afficher.
+     */
+    public void setScenario(Extraction extraction, int scenarioIndex) throws FileNotFoundException {
+        this.extraction = extraction;
+        this.scenarioIndex = scenarioIndex;
+        updateView();
+    }
+
     /**
      * Retourne l’index du scénario actuellement affiché.
      *
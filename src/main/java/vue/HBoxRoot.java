@@ -6,9 +6,12 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import modele.CacheDisque;
+import modele.CacheResultats;
 import modele.Extraction;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
 
 /**
  * Composant racine de l'interface graphique principale.
@@ -26,6 +29,7 @@ public class HBoxRoot extends VBox {
     private ScenarioPanel scenarioPanel = new ScenarioPanel();
     private final HBox contenuHbox = new HBox();
     private final Pokedex pokedexInstance = null;
+    private CacheDisque cacheDisque;
     /**
      * Construit l'interface principale avec les différents composants nécessaires :
      * - la barre de menu permettant de naviguer entre les vues,
@@ -37,6 +41,13 @@ public class HBoxRoot extends VBox {
     public HBoxRoot(HostServices hostServices) throws Exception {
         this.scenarioPanel = scenarioPanel;
         Extraction extraction = new Extraction();
+        // Les résultats des vues survivent au redémarrage ; sans le disque, seul le cache en mémoire sert
+        try {
+            cacheDisque = CacheDisque.ouvrir();
+            CacheResultats.partage().setDisque(cacheDisque);
+        } catch (IOException e) {
+            System.out.println("Cache sur disque indisponible : " + e.getMessage());
+        }
         // Initialisation des deux vues d'affichage
         affichageTriTopologiqueInstance = new AffichageTriTopologique(extraction, 0);
         affichageHeuristiqueInstance = new AffichageHeuristiqueGlouton(extraction, 0);
@@ -75,4 +86,21 @@ public class HBoxRoot extends VBox {
         // Ajout des composants dans la hiérarchie de la fenêtre
         this.getChildren().addAll(menuBarRoot, HBoxScenarioPanel, contenuHbox);
     }
+
+    /**
+     * Détache le cache sur disque du cache partagé puis le ferme, ce qui libère
+     * le verrou du journal. À appeler à la fermeture de l'application.
+     */
+    public void fermer() {
+        if (cacheDisque == null) {
+            return;
+        }
+        CacheResultats.partage().setDisque(null);
+        try {
+            cacheDisque.close();
+        } catch (IOException e) {
+            System.out.println("Fermeture du cache sur disque impossible : " + e.getMessage());
+        }
+        cacheDisque = null;
+    }
 }
@@ -3,7 +3,6 @@ package vue;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
-import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 import java.io.*;
@@ -17,6 +16,8 @@ import java.nio.file.*;
  */
 public class Root extends Application {
 
+    private HBoxRoot root;
+
     /**
      * Point d'entrée JavaFX : initialise la scène principale,
      * charge l'interface utilisateur, applique les styles et l'icône de la fenêtre.
@@ -27,7 +28,7 @@ public class Root extends Application {
     @Override
     public void start(Stage stage) throws Exception {
         // Création de la racine de l'interface
-        VBox root = new HBoxRoot(getHostServices());
+        root = new HBoxRoot(getHostServices());
         Scene scene = new Scene(root, 800, 600);
 
         // Configuration de la fenêtre
@@ -46,6 +47,16 @@ public class Root extends Application {
         stage.show();
     }
 
+    /**
+     * Appelée par JavaFX à la fermeture de l'application : ferme le cache sur disque.
+     */
+    @Override
+    public void stop() {
+        if (root != null) {
+            root.fermer();
+        }
+    }
+
     /**
      * Méthode main standard qui lance l'application JavaFX.
      *
@@ -1,11 +1,14 @@
 package vue;
 
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.VBox;
+import modele.ExtensionsLineaires;
 import modele.Extraction;
+import modele.ScenarioCompile;
 
 import java.io.FileNotFoundException;
 import java.util.Map;
@@ -14,7 +17,8 @@ import java.util.Map;
  * Classe ScenarioPanel : panneau d'affichage d'un scénario de ventes.
  *
  * Affiche la liste des transactions (vendeur → acheteur) dans un ScrollPane,
- * avec un titre indiquant l'index du scénario en cours.
+ * avec un titre indiquant l'index du scénario en cours et le nombre d'ordres de
+ * visite respectant ses contraintes (voir {@link ExtensionsLineaires}).
  *
  * Le panneau utilise une Extraction pour récupérer les données.
  *
@@ -34,6 +38,9 @@ public class ScenarioPanel extends VBox {
     private Extraction extraction;
     private final ScrollPane scrollPane = new ScrollPane();
     private final Label titre = new Label("Contenu du scénario 0");
+    private final Label ordres = new Label();
+    // Comptage en cours, ignoré si un autre scénario est affiché avant la fin
+    private Task<ExtensionsLineaires.Comptage> comptage;
 
     private final Label sousTitre = new Label("Scénario crée par l'utilisateur");
 
@@ -51,6 +58,7 @@ public class ScenarioPanel extends VBox {
         this.setId("scenarioPanel");
         this.setSpacing(8);
         titre.setId("titre_scenarioPanel");
+        ordres.setId("ordres_scenarioPanel");
 
         scrollPane.setContent(scrollContent);
         scrollPane.setFitToWidth(true);
@@ -58,7 +66,7 @@ public class ScenarioPanel extends VBox {
         scrollContent.setId("scrollContent");
 
         sousTitre.setId("sous-titre_scenarioPanel");
-        this.getChildren().addAll(titre, sousTitre, scrollPane);
+        this.getChildren().addAll(titre, ordres, sousTitre, scrollPane);
 
         setScenario(extraction, index);
     }
@@ -67,8 +75,10 @@ public class ScenarioPanel extends VBox {
 
     /**
      * Charge et affiche les données du scénario à l'index donné.
-     * Met à jour le titre et liste les transactions dans le ScrollPane.
-     * Ignore les entrées sans villes correspondantes.
+     * Met à jour le titre, le nombre d'ordres possibles et liste les transactions dans le ScrollPane.
+     * Ignore les entrées sans villes correspondantes. Le comptage des ordres peut être long
+     * sur un grand scénario : il se fait sur un thread de fond, comme la résolution de
+     * {@link AffichageKSolutions}, et s'affiche à la fin.
      *
      * @param scenarioIndex Index du scénario à afficher.
      */
@@ -82,6 +92,8 @@ public class ScenarioPanel extends VBox {
         Map<String, String> scenario = monExtraction.getScenarios().get(scenarioIndex);
         if (scenario == null) return;
 
+        compterOrdres(monExtraction, scenarioIndex);
+
         for (Map.Entry<String, String> entry : scenario.entrySet()) {
             String vendeur = entry.getKey();
             String acheteur = entry.getValue();
@@ -96,6 +108,50 @@ public class ScenarioPanel extends VBox {
         }
     }
 
+    /**
+     * Lance le comptage des ordres possibles du scénario sur un thread de fond ; un
+     * comptage encore en cours pour le scénario précédent est abandonné.
+     *
+     * @param monExtraction L'extraction contenant le scénario.
+     * @param scenarioIndex Index du scénario à compter.
+     */
+    private void compterOrdres(Extraction monExtraction, int scenarioIndex) {
+        if (comptage != null) {
+            comptage.cancel();
+            comptage = null;
+        }
+        ScenarioCompile compile;
+        try {
+            compile = ScenarioCompile.compiler(monExtraction, scenarioIndex);
+        } catch (Exception e) {
+            ordres.setText("");
+            return;
+        }
+
+        ordres.setText("Ordres possibles : calcul en cours…");
+        Task<ExtensionsLineaires.Comptage> tache = new Task<>() {
+            @Override
+            protected ExtensionsLineaires.Comptage call() {
+                return new ExtensionsLineaires(compile).compter();
+            }
+        };
+        tache.setOnSucceeded(e -> {
+            if (tache == comptage) {
+                ordres.setText("Ordres possibles : " + tache.getValue().valeur());
+            }
+        });
+        tache.setOnFailed(e -> {
+            if (tache == comptage) {
+                ordres.setText("");
+            }
+        });
+        comptage = tache;
+
+        Thread thread = new Thread(tache, "Comptage des ordres");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
     /**
      * Récupère l'index du scénario actuellement affiché.
      *
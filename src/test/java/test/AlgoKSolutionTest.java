@@ -0,0 +1,113 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlgoKSolutionTest {
+
+    private Extraction extraction;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        extraction = new Extraction();
+    }
+
+    @Test
+    void rechercheParalleleIdentiqueALaSequentielle() throws Exception {
+        AlgoKSolution sequentiel = new AlgoKSolution(extraction, 1);
+        sequentiel.setOptions(OptionsResolution.parDefaut().avecEtiquetage(false));
+        List<ResumeScenario> attendues = sequentiel.getKMeilleuresSolutions(5);
+
+        AlgoKSolution parallele = new AlgoKSolution(extraction, 1);
+        parallele.setOptions(OptionsResolution.parDefaut().avecEtiquetage(false));
+        parallele.setParallelisme(4);
+        List<ResumeScenario> obtenues = parallele.getKMeilleuresSolutions(5);
+
+        assertEquals(attendues.size(), obtenues.size());
+        for (int i = 0; i < attendues.size(); i++) {
+            assertEquals(attendues.get(i).distanceTotale, obtenues.get(i).distanceTotale,
+                    "La solution #" + (i + 1) + " devrait avoir la même distance");
+        }
+    }
+
+    @Test
+    void scenarioDePlusDe64SommetsDonneUneSolutionApprochee() throws Exception {
+        // 33 villes qui achètent et vendent toutes (ventes en cycle) : 66 sommets, aucun fusionnable
+        int nbVilles = 34;
+        String[] villes = new String[nbVilles];
+        int[][] distances = new int[nbVilles][nbVilles];
+        for (int a = 0; a < nbVilles; a++) {
+            villes[a] = a == 0 ? "Velizy" : "Ville" + a;
+            for (int b = 0; b < nbVilles; b++) {
+                distances[a][b] = 10 * Math.abs(a - b);
+            }
+        }
+        int[] vendeurs = new int[nbVilles - 1];
+        int[] acheteurs = new int[nbVilles - 1];
+        for (int i = 0; i < vendeurs.length; i++) {
+            vendeurs[i] = i + 1;
+            acheteurs[i] = i + 2 < nbVilles ? i + 2 : 1;
+        }
+        ScenarioCompile scenario = new ScenarioCompile(0, villes, distances, vendeurs, acheteurs);
+        assertFalse(scenario.estMasquable());
+
+        ResultatResolution resultat = new AlgoKSolution(scenario).resoudre(OptionsResolution.parDefaut().avecK(3));
+
+        assertEquals(ResultatResolution.Statut.APPROCHE, resultat.statut);
+        assertEquals(1, resultat.solutions.size());
+        assertTrue(scenario.estOrdreValide(scenario.versOrdre(resultat.getMeilleure().ordreVisite)));
+    }
+
+    @Test
+    void statutDeLaResolution() throws Exception {
+        AlgoKSolution algo = new AlgoKSolution(extraction, 1);
+
+        ResultatResolution complet = algo.resoudre(OptionsResolution.parDefaut().avecK(3));
+        assertEquals(ResultatResolution.Statut.OPTIMAL, complet.statut);
+        assertFalse(complet.solutions.isEmpty());
+
+        ResultatResolution limite = algo.resoudre(OptionsResolution.parDefaut().avecK(3).avecLimiteCalculs(10));
+        assertEquals(ResultatResolution.Statut.BUDGET_EPUISE, limite.statut);
+
+        JetonAnnulation jeton = new JetonAnnulation();
+        jeton.annuler();
+        ResultatResolution annule = algo.resoudre(OptionsResolution.parDefaut().avecJeton(jeton)
+                .avecLimiteCalculs(OptionsResolution.ILLIMITE));
+        assertEquals(ResultatResolution.Statut.ANNULE, annule.statut);
+    }
+
+    @Test
+    void rechercheInterrompueAuMoinsAussiBonneQueLesHeuristiques() throws Exception {
+        for (int numero : new int[]{3, 6}) {
+            ScenarioCompile scenario = ScenarioCompile.compiler(extraction, numero);
+            int insertion = new HeuristiqueInsertion(scenario).genererResumeScenario().distanceTotale;
+
+            for (int k : new int[]{1, 3}) {
+                ResultatResolution resultat = new AlgoKSolution(scenario)
+                        .resoudre(OptionsResolution.parDefaut().avecK(k).avecLimiteCalculs(1000));
+                assertEquals(ResultatResolution.Statut.BUDGET_EPUISE, resultat.statut);
+                assertTrue(resultat.getMeilleure().distanceTotale <= insertion);
+                assertTrue(scenario.estOrdreValide(scenario.versOrdre(resultat.getMeilleure().ordreVisite)));
+            }
+        }
+    }
+
+    @Test
+    void tableDeTranspositionGardeLesMemesSolutions() throws Exception {
+        AlgoKSolution algo = new AlgoKSolution(extraction, 1);
+        OptionsResolution options = OptionsResolution.parDefaut().avecK(5).avecEtiquetage(false);
+
+        ResultatResolution sansTable = algo.resoudre(options.avecTableTransposition(false));
+        ResultatResolution avecTable = algo.resoudre(options.avecTableTransposition(true));
+
+        assertEquals(sansTable.solutions.size(), avecTable.solutions.size());
+        for (int i = 0; i < sansTable.solutions.size(); i++) {
+            assertEquals(sansTable.solutions.get(i).distanceTotale, avecTable.solutions.get(i).distanceTotale);
+        }
+    }
+}
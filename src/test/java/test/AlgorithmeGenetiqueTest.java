@@ -0,0 +1,55 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlgorithmeGenetiqueTest {
+
+    private ScenarioCompile scenario;
+    private ResumeScenario optimum;
+    private OptionsResolution options;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scenario = ScenarioCompile.compiler(new Extraction(), 5);
+        optimum = new AlgoKSolution(scenario).resoudre(OptionsResolution.parDefaut()).getMeilleure();
+        options = OptionsResolution.parDefaut().avecK(2).avecDelaiMs(OptionsResolution.ILLIMITE);
+    }
+
+    @Test
+    void resoudreRetrouveLOptimumDUnPetitScenario() {
+        AlgorithmeGenetique genetique = new AlgorithmeGenetique(scenario, 42, 50, 100, 2, 0.3);
+        ResultatResolution resultat = genetique.resoudre(options.avecParallelisme(1));
+
+        assertEquals(ResultatResolution.Statut.APPROCHE, resultat.statut);
+        assertEquals(100, genetique.getNbGenerations());
+        assertTrue(scenario.estOrdreValide(genetique.getOrdre()));
+        assertEquals(optimum.distanceTotale, resultat.getMeilleure().distanceTotale);
+        assertEquals(50 + 100 * 48, resultat.nbCalculs);
+    }
+
+    @Test
+    void memeResultatQuelQueSoitLeParallelisme() {
+        ResultatResolution resultat = new AlgorithmeGenetique(scenario, 42, 50, 100, 2, 0.3)
+                .resoudre(options.avecParallelisme(1));
+        ResultatResolution parallele = new AlgorithmeGenetique(scenario, 42, 50, 100, 2, 0.3)
+                .resoudre(options.avecParallelisme(4));
+
+        assertEquals(resultat.solutions.size(), parallele.solutions.size());
+        for (int i = 0; i < resultat.solutions.size(); i++) {
+            assertEquals(resultat.solutions.get(i).ordreVisite, parallele.solutions.get(i).ordreVisite);
+        }
+    }
+
+    @Test
+    void limiteDeCalculsArreteLEvolution() {
+        // La limite est vérifiée entre deux générations
+        ResultatResolution limite = new AlgorithmeGenetique(scenario, 42, 50, 100, 2, 0.3)
+                .resoudre(options.avecLimiteCalculs(200));
+
+        assertTrue(limite.nbCalculs <= 200);
+    }
+}
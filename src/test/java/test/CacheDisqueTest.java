@@ -0,0 +1,215 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheDisqueTest {
+
+    private Path dossier;
+    private Path journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dossier = Files.createTempDirectory("cache-disque");
+        journal = dossier.resolve("resultats.journal");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> fichiers = Files.walk(dossier)) {
+            for (Path fichier : (Iterable<Path>) fichiers.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(fichier);
+            }
+        }
+    }
+
+    @Test
+    void resultatReluApresReouverture() throws IOException {
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 1 << 20)) {
+            cache.ecrire("a", resultat(120, "Velizy", "Paris", "Velizy"));
+            cache.ecrire("b", resultat(80, "Velizy", "Lyon", "Velizy"));
+            // Le dernier enregistrement d'une clé remplace les précédents
+            cache.ecrire("a", resultat(100, "Velizy", "Lille", "Velizy"));
+        }
+
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 1 << 20)) {
+            assertEquals(2, cache.taille());
+            ResultatResolution relu = cache.lire("a");
+            assertEquals(ResultatResolution.Statut.OPTIMAL, relu.statut);
+            assertEquals(100, relu.getMeilleure().distanceTotale);
+            assertEquals(List.of("Velizy", "Lille", "Velizy"), relu.getMeilleure().ordreVisite);
+            assertEquals(42, relu.nbCalculs);
+            assertEquals(80, cache.lire("b").getMeilleure().distanceTotale);
+            assertNull(cache.lire("c"));
+        }
+    }
+
+    @Test
+    void finAbimeeIgnoreeEtCoupee() throws IOException {
+        long tailleSaine;
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 1 << 20)) {
+            cache.ecrire("a", resultat(120, "Velizy", "Paris", "Velizy"));
+            tailleSaine = cache.tailleFichier();
+            cache.ecrire("b", resultat(80, "Velizy", "Lyon", "Velizy"));
+        }
+        // Arrêt pendant l'écriture du second enregistrement
+        try (RandomAccessFile fichier = new RandomAccessFile(journal.toFile(), "rw")) {
+            fichier.setLength(tailleSaine + 10);
+        }
+
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 1 << 20)) {
+            assertEquals(1, cache.taille());
+            assertNull(cache.lire("b"));
+            assertEquals(tailleSaine, cache.tailleFichier());
+            cache.ecrire("b", resultat(80, "Velizy", "Lyon", "Velizy"));
+        }
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 1 << 20)) {
+            assertEquals(80, cache.lire("b").getMeilleure().distanceTotale);
+        }
+    }
+
+    @Test
+    void compactageEvinceLesMoinsRecemmentUtilises() throws IOException {
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 2_000)) {
+            for (int i = 0; i < 40; i++) {
+                cache.ecrire("cle" + i, resultat(i, "Velizy", "Ville" + i, "Velizy"));
+                // La première clé reste la plus récemment utilisée
+                assertNotNull(cache.lire("cle0"));
+            }
+
+            assertTrue(cache.getNbCompactages() > 0);
+            assertTrue(cache.tailleFichier() <= 2_000);
+            assertNull(cache.lire("cle1"));
+            assertEquals(0, cache.lire("cle0").getMeilleure().distanceTotale);
+            assertEquals(39, cache.lire("cle39").getMeilleure().distanceTotale);
+        }
+        assertFalse(Files.exists(dossier.resolve("resultats.journal.compactage")));
+    }
+
+    @Test
+    void compactageEnPlaceSansRenommerNiDeverrouiller() throws IOException {
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 2_000)) {
+            Object identite = Files.readAttributes(journal, BasicFileAttributes.class).fileKey();
+            for (int i = 0; i < 200; i++) {
+                cache.ecrire("cle" + i, resultat(i, "Velizy", "Ville" + i, "Velizy"));
+                // Les ajouts réutilisent la place libérée : le fichier ne dépasse pas sa taille maximale
+                assertTrue(Files.size(journal) <= 2_000 + 100, "Taille du fichier : " + Files.size(journal));
+            }
+
+            assertTrue(cache.getNbCompactages() > 1);
+            // Même fichier, toujours verrouillé : aucun renommage n'a pu échouer ni laisser le verrou libre
+            assertEquals(identite, Files.readAttributes(journal, BasicFileAttributes.class).fileKey());
+            assertThrows(IOException.class, () -> CacheDisque.ouvrir(journal, 2_000));
+            try (Stream<Path> fichiers = Files.list(dossier)) {
+                assertEquals(List.of(journal), fichiers.collect(Collectors.toList()));
+            }
+        }
+
+        // Les enregistrements évincés, restés après la marque de fin, ne reviennent pas
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 2_000)) {
+            assertEquals(199, cache.lire("cle199").getMeilleure().distanceTotale);
+            assertNull(cache.lire("cle0"));
+            assertEquals(cache.tailleFichier(), Files.size(journal));
+        }
+    }
+
+    @Test
+    void arretPendantLeCompactageNeDonneQueDesResultatsIntacts() throws IOException {
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 1 << 20)) {
+            for (int i = 0; i < 10; i++) {
+                cache.ecrire("cle" + i, resultat(i, "Velizy", "Ville" + i, "Velizy"));
+            }
+            // Le premier enregistrement de cle0 est remplacé : le compactage décale les suivants
+            cache.ecrire("cle0", resultat(100, "Velizy", "Lille", "Velizy"));
+        }
+        byte[] avant = Files.readAllBytes(journal);
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 1 << 20)) {
+            cache.compacter();
+        }
+        byte[] apres = Files.readAllBytes(journal);
+
+        // Arrêt au milieu de la réécriture : début compacté, suite de l'ancien journal
+        for (int coupure = 8; coupure < apres.length; coupure += 7) {
+            byte[] melange = avant.clone();
+            System.arraycopy(apres, 0, melange, 0, coupure);
+            Files.write(journal, melange);
+
+            try (CacheDisque cache = CacheDisque.ouvrir(journal, 1 << 20)) {
+                for (int i = 0; i < 10; i++) {
+                    ResultatResolution relu = cache.lire("cle" + i);
+                    if (relu != null) {
+                        assertEquals(i == 0 ? 100 : i, relu.getMeilleure().distanceTotale, "Coupure " + coupure);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void fichierOuvertVerrouille() throws IOException {
+        try (CacheDisque cache = CacheDisque.ouvrir(journal, 1 << 20)) {
+            assertThrows(IOException.class, () -> CacheDisque.ouvrir(journal, 1 << 20));
+        }
+        // Le verrou est rendu à la fermeture
+        CacheDisque.ouvrir(journal, 1 << 20).close();
+    }
+
+    @Test
+    void cacheResultatsServiParLeDisqueApresRedemarrage() throws Exception {
+        ScenarioCompile scenario = new ScenarioCompile(0, new String[]{"Velizy", "A", "B"},
+                new int[][]{{0, 10, 20}, {10, 0, 10}, {20, 10, 0}}, new int[]{1}, new int[]{2});
+        OptionsResolution options = OptionsResolution.parDefaut().avecDelaiMs(OptionsResolution.ILLIMITE);
+        ResultatResolution calcule;
+        try (CacheDisque disque = CacheDisque.ouvrir(journal, 1 << 20)) {
+            CacheResultats cache = new CacheResultats(8);
+            cache.setDisque(disque);
+            calcule = cache.resoudre("Insertion", Solveurs.INSERTION, scenario, options);
+        }
+
+        try (CacheDisque disque = CacheDisque.ouvrir(journal, 1 << 20)) {
+            CacheResultats cache = new CacheResultats(8);
+            cache.setDisque(disque);
+            Solveur interdit = (s, o) -> fail("Le résultat aurait dû venir du disque");
+            ResultatResolution relu = cache.resoudre("Insertion", interdit, scenario, options);
+
+            assertEquals(calcule.getMeilleure().ordreVisite, relu.getMeilleure().ordreVisite);
+            assertEquals(calcule.getMeilleure().distanceTotale, relu.getMeilleure().distanceTotale);
+            assertEquals(1, cache.getStatistiques().nbSuccesDisque);
+            // Remis en mémoire après la lecture sur disque
+            cache.resoudre("Insertion", interdit, scenario, options);
+            assertEquals(1, cache.getStatistiques().nbSucces);
+        }
+    }
+
+    @Test
+    void resultatApprocheDansUnDelaiNonEcritSurDisque() throws Exception {
+        ScenarioCompile scenario = new ScenarioCompile(0, new String[]{"Velizy", "A", "B"},
+                new int[][]{{0, 10, 20}, {10, 0, 10}, {20, 10, 0}}, new int[]{1}, new int[]{2});
+        try (CacheDisque disque = CacheDisque.ouvrir(journal, 1 << 20)) {
+            CacheResultats cache = new CacheResultats(8);
+            cache.setDisque(disque);
+            cache.resoudre("Insertion", Solveurs.INSERTION, scenario, OptionsResolution.parDefaut());
+
+            assertEquals(0, disque.taille());
+        }
+    }
+
+    private static ResultatResolution resultat(int distance, String... villes) {
+        return new ResultatResolution(ResultatResolution.Statut.OPTIMAL,
+                List.of(new ResumeScenario(0, List.of(villes), distance)), 42, 5);
+    }
+}
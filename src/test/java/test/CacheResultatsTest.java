@@ -0,0 +1,161 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheResultatsTest {
+
+    // Sans délai, le résultat de l'insertion ne dépend que de la clé : il est gardé
+    private static final OptionsResolution OPTIONS =
+            OptionsResolution.parDefaut().avecDelaiMs(OptionsResolution.ILLIMITE);
+
+    private final AtomicInteger nbResolutions = new AtomicInteger();
+
+    // Compte ses appels et rend l'insertion la moins chère
+    private final Solveur solveur = (scenario, OPTIONS) -> {
+        nbResolutions.incrementAndGet();
+        return Solveurs.INSERTION.resoudre(scenario, OPTIONS);
+    };
+
+    @Test
+    void deuxiemeDemandeServieParLeCache() throws Exception {
+        CacheResultats cache = new CacheResultats(8);
+        ScenarioCompile scenario = scenario(0, new int[]{1, 2}, new int[]{2, 3});
+
+        ResultatResolution premier = cache.resoudre("Insertion", solveur, scenario, OPTIONS);
+        ResultatResolution second = cache.resoudre("Insertion", solveur, scenario, OPTIONS);
+
+        assertEquals(1, nbResolutions.get());
+        assertEquals(premier.getMeilleure().ordreVisite, second.getMeilleure().ordreVisite);
+        CacheResultats.Statistiques statistiques = cache.getStatistiques();
+        assertEquals(1, statistiques.nbSucces);
+        assertEquals(1, statistiques.nbEchecs);
+        assertEquals(0.5, statistiques.tauxSucces());
+    }
+
+    @Test
+    void scenariosDeMemeContenuPartagentLeResultat() throws Exception {
+        CacheResultats cache = new CacheResultats(8);
+        ScenarioCompile scenario = scenario(3, new int[]{1, 2}, new int[]{2, 3});
+        // Mêmes ventes dans un autre ordre, sous un autre numéro
+        ScenarioCompile copie = scenario(7, new int[]{2, 1}, new int[]{3, 2});
+        assertEquals(scenario.empreinte(), copie.empreinte());
+
+        cache.resoudre("Insertion", solveur, scenario, OPTIONS);
+        ResultatResolution resultat = cache.resoudre("Insertion", solveur, copie, OPTIONS);
+
+        assertEquals(1, nbResolutions.get());
+        assertEquals(7, resultat.getMeilleure().numeroScenario);
+    }
+
+    @Test
+    void cleDistingueContenuAlgorithmeEtOptions() throws Exception {
+        CacheResultats cache = new CacheResultats(8);
+        ScenarioCompile scenario = scenario(0, new int[]{1, 2}, new int[]{2, 3});
+        ScenarioCompile modifie = scenario(0, new int[]{1, 3}, new int[]{2, 2});
+        assertNotEquals(scenario.empreinte(), modifie.empreinte());
+
+        cache.resoudre("Insertion", solveur, scenario, OPTIONS);
+        cache.resoudre("Insertion", solveur, modifie, OPTIONS);
+        cache.resoudre("Autre", solveur, scenario, OPTIONS);
+        cache.resoudre("Insertion", solveur, scenario, OPTIONS.avecK(2));
+        // Le jeton d'annulation ne fait pas partie de la clé
+        cache.resoudre("Insertion", solveur, scenario, OPTIONS.avecJeton(new JetonAnnulation()));
+
+        assertEquals(4, nbResolutions.get());
+    }
+
+    @Test
+    void moinsRecemmentUtiliseEvinceEtAnnulationNonGardee() throws Exception {
+        CacheResultats cache = new CacheResultats(2);
+        ScenarioCompile a = scenario(0, new int[]{1}, new int[]{2});
+        ScenarioCompile b = scenario(0, new int[]{2}, new int[]{3});
+        ScenarioCompile c = scenario(0, new int[]{3}, new int[]{1});
+
+        cache.resoudre("Insertion", solveur, a, OPTIONS);
+        cache.resoudre("Insertion", solveur, b, OPTIONS);
+        cache.resoudre("Insertion", solveur, a, OPTIONS);
+        cache.resoudre("Insertion", solveur, c, OPTIONS);
+        assertEquals(3, nbResolutions.get());
+        assertEquals(1, cache.getStatistiques().nbEvictions);
+
+        cache.resoudre("Insertion", solveur, a, OPTIONS);
+        cache.resoudre("Insertion", solveur, b, OPTIONS);
+        assertEquals(4, nbResolutions.get());
+
+        Solveur annule = (scenario, o) -> new ResultatResolution(ResultatResolution.Statut.ANNULE, List.of(), 0, 0);
+        cache.resoudre("Annulé", annule, a, OPTIONS);
+        assertEquals(2, cache.getStatistiques().taille);
+    }
+
+    @Test
+    void resultatsDependantsDuDelaiNonGardes() throws Exception {
+        CacheResultats cache = new CacheResultats(8);
+        ScenarioCompile scenario = scenario(0, new int[]{1, 2}, new int[]{2, 3});
+        OptionsResolution avecDelai = OptionsResolution.parDefaut().avecDelaiMs(1_000);
+        Solveur coupe = (s, o) -> {
+            nbResolutions.incrementAndGet();
+            ResultatResolution resultat = Solveurs.INSERTION.resoudre(s, o);
+            return new ResultatResolution(ResultatResolution.Statut.BUDGET_EPUISE, resultat.solutions, 0, 0);
+        };
+        Solveur optimal = (s, o) -> {
+            nbResolutions.incrementAndGet();
+            ResultatResolution resultat = Solveurs.INSERTION.resoudre(s, o);
+            return new ResultatResolution(ResultatResolution.Statut.OPTIMAL, resultat.solutions, 0, 0);
+        };
+
+        cache.resoudre("Insertion", solveur, scenario, avecDelai);
+        cache.resoudre("Insertion", solveur, scenario, avecDelai);
+        cache.resoudre("Coupé", coupe, scenario, OPTIONS);
+        cache.resoudre("Coupé", coupe, scenario, OPTIONS);
+        assertEquals(4, nbResolutions.get());
+        assertEquals(0, cache.getStatistiques().taille);
+
+        // Une preuve d'optimalité ne dépend pas du délai
+        cache.resoudre("Optimal", optimal, scenario, avecDelai);
+        cache.resoudre("Optimal", optimal, scenario, avecDelai);
+        assertEquals(5, nbResolutions.get());
+        assertEquals(1, cache.getStatistiques().taille);
+    }
+
+    @Test
+    void retourAuGloutonOuAuTriServiParLeCache() throws Exception {
+        // Comme les vues : heuristiques déterministes, résolues sans délai
+        Extraction extraction = new Extraction();
+        CacheResultats cache = new CacheResultats(8);
+        OptionsResolution sansDelai = OptionsResolution.parDefaut().avecDelaiMs(OptionsResolution.ILLIMITE);
+        for (int numero : new int[]{0, 1, 0}) {
+            ScenarioCompile scenario = ScenarioCompile.compiler(extraction, numero);
+            cache.resoudre("Heuristique glouton", (s, o) -> {
+                nbResolutions.incrementAndGet();
+                return new ResultatResolution(ResultatResolution.Statut.APPROCHE,
+                        List.of(new HeuristiqueGlouton(extraction, numero).genererResumeScenario()), 1, 0);
+            }, scenario, sansDelai);
+            cache.resoudre("Tri topologique", (s, o) -> {
+                nbResolutions.incrementAndGet();
+                return new ResultatResolution(ResultatResolution.Statut.APPROCHE,
+                        List.of(TriTopologique.getResumeScenario(extraction, numero)), 1, 0);
+            }, scenario, sansDelai);
+        }
+
+        assertEquals(4, nbResolutions.get());
+        assertEquals(2, cache.getStatistiques().nbSucces);
+    }
+
+    // Trois villes alignées après Velizy
+    private static ScenarioCompile scenario(int numero, int[] vendeurs, int[] acheteurs) {
+        String[] villes = {"Velizy", "A", "B", "C"};
+        int[][] distances = new int[villes.length][villes.length];
+        for (int a = 0; a < villes.length; a++) {
+            for (int b = 0; b < villes.length; b++) {
+                distances[a][b] = 10 * Math.abs(a - b);
+            }
+        }
+        return new ScenarioCompile(numero, villes, distances, vendeurs, acheteurs);
+    }
+}
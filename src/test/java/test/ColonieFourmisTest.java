@@ -0,0 +1,68 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColonieFourmisTest {
+
+    private ScenarioCompile scenario;
+    private ResumeScenario optimum;
+    private OptionsResolution options;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scenario = ScenarioCompile.compiler(new Extraction(), 5);
+        optimum = new AlgoKSolution(scenario).resoudre(OptionsResolution.parDefaut()).getMeilleure();
+        options = OptionsResolution.parDefaut().avecK(3).avecDelaiMs(OptionsResolution.ILLIMITE);
+    }
+
+    @Test
+    void resoudreRetrouveLOptimumDUnPetitScenario() {
+        ColonieFourmis colonie = colonieSansRechercheLocale();
+        ResultatResolution resultat = colonie.resoudre(options.avecParallelisme(1));
+
+        assertEquals(ResultatResolution.Statut.APPROCHE, resultat.statut);
+        assertEquals(100, colonie.getNbIterations());
+        assertEquals(1000, resultat.nbCalculs);
+        assertTrue(scenario.estOrdreValide(colonie.getOrdre()));
+        assertEquals(optimum.distanceTotale, resultat.getMeilleure().distanceTotale);
+        assertEquals(3, resultat.solutions.size());
+        for (int i = 1; i < resultat.solutions.size(); i++) {
+            assertTrue(resultat.solutions.get(i - 1).distanceTotale <= resultat.solutions.get(i).distanceTotale);
+        }
+    }
+
+    @Test
+    void pheromonesBornees() {
+        ColonieFourmis colonie = colonieSansRechercheLocale();
+        colonie.resoudre(options.avecParallelisme(1));
+
+        // τmax = 1 / (évaporation × meilleure distance)
+        double tauMax = 1.0 / (ColonieFourmis.EVAPORATION * optimum.distanceTotale);
+        for (int a = 0; a < scenario.nbVilles(); a++) {
+            for (int b = 0; b < scenario.nbVilles(); b++) {
+                assertTrue(colonie.pheromone(a, b) > 0);
+                assertTrue(colonie.pheromone(a, b) <= tauMax + 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void memeResultatQuelQueSoitLeParallelisme() {
+        ResultatResolution resultat = colonieSansRechercheLocale().resoudre(options.avecParallelisme(1));
+        ResultatResolution parallele = colonieSansRechercheLocale().resoudre(options.avecParallelisme(4));
+
+        for (int i = 0; i < resultat.solutions.size(); i++) {
+            assertEquals(resultat.solutions.get(i).ordreVisite, parallele.solutions.get(i).ordreVisite);
+        }
+    }
+
+    private ColonieFourmis colonieSansRechercheLocale() {
+        ColonieFourmis colonie = new ColonieFourmis(scenario, 42, 10, 100);
+        colonie.setRechercheLocale(false);
+        return colonie;
+    }
+}
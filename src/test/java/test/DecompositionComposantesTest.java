@@ -0,0 +1,142 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecompositionComposantesTest {
+
+    private Extraction extraction;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            extraction = new Extraction();
+        } catch (Exception e) {
+            extraction = null;
+        }
+    }
+
+    @Test
+    void composantesCouvrentToutesLesVillesSansLienEntreElles() throws Exception {
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 0);
+
+        int[][] composantes = DecompositionComposantes.composantes(scenario);
+
+        assertEquals(5, composantes.length);
+        int[] composanteDeVille = new int[scenario.nbVilles()];
+        int nbVilles = 0;
+        for (int c = 0; c < composantes.length; c++) {
+            for (int ville : composantes[c]) {
+                composanteDeVille[ville] = c;
+                nbVilles++;
+            }
+        }
+        assertEquals(scenario.nbVilles() - 1, nbVilles);
+        for (int sommet = 0; sommet < scenario.nbSommets(); sommet++) {
+            for (int predecesseur : scenario.predecesseurs(sommet)) {
+                assertEquals(composanteDeVille[scenario.villeDuSommet(sommet)],
+                        composanteDeVille[scenario.villeDuSommet(predecesseur)]);
+            }
+        }
+    }
+
+    @Test
+    void scenarioConnexeDonneUneSeuleComposante() throws Exception {
+        assertEquals(1, DecompositionComposantes.composantes(ScenarioCompile.compiler(extraction, 6)).length);
+    }
+
+    @Test
+    void resoudreDonneUnOrdreValidePourChaqueScenario() throws Exception {
+        Solveur decomposition = new DecompositionComposantes(Solveurs.A_ETOILE);
+        OptionsResolution options = OptionsResolution.parDefaut().avecDelaiMs(300).avecParallelisme(2);
+        for (int numero = 0; numero < extraction.getScenarios().size(); numero++) {
+            ScenarioCompile scenario = ScenarioCompile.compiler(extraction, numero);
+
+            ResumeScenario resume = decomposition.resoudre(scenario, options).getMeilleure();
+
+            assertTrue(scenario.estOrdreValide(scenario.versOrdre(resume.ordreVisite)), "Scénario " + numero);
+            assertEquals(longueur(scenario, resume.ordreVisite), resume.distanceTotale, "Scénario " + numero);
+        }
+    }
+
+    // versOrdre place les deux sommets d'une ville dès sa première visite : pour un parcours qui
+    // repasse par une ville, le coût de l'ordre reconstruit n'est pas celui du parcours
+    private static int longueur(ScenarioCompile scenario, List<String> parcours) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int ville = 0; ville < scenario.nbVilles(); ville++) {
+            index.put(scenario.nomVilleIndex(ville), ville);
+        }
+        int longueur = 0;
+        for (int i = 1; i < parcours.size(); i++) {
+            longueur += scenario.distance(index.get(parcours.get(i - 1)), index.get(parcours.get(i)));
+        }
+        return longueur;
+    }
+
+    @Test
+    void composantesSePartagentLeDelai() throws Exception {
+        // Scénario 3 : trop gros pour être résolu exactement d'un bloc
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 3);
+        List<Long> delais = new ArrayList<>();
+        Solveur enregistreur = (sous, options) -> {
+            synchronized (delais) {
+                delais.add(options.getDelaiMs());
+            }
+            return Solveurs.INSERTION.resoudre(sous, options);
+        };
+
+        new DecompositionComposantes(enregistreur)
+                .resoudre(scenario, OptionsResolution.parDefaut().avecDelaiMs(1_000).avecParallelisme(2));
+
+        // 6 composantes, 2 à la fois : 3 vagues
+        assertEquals(List.of(333L, 333L, 333L, 333L, 333L, 333L), delais);
+    }
+
+    @Test
+    void jamaisMoinsBonQueLInsertion() throws Exception {
+        OptionsResolution options = OptionsResolution.parDefaut().avecDelaiMs(300);
+        for (int numero = 0; numero < extraction.getScenarios().size(); numero++) {
+            ScenarioCompile scenario = ScenarioCompile.compiler(extraction, numero);
+            int insertion = new HeuristiqueInsertion(scenario).genererResumeScenario().distanceTotale;
+
+            ResumeScenario resume = Solveurs.COMPOSANTES.resoudre(scenario, options).getMeilleure();
+
+            assertTrue(resume.distanceTotale <= insertion, "Scénario " + numero + " : " + resume.distanceTotale
+                    + " km contre " + insertion + " km par insertion");
+        }
+    }
+
+    @Test
+    void scenarioResoluExactementNEstPasDecoupe() throws Exception {
+        // Scénario 0 : 5 composantes, mais résolu exactement en quelques dizaines de millisecondes
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 0);
+
+        ResultatResolution resultat = Solveurs.COMPOSANTES.resoudre(scenario, OptionsResolution.parDefaut());
+
+        assertEquals(ResultatResolution.Statut.OPTIMAL, resultat.statut);
+        assertEquals(3840, resultat.getMeilleure().distanceTotale);
+    }
+
+    @Test
+    void sousScenarioGardeLesVentesInternes() throws Exception {
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 5);
+        int[][] composantes = DecompositionComposantes.composantes(scenario);
+
+        List<Integer> ventes = new ArrayList<>();
+        for (int[] composante : composantes) {
+            ScenarioCompile sous = scenario.restreindre(composante);
+            assertEquals(composante.length + 1, sous.nbVilles());
+            assertEquals(scenario.distance(0, composante[0]), sous.distance(0, 1));
+            ventes.add(sous.nbVentes());
+        }
+        assertEquals(scenario.nbVentes(), ventes.stream().mapToInt(Integer::intValue).sum());
+    }
+}
@@ -0,0 +1,116 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecompositionGeographiqueTest {
+
+    private Extraction extraction;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            extraction = new Extraction();
+        } catch (Exception e) {
+            extraction = null;
+        }
+    }
+
+    @Test
+    void groupesCouvrentChaqueVilleUneFois() {
+        ScenarioCompile scenario = scenarioAleatoire(120, 240, 3);
+
+        int[][] groupes = DecompositionGeographique.regrouper(scenario, 12, new SplittableRandom(1));
+
+        assertTrue(groupes.length <= 12);
+        int[] vues = new int[scenario.nbVilles()];
+        for (int[] groupe : groupes) {
+            assertTrue(groupe.length > 0);
+            for (int ville : groupe) {
+                vues[ville]++;
+            }
+        }
+        assertEquals(0, vues[0]);
+        for (int ville = 1; ville < scenario.nbVilles(); ville++) {
+            assertEquals(1, vues[ville], "Ville " + ville);
+        }
+    }
+
+    @Test
+    void groupesRassemblentLesVillesProches() {
+        // Deux amas de villes très éloignés l'un de l'autre
+        ScenarioCompile scenario = scenarioAleatoire(40, 0, 5);
+        int[][] groupes = DecompositionGeographique.regrouper(scenario, 2, new SplittableRandom(2));
+
+        assertEquals(2, groupes.length);
+        for (int[] groupe : groupes) {
+            for (int ville : groupe) {
+                assertEquals(groupe[0] <= 20, ville <= 20, "Ville " + ville);
+            }
+        }
+    }
+
+    @Test
+    void resoudreDonneUnOrdreValideSurUnGrandScenario() throws Exception {
+        ScenarioCompile scenario = scenarioAleatoire(150, 600, 7);
+        Solveur decomposition = new DecompositionGeographique(Solveurs.INSERTION);
+
+        ResumeScenario resume = decomposition.resoudre(scenario, OptionsResolution.parDefaut()).getMeilleure();
+
+        int[] ordre = scenario.versOrdre(resume.ordreVisite);
+        assertEquals(scenario.nbSommets(), ordre.length);
+        assertTrue(scenario.estOrdreValide(ordre));
+        assertTrue(scenario.coutOrdre(ordre) <= resume.distanceTotale);
+    }
+
+    @Test
+    void resoudreDonneUnOrdreValidePourChaqueScenario() throws Exception {
+        Solveur decomposition = new DecompositionGeographique(Solveurs.A_ETOILE, 4, 42);
+        OptionsResolution options = OptionsResolution.parDefaut().avecDelaiMs(300).avecParallelisme(2);
+        for (int numero = 0; numero < extraction.getScenarios().size(); numero++) {
+            ScenarioCompile scenario = ScenarioCompile.compiler(extraction, numero);
+
+            ResumeScenario resume = decomposition.resoudre(scenario, options).getMeilleure();
+
+            int[] ordre = scenario.versOrdre(resume.ordreVisite);
+            assertTrue(scenario.estOrdreValide(ordre), "Scénario " + numero);
+        }
+    }
+
+    // Villes réparties en deux amas (la première moitié autour de (0, 0), l'autre autour de (10000, 10000)),
+    // distances euclidiennes arrondies, ventes tirées au hasard entre villes hors dépôt
+    private static ScenarioCompile scenarioAleatoire(int nbVilles, int nbVentes, long graine) {
+        SplittableRandom aleatoire = new SplittableRandom(graine);
+        int n = nbVilles + 1;
+        String[] villes = new String[n];
+        double[] x = new double[n];
+        double[] y = new double[n];
+        villes[0] = "Velizy";
+        for (int ville = 1; ville < n; ville++) {
+            villes[ville] = "V" + ville;
+            double decalage = ville <= nbVilles / 2 ? 0 : 10_000;
+            x[ville] = decalage + aleatoire.nextDouble(1_000);
+            y[ville] = decalage + aleatoire.nextDouble(1_000);
+        }
+        int[][] distances = new int[n][n];
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                distances[a][b] = (int) Math.round(Math.hypot(x[a] - x[b], y[a] - y[b]));
+            }
+        }
+        int[] vendeurs = new int[nbVentes];
+        int[] acheteurs = new int[nbVentes];
+        for (int vente = 0; vente < nbVentes; vente++) {
+            vendeurs[vente] = 1 + aleatoire.nextInt(nbVilles);
+            do {
+                acheteurs[vente] = 1 + aleatoire.nextInt(nbVilles);
+            } while (acheteurs[vente] == vendeurs[vente]);
+        }
+        return new ScenarioCompile(0, villes, distances, vendeurs, acheteurs);
+    }
+}
@@ -0,0 +1,48 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumerateurSolutionsTest {
+
+    private AlgoKSolution algo;
+    private List<ResumeScenario> attendues;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        algo = new AlgoKSolution(new Extraction(), 5);
+        attendues = algo.getKMeilleuresSolutions(5);
+    }
+
+    @Test
+    void commenceParLesKMeilleures() throws Exception {
+        EnumerateurSolutions enumerateur = algo.enumererSolutions();
+
+        for (int i = 0; i < attendues.size(); i++) {
+            assertTrue(enumerateur.hasNext());
+            assertEquals(attendues.get(i).distanceTotale, enumerateur.next().distanceTotale,
+                    "La solution #" + (i + 1) + " devrait avoir la même distance");
+        }
+    }
+
+    @Test
+    void suiteCroissanteSansDoublon() throws Exception {
+        EnumerateurSolutions enumerateur = algo.enumererSolutions();
+
+        int precedente = 0;
+        Set<List<String>> parcours = new HashSet<>();
+        for (ResumeScenario solution : enumerateur.stream().limit(attendues.size() + 20).toList()) {
+            assertTrue(solution.distanceTotale >= precedente, "Les distances doivent être croissantes");
+            assertTrue(parcours.add(solution.ordreVisite), "Parcours en double");
+            precedente = solution.distanceTotale;
+        }
+        assertEquals(attendues.size() + 20, parcours.size());
+    }
+}
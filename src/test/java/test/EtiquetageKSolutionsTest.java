@@ -0,0 +1,33 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EtiquetageKSolutionsTest {
+
+    private AlgoKSolution algo;
+    private OptionsResolution options;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        algo = new AlgoKSolution(new Extraction(), 5);
+        options = OptionsResolution.parDefaut().avecK(5)
+                .avecLimiteCalculs(OptionsResolution.ILLIMITE).avecDelaiMs(OptionsResolution.ILLIMITE);
+    }
+
+    @Test
+    void memesDistancesQuUnBrancheEtBorneSansBudget() throws Exception {
+        ResultatResolution brancheEtBorne = algo.resoudre(options.avecEtiquetage(false));
+        ResultatResolution etiquetage = algo.resoudre(options.avecEtiquetage(true));
+
+        assertEquals(ResultatResolution.Statut.OPTIMAL, etiquetage.statut);
+        assertEquals(brancheEtBorne.solutions.size(), etiquetage.solutions.size());
+        for (int i = 0; i < etiquetage.solutions.size(); i++) {
+            assertEquals(brancheEtBorne.solutions.get(i).distanceTotale, etiquetage.solutions.get(i).distanceTotale,
+                    "La solution #" + (i + 1) + " devrait avoir la même distance");
+        }
+    }
+}
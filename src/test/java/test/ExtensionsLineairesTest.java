@@ -0,0 +1,99 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtensionsLineairesTest {
+
+    private Extraction extraction;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            extraction = new Extraction();
+        } catch (Exception e) {
+            extraction = null;
+        }
+    }
+
+    @Test
+    void compteExactEgalAuDenombrementDesPermutations() throws Exception {
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 1);
+
+        ExtensionsLineaires.Comptage comptage = new ExtensionsLineaires(scenario).compter();
+
+        assertTrue(comptage.exact);
+        assertEquals(BigInteger.valueOf(compterPermutationsValides(scenario)), comptage.nbOrdres);
+    }
+
+    @Test
+    void villesIndependantesDonnentLaFormuleFermee() {
+        // Trois villes sans vente : (2p)! / 2^p = 720 / 8 ordres, 3^3 idéaux
+        int[][] distances = new int[4][4];
+        ScenarioCompile scenario = new ScenarioCompile(0, new String[]{"Velizy", "A", "B", "C"}, distances,
+                new int[0], new int[0]);
+
+        ExtensionsLineaires.Comptage comptage = new ExtensionsLineaires(scenario).compterExactement(1000);
+
+        assertEquals(BigInteger.valueOf(90), comptage.nbOrdres);
+        assertEquals(27, comptage.nbIdeaux);
+        assertEquals("90", comptage.valeur());
+    }
+
+    @Test
+    void estimationProcheDuCompteExact() throws Exception {
+        ExtensionsLineaires extensions = new ExtensionsLineaires(ScenarioCompile.compiler(extraction, 0));
+
+        ExtensionsLineaires.Comptage exact = extensions.compterExactement(ExtensionsLineaires.CAPACITE_IDEAUX_PAR_DEFAUT);
+        ExtensionsLineaires.Comptage estime = extensions.estimer(20_000, 7);
+
+        assertFalse(estime.exact);
+        assertEquals(exact.log10(), estime.log10(), 0.05);
+        assertTrue(estime.erreurRelative > 0 && estime.erreurRelative < 0.1);
+    }
+
+    @Test
+    void capaciteDepasseeRendNull() throws Exception {
+        ExtensionsLineaires extensions = new ExtensionsLineaires(ScenarioCompile.compiler(extraction, 0));
+
+        assertNull(extensions.compterExactement(100));
+    }
+
+    @Test
+    void grandScenarioEstime() throws Exception {
+        ExtensionsLineaires.Comptage comptage = new ExtensionsLineaires(ScenarioCompile.compiler(extraction, 6)).compter();
+
+        assertFalse(comptage.exact);
+        assertTrue(comptage.log10() > 40);
+        assertTrue(comptage.toString().startsWith("environ"));
+        assertTrue(comptage.valeur().startsWith("environ") && comptage.valeur().endsWith("%)"));
+    }
+
+    private static long compterPermutationsValides(ScenarioCompile scenario) {
+        return compter(scenario, new boolean[scenario.nbSommets()], 0);
+    }
+
+    private static long compter(ScenarioCompile scenario, boolean[] places, int nbPlaces) {
+        if (nbPlaces == places.length) {
+            return 1;
+        }
+        long total = 0;
+        for (int sommet = 0; sommet < places.length; sommet++) {
+            boolean placable = !places[sommet];
+            for (int predecesseur : scenario.predecesseurs(sommet)) {
+                placable &= places[predecesseur];
+            }
+            if (placable) {
+                places[sommet] = true;
+                total += compter(scenario, places, nbPlaces + 1);
+                places[sommet] = false;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,55 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GloutonMultiDepartTest {
+
+    private ScenarioCompile scenario;
+    private OptionsResolution options;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scenario = ScenarioCompile.compiler(new Extraction(), 0);
+        options = OptionsResolution.parDefaut().avecK(3).avecDelaiMs(OptionsResolution.ILLIMITE);
+    }
+
+    @Test
+    void memeResultatQuelQueSoitLeParallelisme() {
+        ResultatResolution resultat = new GloutonMultiDepart(scenario, 42, 200, 0.2)
+                .resoudre(options.avecParallelisme(1));
+        ResultatResolution parallele = new GloutonMultiDepart(scenario, 42, 200, 0.2)
+                .resoudre(options.avecParallelisme(4));
+
+        assertEquals(ResultatResolution.Statut.APPROCHE, resultat.statut);
+        assertEquals(3, resultat.solutions.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(resultat.solutions.get(i).ordreVisite, parallele.solutions.get(i).ordreVisite);
+        }
+        for (ResumeScenario solution : resultat.solutions) {
+            assertTrue(scenario.estOrdreValide(scenario.versOrdre(solution.ordreVisite)));
+        }
+    }
+
+    @Test
+    void statistiquesCoherentesAvecLesDeparts() {
+        GloutonMultiDepart sequentiel = new GloutonMultiDepart(scenario, 42, 200, 0.2);
+        ResultatResolution resultat = sequentiel.resoudre(options.avecParallelisme(1));
+
+        assertEquals(200, sequentiel.getStatistiques().getCount());
+        assertEquals(sequentiel.getStatistiques().getMin(), resultat.getMeilleure().distanceTotale);
+        assertTrue(sequentiel.getStatistiques().getMin() <= sequentiel.getStatistiques().getAverage());
+        assertTrue(sequentiel.getEcartType() >= 0);
+    }
+
+    @Test
+    void alphaNulRefaitLeGloutonDeterministe() {
+        GloutonMultiDepart glouton = new GloutonMultiDepart(scenario, 7, 10, 0);
+        glouton.resoudre(options);
+
+        assertEquals(glouton.getStatistiques().getMin(), glouton.getStatistiques().getMax());
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -63,7 +64,7 @@ class HeuristiqueGloutonTest {
     @Test
     void parcoursGloutonCommenceParVelizy() {
         try {
-            List<String> parcours = HeuristiqueGlouton.parcoursGlouton();
+            List<String> parcours = heuristique.parcoursGlouton();
             assertFalse(parcours.isEmpty());
             assertEquals("Velizy", parcours.get(0));
         } catch (Exception e) {
@@ -74,7 +75,7 @@ class HeuristiqueGloutonTest {
     @Test
     void parcoursGloutonFinitParVelizy() {
         try {
-            List<String> parcours = HeuristiqueGlouton.parcoursGlouton();
+            List<String> parcours = heuristique.parcoursGlouton();
             assertFalse(parcours.isEmpty());
             assertEquals("Velizy", parcours.get(parcours.size() - 1));
         } catch (Exception e) {
@@ -85,7 +86,7 @@ class HeuristiqueGloutonTest {
     @Test
     void parcoursGloutonRetourneParcoursNonVide() {
         try {
-            List<String> parcours = HeuristiqueGlouton.parcoursGlouton();
+            List<String> parcours = heuristique.parcoursGlouton();
             assertNotNull(parcours);
             assertFalse(parcours.isEmpty());
         } catch (Exception e) {
@@ -96,7 +97,7 @@ class HeuristiqueGloutonTest {
     @Test
     void calculDistanceAvecParcoursVide() {
         try {
-            int distance = HeuristiqueGlouton.calculDistance(new ArrayList<>());
+            int distance = heuristique.calculDistance(new ArrayList<>());
             assertEquals(0, distance);
         } catch (Exception e) {
             fail("Exception inattendue: " + e.getMessage());
@@ -107,7 +108,7 @@ class HeuristiqueGloutonTest {
     void calculDistanceAvecUneVille() {
         try {
             List<String> parcours = Collections.singletonList("Velizy");
-            int distance = HeuristiqueGlouton.calculDistance(parcours);
+            int distance = heuristique.calculDistance(parcours);
             assertEquals(0, distance);
         } catch (Exception e) {
             fail("Exception inattendue: " + e.getMessage());
@@ -118,7 +119,7 @@ class HeuristiqueGloutonTest {
     void calculDistanceAvecDeuxVillesIdentiques() {
         try {
             List<String> parcours = Arrays.asList("Velizy", "Velizy");
-            int distance = HeuristiqueGlouton.calculDistance(parcours);
+            int distance = heuristique.calculDistance(parcours);
             assertEquals(0, distance);
         } catch (Exception e) {
             fail("Exception inattendue: " + e.getMessage());
@@ -128,8 +129,8 @@ class HeuristiqueGloutonTest {
     @Test
     void calculDistanceAvecParcoursValide() {
         try {
-            List<String> parcours = HeuristiqueGlouton.parcoursGlouton();
-            int distance = HeuristiqueGlouton.calculDistance(parcours);
+            List<String> parcours = heuristique.parcoursGlouton();
+            int distance = heuristique.calculDistance(parcours);
             assertTrue(distance >= 0);
         } catch (Exception e) {
             fail("Exception inattendue: " + e.getMessage());
@@ -139,7 +140,7 @@ class HeuristiqueGloutonTest {
     @Test
     void genererResumeScenarioRetourneObjetValide() {
         try {
-            ResumeScenario resume = HeuristiqueGlouton.genererResumeScenario(0);
+            ResumeScenario resume = heuristique.genererResumeScenario();
 
             assertNotNull(resume);
             assertEquals(0, resume.numeroScenario);
@@ -151,6 +152,35 @@ class HeuristiqueGloutonTest {
     }
 
 
+    @Test
+    void resolutionsSimultaneesIndependantes() {
+        try {
+            HeuristiqueGlouton scenario0 = new HeuristiqueGlouton(extraction, 0);
+            HeuristiqueGlouton scenario7 = new HeuristiqueGlouton(extraction, 7);
+            int attendu0 = scenario0.genererResumeScenario().distanceTotale;
+            int attendu7 = scenario7.genererResumeScenario().distanceTotale;
+
+            // Une construction ou une résolution ne modifie pas les autres instances
+            List<Callable<Boolean>> taches = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                taches.add(() -> scenario0.genererResumeScenario().distanceTotale == attendu0);
+                taches.add(() -> new HeuristiqueGlouton(extraction, 7).genererResumeScenario().distanceTotale == attendu7);
+            }
+            ExecutorService executeur = Executors.newFixedThreadPool(4);
+            try {
+                for (Future<Boolean> resultat : executeur.invokeAll(taches)) {
+                    assertTrue(resultat.get());
+                }
+            } finally {
+                executeur.shutdown();
+            }
+            assertEquals(0, scenario0.genererResumeScenario().numeroScenario);
+            assertEquals(attendu0, scenario0.genererResumeScenario().distanceTotale);
+        } catch (Exception e) {
+            fail("Exception inattendue: " + e.getMessage());
+        }
+    }
+
     @Test
     void commandeToStringFormatCorrect() {
         HeuristiqueGlouton.Commande commande = new HeuristiqueGlouton.Commande(
@@ -0,0 +1,80 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeuristiqueInsertionTest {
+
+    private Extraction extraction;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            extraction = new Extraction();
+        } catch (Exception e) {
+            extraction = null;
+        }
+    }
+
+    @Test
+    void construireDonneOrdreValidePourChaqueScenario() {
+        try {
+            for (int numero = 0; numero < extraction.getScenarios().size(); numero++) {
+                ScenarioCompile scenario = ScenarioCompile.compiler(extraction, numero);
+                int[] ordre = new HeuristiqueInsertion(scenario).construire();
+
+                assertEquals(scenario.nbSommets(), ordre.length);
+                assertTrue(scenario.estOrdreValide(ordre), "Scénario " + numero);
+            }
+        } catch (Exception e) {
+            fail("Exception inattendue: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void genererResumeScenarioRetourneObjetValide() {
+        try {
+            ResumeScenario resume = HeuristiqueInsertion.genererResumeScenario(extraction, 0);
+
+            assertNotNull(resume);
+            assertEquals(0, resume.numeroScenario);
+            assertEquals("Velizy", resume.ordreVisite.get(0));
+            assertEquals("Velizy", resume.ordreVisite.get(resume.ordreVisite.size() - 1));
+            assertTrue(resume.distanceTotale > 0);
+        } catch (Exception e) {
+            fail("Exception inattendue: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void insertionTrouveOptimumPetitScenario() {
+        try {
+            // Scénario 1 : 3 villes, optimum 1724 km
+            ResumeScenario resume = HeuristiqueInsertion.genererResumeScenario(extraction, 1);
+            assertEquals(1724, resume.distanceTotale);
+        } catch (Exception e) {
+            fail("Exception inattendue: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void insertionPlusCourteQueGloutonGrandScenario() {
+        try {
+            // Scénario 7 : le glouton finit par de longs retours en arrière
+            ResumeScenario glouton = new HeuristiqueGlouton(extraction, 7).genererResumeScenario();
+            ResumeScenario insertion = HeuristiqueInsertion.genererResumeScenario(extraction, 7);
+
+            assertTrue(insertion.distanceTotale < glouton.distanceTotale);
+        } catch (Exception e) {
+            fail("Exception inattendue: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void genererResumeScenarioAvecScenarioInexistant() {
+        assertThrows(Exception.class, () -> HeuristiqueInsertion.genererResumeScenario(extraction, 999));
+    }
+}
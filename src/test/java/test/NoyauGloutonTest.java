@@ -0,0 +1,75 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoyauGloutonTest {
+
+    // Velizy (0) et trois villes sur une ligne : 0 — 1 — 2 — 3, à 10 km d'écart
+    private static final int[][] LIGNE = {
+            {0, 10, 20, 30},
+            {10, 0, 10, 20},
+            {20, 10, 0, 10},
+            {30, 20, 10, 0}
+    };
+
+    @Test
+    void parcoursSansCommandeResteAVelizy() {
+        int[] parcours = new NoyauGlouton(LIGNE, new int[0], new int[0]).parcours();
+        assertArrayEquals(new int[]{0}, parcours);
+    }
+
+    @Test
+    void parcoursRamasseAvantDeLivrer() {
+        // 3 vend à 1 : il faut aller jusqu'à 3 avant de revenir à 1
+        int[] parcours = new NoyauGlouton(LIGNE, new int[]{3}, new int[]{1}).parcours();
+        assertArrayEquals(new int[]{0, 3, 1, 0}, parcours);
+    }
+
+    @Test
+    void parcoursVaAuPlusProche() {
+        // 1 vend à 3 et 2 vend à 1 : 1, puis 2 (plus proche que 3), puis 3 et 1 à égale
+        // distance, départagés par l'ordre des commandes
+        int[] parcours = new NoyauGlouton(LIGNE, new int[]{1, 2}, new int[]{3, 1}).parcours();
+        assertArrayEquals(new int[]{0, 1, 2, 3, 1, 0}, parcours);
+    }
+
+    @Test
+    void egaliteDepartageeParOrdreDesCommandes() {
+        // 1 et 2 à égale distance de Velizy : la première commande décide
+        int[][] distances = {
+                {0, 10, 10},
+                {10, 0, 5},
+                {10, 5, 0}
+        };
+        assertArrayEquals(new int[]{0, 2, 1, 2, 0},
+                new NoyauGlouton(distances, new int[]{2, 1}, new int[]{1, 2}).parcours());
+        assertArrayEquals(new int[]{0, 1, 2, 1, 0},
+                new NoyauGlouton(distances, new int[]{1, 2}, new int[]{2, 1}).parcours());
+    }
+
+    @Test
+    void parcoursIdentiqueAHeuristiqueGlouton() {
+        try {
+            Extraction extraction = new Extraction();
+            HeuristiqueGlouton heuristique = new HeuristiqueGlouton(extraction, 0);
+            List<String> parcours = heuristique.parcoursGlouton();
+
+            assertEquals("Velizy", parcours.get(0));
+            assertEquals("Velizy", parcours.get(parcours.size() - 1));
+            assertEquals(4027, heuristique.calculDistance(parcours));
+        } catch (Exception e) {
+            fail("Exception inattendue: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void longueursDifferentesRefusees() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new NoyauGlouton(LIGNE, new int[]{1}, new int[0]));
+    }
+}
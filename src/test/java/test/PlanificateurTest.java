@@ -0,0 +1,78 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanificateurTest {
+
+    private Extraction extraction;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            extraction = new Extraction();
+        } catch (Exception e) {
+            extraction = null;
+        }
+    }
+
+    @Test
+    void estimationCroitAvecLaTailleDuScenario() throws Exception {
+        Planificateur.Estimation petit = Planificateur.estimer(ScenarioCompile.compiler(extraction, 1));
+        Planificateur.Estimation grand = Planificateur.estimer(ScenarioCompile.compiler(extraction, 6));
+
+        assertEquals(6, petit.nbSommets);
+        assertTrue(petit.log10Etats < grand.log10Etats);
+        assertTrue(grand.densite > 0 && grand.densite <= 1);
+    }
+
+    @Test
+    void petitScenarioResoluExactement() throws Exception {
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 1);
+        Planificateur planificateur = new Planificateur();
+        OptionsResolution options = OptionsResolution.parDefaut().avecK(3);
+
+        Planificateur.Plan plan = planificateur.planifier(scenario, options);
+        ResultatResolution resultat = planificateur.resoudre(scenario, options);
+
+        assertEquals(Planificateur.Mode.EXACT, plan.mode);
+        assertTrue(resultat.estOptimal());
+        assertEquals(1724, resultat.getMeilleure().distanceTotale);
+    }
+
+    @Test
+    void grandScenarioDonneUneSolutionDansLeDelai() throws Exception {
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 6);
+        Planificateur planificateur = new Planificateur();
+        OptionsResolution options = OptionsResolution.parDefaut().avecDelaiMs(300);
+
+        Planificateur.Plan plan = planificateur.planifier(scenario, options);
+        ResultatResolution resultat = planificateur.resoudre(scenario, options);
+
+        assertEquals(Planificateur.Mode.ANYTIME, plan.mode);
+        assertNotNull(resultat.getMeilleure());
+        assertTrue(scenario.estOrdreValide(scenario.versOrdre(resultat.getMeilleure().ordreVisite)));
+        assertTrue(resultat.dureeMs < 300 + Portefeuille.GRACE_MS + 500);
+    }
+
+    @Test
+    void delaiTresCourtDonneUneHeuristique() throws Exception {
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 7);
+        OptionsResolution options = OptionsResolution.parDefaut().avecDelaiMs(1);
+
+        Planificateur.Plan plan = new Planificateur().planifier(scenario, options);
+        ResultatResolution resultat = plan.solveur.resoudre(scenario, plan.options);
+
+        assertEquals(Planificateur.Mode.HEURISTIQUE, plan.mode);
+        assertNotNull(resultat.getMeilleure());
+    }
+
+    @Test
+    void coutsParEtatPositifs() {
+        assertThrows(IllegalArgumentException.class, () -> new Planificateur(0, 50));
+        assertThrows(IllegalArgumentException.class, () -> new Planificateur(500, Double.NaN));
+    }
+}
@@ -0,0 +1,110 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortefeuilleTest {
+
+    private ScenarioCompile scenario;
+    private OptionsResolution options;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scenario = ScenarioCompile.compiler(new Extraction(), 5);
+        options = OptionsResolution.parDefaut().avecK(2).avecDelaiMs(5_000);
+    }
+
+    @Test
+    void arretDesQueKSolutionsSontProuvees() throws Exception {
+        Map<String, Solveur> solveurs = new LinkedHashMap<>();
+        solveurs.put("Insertion", Solveurs.INSERTION);
+        solveurs.put("K solutions", Solveurs.K_SOLUTIONS);
+        Portefeuille.Course course = new Portefeuille(solveurs).courir(scenario, options);
+        ResultatResolution resultat = course.getResultat();
+
+        assertEquals(ResultatResolution.Statut.OPTIMAL, resultat.statut);
+        assertEquals(3508, resultat.getMeilleure().distanceTotale);
+        assertEquals(2, resultat.solutions.size());
+        assertTrue(course.getResultats().get(course.getGagnant()).solutions.contains(resultat.getMeilleure()));
+    }
+
+    @Test
+    void aEtoileNeProuvePasKSolutions() throws Exception {
+        // A* ignore K : son unique solution optimale ne prouve pas la deuxième
+        Map<String, Solveur> solveurs = new LinkedHashMap<>();
+        solveurs.put("A*", Solveurs.A_ETOILE);
+        solveurs.put("Insertion", Solveurs.INSERTION);
+        ResultatResolution resultat = new Portefeuille(solveurs).resoudre(scenario, options);
+
+        assertEquals(ResultatResolution.Statut.APPROCHE, resultat.statut);
+        assertEquals(3508, resultat.getMeilleure().distanceTotale);
+
+        ResultatResolution seul = new Portefeuille(solveurs).resoudre(scenario, options.avecK(1));
+        assertEquals(ResultatResolution.Statut.OPTIMAL, seul.statut);
+    }
+
+    @Test
+    void echeanceAnnuleLesPerdantsEtIgnoreLesEchecs() throws Exception {
+        // Un solveur qui ne s'arrête que sur annulation, et un solveur en échec
+        Map<String, Solveur> solveurs = new LinkedHashMap<>();
+        solveurs.put("Insertion", Solveurs.INSERTION);
+        solveurs.put("Attente", (s, o) -> {
+            while (!o.getJeton().estAnnule()) {
+                Thread.onSpinWait();
+            }
+            return new ResultatResolution(ResultatResolution.Statut.ANNULE, List.of(), 0, 0);
+        });
+        solveurs.put("Échec", (s, o) -> {
+            throw new IllegalStateException("échec volontaire");
+        });
+        Portefeuille.Course course = new Portefeuille(solveurs).courir(scenario, options.avecDelaiMs(200));
+
+        assertEquals(ResultatResolution.Statut.BUDGET_EPUISE, course.getResultat().statut);
+        assertEquals("Insertion", course.getGagnant());
+        assertTrue(course.getResultats().containsKey("Attente"));
+        assertFalse(course.getResultats().containsKey("Échec"));
+        assertTrue(course.getResultat().dureeMs < 200 + Portefeuille.GRACE_MS + 1_000);
+    }
+
+    @Test
+    void coursesSimultaneesIndependantes() throws Exception {
+        // Une seule instance partagée par deux appelants, sur deux scénarios différents
+        Map<String, Solveur> solveurs = new LinkedHashMap<>();
+        solveurs.put("K solutions", Solveurs.K_SOLUTIONS);
+        Portefeuille portefeuille = new Portefeuille(solveurs);
+        ScenarioCompile autre = ScenarioCompile.compiler(new Extraction(), 1);
+
+        ExecutorService executeur = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 5; i++) {
+                Future<Portefeuille.Course> premiere = executeur.submit(() -> portefeuille.courir(scenario, options));
+                Future<Portefeuille.Course> seconde = executeur.submit(() -> portefeuille.courir(autre, options));
+
+                assertEquals(3508, premiere.get().getResultat().getMeilleure().distanceTotale);
+                assertEquals(1724, seconde.get().getResultat().getMeilleure().distanceTotale);
+                assertEquals(1, premiere.get().getResultats().size());
+            }
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    @Test
+    void memeResultatQueLAlgorithmeDirect() throws Exception {
+        ResultatResolution direct = Solveurs.K_SOLUTIONS.resoudre(scenario, options);
+
+        assertEquals(ResultatResolution.Statut.OPTIMAL, direct.statut);
+        assertEquals(new AlgoKSolution(new Extraction(), 5).resoudre(options).getMeilleure().distanceTotale,
+                direct.getMeilleure().distanceTotale);
+    }
+}
@@ -0,0 +1,70 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RechercheAEtoileTest {
+
+    private Extraction extraction;
+    private ScenarioCompile scenario;
+    private ResumeScenario optimum;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        extraction = new Extraction();
+        scenario = ScenarioCompile.compiler(extraction, 4);
+        optimum = new AlgoKSolution(scenario).resoudre(OptionsResolution.parDefaut()).getMeilleure();
+    }
+
+    @Test
+    void memeOptimumQueLaRechercheExacte() {
+        ResultatResolution resultat = new RechercheAEtoile(scenario).resoudre(OptionsResolution.parDefaut());
+
+        assertEquals(ResultatResolution.Statut.OPTIMAL, resultat.statut);
+        assertEquals(optimum.distanceTotale, resultat.getMeilleure().distanceTotale);
+    }
+
+    @Test
+    void borneInferieureNeSurestimeJamais() throws Exception {
+        // Une borne qui surestime ferait rendre à A* une solution plus longue que l'optimum
+        int[] numeros = {0, 1, 5, 8};
+        int[] optima = {3840, 1724, 3508, 4882};
+        for (int i = 0; i < numeros.length; i++) {
+            ScenarioCompile autre = ScenarioCompile.compiler(extraction, numeros[i]);
+
+            ResultatResolution resultat = new RechercheAEtoile(autre).resoudre(OptionsResolution.parDefaut());
+            assertEquals(ResultatResolution.Statut.OPTIMAL, resultat.statut, "Scénario " + numeros[i]);
+            assertEquals(optima[i], resultat.getMeilleure().distanceTotale, "Scénario " + numeros[i]);
+        }
+    }
+
+    @Test
+    void faisceauQuandLaMemoireEstEpuisee() {
+        RechercheAEtoile bornee = new RechercheAEtoile(scenario, 100, 8);
+        ResultatResolution approche = bornee.resoudre(OptionsResolution.parDefaut());
+
+        assertEquals(ResultatResolution.Statut.BUDGET_EPUISE, approche.statut);
+        assertTrue(scenario.estOrdreValide(bornee.getOrdre()));
+        assertTrue(approche.getMeilleure().distanceTotale >= optimum.distanceTotale);
+    }
+
+    @Test
+    void faisceauDeRepliBorneParLeDelaiEtLAnnulation() throws Exception {
+        ScenarioCompile grand = ScenarioCompile.compiler(extraction, 6);
+        // Capacité minimale : le faisceau prend le relais dès le premier nœud
+        RechercheAEtoile bornee = new RechercheAEtoile(grand, 1, 256);
+
+        ResultatResolution horsDelai = bornee.resoudre(OptionsResolution.parDefaut().avecDelaiMs(0));
+        assertEquals(ResultatResolution.Statut.BUDGET_EPUISE, horsDelai.statut);
+        assertTrue(grand.estOrdreValide(bornee.getOrdre()));
+
+        JetonAnnulation jeton = new JetonAnnulation();
+        jeton.annuler();
+        ResultatResolution annule = bornee.resoudre(OptionsResolution.parDefaut().avecJeton(jeton));
+        assertEquals(ResultatResolution.Statut.ANNULE, annule.statut);
+        assertTrue(annule.solutions.isEmpty());
+    }
+}
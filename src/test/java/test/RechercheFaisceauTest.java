@@ -0,0 +1,48 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RechercheFaisceauTest {
+
+    private Extraction extraction;
+    private OptionsResolution options;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        extraction = new Extraction();
+        options = OptionsResolution.parDefaut().avecK(3);
+    }
+
+    @Test
+    void faisceauLargeRetrouveLOptimumDUnPetitScenario() throws Exception {
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 5);
+        ResumeScenario optimum = new AlgoKSolution(scenario).resoudre(OptionsResolution.parDefaut()).getMeilleure();
+
+        RechercheFaisceau faisceau = new RechercheFaisceau(scenario, 1000);
+
+        assertEquals(optimum.distanceTotale,
+                faisceau.resoudre(OptionsResolution.parDefaut()).getMeilleure().distanceTotale);
+    }
+
+    @Test
+    void solutionsValidesEtIdentiquesEnParallele() throws Exception {
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 8);
+        RechercheFaisceau faisceau = new RechercheFaisceau(scenario, 50);
+
+        ResultatResolution sequentiel = faisceau.resoudre(options);
+        assertEquals(ResultatResolution.Statut.APPROCHE, sequentiel.statut);
+        assertEquals(3, sequentiel.solutions.size());
+        for (int[] ordre : faisceau.getOrdres()) {
+            assertTrue(scenario.estOrdreValide(ordre));
+        }
+
+        ResultatResolution parallele = faisceau.resoudre(options.avecParallelisme(4));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(sequentiel.solutions.get(i).distanceTotale, parallele.solutions.get(i).distanceTotale);
+        }
+    }
+}
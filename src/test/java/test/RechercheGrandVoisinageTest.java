@@ -0,0 +1,73 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RechercheGrandVoisinageTest {
+
+    private ScenarioCompile scenario;
+    private OptionsResolution options;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scenario = ScenarioCompile.compiler(new Extraction(), 8);
+        options = OptionsResolution.parDefaut().avecDelaiMs(OptionsResolution.ILLIMITE).avecLimiteCalculs(5_000);
+    }
+
+    @Test
+    void resoudreDonneOrdreValideDansLaLimiteDeCalculs() {
+        RechercheGrandVoisinage lns = new RechercheGrandVoisinage(scenario, 42);
+        ResultatResolution resultat = lns.resoudre(options);
+
+        assertEquals(ResultatResolution.Statut.APPROCHE, resultat.statut);
+        assertEquals(5_000, resultat.nbCalculs);
+        assertTrue(scenario.estOrdreValide(lns.getOrdre()));
+    }
+
+    @Test
+    void traceDeConvergenceDecroissante() {
+        RechercheGrandVoisinage lns = new RechercheGrandVoisinage(scenario, 42);
+        ResultatResolution resultat = lns.resoudre(options);
+
+        List<RechercheGrandVoisinage.PointConvergence> trace = lns.getTrace();
+        for (int i = 1; i < trace.size(); i++) {
+            assertTrue(trace.get(i).distance < trace.get(i - 1).distance, "La trace doit décroître");
+        }
+        assertEquals(trace.get(trace.size() - 1).distance, resultat.getMeilleure().distanceTotale);
+    }
+
+    @Test
+    void memeGraineMemeResultat() {
+        ResultatResolution resultat = new RechercheGrandVoisinage(scenario, 42).resoudre(options);
+
+        RechercheGrandVoisinage memeGraine = new RechercheGrandVoisinage(scenario, 42);
+        memeGraine.setAcceptation(RechercheGrandVoisinage.Acceptation.RECUIT_SIMULE);
+        assertEquals(resultat.getMeilleure().distanceTotale,
+                memeGraine.resoudre(options).getMeilleure().distanceTotale);
+    }
+
+    @Test
+    void retrouveLOptimumDUnPetitScenario() throws Exception {
+        // Scénario 5 : 10 sommets, insertion à 4019 km, optimum à 3508 km
+        ScenarioCompile petit = ScenarioCompile.compiler(new Extraction(), 5);
+        RechercheGrandVoisinage lns = new RechercheGrandVoisinage(petit, 42);
+        lns.setDepart(new HeuristiqueInsertion(petit).construire());
+
+        assertEquals(3508, lns.resoudre(options).getMeilleure().distanceTotale);
+    }
+
+    @Test
+    void limiteParDefautNeCoupePasAvantLeDelai() throws Exception {
+        ScenarioCompile petit = ScenarioCompile.compiler(new Extraction(), 5);
+        ResultatResolution resultat = new RechercheGrandVoisinage(petit, 42)
+                .resoudre(OptionsResolution.parDefaut().avecDelaiMs(1_000));
+
+        assertTrue(resultat.dureeMs >= 1_000, "Arrêt après " + resultat.dureeMs + " ms");
+        assertTrue(resultat.nbCalculs > 0);
+    }
+}
@@ -0,0 +1,38 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RechercheLocaleTest {
+
+    private ScenarioCompile scenario;
+    private ResumeScenario depart;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Extraction extraction = new Extraction();
+        scenario = ScenarioCompile.compiler(extraction, 0);
+        depart = TriTopologique.getResumeScenario(extraction, 0);
+    }
+
+    @Test
+    void ameliorerRaccourcitLeTriTopologique() {
+        RechercheLocale rechercheLocale = new RechercheLocale(scenario);
+        int[] ordre = rechercheLocale.ameliorer(scenario.versOrdre(depart.ordreVisite));
+
+        assertTrue(scenario.estOrdreValide(ordre));
+        assertTrue(scenario.coutOrdre(ordre) < depart.distanceTotale, "La recherche locale devrait raccourcir le parcours");
+        assertTrue(rechercheLocale.getNbMouvements() > 0);
+    }
+
+    @Test
+    void ameliorerUnResumeDonneLaMemeDistance() {
+        RechercheLocale rechercheLocale = new RechercheLocale(scenario);
+        int[] ordre = rechercheLocale.ameliorer(scenario.versOrdre(depart.ordreVisite));
+
+        assertEquals(scenario.coutOrdre(ordre), new RechercheLocale(scenario).ameliorer(depart).distanceTotale);
+    }
+}
@@ -0,0 +1,40 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecuitSimuleTest {
+
+    private ScenarioCompile scenario;
+    private ResumeScenario optimum;
+    private OptionsResolution options;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scenario = ScenarioCompile.compiler(new Extraction(), 5);
+        optimum = new AlgoKSolution(scenario).resoudre(OptionsResolution.parDefaut()).getMeilleure();
+        options = OptionsResolution.parDefaut().avecDelaiMs(OptionsResolution.ILLIMITE).avecLimiteCalculs(2_000_000);
+    }
+
+    @Test
+    void resoudreRetrouveLOptimumDUnPetitScenario() {
+        RecuitSimule recuit = new RecuitSimule(scenario, 42);
+        ResultatResolution resultat = recuit.resoudre(options);
+
+        assertEquals(ResultatResolution.Statut.APPROCHE, resultat.statut);
+        assertTrue(scenario.estOrdreValide(recuit.getOrdre()));
+        assertEquals(scenario.coutOrdre(recuit.getOrdre()), resultat.getMeilleure().distanceTotale);
+        assertEquals(optimum.distanceTotale, resultat.getMeilleure().distanceTotale);
+    }
+
+    @Test
+    void memeGraineMemeResultat() {
+        ResultatResolution resultat = new RecuitSimule(scenario, 42).resoudre(options);
+
+        assertEquals(resultat.getMeilleure().distanceTotale,
+                new RecuitSimule(scenario, 42).resoudre(options).getMeilleure().distanceTotale);
+    }
+}
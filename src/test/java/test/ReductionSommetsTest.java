@@ -0,0 +1,119 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReductionSommetsTest {
+
+    private Extraction extraction;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            extraction = new Extraction();
+        } catch (Exception e) {
+            extraction = null;
+        }
+    }
+
+    @Test
+    void villesSansAchatOuSansVenteSontFusionnees() {
+        // A vend à B et C, B vend à C : seule B achète et vend
+        ScenarioCompile scenario = scenarioMetrique(new int[]{1, 1, 2}, new int[]{2, 3, 3});
+
+        assertTrue(ReductionSommets.estFusionnable(scenario, 1));
+        assertFalse(ReductionSommets.estFusionnable(scenario, 2));
+        assertTrue(ReductionSommets.estFusionnable(scenario, 3));
+        ReductionSommets reduction = ReductionSommets.reduire(scenario);
+        assertEquals(2, reduction.getNbVillesFusionnees());
+        assertEquals(4, reduction.getScenarioReduit().nbSommets());
+    }
+
+    @Test
+    void inegaliteTriangulaireNonRespecteeEmpecheLaFusion() {
+        // Passer par A raccourcit le trajet de Velizy à B : déplacer A pourrait allonger le parcours
+        int[][] distances = {
+                {0, 1, 10},
+                {1, 0, 1},
+                {10, 1, 0}};
+        ScenarioCompile scenario = new ScenarioCompile(0, new String[]{"Velizy", "A", "B"}, distances,
+                new int[]{1}, new int[]{2});
+
+        assertFalse(ReductionSommets.estFusionnable(scenario, 1));
+        assertTrue(ReductionSommets.estFusionnable(scenario, 2));
+    }
+
+    @Test
+    void ordreEtenduValideEtDeMemeDistance() throws Exception {
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 0);
+        ReductionSommets reduction = ReductionSommets.reduire(scenario);
+        ScenarioCompile reduit = reduction.getScenarioReduit();
+        assertTrue(reduit.nbSommets() < scenario.nbSommets());
+
+        // Un ordre topologique quelconque du scénario réduit
+        int[] ordreReduit = new int[reduit.nbSommets()];
+        boolean[] places = new boolean[reduit.nbSommets()];
+        for (int position = 0; position < ordreReduit.length; position++) {
+            for (int sommet = reduit.nbSommets() - 1; sommet >= 0; sommet--) {
+                boolean placable = !places[sommet];
+                for (int predecesseur : reduit.predecesseurs(sommet)) {
+                    placable &= places[predecesseur];
+                }
+                if (placable) {
+                    places[sommet] = true;
+                    ordreReduit[position] = sommet;
+                    break;
+                }
+            }
+        }
+
+        int[] ordre = reduction.etendre(ordreReduit);
+        assertTrue(scenario.estOrdreValide(ordre));
+        assertEquals(reduit.coutOrdre(ordreReduit), scenario.coutOrdre(ordre));
+    }
+
+    @Test
+    void ordreReduitValideEtPasPlusLong() throws Exception {
+        ScenarioCompile scenario = ScenarioCompile.compiler(extraction, 3);
+        ReductionSommets reduction = ReductionSommets.reduire(scenario);
+        ScenarioCompile reduit = reduction.getScenarioReduit();
+        int[] ordre = new HeuristiqueInsertion(scenario).construire();
+
+        int[] ordreReduit = reduction.reduireOrdre(ordre);
+
+        assertTrue(reduit.estOrdreValide(ordreReduit));
+        assertTrue(reduit.coutOrdre(ordreReduit) <= scenario.coutOrdre(ordre));
+    }
+
+    @Test
+    void meilleureSolutionInchangeeParLaReduction() throws Exception {
+        OptionsResolution options = OptionsResolution.parDefaut().avecEtiquetage(false)
+                .avecLimiteCalculs(OptionsResolution.ILLIMITE);
+        for (int numero : new int[]{0, 4, 5}) {
+            ScenarioCompile scenario = ScenarioCompile.compiler(extraction, numero);
+
+            ResultatResolution complet = new AlgoKSolution(scenario).resoudre(options.avecReduction(false));
+            ResultatResolution reduit = new AlgoKSolution(scenario).resoudre(options);
+
+            assertEquals(ResultatResolution.Statut.OPTIMAL, reduit.statut);
+            assertEquals(complet.getMeilleure().distanceTotale, reduit.getMeilleure().distanceTotale);
+            assertTrue(reduit.nbCalculs < complet.nbCalculs);
+            assertTrue(scenario.estOrdreValide(scenario.versOrdre(reduit.getMeilleure().ordreVisite)));
+        }
+    }
+
+    // Villes alignées tous les 10 km après Velizy : les distances respectent l'inégalité triangulaire
+    private static ScenarioCompile scenarioMetrique(int[] vendeurs, int[] acheteurs) {
+        String[] villes = {"Velizy", "A", "B", "C"};
+        int[][] distances = new int[villes.length][villes.length];
+        for (int a = 0; a < villes.length; a++) {
+            for (int b = 0; b < villes.length; b++) {
+                distances[a][b] = 10 * Math.abs(a - b);
+            }
+        }
+        return new ScenarioCompile(0, villes, distances, vendeurs, acheteurs);
+    }
+}
@@ -0,0 +1,91 @@
+package test;
+
+import modele.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResolutionParLotsTest {
+
+    private Extraction extraction;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            extraction = new Extraction();
+        } catch (Exception e) {
+            extraction = null;
+        }
+    }
+
+    @Test
+    void resoudrePlageDonneUneLigneParScenarioEtAlgorithme() {
+        try {
+            ResolutionParLots lot = new ResolutionParLots(extraction, 4)
+                    .ajouter("Glouton", (e, numero) -> new HeuristiqueGlouton(e, numero).genererResumeScenario())
+                    .ajouter("Insertion", HeuristiqueInsertion::genererResumeScenario);
+            List<ResolutionParLots.Ligne> lignes = lot.resoudre(0, 2);
+
+            assertEquals(6, lignes.size());
+            int i = 0;
+            for (int numero = 0; numero <= 2; numero++) {
+                for (String algorithme : List.of("Glouton", "Insertion")) {
+                    ResolutionParLots.Ligne ligne = lignes.get(i++);
+                    assertEquals(numero, ligne.numeroScenario);
+                    assertEquals(algorithme, ligne.algorithme);
+                    assertTrue(ligne.estReussie());
+                    assertTrue(ligne.distance > 0);
+                    assertTrue(ligne.dureeMs >= 0);
+                }
+            }
+            assertEquals(HeuristiqueInsertion.genererResumeScenario(extraction, 1).distanceTotale, lignes.get(3).distance);
+        } catch (Exception e) {
+            fail("Exception inattendue: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void erreurNoteeSansArreterLeLot() {
+        try {
+            ResolutionParLots lot = new ResolutionParLots(extraction, 2)
+                    .ajouter("Échec", (e, numero) -> {
+                        throw new Exception("échec volontaire");
+                    })
+                    .ajouter("Insertion", HeuristiqueInsertion::genererResumeScenario);
+            List<ResolutionParLots.Ligne> lignes = lot.resoudre();
+
+            assertEquals(2 * lot.scenarios().size(), lignes.size());
+            for (ResolutionParLots.Ligne ligne : lignes) {
+                if (ligne.algorithme.equals("Échec")) {
+                    assertFalse(ligne.estReussie());
+                    assertEquals("échec volontaire", ligne.erreur);
+                    assertEquals(-1, ligne.distance);
+                } else {
+                    assertTrue(ligne.estReussie());
+                }
+            }
+        } catch (Exception e) {
+            fail("Exception inattendue: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void tableauContientEnTetesEtDistances() {
+        try {
+            List<ResolutionParLots.Ligne> lignes = new ResolutionParLots(extraction, 1)
+                    .ajouter("Insertion", HeuristiqueInsertion::genererResumeScenario)
+                    .resoudre(1, 1);
+            String tableau = ResolutionParLots.tableau(lignes);
+
+            assertTrue(tableau.contains("Scénario"));
+            assertTrue(tableau.contains("Insertion"));
+            assertTrue(tableau.contains(lignes.get(0).distance + " km"));
+            assertEquals(3, tableau.split("\n").length);
+        } catch (Exception e) {
+            fail("Exception inattendue: " + e.getMessage());
+        }
+    }
+}